@@ -0,0 +1,42 @@
+-- 메시지 ID 방식 비교 (UUIDv4 임의값 vs UUIDv7 시간순) - 스테이징/로컬 DB 전용
+-- chat_messages 와 같은 varchar(36) PK 에 같은 건수를 넣고 INSERT 시간과 인덱스 크기를 비교
+-- psql 에서 \timing on 후 실행
+
+\timing on
+
+-- UUIDv7 문자열 생성 (MessageIds.newId() 와 같은 레이아웃, 카운터 대신 임의 12비트)
+CREATE OR REPLACE FUNCTION bench_uuid_v7(ts timestamptz) RETURNS varchar AS $$
+    SELECT (lpad(to_hex((extract(epoch FROM ts) * 1000)::bigint), 12, '0')
+            || '7' || substr(md5(random()::text), 1, 3)
+            || to_hex(8 + floor(random() * 4)::int) || substr(md5(random()::text), 1, 15)
+           )::uuid::varchar;
+$$ LANGUAGE sql VOLATILE;
+
+DROP TABLE IF EXISTS bench_ids_v4;
+DROP TABLE IF EXISTS bench_ids_v7;
+CREATE TABLE bench_ids_v4 (message_id varchar(36) PRIMARY KEY, chat_room_id bigint, timestamp timestamp);
+CREATE TABLE bench_ids_v7 (message_id varchar(36) PRIMARY KEY, chat_room_id bigint, timestamp timestamp);
+
+-- 1,000만 건, 1,000개씩 나눠 넣는 Consumer 배치와 비슷하게 시간순으로 삽입
+INSERT INTO bench_ids_v4
+SELECT gen_random_uuid()::varchar, (g % 1000) + 1, now() + (g || ' milliseconds')::interval
+FROM generate_series(1, 10000000) g;
+
+INSERT INTO bench_ids_v7
+SELECT bench_uuid_v7(now() + (g || ' milliseconds')::interval), (g % 1000) + 1, now() + (g || ' milliseconds')::interval
+FROM generate_series(1, 10000000) g;
+
+-- PK 인덱스 크기 / 밀도 (v7 은 오른쪽 끝에만 삽입되어 leaf 페이지가 꽉 참)
+SELECT 'v4' AS scheme, pg_size_pretty(pg_relation_size('bench_ids_v4_pkey')) AS pk_size
+UNION ALL
+SELECT 'v7', pg_size_pretty(pg_relation_size('bench_ids_v7_pkey'));
+
+CREATE EXTENSION IF NOT EXISTS pgstattuple;
+SELECT 'v4' AS scheme, avg_leaf_density, leaf_fragmentation FROM pgstatindex('bench_ids_v4_pkey')
+UNION ALL
+SELECT 'v7', avg_leaf_density, leaf_fragmentation FROM pgstatindex('bench_ids_v7_pkey');
+
+-- 정리
+DROP TABLE bench_ids_v4;
+DROP TABLE bench_ids_v7;
+DROP FUNCTION bench_uuid_v7(timestamptz);
@@ -0,0 +1,35 @@
+-- 채팅 메시지 커서(keyset) 페이지네이션용 인덱스
+-- /api/chat/rooms/{chatRoomId}/messages/before, /after 조회가 사용
+-- 삭제된 메시지와 타이핑 메시지는 조회 대상이 아니므로 부분 인덱스로 제외
+-- ORDER BY timestamp DESC, message_id DESC 와 같은 방향으로 생성 (after 조회는 역방향 스캔)
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_chat_messages_room_keyset
+    ON chat_messages (chat_room_id, timestamp DESC, message_id DESC)
+    WHERE is_deleted = false
+      AND message_type NOT IN ('TYPING', 'STOP_TYPING');
+
+ANALYZE chat_messages;
+
+-- 실행 계획 확인 (Index Scan using idx_chat_messages_room_keyset, Sort 노드가 없어야 함)
+-- 첫 페이지와 깊은 페이지의 실행 시간이 거의 같아야 함
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT cm.* FROM chat_messages cm
+WHERE cm.chat_room_id = 1
+  AND cm.is_deleted = false
+  AND cm.message_type NOT IN ('TYPING', 'STOP_TYPING')
+ORDER BY cm.timestamp DESC, cm.message_id DESC
+LIMIT 21;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT cm.* FROM chat_messages cm
+WHERE cm.chat_room_id = 1
+  AND cm.is_deleted = false
+  AND cm.message_type NOT IN ('TYPING', 'STOP_TYPING')
+  AND (cm.timestamp, cm.message_id) < (
+      SELECT timestamp, message_id FROM chat_messages
+      WHERE chat_room_id = 1 AND is_deleted = false
+        AND message_type NOT IN ('TYPING', 'STOP_TYPING')
+      ORDER BY timestamp DESC, message_id DESC
+      OFFSET 10000 LIMIT 1)
+ORDER BY cm.timestamp DESC, cm.message_id DESC
+LIMIT 21;
@@ -0,0 +1,59 @@
+-- 메시지 검색(/api/chat/rooms/{id}/search, /api/chat/search)용 trigram 인덱스
+-- lower(content) LIKE '%검색어%' 를 인덱스로 처리 (기존 JPQL 검색도 같은 식이라 그대로 사용)
+-- btree_gin 으로 chat_room_id 를 같은 GIN 인덱스에 넣어 채팅방 조건과 검색어 조건을 한 번에 거름
+-- 주의: 한글 trigram 추출은 DB LC_CTYPE 이 C 가 아닐 때(예: ko_KR.UTF-8, en_US.UTF-8)만 동작
+-- 주의: 3글자 미만 검색어는 trigram 이 없어 chat_room_id 조건만 인덱스로 거르고 나머지는 재검사
+-- 관련도는 word_similarity(검색어, 본문) - 본문 길이와 무관하게 검색어와 가장 비슷한 부분만 비교
+-- 오타 허용 일치(검색어 <% 본문)도 같은 인덱스를 쓰며 임계값은 pg_trgm.word_similarity_threshold (기본 0.6)
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gin;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_chat_messages_room_content_trgm
+    ON chat_messages USING gin (chat_room_id, lower(content) gin_trgm_ops)
+    WHERE is_deleted = false;
+
+ANALYZE chat_messages;
+
+-- 기존 쿼리 (전체 메시지 순차 검사)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT cm.* FROM chat_messages cm
+WHERE cm.chat_room_id = 1
+  AND cm.is_deleted = false
+  AND lower(cm.content) LIKE lower('%' || '결혼식' || '%')
+ORDER BY cm.timestamp DESC;
+
+-- 채팅방 내 검색 (Bitmap Index Scan on idx_chat_messages_room_content_trgm)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.* FROM (
+    SELECT m.*, word_similarity('결혼식', lower(m.content)) AS score
+    FROM chat_messages m
+    WHERE m.chat_room_id = 1
+      AND m.is_deleted = false
+      AND m.message_type NOT IN ('TYPING', 'STOP_TYPING')
+      AND (lower(m.content) LIKE '%결혼식%' OR '결혼식' <% lower(m.content))) r
+ORDER BY r.score DESC, r.timestamp DESC, r.message_id DESC
+LIMIT 21;
+
+-- 참여 중인 채팅방 전체 검색
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.* FROM (
+    SELECT m.*, word_similarity('결혼식', lower(m.content)) AS score
+    FROM chat_messages m
+    WHERE m.chat_room_id IN (SELECT crp.chat_room_id FROM chat_room_participants crp
+                             WHERE crp.user_id = 1 AND crp.is_active = true)
+      AND m.is_deleted = false
+      AND m.message_type NOT IN ('TYPING', 'STOP_TYPING')
+      AND (lower(m.content) LIKE '%결혼식%' OR '결혼식' <% lower(m.content))) r
+ORDER BY r.score DESC, r.timestamp DESC, r.message_id DESC
+LIMIT 21;
+
+-- 벤치마크용 데이터 (스테이징 DB 전용, 운영 DB에서 실행 금지)
+-- 1,000개 채팅방에 1,000만 건을 넣은 뒤 위 EXPLAIN 들을 다시 실행해 기존 쿼리와 비교
+-- INSERT INTO chat_messages (message_id, chat_room_id, sender_id, sender_name, content, message_type,
+--                            timestamp, is_system_message, is_deleted)
+-- SELECT md5(g::text), (g % 1000) + 1, (g % 5000) + 1, 'bench',
+--        (ARRAY['안녕하세요', '결혼식 일정 확인 부탁드려요', '촬영 장소는 어디인가요', '감사합니다 좋은 하루 되세요'])[(g % 4) + 1]
+--            || ' ' || md5(g::text),
+--        'CHAT', now() - (g || ' seconds')::interval, false, false
+-- FROM generate_series(1, 10000000) g;
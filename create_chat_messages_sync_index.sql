@@ -0,0 +1,33 @@
+-- 재접속 동기화(/api/chat/sync)의 삭제된 메시지 조회용 인덱스
+-- 새 메시지 조회는 idx_chat_messages_room_keyset 을 그대로 사용
+-- 삭제된 메시지만 대상으로 하는 부분 인덱스라 크기가 작음
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_chat_messages_room_deleted_at
+    ON chat_messages (chat_room_id, deleted_at)
+    WHERE is_deleted = true;
+
+ANALYZE chat_messages;
+
+-- 실행 계획 확인 (여러 채팅방 커서를 LATERAL 조인으로 한 번에 조회, 채팅방마다 Index Scan + Limit)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT m.* FROM (VALUES
+        (CAST(1 AS bigint), CAST(now() - interval '1 day' AS timestamp), CAST('' AS varchar)),
+        (CAST(2 AS bigint), CAST(now() - interval '1 day' AS timestamp), CAST('' AS varchar))
+    ) AS c(chat_room_id, cursor_ts, cursor_id)
+CROSS JOIN LATERAL (
+    SELECT cm.* FROM chat_messages cm
+    WHERE cm.chat_room_id = c.chat_room_id
+      AND cm.is_deleted = false
+      AND cm.message_type NOT IN ('TYPING', 'STOP_TYPING')
+      AND (cm.timestamp, cm.message_id) > (c.cursor_ts, c.cursor_id)
+    ORDER BY cm.timestamp ASC, cm.message_id ASC
+    LIMIT 21) m
+ORDER BY m.chat_room_id, m.timestamp ASC, m.message_id ASC;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT cm.message_id, cm.chat_room_id, cm.deleted_at FROM chat_messages cm
+WHERE cm.is_deleted = true
+  AND cm.deleted_at > now() - interval '1 day'
+  AND cm.chat_room_id IN (1, 2)
+ORDER BY cm.deleted_at ASC
+LIMIT 501;
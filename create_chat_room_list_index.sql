@@ -0,0 +1,27 @@
+-- 채팅방 목록(/api/chat/rooms/my) 단일 쿼리용 인덱스
+-- 사용자별 활성 참여 채팅방을 인덱스만으로 찾고, 마지막 메시지는 idx_chat_messages_room_keyset 첫 행을 사용
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_chat_room_participants_user_active
+    ON chat_room_participants (user_id, chat_room_id)
+    WHERE is_active = true;
+
+ANALYZE chat_room_participants;
+
+-- 실행 계획 확인 (Nested Loop + 채팅방마다 Limit -> Index Scan using idx_chat_messages_room_keyset)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT cr.chat_room_id, cr.room_name, hu.name, hp.nickname, gu.name, gp.nickname, lm.content, lm.sender_name
+FROM chat_room_participants crp
+JOIN chat_rooms cr ON cr.chat_room_id = crp.chat_room_id
+LEFT JOIN users hu ON cr.room_type = 'PERSONAL' AND hu.user_id = cr.host_user_id
+LEFT JOIN profiles hp ON cr.room_type = 'PERSONAL' AND hp.user_id = cr.host_user_id
+LEFT JOIN users gu ON cr.room_type = 'PERSONAL' AND gu.user_id = cr.guest_user_id
+LEFT JOIN profiles gp ON cr.room_type = 'PERSONAL' AND gp.user_id = cr.guest_user_id
+LEFT JOIN LATERAL (
+    SELECT cm.content, cm.sender_name FROM chat_messages cm
+    WHERE cm.chat_room_id = cr.chat_room_id
+      AND cm.is_deleted = false
+      AND cm.message_type NOT IN ('TYPING', 'STOP_TYPING')
+    ORDER BY cm.timestamp DESC, cm.message_id DESC
+    LIMIT 1) lm ON true
+WHERE crp.user_id = 1 AND crp.is_active = true
+ORDER BY COALESCE(cr.last_active_at, cr.last_message_at, cr.created_at) DESC, cr.chat_room_id DESC;
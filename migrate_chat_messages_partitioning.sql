@@ -0,0 +1,95 @@
+-- chat_messages 월별 Range 파티션 전환 스크립트 (점검 시간에 한 번 실행)
+-- - 파티션 키(timestamp)가 PK에 포함되어야 하므로 PK를 (message_id, timestamp)로 변경
+--   주의: 이후 DB는 message_id 단독 유일성을 보장하지 않음 (timestamp 가 다르면 같은 message_id 가 중복 저장될 수 있음)
+--   - message_id 는 생성 측(MessageIds)의 유일성에만 의존하고, 재전송 시 timestamp 를 바꾸면 안 됨
+--   - ChatMessageBulkRepository 의 ON CONFLICT DO NOTHING 은 (message_id, timestamp) 가 같은 재전송만 걸러냄
+--   - message_id 로만 찾는 조회(findById 등)는 모든 파티션을 검사하고, 중복이 있으면 한 건을 보장하지 않음
+-- - 기존 데이터가 있는 달 ~ 3개월 후까지 파티션을 만들고, 이후 달은 ChatMessagePartitionService 가 자동 생성
+-- - DETACH PARTITION CONCURRENTLY 를 쓰기 위해 DEFAULT 파티션은 만들지 않음
+-- - 오래된 파티션은 chat_messages_archive 로 옮겨짐 (app.chat.partition.archive.enabled)
+
+BEGIN;
+
+ALTER TABLE chat_messages RENAME TO chat_messages_legacy;
+ALTER TABLE chat_messages_legacy RENAME CONSTRAINT chat_messages_pkey TO chat_messages_legacy_pkey;
+
+-- 같은 이름으로 파티션 테이블에 다시 만들 인덱스는 이전 테이블에서 제거
+DROP INDEX IF EXISTS idx_chat_messages_room_keyset;
+DROP INDEX IF EXISTS idx_chat_messages_room_deleted_at;
+DROP INDEX IF EXISTS idx_chat_messages_room_content_trgm;
+
+CREATE TABLE chat_messages (LIKE chat_messages_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (timestamp);
+ALTER TABLE chat_messages ADD CONSTRAINT chat_messages_pkey PRIMARY KEY (message_id, timestamp);
+
+-- 아카이브(콜드) 테이블: 같은 구조, 오래된 월 파티션이 그대로 옮겨와 붙음
+CREATE TABLE IF NOT EXISTS chat_messages_archive (LIKE chat_messages_legacy INCLUDING DEFAULTS INCLUDING CONSTRAINTS)
+    PARTITION BY RANGE (timestamp);
+ALTER TABLE chat_messages_archive ADD CONSTRAINT chat_messages_archive_pkey PRIMARY KEY (message_id, timestamp);
+
+-- 월별 파티션 생성 (이름: chat_messages_pYYYY_MM)
+DO $$
+DECLARE
+    month_start date := date_trunc('month', COALESCE((SELECT min(timestamp) FROM chat_messages_legacy), now()));
+    last_month  date := date_trunc('month', now() + interval '3 months');
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF chat_messages FOR VALUES FROM (%L) TO (%L)',
+                       'chat_messages_p' || to_char(month_start, 'YYYY_MM'),
+                       month_start, month_start + interval '1 month');
+        month_start := month_start + interval '1 month';
+    END LOOP;
+END $$;
+
+INSERT INTO chat_messages SELECT * FROM chat_messages_legacy;
+
+COMMIT;
+
+-- 인덱스 재생성 (부모에 만들면 모든 파티션에 생성되고 이후 파티션에도 자동 적용)
+CREATE INDEX IF NOT EXISTS idx_chat_messages_room_keyset
+    ON chat_messages (chat_room_id, timestamp DESC, message_id DESC)
+    WHERE is_deleted = false
+      AND message_type NOT IN ('TYPING', 'STOP_TYPING');
+
+CREATE INDEX IF NOT EXISTS idx_chat_messages_room_deleted_at
+    ON chat_messages (chat_room_id, deleted_at)
+    WHERE is_deleted = true;
+
+CREATE INDEX IF NOT EXISTS idx_chat_messages_room_content_trgm
+    ON chat_messages USING gin (chat_room_id, lower(content) gin_trgm_ops)
+    WHERE is_deleted = false;
+
+-- 아카이브는 이력 조회(keyset)용 인덱스만 유지 (검색 인덱스는 옮길 때 삭제됨)
+CREATE INDEX IF NOT EXISTS idx_chat_messages_archive_room_keyset
+    ON chat_messages_archive (chat_room_id, timestamp DESC, message_id DESC)
+    WHERE is_deleted = false
+      AND message_type NOT IN ('TYPING', 'STOP_TYPING');
+
+ANALYZE chat_messages;
+
+-- 확인 후 이전 테이블 삭제
+SELECT (SELECT count(*) FROM chat_messages_legacy) AS legacy_rows,
+       (SELECT count(*) FROM chat_messages) AS partitioned_rows;
+-- DROP TABLE chat_messages_legacy;
+
+-- DETACH PARTITION CONCURRENTLY 가 중단되어 분리 대기 상태로 남은 파티션 확인
+-- (ChatMessagePartitionService 가 다음 실행 때 DETACH PARTITION ... FINALIZE 로 마무리)
+SELECT c.relname
+FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+WHERE i.inhparent = 'chat_messages'::regclass AND i.inhdetachpending;
+
+-- 파티션 목록 / 실행 계획 확인 (커서 조회가 해당 월 파티션만 스캔해야 함)
+SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) AS bounds
+FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+WHERE i.inhparent IN ('chat_messages'::regclass, 'chat_messages_archive'::regclass)
+ORDER BY c.relname;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT cm.* FROM chat_messages cm
+WHERE cm.chat_room_id = 1
+  AND cm.is_deleted = false
+  AND cm.message_type NOT IN ('TYPING', 'STOP_TYPING')
+  AND cm.timestamp <= now() - interval '10 days'
+  AND (cm.timestamp, cm.message_id) < (now() - interval '10 days', '')
+ORDER BY cm.timestamp DESC, cm.message_id DESC
+LIMIT 21;
@@ -7,6 +7,7 @@ import org.springframework.boot.autoconfigure.data.elasticsearch.ElasticsearchRe
 import org.springframework.boot.autoconfigure.data.elasticsearch.ReactiveElasticsearchRepositoriesAutoConfiguration;
 import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
 import org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(exclude = {
 		RedisAutoConfiguration.class,
@@ -15,6 +16,7 @@ import org.springframework.boot.autoconfigure.data.redis.RedisRepositoriesAutoCo
 		ElasticsearchRepositoriesAutoConfiguration.class,
 		ReactiveElasticsearchRepositoriesAutoConfiguration.class
 })
+@EnableScheduling
 public class AlbaApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,307 @@
+package wedding.alba.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 🚀 세션별 송신 큐 (WebSocketOutboundStage가 생성)
+ * sendMessage는 큐에 넣고 바로 반환하며, 전송은 송신 스레드에서 한 번에 하나의 드레인 작업만 수행한다.
+ * STOMP MESSAGE 프레임은 destination 헤더로 분류:
+ * - /topic/typing/{id}: destination + senderId 별 최신 프레임만 유지
+ * - /user/queue/unread: 최신 프레임만 유지
+ * - 그 외 MESSAGE: 제한 큐 (초과 시 큐의 MESSAGE 프레임을 모두 버리고 destination별 RESYNC_REQUIRED 전송)
+ * - CONNECTED/RECEIPT/ERROR/하트비트 등 제어 프레임은 버리지 않음 (대신 쌓인 크기가 제한을 넘으면 연결 종료)
+ * 이 데코레이터가 ConcurrentWebSocketSessionDecorator 안쪽에서 바로 반환하므로 그쪽의 송신 시간/버퍼 제한은
+ * 동작하지 않는다. 대신 전송 중 시각을 기록해 두고 WebSocketOutboundStage 가 제한 시간을 넘긴 세션을 닫는다.
+ */
+@Slf4j
+class OutboundQueueSession extends WebSocketSessionDecorator {
+
+    private static final String TYPING_DESTINATION_PREFIX = "/topic/typing/";
+    private static final String UNREAD_DESTINATION_PREFIX = "/user/queue/unread";
+    private static final String SENDER_ID_FIELD = "\"senderId\":";
+
+    // 한 세션이 송신 스레드를 독점하지 않도록 이만큼 보낸 뒤 다시 제출
+    private static final int MAX_SENDS_PER_DRAIN = 64;
+
+    private static final StompEncoder STOMP_ENCODER = new StompEncoder();
+
+    private final WebSocketOutboundStage stage;
+    private final int maxQueuedMessages;
+    private final int maxControlBytes;
+
+    // 진행 중인 전송 시작 시각 (nanoTime, 0 = 전송 중 아님)
+    private volatile long sendStartedAt;
+
+    // 아래 필드는 모두 this로 보호
+    private final ArrayDeque<Outbound> queue = new ArrayDeque<>();
+    private final LinkedHashMap<String, WebSocketMessage<?>> conflated = new LinkedHashMap<>();
+    private final LinkedHashMap<String, String> resyncDestinations = new LinkedHashMap<>(); // destination -> subscription
+    private int controlBytes;
+    private int droppedSinceResync;
+    private long resyncSequence;
+    private boolean draining;
+    private boolean discarded;
+
+    OutboundQueueSession(WebSocketSession delegate, WebSocketOutboundStage stage, int maxQueuedMessages, int maxControlBytes) {
+        super(delegate);
+        this.stage = stage;
+        this.maxQueuedMessages = maxQueuedMessages;
+        this.maxControlBytes = maxControlBytes;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        Outbound outbound = classify(message);
+        boolean startDrain;
+        boolean overflow = false;
+
+        synchronized (this) {
+            if (discarded) return;
+
+            if (outbound.conflationKey() != null) {
+                if (conflated.put(outbound.conflationKey(), message) != null) {
+                    if (outbound.destination().startsWith(TYPING_DESTINATION_PREFIX)) {
+                        stage.recordTypingConflated();
+                    } else {
+                        stage.recordUnreadConflated();
+                    }
+                }
+            } else if (outbound.destination() != null && queue.size() >= maxQueuedMessages) {
+                dropQueuedMessages(outbound);
+            } else if (outbound.destination() == null && controlBytes + message.getPayloadLength() > maxControlBytes) {
+                overflow = true;
+            } else {
+                if (outbound.destination() == null) {
+                    controlBytes += message.getPayloadLength();
+                }
+                queue.add(outbound);
+            }
+
+            stage.recordQueueDepth(queue.size() + conflated.size());
+            startDrain = !overflow && !draining;
+            draining = draining || startDrain;
+        }
+
+        if (overflow) {
+            // 제어 프레임은 버릴 수 없으므로 연결을 끊음 (ConcurrentWebSocketSessionDecorator 의 버퍼 초과와 같은 처리)
+            log.warn("WebSocket 제어 프레임 송신 버퍼 초과, 연결 종료: sessionId={}, bytes={}", getId(), controlBytes);
+            closeUnreliable();
+            return;
+        }
+
+        if (startDrain) {
+            stage.execute(this::drain);
+        }
+    }
+
+    /**
+     * 클라이언트가 너무 밀린 경우: 연결을 끊는 대신 채팅 메시지를 버리고 재동기화를 요청
+     * (클라이언트는 REST로 누락분을 다시 조회)
+     */
+    private void dropQueuedMessages(Outbound incoming) {
+        int dropped = 1;
+        resyncDestinations.putIfAbsent(incoming.destination(), incoming.subscription());
+
+        Iterator<Outbound> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            Outbound queued = iterator.next();
+            if (queued.destination() != null) {
+                resyncDestinations.putIfAbsent(queued.destination(), queued.subscription());
+                iterator.remove();
+                dropped++;
+            }
+        }
+
+        droppedSinceResync += dropped;
+        stage.recordDropped(dropped);
+        log.warn("WebSocket 송신 큐 초과로 메시지 폐기, 재동기화 요청: sessionId={}, dropped={}", getId(), dropped);
+    }
+
+    private void drain() {
+        for (int sent = 0; sent < MAX_SENDS_PER_DRAIN; sent++) {
+            WebSocketMessage<?> next;
+            synchronized (this) {
+                next = discarded ? null : pollNext();
+                if (next == null) {
+                    draining = false;
+                    return;
+                }
+            }
+
+            sendStartedAt = System.nanoTime();
+            try {
+                getDelegate().sendMessage(next);
+            } catch (Exception e) {
+                log.debug("WebSocket 송신 실패, 세션 큐 폐기: sessionId={}, error={}", getId(), e.getMessage());
+                discard();
+                return;
+            } finally {
+                sendStartedAt = 0;
+            }
+        }
+
+        // 아직 남아 있으면 다른 세션에 양보 후 이어서 전송 (draining 유지)
+        stage.execute(this::drain);
+    }
+
+    /**
+     * 재동기화 프레임 -> 제어/채팅 프레임 -> 최신 값 프레임 순서
+     */
+    private WebSocketMessage<?> pollNext() {
+        if (!resyncDestinations.isEmpty()) {
+            Iterator<Map.Entry<String, String>> iterator = resyncDestinations.entrySet().iterator();
+            Map.Entry<String, String> entry = iterator.next();
+            iterator.remove();
+
+            TextMessage resync = buildResyncFrame(entry.getKey(), entry.getValue());
+            if (resyncDestinations.isEmpty()) {
+                droppedSinceResync = 0;
+            }
+            stage.recordResync();
+            return resync;
+        }
+
+        Outbound outbound = queue.poll();
+        if (outbound != null) {
+            if (outbound.destination() == null) {
+                controlBytes -= outbound.message().getPayloadLength();
+            }
+            return outbound.message();
+        }
+
+        if (!conflated.isEmpty()) {
+            Iterator<WebSocketMessage<?>> iterator = conflated.values().iterator();
+            WebSocketMessage<?> message = iterator.next();
+            iterator.remove();
+            return message;
+        }
+
+        return null;
+    }
+
+    private TextMessage buildResyncFrame(String destination, String subscription) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        accessor.setDestination(destination);
+        if (subscription != null) {
+            accessor.setSubscriptionId(subscription);
+        }
+        accessor.setMessageId("resync-" + (++resyncSequence));
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+
+        byte[] payload = ("{\"type\":\"RESYNC_REQUIRED\",\"destination\":\"" + destination +
+                "\",\"dropped\":" + droppedSinceResync + "}").getBytes(StandardCharsets.UTF_8);
+        return new TextMessage(STOMP_ENCODER.encode(MessageBuilder.createMessage(payload, accessor.getMessageHeaders())));
+    }
+
+    /**
+     * 연결 종료 시 남은 프레임 폐기
+     */
+    synchronized void discard() {
+        discarded = true;
+        queue.clear();
+        conflated.clear();
+        resyncDestinations.clear();
+        controlBytes = 0;
+    }
+
+    /**
+     * 진행 중인 전송이 제한 시간을 넘겼는지 (WebSocketOutboundStage 감시 스레드에서 호출)
+     */
+    boolean isSendOverdue(long nowNanos, long limitNanos) {
+        long startedAt = sendStartedAt;
+        return startedAt != 0 && nowNanos - startedAt > limitNanos;
+    }
+
+    /**
+     * 남은 프레임을 버리고 연결 종료 (막힌 전송은 소켓이 닫히면서 예외로 풀림)
+     */
+    void closeUnreliable() {
+        discard();
+        try {
+            getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (Exception e) {
+            log.debug("WebSocket 세션 종료 실패: sessionId={}, error={}", getId(), e.getMessage());
+        }
+    }
+
+    synchronized int getQueueDepth() {
+        return queue.size() + conflated.size();
+    }
+
+    /**
+     * STOMP 프레임 헤더만 훑어서 분류 (본문 JSON은 파싱하지 않음)
+     */
+    static Outbound classify(WebSocketMessage<?> message) {
+        if (!(message instanceof TextMessage textMessage)) {
+            return new Outbound(message, null, null, null);
+        }
+
+        String frame = textMessage.getPayload();
+        if (!frame.startsWith("MESSAGE\n")) {
+            return new Outbound(message, null, null, null);
+        }
+
+        int headerEnd = frame.indexOf("\n\n");
+        if (headerEnd < 0) {
+            return new Outbound(message, null, null, null);
+        }
+
+        String destination = null;
+        String subscription = null;
+        int lineStart = frame.indexOf('\n') + 1;
+        while (lineStart < headerEnd) {
+            int lineEnd = frame.indexOf('\n', lineStart);
+            if (frame.startsWith("destination:", lineStart)) {
+                destination = frame.substring(lineStart + "destination:".length(), lineEnd);
+            } else if (frame.startsWith("subscription:", lineStart)) {
+                subscription = frame.substring(lineStart + "subscription:".length(), lineEnd);
+            }
+            lineStart = lineEnd + 1;
+        }
+
+        if (destination == null) {
+            return new Outbound(message, null, null, null);
+        }
+
+        String conflationKey = null;
+        if (destination.startsWith(TYPING_DESTINATION_PREFIX)) {
+            conflationKey = destination + "|" + extractSenderId(frame, headerEnd);
+        } else if (destination.startsWith(UNREAD_DESTINATION_PREFIX)) {
+            conflationKey = destination;
+        }
+
+        return new Outbound(message, destination, subscription, conflationKey);
+    }
+
+    private static String extractSenderId(String frame, int bodyStart) {
+        int index = frame.indexOf(SENDER_ID_FIELD, bodyStart);
+        if (index < 0) return "";
+
+        int start = index + SENDER_ID_FIELD.length();
+        int end = start;
+        while (end < frame.length() && (Character.isDigit(frame.charAt(end)) || frame.charAt(end) == '-')) {
+            end++;
+        }
+        return frame.substring(start, end);
+    }
+
+    record Outbound(WebSocketMessage<?> message, String destination, String subscription, String conflationKey) {
+    }
+}
@@ -0,0 +1,235 @@
+package wedding.alba.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * 🚀 2단계 캐시 (L1: 로컬 Caffeine, L2: Redis)
+ * 조회는 L1 -> L2 -> 원본 순서, 변경(기존 값 덮어쓰기/evict/clear)은 Redis Pub/Sub으로
+ * 다른 노드의 L1까지 무효화한다. 키는 노드 간에 같도록 문자열로 통일.
+ * @Cacheable 미스 후 채우기(put)는 L2에 기존 값이 없으므로 무효화를 보내지 않는다.
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<String, Object> localCache;
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Duration redisTtl;
+    private final TwoLevelCacheManager cacheManager;
+
+    private final Counter localHits;
+    private final Counter redisHits;
+    private final Counter misses;
+
+    public TwoLevelCache(String name, Cache<String, Object> localCache, RedisTemplate<String, Object> redisTemplate,
+                         Duration redisTtl, TwoLevelCacheManager cacheManager, MeterRegistry meterRegistry) {
+        // null은 L1에만 저장 (L2 직렬화 대상 아님)
+        super(true);
+        this.name = name;
+        this.localCache = localCache;
+        this.redisTemplate = redisTemplate;
+        this.redisTtl = redisTtl;
+        this.cacheManager = cacheManager;
+
+        this.localHits = requestCounter(meterRegistry, "l1_hit");
+        this.redisHits = requestCounter(meterRegistry, "l2_hit");
+        this.misses = requestCounter(meterRegistry, "miss");
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return localCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String cacheKey = key.toString();
+
+        Object value = localCache.getIfPresent(cacheKey);
+        if (value != null) {
+            localHits.increment();
+            return value;
+        }
+
+        value = getFromRedis(cacheKey);
+        if (value != null) {
+            redisHits.increment();
+            localCache.put(cacheKey, value);
+            return value;
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String cacheKey = key.toString();
+
+        Object value = localCache.get(cacheKey, k -> {
+            Object cached = getFromRedis(k);
+            if (cached != null) {
+                redisHits.increment();
+                return cached;
+            }
+
+            misses.increment();
+            try {
+                Object loaded = toStoreValue(valueLoader.call());
+                putToRedis(k, loaded);
+                return loaded;
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        });
+
+        return (T) fromStoreValue(value);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String cacheKey = key.toString();
+        Object storeValue = toStoreValue(value);
+
+        localCache.put(cacheKey, storeValue);
+        // L2에 이전 값이 있었을 때만 (= @CachePut 등 명시적 갱신) 다른 노드의 L1에 남은 이전 값 제거
+        if (replaceInRedis(cacheKey, storeValue)) {
+            cacheManager.publishInvalidation(name, cacheKey);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        String cacheKey = key.toString();
+
+        localCache.invalidate(cacheKey);
+        try {
+            redisTemplate.delete(redisKey(cacheKey));
+        } catch (Exception e) {
+            log.warn("L2 캐시 삭제 실패: cache={}, key={}, error={}", name, cacheKey, e.getMessage());
+        }
+        cacheManager.publishInvalidation(name, cacheKey);
+    }
+
+    @Override
+    public void clear() {
+        localCache.invalidateAll();
+        try {
+            List<String> keys = scanRedisKeys();
+            if (!keys.isEmpty()) {
+                redisTemplate.delete(keys);
+            }
+        } catch (Exception e) {
+            log.warn("L2 캐시 전체 삭제 실패: cache={}, error={}", name, e.getMessage());
+        }
+        cacheManager.publishInvalidation(name, null);
+    }
+
+    /**
+     * 다른 노드에서 온 무효화 메시지 처리 (L1만 제거, L2는 발신 노드가 이미 처리)
+     * @param cacheKey null이면 전체 제거
+     */
+    void invalidateLocal(String cacheKey) {
+        if (cacheKey == null) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(cacheKey);
+        }
+    }
+
+    private Object getFromRedis(String cacheKey) {
+        try {
+            return redisTemplate.opsForValue().get(redisKey(cacheKey));
+        } catch (Exception e) {
+            log.warn("L2 캐시 조회 실패: cache={}, key={}, error={}", name, cacheKey, e.getMessage());
+            return null;
+        }
+    }
+
+    private void putToRedis(String cacheKey, Object storeValue) {
+        if (storeValue == null || storeValue == NullValue.INSTANCE) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(redisKey(cacheKey), storeValue, redisTtl);
+        } catch (Exception e) {
+            log.warn("L2 캐시 저장 실패: cache={}, key={}, error={}", name, cacheKey, e.getMessage());
+        }
+    }
+
+    /**
+     * L2 값 교체 (GETSET + EXPIRE 파이프라인 한 번)
+     * @return 이전 값이 있었는지 (null 저장은 L2 키 삭제 여부). 실패 시 true 로 보고 무효화
+     */
+    @SuppressWarnings("unchecked")
+    private boolean replaceInRedis(String cacheKey, Object storeValue) {
+        String redisKey = redisKey(cacheKey);
+        try {
+            if (storeValue == null || storeValue == NullValue.INSTANCE) {
+                return Boolean.TRUE.equals(redisTemplate.delete(redisKey));
+            }
+            List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                    ops.opsForValue().getAndSet(redisKey, storeValue);
+                    ops.expire(redisKey, redisTtl);
+                    return null;
+                }
+            });
+            return !results.isEmpty() && results.get(0) != null;
+        } catch (Exception e) {
+            log.warn("L2 캐시 저장 실패: cache={}, key={}, error={}", name, cacheKey, e.getMessage());
+            return true;
+        }
+    }
+
+    private List<String> scanRedisKeys() {
+        List<String> keys = redisTemplate.execute((RedisCallback<List<String>>) connection -> {
+            List<String> result = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(redisKey("*")).count(1000).build();
+            try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                while (cursor.hasNext()) {
+                    result.add(new String(cursor.next(), StandardCharsets.UTF_8));
+                }
+            }
+            return result;
+        });
+        return keys != null ? keys : List.of();
+    }
+
+    private String redisKey(String cacheKey) {
+        return "cache:" + name + "::" + cacheKey;
+    }
+
+    private Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("chat.cache.requests")
+                .description("2단계 캐시 조회 결과 (l1_hit, l2_hit, miss)")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,106 @@
+package wedding.alba.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 🚀 2단계 캐시 매니저
+ * 캐시는 이름별로 처음 사용할 때 생성되고, 무효화 메시지 형식은 "nodeId|cacheName|key" (key 생략 = 전체)
+ * 트랜잭션 안에서의 put/evict는 커밋 이후에 반영 (커밋 전 값이 다시 캐시되지 않도록)
+ */
+@Slf4j
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager implements MessageListener {
+
+    public static final String INVALIDATION_CHANNEL = "cache:invalidate";
+    private static final String ALL_KEYS = "*";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long localMaxSize;
+    private final Duration localTtl;
+    private final Duration redisTtl;
+
+    // 자기 노드가 보낸 무효화 메시지는 무시
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final ConcurrentHashMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(RedisTemplate<String, Object> redisTemplate, MeterRegistry meterRegistry,
+                                long localMaxSize, Duration localTtl, Duration redisTtl) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.localMaxSize = localMaxSize;
+        this.localTtl = localTtl;
+        this.redisTtl = redisTtl;
+        setTransactionAware(true);
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return List.of();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    private TwoLevelCache createCache(String name) {
+        com.github.benmanes.caffeine.cache.Cache<String, Object> localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .build();
+
+        // L1 hit/miss/eviction 메트릭 (cache.gets, cache.evictions 등)
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, name);
+
+        log.info("2단계 캐시 생성: name={}, localMaxSize={}, localTtl={}, redisTtl={}",
+                name, localMaxSize, localTtl, redisTtl);
+        return new TwoLevelCache(name, localCache, redisTemplate, redisTtl, this, meterRegistry);
+    }
+
+    /**
+     * 다른 노드에 L1 무효화 요청
+     */
+    void publishInvalidation(String cacheName, String cacheKey) {
+        try {
+            String payload = nodeId + "|" + cacheName + "|" + (cacheKey != null ? cacheKey : ALL_KEYS);
+            redisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.publish(INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                            payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            log.warn("캐시 무효화 메시지 발행 실패: cache={}, key={}, error={}", cacheName, cacheKey, e.getMessage());
+        }
+    }
+
+    /**
+     * 다른 노드의 무효화 메시지 수신
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = payload.split("\\|", 3);
+        if (parts.length != 3 || nodeId.equals(parts[0])) return;
+
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.invalidateLocal(ALL_KEYS.equals(parts[2]) ? null : parts[2]);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package wedding.alba.config;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
@@ -12,14 +14,47 @@ import org.springframework.web.socket.config.annotation.WebSocketTransportRegist
 
 @Configuration
 @EnableWebSocketMessageBroker
+@RequiredArgsConstructor
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private final WebSocketOutboundStage webSocketOutboundStage;
+
+    // local | redis: 내장 SimpleBroker 사용 (redis는 ChatFanoutService가 노드 간 전달)
+    // relay: 외부 STOMP 브로커(ActiveMQ/Artemis 등)로 릴레이
+    @Value("${app.chat.fanout.mode:local}")
+    private String fanoutMode;
+
+    @Value("${app.chat.fanout.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${app.chat.fanout.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${app.chat.fanout.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${app.chat.fanout.relay.passcode:guest}")
+    private String relayPasscode;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // 🚀 성능 최적화된 메시지 브로커 설정
-        config.enableSimpleBroker("/topic", "/queue")
-                .setHeartbeatValue(new long[]{10000, 10000}) // 하트비트 간격 (클라이언트, 서버)
-                .setTaskScheduler(heartbeatTaskScheduler()); // TaskScheduler 설정
+        if ("relay".equalsIgnoreCase(fanoutMode)) {
+            // 🚀 다중 노드: 외부 브로커가 모든 노드의 구독자에게 전달
+            config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode)
+                    .setSystemHeartbeatSendInterval(10000)
+                    .setSystemHeartbeatReceiveInterval(10000);
+        } else {
+            // 🚀 성능 최적화된 메시지 브로커 설정
+            config.enableSimpleBroker("/topic", "/queue")
+                    .setHeartbeatValue(new long[]{10000, 10000}) // 하트비트 간격 (클라이언트, 서버)
+                    .setTaskScheduler(heartbeatTaskScheduler()); // TaskScheduler 설정
+        }
         
         // 클라이언트에서 서버로 메시지 보낼 때 사용할 경로
         config.setApplicationDestinationPrefixes("/app");
@@ -52,7 +87,8 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .setMessageSizeLimit(128 * 1024) // 메시지 크기 제한 (128KB)
                 .setSendBufferSizeLimit(512 * 1024) // 송신 버퍼 크기 (512KB)
                 .setSendTimeLimit(20 * 1000) // 송신 시간 제한 (20초)
-                .setTimeToFirstMessage(30 * 1000); // 첫 메시지까지 대기 시간 (30초)
+                .setTimeToFirstMessage(30 * 1000) // 첫 메시지까지 대기 시간 (30초)
+                .addDecoratorFactory(webSocketOutboundStage); // 🚀 세션별 송신 큐 (느린 클라이언트 격리)
     }
 
     @Bean
@@ -0,0 +1,239 @@
+package wedding.alba.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 🚀 WebSocket 세션별 송신 단계
+ * 브로커 송신 채널 스레드는 세션 큐에 넣기만 하고, 실제 전송은 전용 스레드가 세션별로 한 번에 하나씩 수행한다.
+ * 느린 클라이언트가 같은 채팅방의 다른 구독자 전송을 막지 않도록 하기 위함.
+ * - 채팅 메시지: 세션별 제한 큐, 넘치면 버리고 "재동기화 필요" 프레임 전송 (연결은 유지)
+ * - 타이핑 / 안읽은 수: 같은 키의 최신 값만 유지 (conflation)
+ * - 전송 하나가 send-time-limit-ms 를 넘기면 감시 스레드가 세션을 닫아 송신 스레드를 풀어줌
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class WebSocketOutboundStage implements WebSocketHandlerDecoratorFactory {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.chat.outbound.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.chat.outbound.max-queued-messages:500}")
+    private int maxQueuedMessages;
+
+    // 제어 프레임(CONNECTED/RECEIPT/ERROR 등) 대기 크기 상한, 넘으면 연결 종료
+    @Value("${app.chat.outbound.max-control-bytes:524288}")
+    private int maxControlBytes;
+
+    // 전송 하나의 최대 시간, 넘으면 연결 종료
+    @Value("${app.chat.outbound.send-time-limit-ms:20000}")
+    private long sendTimeLimitMs;
+
+    // 0 이하이면 CPU 코어 수 * 2
+    @Value("${app.chat.outbound.sender-threads:0}")
+    private int configuredSenderThreads;
+
+    private final ConcurrentHashMap<String, OutboundQueueSession> sessions = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor senders;
+    private ScheduledExecutorService watchdog;
+    private DistributionSummary sessionQueueDepth;
+    private Counter typingConflated;
+    private Counter unreadConflated;
+    private Counter droppedCounter;
+    private Counter resyncCounter;
+    private Counter stalledCounter;
+
+    @PostConstruct
+    public void init() {
+        int threads = configuredSenderThreads > 0 ? configuredSenderThreads : Runtime.getRuntime().availableProcessors() * 2;
+        AtomicInteger threadCount = new AtomicInteger();
+        senders = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ws-outbound-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        senders.allowCoreThreadTimeOut(true);
+
+        watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ws-outbound-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkIntervalMs = Math.max(100, Math.min(1000, sendTimeLimitMs / 4));
+        watchdog.scheduleWithFixedDelay(this::closeStalledSessions, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+
+        // 세션 ID를 태그로 쓰면 카디널리티가 폭증하므로 세션별 큐 깊이는 분포로 기록
+        sessionQueueDepth = DistributionSummary.builder("chat.ws.outbound.session.queue.depth")
+                .description("메시지를 넣을 때의 세션별 송신 큐 깊이")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        typingConflated = Counter.builder("chat.ws.outbound.conflated")
+                .description("최신 값으로 대체되어 전송되지 않은 프레임 수")
+                .tag("kind", "typing")
+                .register(meterRegistry);
+        unreadConflated = Counter.builder("chat.ws.outbound.conflated")
+                .description("최신 값으로 대체되어 전송되지 않은 프레임 수")
+                .tag("kind", "unread")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("chat.ws.outbound.dropped")
+                .description("큐 초과로 버린 채팅 메시지 프레임 수")
+                .register(meterRegistry);
+        resyncCounter = Counter.builder("chat.ws.outbound.resync")
+                .description("전송한 재동기화 필요 프레임 수")
+                .register(meterRegistry);
+        stalledCounter = Counter.builder("chat.ws.outbound.stalled")
+                .description("전송 제한 시간을 넘겨 닫은 세션 수")
+                .register(meterRegistry);
+        Gauge.builder("chat.ws.outbound.sessions", sessions, ConcurrentHashMap::size)
+                .description("송신 큐를 가진 WebSocket 세션 수")
+                .register(meterRegistry);
+        Gauge.builder("chat.ws.outbound.queue.depth", this, WebSocketOutboundStage::totalQueueDepth)
+                .description("전체 세션 송신 큐 깊이 합계")
+                .register(meterRegistry);
+        Gauge.builder("chat.ws.outbound.queue.depth.max", this, WebSocketOutboundStage::maxQueueDepth)
+                .description("가장 밀린 세션의 송신 큐 깊이")
+                .register(meterRegistry);
+
+        log.info("WebSocket 세션별 송신 단계: enabled={}, maxQueuedMessages={}, senderThreads={}, sendTimeLimitMs={}",
+                enabled, maxQueuedMessages, threads, sendTimeLimitMs);
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        if (!enabled) {
+            return handler;
+        }
+
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                OutboundQueueSession outbound = new OutboundQueueSession(session, WebSocketOutboundStage.this,
+                        maxQueuedMessages, maxControlBytes);
+                sessions.put(session.getId(), outbound);
+                super.afterConnectionEstablished(outbound);
+            }
+
+            @Override
+            public void handleMessage(WebSocketSession session, WebSocketMessage<?> message) throws Exception {
+                WebSocketSession target = sessions.get(session.getId());
+                super.handleMessage(target != null ? target : session, message);
+            }
+
+            @Override
+            public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+                WebSocketSession target = sessions.get(session.getId());
+                super.handleTransportError(target != null ? target : session, exception);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                OutboundQueueSession outbound = sessions.remove(session.getId());
+                if (outbound != null) {
+                    outbound.discard();
+                }
+                super.afterConnectionClosed(outbound != null ? outbound : session, closeStatus);
+            }
+        };
+    }
+
+    /**
+     * 전송이 제한 시간을 넘긴 세션 종료 (닫는 동안 막힐 수 있어 송신 스레드가 아닌 감시 스레드에서 수행)
+     */
+    private void closeStalledSessions() {
+        try {
+            long now = System.nanoTime();
+            long limitNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeLimitMs);
+            for (OutboundQueueSession session : sessions.values()) {
+                if (session.isSendOverdue(now, limitNanos)) {
+                    log.warn("WebSocket 전송 제한 시간 초과, 연결 종료: sessionId={}, limitMs={}", session.getId(), sendTimeLimitMs);
+                    stalledCounter.increment();
+                    session.closeUnreliable();
+                }
+            }
+        } catch (Exception e) {
+            log.error("WebSocket 전송 지연 세션 정리 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    void execute(Runnable drainTask) {
+        senders.execute(drainTask);
+    }
+
+    void recordQueueDepth(int depth) {
+        sessionQueueDepth.record(depth);
+    }
+
+    void recordTypingConflated() {
+        typingConflated.increment();
+    }
+
+    void recordUnreadConflated() {
+        unreadConflated.increment();
+    }
+
+    void recordDropped(int count) {
+        droppedCounter.increment(count);
+    }
+
+    void recordResync() {
+        resyncCounter.increment();
+    }
+
+    private double totalQueueDepth() {
+        long total = 0;
+        for (OutboundQueueSession session : sessions.values()) {
+            total += session.getQueueDepth();
+        }
+        return total;
+    }
+
+    private double maxQueueDepth() {
+        int max = 0;
+        for (OutboundQueueSession session : sessions.values()) {
+            max = Math.max(max, session.getQueueDepth());
+        }
+        return max;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+        senders.shutdown();
+        try {
+            if (!senders.awaitTermination(5, TimeUnit.SECONDS)) {
+                senders.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            senders.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
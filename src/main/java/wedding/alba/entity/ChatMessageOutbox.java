@@ -0,0 +1,52 @@
+package wedding.alba.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Kafka 전송에 실패한 채팅 메시지 보관함 (outbox)
+ * payload 는 chat-messages 토픽과 같은 바이너리 포맷 (ChatMessageCodec)
+ * 채팅방별로 outbox_id 순서대로 재전송한다. 읽기/쓰기는 ChatMessageOutboxRepository 가 담당.
+ */
+@Entity
+@Table(name = "chat_message_outbox",
+       indexes = {
+           @Index(name = "idx_chat_message_outbox_room", columnList = "chat_room_id, outbox_id")
+       })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatMessageOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "outbox_id")
+    private Long outboxId;
+
+    @Column(name = "chat_room_id", nullable = false)
+    private Long chatRoomId;
+
+    @Column(name = "message_id", length = 36, nullable = false)
+    private String messageId;
+
+    @Column(name = "payload", nullable = false)
+    private byte[] payload;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import wedding.alba.kafka.codec.MessageIds;
 
 import java.time.LocalDateTime;
 
@@ -72,7 +73,10 @@ public class ChatRoomParticipant {
     }
 
     public void updateLastRead(String messageId) {
-        this.lastReadMessageId = messageId;
+        // 시간순 ID끼리는 ID 비교만으로 판단, 늦게 도착한 이전 읽음 요청이 위치를 되돌리지 않도록
+        if (MessageIds.compare(messageId, this.lastReadMessageId) >= 0) {
+            this.lastReadMessageId = messageId;
+        }
         this.lastReadAt = LocalDateTime.now();
     }
 
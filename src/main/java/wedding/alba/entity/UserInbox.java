@@ -0,0 +1,112 @@
+package wedding.alba.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 🚀 사용자별 채팅 목록 프로젝션 (사용자, 채팅방)당 한 행
+ * 채팅방 목록 조회 시 조인/정렬 없이 (user_id, sort_at) 인덱스 범위 스캔 한 번으로 읽기 위한 비정규화 테이블.
+ * 쓰기는 UserInboxBulkRepository(Consumer 배치 / 참여자 변경 / 재구축)만 수행한다.
+ */
+@Entity
+@Table(name = "user_inbox",
+       indexes = {
+           @Index(name = "idx_user_inbox_user_sort", columnList = "user_id, sort_at DESC, chat_room_id DESC")
+       })
+@IdClass(UserInbox.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserInbox {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "chat_room_id")
+    private Long chatRoomId;
+
+    // 채팅방 정보
+    @Column(name = "room_name", length = 100)
+    private String roomName;
+
+    @Column(name = "room_type", length = 20)
+    private String roomType;
+
+    @Column(name = "creator_user_id")
+    private Long creatorUserId;
+
+    @Column(name = "host_user_id")
+    private Long hostUserId;
+
+    @Column(name = "guest_user_id")
+    private Long guestUserId;
+
+    @Column(name = "posting_id")
+    private Long postingId;
+
+    @Column(name = "room_created_at")
+    private LocalDateTime roomCreatedAt;
+
+    // 1:1 채팅 상대 표시 정보 (PERSONAL 채팅방만)
+    @Column(name = "host_name", length = 100)
+    private String hostName;
+
+    @Column(name = "host_nickname", length = 100)
+    private String hostNickname;
+
+    @Column(name = "host_profile_image", length = 500)
+    private String hostProfileImage;
+
+    @Column(name = "guest_name", length = 100)
+    private String guestName;
+
+    @Column(name = "guest_nickname", length = 100)
+    private String guestNickname;
+
+    @Column(name = "guest_profile_image", length = 500)
+    private String guestProfileImage;
+
+    // 마지막 메시지 미리보기
+    @Column(name = "last_message_id", length = 36)
+    private String lastMessageId;
+
+    @Column(name = "last_message_preview", length = 200)
+    private String lastMessagePreview;
+
+    @Column(name = "last_message_sender", length = 50)
+    private String lastMessageSender;
+
+    @Column(name = "last_message_at")
+    private LocalDateTime lastMessageAt;
+
+    @Column(name = "unread_count", nullable = false)
+    private Integer unreadCount;
+
+    // 채팅방 마지막 활동 시각 (chat_rooms.last_active_at, 메시지 반영 시 메시지 시각과 비교해 최신값 유지)
+    @Column(name = "last_active_at")
+    private LocalDateTime lastActiveAt;
+
+    // 목록 정렬 기준 (마지막 메시지 시각, 없으면 채팅방 생성 시각)
+    @Column(name = "sort_at", nullable = false)
+    private LocalDateTime sortAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long chatRoomId;
+    }
+}
@@ -0,0 +1,315 @@
+package wedding.alba.kafka.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+import wedding.alba.kafka.dto.ChatMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * 🚀 chat-messages 토픽용 바이너리 포맷 (버전 2)
+ *
+ * [version:1B][flags:1B][chatRoomId:varint?][senderId:varint?][type:varint]
+ * [timestamp:varint epoch-millis?][mentionUserId:varint?][messageId][문자열 필드들]
+ *
+ * - ? 표시 필드는 flags 에 해당 비트가 있을 때만 기록 (null 과 0 을 구분)
+ * - 버전 1 은 chatRoomId/senderId 를 항상 기록 (null 이 0 으로 저장됨), 이미 발행된 레코드를 위해 읽기만 지원
+ * - 숫자 ID는 zigzag varint (헬스체크용 -1 ID도 1바이트)
+ * - MessageType은 ordinal + 1 (0 = null) 이므로 enum 상수는 뒤에만 추가해야 함
+ * - 문자열은 (UTF-8 길이 + 1) varint 뒤에 바이트 (0 = null)
+ * - JSON 레코드는 항상 '{' 로 시작하므로 첫 바이트로 포맷 구분 가능
+ */
+public final class ChatMessageCodec {
+
+    public static final byte VERSION_1 = 1;
+    public static final byte VERSION_2 = 2;
+
+    private static final int FLAG_SYSTEM_MESSAGE = 1;
+    private static final int FLAG_HAS_MENTION = 1 << 1;
+    private static final int FLAG_HAS_TIMESTAMP = 1 << 2;
+    private static final int FLAG_HAS_CHAT_ROOM = 1 << 3;
+    private static final int FLAG_HAS_SENDER = 1 << 4;
+
+    // messageId 인코딩 방식
+    private static final int ID_NULL = 0;
+    private static final int ID_UUID = 1;
+    private static final int ID_STRING = 2;
+
+    private static final ChatMessage.MessageType[] TYPES = ChatMessage.MessageType.values();
+
+    private ChatMessageCodec() {
+    }
+
+    /**
+     * JSON 레코드 여부 (배포 이전에 발행된 메시지 호환용)
+     */
+    public static boolean isJson(byte[] data) {
+        return data.length > 0 && data[0] == '{';
+    }
+
+    /**
+     * ChatMessage -> 바이너리
+     */
+    public static byte[] encode(ChatMessage message) {
+        Writer out = new Writer(estimateSize(message));
+
+        int flags = 0;
+        if (message.isSystemMessage()) flags |= FLAG_SYSTEM_MESSAGE;
+        if (message.getMentionUserId() != null) flags |= FLAG_HAS_MENTION;
+        if (message.getTimestamp() != null) flags |= FLAG_HAS_TIMESTAMP;
+        if (message.getChatRoomId() != null) flags |= FLAG_HAS_CHAT_ROOM;
+        if (message.getSenderId() != null) flags |= FLAG_HAS_SENDER;
+
+        out.writeByte(VERSION_2);
+        out.writeByte(flags);
+        if (message.getChatRoomId() != null) {
+            out.writeZigZag(message.getChatRoomId());
+        }
+        if (message.getSenderId() != null) {
+            out.writeZigZag(message.getSenderId());
+        }
+        out.writeVarLong(message.getType() != null ? message.getType().ordinal() + 1 : 0);
+        if (message.getTimestamp() != null) {
+            out.writeZigZag(message.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli());
+        }
+        if (message.getMentionUserId() != null) {
+            out.writeZigZag(message.getMentionUserId());
+        }
+
+        writeMessageId(out, message.getMessageId());
+        out.writeString(message.getSenderName());
+        out.writeString(message.getSenderProfileImage());
+        out.writeString(message.getContent());
+        out.writeString(message.getAttachmentUrl());
+        out.writeString(message.getAttachmentType());
+
+        return out.toByteArray();
+    }
+
+    /**
+     * 바이너리 -> ChatMessage
+     */
+    public static ChatMessage decode(byte[] data) {
+        Reader in = new Reader(data);
+
+        byte version = in.readByte();
+        if (version != VERSION_1 && version != VERSION_2) {
+            throw new SerializationException("지원하지 않는 채팅 메시지 포맷 버전: " + version);
+        }
+
+        int flags = in.readByte() & 0xFF;
+        ChatMessage message = new ChatMessage();
+        message.setSystemMessage((flags & FLAG_SYSTEM_MESSAGE) != 0);
+        if (version == VERSION_1 || (flags & FLAG_HAS_CHAT_ROOM) != 0) {
+            message.setChatRoomId(in.readZigZag());
+        }
+        if (version == VERSION_1 || (flags & FLAG_HAS_SENDER) != 0) {
+            message.setSenderId(in.readZigZag());
+        }
+
+        int typeCode = (int) in.readVarLong();
+        if (typeCode > TYPES.length) {
+            throw new SerializationException("알 수 없는 메시지 타입 코드: " + typeCode);
+        }
+        message.setType(typeCode == 0 ? null : TYPES[typeCode - 1]);
+
+        if ((flags & FLAG_HAS_TIMESTAMP) != 0) {
+            message.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(in.readZigZag()), ZoneOffset.UTC));
+        }
+        if ((flags & FLAG_HAS_MENTION) != 0) {
+            message.setMentionUserId(in.readZigZag());
+        }
+
+        message.setMessageId(readMessageId(in));
+        message.setSenderName(in.readString());
+        message.setSenderProfileImage(in.readString());
+        message.setContent(in.readString());
+        message.setAttachmentUrl(in.readString());
+        message.setAttachmentType(in.readString());
+
+        return message;
+    }
+
+    /**
+     * UUID 형식 messageId는 16바이트로 압축 (36자 문자열 대비)
+     */
+    private static void writeMessageId(Writer out, String messageId) {
+        if (messageId == null) {
+            out.writeByte(ID_NULL);
+            return;
+        }
+
+        UUID uuid = parseCanonicalUuid(messageId);
+        if (uuid != null) {
+            out.writeByte(ID_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else {
+            out.writeByte(ID_STRING);
+            out.writeString(messageId);
+        }
+    }
+
+    private static String readMessageId(Reader in) {
+        int kind = in.readByte();
+        return switch (kind) {
+            case ID_NULL -> null;
+            case ID_UUID -> new UUID(in.readLong(), in.readLong()).toString();
+            case ID_STRING -> in.readString();
+            default -> throw new SerializationException("알 수 없는 messageId 인코딩: " + kind);
+        };
+    }
+
+    /**
+     * 소문자 정규 형식 UUID만 압축 (복원 시 동일한 문자열이 나와야 하므로)
+     */
+    private static UUID parseCanonicalUuid(String value) {
+        if (value.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(value);
+            return uuid.toString().equals(value) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static int estimateSize(ChatMessage message) {
+        int size = 48;
+        size += lengthOf(message.getSenderName());
+        size += lengthOf(message.getSenderProfileImage());
+        size += lengthOf(message.getContent()) * 3; // 한글은 UTF-8 3바이트
+        size += lengthOf(message.getAttachmentUrl());
+        size += lengthOf(message.getAttachmentType());
+        return size;
+    }
+
+    private static int lengthOf(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    /**
+     * 확장 가능한 바이트 버퍼 (단일 메시지 인코딩 전용)
+     */
+    private static final class Writer {
+        private byte[] buf;
+        private int pos;
+
+        Writer(int initialCapacity) {
+            this.buf = new byte[initialCapacity];
+        }
+
+        void writeByte(int b) {
+            ensureCapacity(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void writeLong(long v) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buf[pos++] = (byte) (v >>> shift);
+            }
+        }
+
+        void writeVarLong(long v) {
+            ensureCapacity(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[pos++] = (byte) v;
+        }
+
+        void writeZigZag(long v) {
+            writeVarLong((v << 1) ^ (v >> 63));
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return pos == buf.length ? buf : Arrays.copyOf(buf, pos);
+        }
+
+        private void ensureCapacity(int extra) {
+            if (pos + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+            }
+        }
+    }
+
+    /**
+     * 바이트 배열 순차 리더
+     */
+    private static final class Reader {
+        private final byte[] buf;
+        private int pos;
+
+        Reader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        byte readByte() {
+            require(1);
+            return buf[pos++];
+        }
+
+        long readLong() {
+            require(8);
+            long v = 0;
+            for (int i = 0; i < 8; i++) {
+                v = (v << 8) | (buf[pos++] & 0xFF);
+            }
+            return v;
+        }
+
+        long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new SerializationException("잘못된 varint 인코딩");
+        }
+
+        long readZigZag() {
+            long v = readVarLong();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        String readString() {
+            long encodedLength = readVarLong();
+            if (encodedLength == 0) {
+                return null;
+            }
+            int length = (int) (encodedLength - 1);
+            require(length);
+            String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        private void require(int n) {
+            if (n < 0 || pos + n > buf.length) {
+                throw new SerializationException("채팅 메시지 바이너리가 손상되었습니다 (length=" + buf.length + ")");
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package wedding.alba.kafka.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import wedding.alba.kafka.dto.ChatMessage;
+
+import java.io.IOException;
+
+/**
+ * 🚀 chat-messages 토픽 Value Deserializer
+ * 바이너리 포맷을 기본으로 읽고, 배포 이전에 발행된 JSON 레코드도 그대로 처리
+ */
+public class ChatMessageDeserializer implements Deserializer<ChatMessage> {
+
+    private final ObjectMapper objectMapper;
+
+    public ChatMessageDeserializer() {
+        this(new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES));
+    }
+
+    public ChatMessageDeserializer(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ChatMessage deserialize(String topic, byte[] data) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+
+        if (ChatMessageCodec.isJson(data)) {
+            try {
+                return objectMapper.readValue(data, ChatMessage.class);
+            } catch (IOException e) {
+                throw new SerializationException("JSON 채팅 메시지 파싱 실패: topic=" + topic, e);
+            }
+        }
+
+        return ChatMessageCodec.decode(data);
+    }
+}
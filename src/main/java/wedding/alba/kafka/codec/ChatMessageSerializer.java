@@ -0,0 +1,18 @@
+package wedding.alba.kafka.codec;
+
+import org.apache.kafka.common.serialization.Serializer;
+import wedding.alba.kafka.dto.ChatMessage;
+
+/**
+ * 🚀 chat-messages 토픽 Value Serializer (바이너리 포맷)
+ */
+public class ChatMessageSerializer implements Serializer<ChatMessage> {
+
+    @Override
+    public byte[] serialize(String topic, ChatMessage data) {
+        if (data == null) {
+            return null;
+        }
+        return ChatMessageCodec.encode(data);
+    }
+}
@@ -0,0 +1,85 @@
+package wedding.alba.kafka.codec;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+/**
+ * 🚀 시간순 정렬되는 채팅 메시지 ID (UUIDv7, RFC 9562)
+ *
+ * [unix_ts_ms:48][ver=7:4][counter:12][var=10:2][random:62]
+ *
+ * - 소문자 정규 문자열이 고정 길이 hex 라서 문자열 비교 순서 = 생성 시간 순서
+ *   (B-tree 삽입이 오른쪽 끝에 몰려 페이지 분할/인덱스 팽창이 줄어듦)
+ * - 같은 밀리초 안에서는 12비트 카운터로 이 JVM 안에서 단조 증가
+ * - 기존 UUIDv4 와 같은 36자 형식이라 컬럼/바이너리 포맷(16바이트 압축) 변경 없음
+ */
+public final class MessageIds {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final int COUNTER_MAX = 0xFFF;
+
+    private static long lastMillis = -1;
+    private static int counter = 0;
+
+    private MessageIds() {
+    }
+
+    /**
+     * 새 메시지 ID
+     */
+    public static String newId() {
+        return newUuid().toString();
+    }
+
+    static UUID newUuid() {
+        long millis;
+        int sequence;
+        synchronized (MessageIds.class) {
+            long now = System.currentTimeMillis();
+            if (now > lastMillis) {
+                lastMillis = now;
+                // 새 밀리초는 카운터 하위 절반에서 임의로 시작 (같은 밀리초 안에서 증가할 여유)
+                counter = RANDOM.nextInt(COUNTER_MAX / 2);
+            } else if (++counter > COUNTER_MAX) {
+                // 카운터가 넘치거나 시계가 뒤로 가면 마지막 시간을 1ms 당겨서 순서 유지
+                lastMillis++;
+                counter = 0;
+            }
+            millis = lastMillis;
+            sequence = counter;
+        }
+
+        long msb = (millis << 16) | 0x7000L | sequence;
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * UUIDv7 형식 ID인지 (이전 UUIDv4/임의 문자열 ID는 false)
+     */
+    public static boolean isTimeOrdered(String messageId) {
+        return messageId != null && messageId.length() == 36
+                && messageId.charAt(8) == '-' && messageId.charAt(14) == '7';
+    }
+
+    /**
+     * ID에 들어 있는 생성 시각 (밀리초, 시스템 시간대)
+     */
+    public static LocalDateTime timestampOf(String messageId) {
+        long millis = Long.parseLong(messageId.substring(0, 8) + messageId.substring(9, 13), 16);
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    /**
+     * 두 ID 모두 UUIDv7 이면 생성 순서 비교, 아니면 비교 불가로 0
+     */
+    public static int compare(String a, String b) {
+        if (!isTimeOrdered(a) || !isTimeOrdered(b)) {
+            return 0;
+        }
+        return a.compareTo(b);
+    }
+}
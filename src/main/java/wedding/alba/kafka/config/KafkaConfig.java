@@ -2,6 +2,8 @@ package wedding.alba.kafka.config;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,6 +13,12 @@ import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.util.backoff.ExponentialBackOff;
+import wedding.alba.kafka.codec.ChatMessageDeserializer;
+import wedding.alba.kafka.codec.ChatMessageSerializer;
+import wedding.alba.kafka.dto.ChatMessage;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
@@ -30,17 +38,47 @@ public class KafkaConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${app.chat.consumer.partitions:3}")
+    private int chatPartitions;
+
+    @Value("${app.chat.consumer.adaptive.initial-poll-records:50}")
+    private int chatInitialPollRecords;
+
     /**
      * 🚀 Producer 설정 - 성능 최적화
      */
     @Bean
     public ProducerFactory<String, String> producerFactory() {
+        return new DefaultKafkaProducerFactory<>(producerConfigs(),
+                new StringSerializer(), new StringSerializer());
+    }
+
+    /**
+     * 🚀 채팅 메시지 Producer - 바이너리 포맷 (JSON 직렬화 제거)
+     */
+    @Bean
+    public ProducerFactory<String, ChatMessage> chatMessageProducerFactory() {
+        return new DefaultKafkaProducerFactory<>(producerConfigs(),
+                new StringSerializer(), new ChatMessageSerializer());
+    }
+
+    /**
+     * chat-messages.DLT / 재주입용 Producer - 원본 바이트를 그대로 전송
+     */
+    @Bean
+    public ProducerFactory<String, byte[]> deadLetterProducerFactory() {
+        return new DefaultKafkaProducerFactory<>(producerConfigs(),
+                new StringSerializer(), new ByteArraySerializer());
+    }
+
+    /**
+     * Producer 공통 설정
+     */
+    private Map<String, Object> producerConfigs() {
         Map<String, Object> configProps = new HashMap<>();
         
         // 기본 설정
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
-        configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         
         // 🚀 성능 최적화 설정
         configProps.put(ProducerConfig.ACKS_CONFIG, "all"); // 멱등성을 위해 all 필요
@@ -62,7 +100,7 @@ public class KafkaConfig {
         configProps.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, 30000); // 30초
         configProps.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 120000); // 2분
         
-        return new DefaultKafkaProducerFactory<>(configProps);
+        return configProps;
     }
 
     /**
@@ -73,18 +111,68 @@ public class KafkaConfig {
         return new KafkaTemplate<>(producerFactory());
     }
 
+    /**
+     * 채팅 메시지 전용 Kafka Template
+     */
+    @Bean
+    public KafkaTemplate<String, ChatMessage> chatMessageKafkaTemplate() {
+        return new KafkaTemplate<>(chatMessageProducerFactory());
+    }
+
+    /**
+     * chat-messages.DLT / 재주입 전용 Kafka Template
+     */
+    @Bean
+    public KafkaTemplate<String, byte[]> deadLetterKafkaTemplate() {
+        return new KafkaTemplate<>(deadLetterProducerFactory());
+    }
+
     /**
      * 🚀 Consumer 설정 - 성능 최적화
      */
     @Bean
     public ConsumerFactory<String, String> consumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerConfigs(),
+                new StringDeserializer(), new StringDeserializer());
+    }
+
+    /**
+     * 🚀 채팅 메시지 Consumer - 바이너리 포맷 + JSON 하위 호환
+     * 파싱 실패 레코드는 ErrorHandlingDeserializer가 null로 넘겨 배치 전체가 막히지 않음
+     */
+    @Bean
+    public ConsumerFactory<String, ChatMessage> chatMessageConsumerFactory() {
+        Map<String, Object> configProps = consumerConfigs();
+        // 데이터가 있으면 바로 응답 (한가할 때 fetch.max.wait 만큼 지연되지 않음)
+        configProps.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 1);
+        // 폴 크기는 ChatConsumerTuner 가 실행 중에 조정
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, chatInitialPollRecords);
+        return new DefaultKafkaConsumerFactory<>(configProps,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(new ChatMessageDeserializer()));
+    }
+
+    /**
+     * chat-messages.DLT 재주입 도구용 Consumer (별도 그룹, 처음부터 읽음)
+     */
+    @Bean
+    public ConsumerFactory<String, byte[]> deadLetterReplayConsumerFactory() {
+        Map<String, Object> configProps = consumerConfigs();
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, "chat-dlt-replay");
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        return new DefaultKafkaConsumerFactory<>(configProps,
+                new StringDeserializer(), new ByteArrayDeserializer());
+    }
+
+    /**
+     * Consumer 공통 설정
+     */
+    private Map<String, Object> consumerConfigs() {
         Map<String, Object> configProps = new HashMap<>();
         
         // 기본 설정
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
-        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         
         // 🚀 성능 최적화 설정
         configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
@@ -103,7 +191,7 @@ public class KafkaConfig {
         configProps.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, 
                 "org.apache.kafka.clients.consumer.CooperativeStickyAssignor");
         
-        return new DefaultKafkaConsumerFactory<>(configProps);
+        return configProps;
     }
 
     /**
@@ -124,7 +212,7 @@ public class KafkaConfig {
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
         
         // 에러 핸들링
-        factory.setCommonErrorHandler(new org.springframework.kafka.listener.DefaultErrorHandler());
+        factory.setCommonErrorHandler(new DefaultErrorHandler());
         
         // 자동 시작
         factory.setAutoStartup(true);
@@ -132,6 +220,28 @@ public class KafkaConfig {
         return factory;
     }
 
+    /**
+     * 🚀 chat-messages 배치 처리용 Listener Container Factory (바이너리 포맷)
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ChatMessage> chatMessageListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, ChatMessage> factory = 
+                new ConcurrentKafkaListenerContainerFactory<>();
+        
+        factory.setConsumerFactory(chatMessageConsumerFactory());
+        factory.setConcurrency(chatPartitions); // 파티션 수와 동일 (ChatConsumerTuner 가 함께 조정)
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        // 레코드 단위 실패는 리스너가 DLT 로 격리하므로, 여기까지 온 예외는 DB/브로커 장애
+        // -> 건너뛰지 않고 배치 전체를 백오프하며 재전달 (최대 30초 간격, 무제한)
+        ExponentialBackOff backOff = new ExponentialBackOff(1000L, 2.0);
+        backOff.setMaxInterval(30_000L);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+        factory.setAutoStartup(true);
+        
+        return factory;
+    }
+
     /**
      * 단일 메시지 처리용 Listener Container Factory
      */
@@ -145,7 +255,7 @@ public class KafkaConfig {
         factory.setBatchListener(false); // 단일 메시지 처리
         
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
-        factory.setCommonErrorHandler(new org.springframework.kafka.listener.DefaultErrorHandler());
+        factory.setCommonErrorHandler(new DefaultErrorHandler());
         factory.setAutoStartup(true);
         
         return factory;
@@ -16,6 +16,9 @@ public class KafkaTopicConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${app.chat.consumer.partitions:3}")
+    private int chatPartitions;
+
     @Bean
     public KafkaAdmin kafkaAdmin() {
         Map<String, Object> configs = new HashMap<>();
@@ -23,10 +26,34 @@ public class KafkaTopicConfig {
         return new KafkaAdmin(configs);
     }
 
-    // 채팅 메시지 토픽
+    // 채팅 메시지 토픽 (파티션 수 = 리스너 동시성, 이미 더 많으면 그대로 유지)
     @Bean
     public NewTopic chatMessageTopic() {
-        return new NewTopic("chat-messages", 3, (short) 1);
+        return new NewTopic("chat-messages", chatPartitions, (short) 1);
+    }
+
+    // 채팅 메시지 처리 실패 레코드 (ChatDeadLetterService)
+    @Bean
+    public NewTopic chatMessageDeadLetterTopic() {
+        return new NewTopic("chat-messages.DLT", 3, (short) 1);
+    }
+
+    // 채팅방 읽음 이벤트 (안읽은 카운트 스트림 처리기 입력, chat-messages 와 파티션 수가 같아야 함)
+    @Bean
+    public NewTopic chatReadReceiptTopic() {
+        return new NewTopic("chat-read-receipts", chatPartitions, (short) 1);
+    }
+
+    // 채팅방 참여자 변경 (안읽은 카운트 스트림 처리기 입력, chat-messages 와 파티션 수가 같아야 함)
+    @Bean
+    public NewTopic chatRoomParticipantTopic() {
+        return new NewTopic("chat-room-participants", chatPartitions, (short) 1);
+    }
+
+    // 안읽은 카운트 스트림 처리기 출력 (Key = userId, UnreadCountRedisWriter 가 Redis 에 반영)
+    @Bean
+    public NewTopic unreadCountUpdateTopic() {
+        return new NewTopic("chat-unread-count-updates", 3, (short) 1);
     }
 
     // 알림 토픽
@@ -0,0 +1,86 @@
+package wedding.alba.kafka.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.errors.LogAndContinueExceptionHandler;
+import org.apache.kafka.streams.kstream.KStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
+import org.springframework.kafka.config.KafkaStreamsConfiguration;
+import wedding.alba.kafka.dto.UnreadCountUpdate;
+import wedding.alba.kafka.streams.UnreadCountTopology;
+import wedding.alba.kafka.streams.UnreadStreamsMode;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 🚀 안읽은 카운트 Kafka Streams 처리기 (app.chat.unread.streams.mode 가 off 가 아닐 때만)
+ * chat-messages + chat-read-receipts + chat-room-participants (같은 chatRoomId Key, 같은 파티션 수) -> UnreadCountTopology
+ * 처음 기동하면 지금 시점부터 처리하므로 UnreadStreamsEndpoint 의 seed 로 user_inbox 기준 참여자/값을 먼저 적재
+ */
+@Configuration
+@EnableKafkaStreams
+@ConditionalOnExpression("!'${app.chat.unread.streams.mode:off}'.equalsIgnoreCase('off')")
+@RequiredArgsConstructor
+public class UnreadStreamsConfig {
+
+    public static final String APPLICATION_ID = "chat-unread-counts";
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${app.chat.unread.streams.mode:off}")
+    private String mode;
+
+    @Value("${app.chat.unread.streams.state-dir:/tmp/kafka-streams}")
+    private String stateDir;
+
+    @Value("${app.chat.unread.streams.processing-guarantee:exactly_once_v2}")
+    private String processingGuarantee;
+
+    @Value("${app.chat.unread.streams.threads:1}")
+    private int threads;
+
+    @Value("${app.chat.unread.streams.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${app.chat.unread.streams.dedup-window-ms:3600000}")
+    private long dedupWindowMs;
+
+    @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
+    public KafkaStreamsConfiguration defaultKafkaStreamsConfig() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, APPLICATION_ID);
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir);
+        props.put(StreamsConfig.PROCESSING_GUARANTEE_CONFIG, processingGuarantee);
+        props.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, threads);
+        props.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.StringSerde.class);
+        props.put(StreamsConfig.DEFAULT_DESERIALIZATION_EXCEPTION_HANDLER_CLASS_CONFIG, LogAndContinueExceptionHandler.class);
+        // 기존 메시지는 다시 세지 않음 (초기값은 user_inbox 에서 적재)
+        props.put(StreamsConfig.consumerPrefix(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG), "latest");
+        return new KafkaStreamsConfiguration(props);
+    }
+
+    @Bean
+    public KStream<String, UnreadCountUpdate> unreadCountStream(StreamsBuilder builder) {
+        // SHADOW 에서는 상태만 계산하고 Redis 는 기존 방식이 관리
+        boolean publishUpdates = UnreadStreamsMode.of(mode) == UnreadStreamsMode.PRIMARY;
+        return UnreadCountTopology.build(builder, objectMapper, meterRegistry, publishUpdates,
+                Duration.ofMillis(flushIntervalMs), Duration.ofMillis(dedupWindowMs));
+    }
+}
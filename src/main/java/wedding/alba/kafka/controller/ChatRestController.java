@@ -11,24 +11,27 @@ import org.springframework.web.bind.annotation.*;
 import wedding.alba.dto.ApiResponse;
 import wedding.alba.entity.ChatMessage;
 import wedding.alba.entity.ChatRoom;
+import wedding.alba.kafka.dto.ChatMessageCursorPage;
+import wedding.alba.kafka.dto.ChatMessageSearchPage;
 import wedding.alba.kafka.dto.ChatMessageRequest;
 import wedding.alba.kafka.dto.ChatRoomCreateRequest;
 import wedding.alba.kafka.dto.ChatRoomResponse;
 import wedding.alba.kafka.dto.ChatRoomInitResponse;
-import wedding.alba.kafka.dto.ChatRoomWithUserInfo;
+import wedding.alba.kafka.dto.ChatSyncRequest;
+import wedding.alba.kafka.dto.ChatSyncResponse;
 import wedding.alba.kafka.dto.CreatePersonalChatRoomRequest;
 import wedding.alba.kafka.dto.InviteUserRequest;
 import wedding.alba.kafka.dto.MarkReadRequest;
 import wedding.alba.kafka.service.ChatMessageService;
 import wedding.alba.kafka.service.ChatProducer;
 import wedding.alba.kafka.service.ChatOptimizationService;
+import wedding.alba.kafka.service.ChatPresenceService;
 import wedding.alba.kafka.service.UnreadCountService;
 import wedding.alba.kafka.dto.UnreadCountResponse;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/chat")
@@ -40,6 +43,7 @@ public class ChatRestController {
     private final ChatProducer chatProducer;
     private final ChatOptimizationService chatOptimizationService;
     private final UnreadCountService unreadCountService;
+    private final ChatPresenceService chatPresenceService;
 
     /**
      * 현재 인증된 사용자 ID 추출
@@ -82,13 +86,12 @@ public class ChatRestController {
             // DTO 변환
             ChatRoomResponse chatRoomDto = convertToResponse(initData.getChatRoom());
             
-            List<wedding.alba.kafka.dto.ChatMessage> messageDtos = initData.getRecentMessages().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+            List<wedding.alba.kafka.dto.ChatMessage> messageDtos = initData.getRecentMessages();
             
             ChatRoomInitResponse response = ChatRoomInitResponse.builder()
                 .chatRoom(chatRoomDto)
                 .recentMessages(messageDtos)
+                .onlineUserCount(chatPresenceService.getOnlineUserCount(chatRoomId))
                 .loadTime(System.currentTimeMillis())
                 .serverTime(System.currentTimeMillis())
                 .build();
@@ -156,27 +159,14 @@ public class ChatRestController {
         Long userId = getCurrentUserId(); // 토큰에서 사용자 ID 추출
         
         try {
-            // 1. 채팅방 목록 조회
-            List<ChatRoomWithUserInfo> chatRoomsWithUserInfo = chatMessageService.getUserChatRoomsWithUserInfoSimple(userId);
-            
-            // 2. 안읽은 메시지 개수 정보 조회
-            UnreadCountResponse unreadCountResponse = unreadCountService.getUserUnreadCounts(userId);
-            Map<Long, Integer> unreadCounts = unreadCountResponse.getChatRoomUnreadCounts();
-            
-            // 3. 채팅방 정보에 안읽은 개수 포함해서 응답 생성
-            List<ChatRoomResponse> responses = chatRoomsWithUserInfo.stream()
-                    .map(chatRoomWithUserInfo -> {
-                        ChatRoomResponse response = convertToResponseWithUserInfo(chatRoomWithUserInfo);
-                        // 안읽은 메시지 개수 설정
-                        Long chatRoomId = response.getChatRoomId();
-                        Integer unreadCount = unreadCounts.getOrDefault(chatRoomId, 0);
-                        response.setUnreadMessageCount(unreadCount);
-                        return response;
-                    })
-                    .collect(Collectors.toList());
+            // 채팅방 목록 조회 (상대방 정보 + 마지막 메시지 + 안읽은 개수, 정렬은 DB에서 완료)
+            List<ChatRoomResponse> responses = chatMessageService.getUserChatRoomList(userId);
             
+            int totalUnread = responses.stream()
+                    .mapToInt(response -> response.getUnreadMessageCount() != null ? response.getUnreadMessageCount() : 0)
+                    .sum();
             log.info("채팅방 목록 API 응답: userId={}, count={}, totalUnread={}", 
-                    userId, responses.size(), unreadCountResponse.getTotalUnreadCount());
+                    userId, responses.size(), totalUnread);
             
             return ResponseEntity.ok(ApiResponse.<List<ChatRoomResponse>>success("채팅방 목록 조회 성공", responses));
         } catch (Exception e) {
@@ -204,6 +194,50 @@ public class ChatRestController {
         }
     }
 
+    /**
+     * 🚀 커서 기반 이전 메시지 조회 (OFFSET/COUNT 없음)
+     * timestamp, messageId 를 생략하면 최신 메시지부터 (messageId 가 시간순 ID면 timestamp 생략 가능)
+     */
+    @GetMapping("/rooms/{chatRoomId}/messages/before")
+    public ResponseEntity<ApiResponse<ChatMessageCursorPage>> getChatMessagesBefore(
+            @PathVariable Long chatRoomId,
+            @RequestParam(required = false) String timestamp,
+            @RequestParam(required = false) String messageId,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            LocalDateTime cursorTime = timestamp != null ? LocalDateTime.parse(timestamp) : null;
+            ChatMessageCursorPage page = chatMessageService.getChatMessagesBefore(chatRoomId, cursorTime, messageId, size);
+            return ResponseEntity.ok(ApiResponse.success("이전 메시지 조회 성공", page));
+        } catch (Exception e) {
+            log.error("이전 메시지 조회 실패: chatRoomId={}, timestamp={}, messageId={}, error={}", 
+                    chatRoomId, timestamp, messageId, e.getMessage(), e);
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("메시지 조회에 실패했습니다: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 🚀 커서 기반 이후 메시지 조회 (OFFSET/COUNT 없음)
+     * messageId 가 시간순 ID면 timestamp 생략 가능
+     */
+    @GetMapping("/rooms/{chatRoomId}/messages/after")
+    public ResponseEntity<ApiResponse<ChatMessageCursorPage>> getChatMessagesAfter(
+            @PathVariable Long chatRoomId,
+            @RequestParam(required = false) String timestamp,
+            @RequestParam String messageId,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            LocalDateTime cursorTime = timestamp != null ? LocalDateTime.parse(timestamp) : null;
+            ChatMessageCursorPage page = chatMessageService.getChatMessagesAfter(chatRoomId, cursorTime, messageId, size);
+            return ResponseEntity.ok(ApiResponse.success("이후 메시지 조회 성공", page));
+        } catch (Exception e) {
+            log.error("이후 메시지 조회 실패: chatRoomId={}, timestamp={}, messageId={}, error={}", 
+                    chatRoomId, timestamp, messageId, e.getMessage(), e);
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("메시지 조회에 실패했습니다: " + e.getMessage()));
+        }
+    }
+
     /**
      * 특정 시간 이후 메시지 조회
      */
@@ -223,6 +257,23 @@ public class ChatRestController {
         }
     }
 
+    /**
+     * 🚀 재접속 동기화 API
+     * 채팅방별 마지막 커서를 보내면 참여 중인 모든 채팅방의 새 메시지 / 삭제 / 안읽은 수를 한 번에 반환
+     */
+    @PostMapping("/sync")
+    public ResponseEntity<ApiResponse<ChatSyncResponse>> syncChatRooms(@RequestBody ChatSyncRequest request) {
+        Long userId = getCurrentUserId();
+        try {
+            ChatSyncResponse response = chatMessageService.syncChatRooms(userId, request);
+            return ResponseEntity.ok(ApiResponse.success("동기화 성공", response));
+        } catch (Exception e) {
+            log.error("재접속 동기화 실패: userId={}, error={}", userId, e.getMessage(), e);
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("동기화에 실패했습니다: " + e.getMessage()));
+        }
+    }
+
     /**
      * 채팅 메시지 전송
      */
@@ -317,6 +368,22 @@ public class ChatRestController {
         }
     }
 
+    /**
+     * 채팅방 나가기
+     */
+    @PostMapping("/rooms/{chatRoomId}/leave")
+    public ResponseEntity<ApiResponse<String>> leaveChatRoom(@PathVariable Long chatRoomId) {
+        try {
+            Long userId = getCurrentUserId();
+            chatMessageService.leaveChatRoom(chatRoomId, userId);
+            return ResponseEntity.ok(ApiResponse.success("채팅방 나가기 성공", "채팅방에서 나갔습니다."));
+        } catch (Exception e) {
+            log.error("채팅방 나가기 실패: chatRoomId={}, error={}", chatRoomId, e.getMessage(), e);
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("채팅방 나가기에 실패했습니다: " + e.getMessage()));
+        }
+    }
+
     /**
      * 메시지 읽음 처리
      */
@@ -354,6 +421,58 @@ public class ChatRestController {
         }
     }
 
+    /**
+     * 🚀 채팅방 내 메시지 검색 (관련도순, 커서 기반)
+     * score, timestamp, messageId 는 이전 응답의 cursor 값 (첫 페이지는 생략)
+     */
+    @GetMapping("/rooms/{chatRoomId}/search/page")
+    public ResponseEntity<ApiResponse<ChatMessageSearchPage>> searchMessagesPage(
+            @PathVariable Long chatRoomId,
+            @RequestParam String keyword,
+            @RequestParam(required = false) Float score,
+            @RequestParam(required = false) String timestamp,
+            @RequestParam(required = false) String messageId,
+            @RequestParam(defaultValue = "20") int size) {
+        Long userId = getCurrentUserId();
+        
+        try {
+            LocalDateTime cursorTime = timestamp != null ? LocalDateTime.parse(timestamp) : null;
+            ChatMessageSearchPage page = chatMessageService.searchMessagesInChatRoom(
+                    userId, chatRoomId, keyword, score, cursorTime, messageId, size);
+            return ResponseEntity.ok(ApiResponse.success("메시지 검색 성공", page));
+        } catch (Exception e) {
+            log.error("메시지 검색 실패: chatRoomId={}, keyword={}, error={}", 
+                    chatRoomId, keyword, e.getMessage(), e);
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("메시지 검색에 실패했습니다: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * 🚀 내가 참여 중인 모든 채팅방에서 메시지 검색 (관련도순, 커서 기반)
+     */
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<ChatMessageSearchPage>> searchMyMessages(
+            @RequestParam String keyword,
+            @RequestParam(required = false) Float score,
+            @RequestParam(required = false) String timestamp,
+            @RequestParam(required = false) String messageId,
+            @RequestParam(defaultValue = "20") int size) {
+        Long userId = getCurrentUserId();
+        
+        try {
+            LocalDateTime cursorTime = timestamp != null ? LocalDateTime.parse(timestamp) : null;
+            ChatMessageSearchPage page = chatMessageService.searchMessagesInUserChatRooms(
+                    userId, keyword, score, cursorTime, messageId, size);
+            return ResponseEntity.ok(ApiResponse.success("메시지 검색 성공", page));
+        } catch (Exception e) {
+            log.error("전체 메시지 검색 실패: userId={}, keyword={}, error={}", 
+                    userId, keyword, e.getMessage(), e);
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("메시지 검색에 실패했습니다: " + e.getMessage()));
+        }
+    }
+
     /**
      * 마지막 메시지 조회
      */
@@ -369,6 +488,21 @@ public class ChatRestController {
         }
     }
 
+    /**
+     * 온라인 사용자 목록 조회 (이후 변경분은 /topic/presence/{chatRoomId} 구독)
+     */
+    @GetMapping("/rooms/{chatRoomId}/online")
+    public ResponseEntity<ApiResponse<Set<Long>>> getOnlineUsers(@PathVariable Long chatRoomId) {
+        try {
+            Set<Long> onlineUserIds = chatPresenceService.getOnlineUserIds(chatRoomId);
+            return ResponseEntity.ok(ApiResponse.success("온라인 사용자 조회 성공", onlineUserIds));
+        } catch (Exception e) {
+            log.error("온라인 사용자 조회 실패: chatRoomId={}, error={}", chatRoomId, e.getMessage(), e);
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("온라인 사용자 조회에 실패했습니다: " + e.getMessage()));
+        }
+    }
+
     /**
      * Kafka 서비스 상태 확인
      */
@@ -492,53 +626,4 @@ public class ChatRestController {
                 .build();
     }
     
-    /**
-     * ChatRoomWithUserInfo를 Response DTO로 변환 (사용자 정보 포함)
-     */
-    private ChatRoomResponse convertToResponseWithUserInfo(ChatRoomWithUserInfo chatRoomWithUserInfo) {
-        ChatRoom chatRoom = chatRoomWithUserInfo.getChatRoom();
-        
-        return ChatRoomResponse.builder()
-                .chatRoomId(chatRoom.getChatRoomId())
-                .roomName(chatRoom.getRoomName())
-                .type(chatRoom.getType().toString())
-                .creatorUserId(chatRoom.getCreatorUserId())
-                .hostUserId(chatRoom.getHostUserId())
-                .guestUserId(chatRoom.getGuestUserId())
-                .postingId(chatRoom.getPostingId())
-                // 사용자 정보 추가
-                .hostName(chatRoomWithUserInfo.getHostName())
-                .hostNickname(chatRoomWithUserInfo.getHostNickname())
-                .hostProfileImage(chatRoomWithUserInfo.getHostProfileImage())
-                .guestName(chatRoomWithUserInfo.getGuestName())
-                .guestNickname(chatRoomWithUserInfo.getGuestNickname())
-                .guestProfileImage(chatRoomWithUserInfo.getGuestProfileImage())
-                .maxParticipants(chatRoom.getMaxParticipants())
-                .isPublic(chatRoom.getIsPublic())
-                .description(chatRoom.getDescription())
-                .createdAt(chatRoom.getCreatedAt())
-                .lastMessageAt(chatRoom.getLastMessageAt())
-                .lastActiveAt(chatRoom.getLastActiveAt())
-                .build();
-    }
-
-    /**
-     * ChatMessage 엔티티를 DTO로 변환
-     */
-    private wedding.alba.kafka.dto.ChatMessage convertToDto(ChatMessage entity) {
-        return wedding.alba.kafka.dto.ChatMessage.builder()
-                .messageId(entity.getMessageId())
-                .chatRoomId(entity.getChatRoomId())
-                .senderId(entity.getSenderId())
-                .senderName(entity.getSenderName())
-                .senderProfileImage(entity.getSenderProfileImage())
-                .content(entity.getContent())
-                .type(wedding.alba.kafka.dto.ChatMessage.MessageType.valueOf(entity.getType().name()))
-                .timestamp(entity.getTimestamp())
-                .mentionUserId(entity.getMentionUserId())
-                .isSystemMessage(entity.getIsSystemMessage())
-                .attachmentUrl(entity.getAttachmentUrl())
-                .attachmentType(entity.getAttachmentType())
-                .build();
-    }
 }
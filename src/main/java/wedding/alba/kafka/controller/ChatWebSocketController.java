@@ -11,6 +11,8 @@ import org.springframework.stereotype.Controller;
 import wedding.alba.kafka.dto.ChatMessage;
 import wedding.alba.kafka.service.ChatProducer;
 import wedding.alba.kafka.service.ChatMessageService;
+import wedding.alba.kafka.service.ChatPresenceService;
+import wedding.alba.kafka.service.TypingIndicatorService;
 
 import java.security.Principal;
 
@@ -21,6 +23,8 @@ public class ChatWebSocketController {
 
     private final ChatProducer chatProducer;
     private final ChatMessageService chatMessageService;
+    private final TypingIndicatorService typingIndicatorService;
+    private final ChatPresenceService chatPresenceService;
 
     /**
      * 현재 인증된 사용자 ID 추출
@@ -163,6 +167,9 @@ public class ChatWebSocketController {
             headerAccessor.getSessionAttributes().put("chatRoomId", chatMessage.getChatRoomId());
             headerAccessor.getSessionAttributes().put("userId", chatMessage.getSenderId());
             headerAccessor.getSessionAttributes().put("userName", chatMessage.getSenderName());
+
+            // 🚀 온라인 상태 등록 (이후 하트비트는 ChatPresenceService가 일괄 반영)
+            chatPresenceService.join(headerAccessor.getSessionId(), chatMessage.getChatRoomId(), chatMessage.getSenderId());
             
             log.info("사용자 채팅방 입장 (메시지 전송 안함): userId={}, userName={}, chatRoomId={}", 
                     chatMessage.getSenderId(), chatMessage.getSenderName(), chatMessage.getChatRoomId());
@@ -190,6 +197,8 @@ public class ChatWebSocketController {
             // LEAVE 메시지 전송하지 않음
             // chatProducer.sendUserStatus() 호출 제거
 
+            chatPresenceService.leave(headerAccessor.getSessionId());
+
             // 세션에서 정보 제거
             headerAccessor.getSessionAttributes().remove("chatRoomId");
             headerAccessor.getSessionAttributes().remove("userId");
@@ -210,10 +219,11 @@ public class ChatWebSocketController {
             log.trace("타이핑 시작: userId={}, chatRoomId={}", 
                     chatMessage.getSenderId(), chatMessage.getChatRoomId());
             
-            chatProducer.sendTypingStatus(
+            // 🚀 Kafka를 거치지 않는 타이핑 전용 경로
+            typingIndicatorService.onTyping(
+                chatMessage.getChatRoomId(), 
                 chatMessage.getSenderId(), 
                 chatMessage.getSenderName(),
-                chatMessage.getChatRoomId(), 
                 true
             );
             
@@ -234,10 +244,10 @@ public class ChatWebSocketController {
             log.trace("타이핑 중지 (토큰): userId={}, chatRoomId={}", 
                     userId, chatMessage.getChatRoomId());
             
-            chatProducer.sendTypingStatus(
+            typingIndicatorService.onTyping(
+                chatMessage.getChatRoomId(), 
                 userId, 
                 chatMessage.getSenderName() != null ? chatMessage.getSenderName() : "사용자",
-                chatMessage.getChatRoomId(), 
                 false
             );
             
@@ -0,0 +1,49 @@
+package wedding.alba.kafka.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import wedding.alba.kafka.service.UnreadReconciliationService;
+
+import java.util.Map;
+
+/**
+ * 안읽은 카운트 스트림 전환용 운영 엔드포인트 (/actuator/unreadstreams)
+ * - GET: Redis vs 스트림 대조 리포트
+ * - POST {"action": "repair"}: 대조 후 다른 값은 스트림 값으로 Redis 수정
+ * - POST {"action": "seed"}: user_inbox 안읽은 수로 스트림 상태 초기 적재
+ */
+@Component
+@Endpoint(id = "unreadstreams")
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadStreamsEndpoint {
+
+    private final UnreadReconciliationService unreadReconciliationService;
+
+    @ReadOperation
+    public Object report() {
+        try {
+            return unreadReconciliationService.reconcile(false);
+        } catch (Exception e) {
+            return Map.of("error", String.valueOf(e.getMessage()));
+        }
+    }
+
+    @WriteOperation
+    public Object run(String action) {
+        try {
+            return switch (action) {
+                case "repair" -> unreadReconciliationService.reconcile(true);
+                case "seed" -> Map.of("seeded", unreadReconciliationService.seedFromInbox());
+                default -> Map.of("error", "지원하지 않는 action: " + action + " (repair | seed)");
+            };
+        } catch (Exception e) {
+            log.error("안읽은 카운트 스트림 작업 실패: action={}, error={}", action, e.getMessage(), e);
+            return Map.of("error", String.valueOf(e.getMessage()));
+        }
+    }
+}
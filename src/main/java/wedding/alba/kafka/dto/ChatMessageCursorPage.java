@@ -0,0 +1,30 @@
+package wedding.alba.kafka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 커서 기반 메시지 페이지 응답 DTO
+ * 다음 요청은 cursorTimestamp + cursorMessageId 를 그대로 넘기면 됨
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatMessageCursorPage {
+
+    // 메시지 목록 (before: 최신순, after: 오래된순)
+    private List<wedding.alba.entity.ChatMessage> messages;
+
+    // 같은 방향으로 더 가져올 메시지가 있는지
+    private boolean hasMore;
+
+    // 다음 페이지 커서 (마지막 메시지 기준, 메시지가 없으면 null)
+    private LocalDateTime cursorTimestamp;
+    private String cursorMessageId;
+}
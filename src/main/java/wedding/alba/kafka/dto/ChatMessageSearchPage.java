@@ -0,0 +1,53 @@
+package wedding.alba.kafka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 메시지 검색 결과 페이지 (관련도순, 커서 기반)
+ * 다음 요청은 cursorScore + cursorTimestamp + cursorMessageId 를 그대로 넘기면 됨
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatMessageSearchPage {
+
+    // 검색 결과 (관련도 -> 최신순)
+    private List<Hit> hits;
+
+    private boolean hasMore;
+
+    // 다음 페이지 커서 (마지막 결과 기준, 결과가 없으면 null)
+    private Float cursorScore;
+    private LocalDateTime cursorTimestamp;
+    private String cursorMessageId;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hit {
+        private wedding.alba.entity.ChatMessage message;
+
+        // 관련도 (pg_trgm word_similarity, 0 ~ 1)
+        private float score;
+
+        // 검색어 주변 본문 일부와 snippet 내 검색어 위치
+        private String snippet;
+        private List<Highlight> highlights;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Highlight {
+        private int start;
+        private int length;
+    }
+}
@@ -0,0 +1,30 @@
+package wedding.alba.kafka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 채팅방 참여자 변경 이벤트 (chat-room-participants 토픽, Key = chatRoomId)
+ * 안읽은 카운트 스트림 처리기가 채팅방 참여자 목록을 상태 스토어로 유지 (chat-messages 와 같은 파티션에서 처리)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatParticipantEvent {
+
+    public enum Type {
+        JOIN, LEAVE
+    }
+
+    private Long chatRoomId;
+    private Long userId;
+    private Type type;
+
+    // 입장 시각 이후 메시지만 안읽은 수에 포함 (초기 적재는 null = 이전부터 참여)
+    private LocalDateTime occurredAt;
+}
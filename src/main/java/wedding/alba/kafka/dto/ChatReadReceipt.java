@@ -0,0 +1,32 @@
+package wedding.alba.kafka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 채팅방 읽음 이벤트 (chat-read-receipts 토픽, Key = chatRoomId)
+ * 안읽은 카운트 스트림 처리기가 (사용자, 채팅방) 읽음 위치를 옮기고 그 이후 메시지만 다시 셈
+ * (unreadCount 가 있으면 그 값으로 설정)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatReadReceipt {
+
+    private Long userId;
+    private Long chatRoomId;
+
+    // null 이면 읽음 위치 기준으로 계산, 값이 있으면 그 값으로 설정 (user_inbox 기준 초기 적재용)
+    private Integer unreadCount;
+
+    // 마지막으로 읽은 메시지 (없으면 readAt 까지 모두 읽음)
+    private String lastReadMessageId;
+    private LocalDateTime lastReadMessageAt;
+
+    private LocalDateTime readAt;
+}
@@ -0,0 +1,28 @@
+package wedding.alba.kafka.dto;
+
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.kafka.support.SendResult;
+
+/**
+ * 채팅 메시지 전송 결과
+ * - SENT: Kafka 에 바로 기록됨 (metadata 에 partition/offset)
+ * - QUEUED: Kafka 전송 실패 또는 앞선 메시지 재전송 대기로 outbox 에 저장됨 (릴레이가 순서대로 전송, metadata 없음)
+ */
+public record ChatSendResult(ChatMessage message, Status status, RecordMetadata metadata) {
+
+    public enum Status {
+        SENT, QUEUED
+    }
+
+    public static ChatSendResult sent(SendResult<String, ChatMessage> result) {
+        return new ChatSendResult(result.getProducerRecord().value(), Status.SENT, result.getRecordMetadata());
+    }
+
+    public static ChatSendResult queued(ChatMessage message) {
+        return new ChatSendResult(message, Status.QUEUED, null);
+    }
+
+    public boolean isQueued() {
+        return status == Status.QUEUED;
+    }
+}
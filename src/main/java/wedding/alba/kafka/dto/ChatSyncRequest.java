@@ -0,0 +1,42 @@
+package wedding.alba.kafka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 재접속 동기화 요청 DTO
+ * 클라이언트가 채팅방별로 마지막으로 받은 메시지 커서를 보냄
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatSyncRequest {
+
+    // 채팅방별 마지막 수신 커서 (목록에 없는 참여 채팅방은 최신 메시지부터 전달)
+    private List<RoomCursor> rooms;
+
+    // 이전 동기화 응답의 syncedAt (삭제된 메시지 조회 기준, 없으면 삭제 목록 생략)
+    private LocalDateTime lastSyncedAt;
+
+    // 채팅방별 최대 메시지 수 (서버 상한 적용)
+    private Integer perRoomLimit;
+
+    // 채팅방이 많아 나눠 받을 때 이전 응답의 nextAfterChatRoomId (첫 요청은 null)
+    private Long afterChatRoomId;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RoomCursor {
+        private Long chatRoomId;
+        private LocalDateTime cursorTimestamp;
+        private String cursorMessageId;
+    }
+}
@@ -0,0 +1,69 @@
+package wedding.alba.kafka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 재접속 동기화 응답 DTO
+ * hasMore 인 채팅방은 받은 커서로 다시 요청 (응답 크기는 서버 상한으로 제한)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatSyncResponse {
+
+    // 다음 요청의 lastSyncedAt 으로 그대로 전달
+    private LocalDateTime syncedAt;
+
+    // 새 메시지가 있는 채팅방만 포함 (없는 채팅방은 기존 커서 유지)
+    private List<RoomDelta> rooms;
+
+    // 요청에 있었지만 더 이상 참여 중이 아닌 채팅방
+    private List<Long> removedChatRoomIds;
+
+    // lastSyncedAt 이후 삭제된 메시지
+    private List<DeletedMessage> deletedMessages;
+
+    // 삭제 목록이 상한에 걸려 잘렸는지 (true면 해당 채팅방 전체 재조회 권장)
+    private boolean deletionsTruncated;
+
+    // 현재 안읽은 메시지 수 (채팅방별)
+    private UnreadCountResponse unreadCounts;
+
+    // 이번 응답에 포함되지 않은 채팅방이 남아 있으면 다음 요청의 afterChatRoomId (없으면 null)
+    private Long nextAfterChatRoomId;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RoomDelta {
+        private Long chatRoomId;
+
+        // 오래된순
+        private List<wedding.alba.entity.ChatMessage> messages;
+
+        // 커서 이후 메시지가 더 남아 있는지
+        private boolean hasMore;
+
+        // 다음 동기화 커서 (마지막 메시지 기준)
+        private LocalDateTime cursorTimestamp;
+        private String cursorMessageId;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DeletedMessage {
+        private String messageId;
+        private Long chatRoomId;
+        private LocalDateTime deletedAt;
+    }
+}
@@ -0,0 +1,35 @@
+package wedding.alba.kafka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 안읽은 카운트 실시간 변경분 DTO (/user/{userId}/queue/unread)
+ * 디바운스 구간 동안 바뀐 채팅방만 담고, 전체 개수는 전송 시점 값
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnreadCountDelta {
+
+    // 사용자 ID
+    private Long userId;
+
+    // 바뀐 채팅방의 현재 안읽은 개수 (0 이면 읽음 처리된 방)
+    // Key: chatRoomId, Value: unreadCount
+    private Map<Long, Integer> chatRoomUnreadCounts;
+
+    // 전체 안읽은 메시지 개수
+    private Integer totalUnreadCount;
+
+    // 이 변경분에 합쳐진 이벤트 수
+    private Integer mergedEvents;
+
+    // 전송 시간
+    private String lastUpdated;
+}
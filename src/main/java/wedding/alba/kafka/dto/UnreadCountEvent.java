@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 /**
  * 안읽은 메시지 카운트 이벤트 DTO
@@ -33,6 +34,7 @@ public class UnreadCountEvent {
     // 카운트 정보
     private Integer unreadCount;
     private Integer totalUnreadCount;
+    private Map<Long, Integer> roomIncrements;  // 배치 처리 시 채팅방별 증가분 (chatRoomId -> 증가 수)
     
     // 시간 정보
     private LocalDateTime timestamp;
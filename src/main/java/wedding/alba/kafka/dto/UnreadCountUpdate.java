@@ -0,0 +1,21 @@
+package wedding.alba.kafka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 안읽은 카운트 스트림 처리기 출력 (chat-unread-count-updates 토픽, Key = userId)
+ * 커밋된 (사용자, 채팅방) 카운트 절대값, UnreadCountRedisWriter 가 Redis 에 반영 (0 이면 삭제)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnreadCountUpdate {
+
+    private Long userId;
+    private Long chatRoomId;
+    private Long unreadCount;
+}
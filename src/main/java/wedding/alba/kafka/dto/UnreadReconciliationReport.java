@@ -0,0 +1,45 @@
+package wedding.alba.kafka.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 안읽은 카운트 대조 리포트 (Redis vs 스트림 상태 스토어)
+ * 이 인스턴스가 담당하는 chat-messages 파티션의 채팅방만 비교
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnreadReconciliationReport {
+
+    private String mode;
+    private LocalDateTime generatedAt;
+    private List<Integer> localPartitions;
+
+    private long usersCompared;
+    private long pairsCompared;     // (사용자, 채팅방) 비교 수 (한쪽에만 있는 경우 포함)
+    private long matched;
+    private long mismatched;
+    private long redisHigher;       // Redis 가 더 큼 (읽음 처리 유실 등)
+    private long streamHigher;      // 스트림이 더 큼 (INCR 유실 등)
+    private long totalDrift;        // |Redis - 스트림| 합계
+    private long repaired;          // repair 요청 시 스트림 값으로 덮어쓴 수
+
+    private List<Mismatch> samples;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Mismatch {
+        private Long userId;
+        private Long chatRoomId;
+        private long redisCount;
+        private long streamCount;
+    }
+}
@@ -2,10 +2,14 @@ package wedding.alba.kafka.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
+import wedding.alba.kafka.codec.ChatMessageCodec;
 import wedding.alba.kafka.dto.ChatMessage;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
@@ -21,11 +25,22 @@ public class ChatCacheService {
     private final RedisTemplate<String, Object> redisTemplate;
     
     private static final String TYPING_KEY_PREFIX = "chat:typing:";
-    private static final String ONLINE_USERS_KEY_PREFIX = "chat:online:";
-    private static final String RECENT_MESSAGES_KEY_PREFIX = "chat:recent:";
+    private static final String RECENT_RING_KEY_PREFIX = "chat:recent_ring:";  // 바이너리 메시지 List (최신순)
+    private static final String RECENT_RING_VERSION_PREFIX = "chat:recent_ring_ver:";  // 메시지 추가마다 INCR
     private static final Duration TYPING_EXPIRY = Duration.ofSeconds(10);
-    private static final Duration ONLINE_EXPIRY = Duration.ofMinutes(5);
     private static final Duration RECENT_MESSAGES_EXPIRY = Duration.ofMinutes(30);
+    private static final Duration RECENT_RING_VERSION_EXPIRY = Duration.ofHours(2);
+    private static final int RECENT_RING_SIZE = 50;
+    
+    // 링이 없고, DB 조회 전에 읽은 버전이 그대로일 때만 채움
+    // (그 사이 메시지가 추가됐다면 LPUSHX 가 건너뛴 메시지가 빠진 목록일 수 있으므로 다음 조회로 미룸)
+    // KEYS[1] = 링, KEYS[2] = 버전, ARGV[1] = TTL 초, ARGV[2] = 조회 전 버전 ("" = 없음), ARGV[3..] = 최신순 메시지
+    private static final byte[] FILL_RING_SCRIPT = (
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+            "if (redis.call('GET', KEYS[2]) or '') ~= ARGV[2] then return -1 end " +
+            "for i = 3, #ARGV do redis.call('RPUSH', KEYS[1], ARGV[i]) end " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[1]) " +
+            "return 1").getBytes(StandardCharsets.UTF_8);
 
     /**
      * 🚀 타이핑 상태 캐싱 (DB 저장 없이 Redis만 사용)
@@ -91,109 +106,126 @@ public class ChatCacheService {
     }
 
     /**
-     * 🚀 온라인 사용자 상태 관리
+     * 🚀 최근 메시지 링에 새 메시지 추가 (Consumer가 DB 저장 직후 호출)
+     * 배치 전체를 파이프라인 한 번으로 LPUSHX + LTRIM. 링이 없는 채팅방은 건너뛰고
+     * 다음 조회 시 DB에서 통째로 채움 (일부만 든 링이 완전한 목록처럼 보이지 않도록)
+     * 버전을 먼저 올려서 이 메시지가 빠진 DB 조회 결과로는 링을 채우지 못하게 함
      */
-    public void setUserOnlineStatus(Long chatRoomId, Long userId, String userName, boolean isOnline) {
+    public void appendRecentMessages(List<ChatMessage> messages) {
+        if (messages == null || messages.isEmpty()) return;
+        
         try {
-            String key = ONLINE_USERS_KEY_PREFIX + chatRoomId;
-            
-            if (isOnline) {
-                Map<String, Object> userInfo = new HashMap<>();
-                userInfo.put("userId", userId);
-                userInfo.put("userName", userName);
-                userInfo.put("lastSeen", System.currentTimeMillis());
-                
-                redisTemplate.opsForHash().put(key, userId.toString(), userInfo);
-                redisTemplate.expire(key, ONLINE_EXPIRY);
-                
-                log.debug("사용자 온라인 상태 저장: chatRoomId={}, userId={}", chatRoomId, userId);
-            } else {
-                // 오프라인 시 lastSeen 업데이트 후 제거
-                redisTemplate.opsForHash().delete(key, userId.toString());
-                
-                log.debug("사용자 오프라인 상태: chatRoomId={}, userId={}", chatRoomId, userId);
+            Set<Long> chatRoomIds = new LinkedHashSet<>();
+            for (ChatMessage message : messages) {
+                chatRoomIds.add(message.getChatRoomId());
             }
             
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Long chatRoomId : chatRoomIds) {
+                    byte[] versionKey = recentRingVersionKey(chatRoomId);
+                    connection.stringCommands().incr(versionKey);
+                    connection.keyCommands().expire(versionKey, RECENT_RING_VERSION_EXPIRY.getSeconds());
+                }
+                for (ChatMessage message : messages) {
+                    connection.listCommands().lPushX(recentRingKey(message.getChatRoomId()), ChatMessageCodec.encode(message));
+                }
+                for (Long chatRoomId : chatRoomIds) {
+                    byte[] key = recentRingKey(chatRoomId);
+                    connection.listCommands().lTrim(key, 0, RECENT_RING_SIZE - 1);
+                    connection.keyCommands().expire(key, RECENT_MESSAGES_EXPIRY.getSeconds());
+                }
+                return null;
+            });
+            
+            log.debug("최근 메시지 링 추가: messageCount={}, rooms={}", messages.size(), chatRoomIds.size());
+            
         } catch (Exception e) {
-            log.error("온라인 상태 관리 실패: {}", e.getMessage(), e);
+            log.error("최근 메시지 링 추가 실패: {}", e.getMessage(), e);
         }
     }
 
     /**
-     * 채팅방의 온라인 사용자 목록 조회
+     * 최근 메시지 링 버전 (DB 조회 전에 읽어서 cacheRecentMessages 에 넘김, 없으면 "")
      */
-    public List<Map<String, Object>> getOnlineUsers(Long chatRoomId) {
+    public String getRecentMessagesVersion(Long chatRoomId) {
         try {
-            String key = ONLINE_USERS_KEY_PREFIX + chatRoomId;
-            Map<Object, Object> onlineUsers = redisTemplate.opsForHash().entries(key);
-            
-            List<Map<String, Object>> result = new ArrayList<>();
-            long currentTime = System.currentTimeMillis();
-            
-            for (Map.Entry<Object, Object> entry : onlineUsers.entrySet()) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> userInfo = (Map<String, Object>) entry.getValue();
-                Long lastSeen = (Long) userInfo.get("lastSeen");
-                
-                // 5분 이내에 활동한 사용자만 온라인으로 간주
-                if (currentTime - lastSeen <= ONLINE_EXPIRY.toMillis()) {
-                    result.add(userInfo);
-                } else {
-                    // 만료된 온라인 상태 제거
-                    redisTemplate.opsForHash().delete(key, entry.getKey());
-                }
-            }
-            
-            return result;
-            
+            byte[] version = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                    connection.stringCommands().get(recentRingVersionKey(chatRoomId)));
+            return version != null ? new String(version, StandardCharsets.UTF_8) : "";
         } catch (Exception e) {
-            log.error("온라인 사용자 목록 조회 실패: {}", e.getMessage(), e);
-            return List.of();
+            log.error("최근 메시지 링 버전 조회 실패: {}", e.getMessage(), e);
+            return null;
         }
     }
 
     /**
-     * 🚀 최근 메시지 캐싱 (빠른 조회를 위해)
+     * 🚀 최근 메시지 링 채우기 (DB 조회 결과, 최신순)
+     * 링이 이미 있거나 조회 이후 버전이 바뀌었으면 (새 메시지 추가) 건너뜀
      */
-    public void cacheRecentMessages(Long chatRoomId, List<ChatMessage> messages) {
+    public void cacheRecentMessages(Long chatRoomId, String version, List<ChatMessage> messages) {
+        if (version == null || messages == null || messages.isEmpty()) return;
+
         try {
-            String key = RECENT_MESSAGES_KEY_PREFIX + chatRoomId;
-            
-            // 최근 50개 메시지만 캐싱
-            List<ChatMessage> recentMessages = messages.size() > 50 
-                ? messages.subList(0, 50) 
+            List<ChatMessage> recentMessages = messages.size() > RECENT_RING_SIZE
+                ? messages.subList(0, RECENT_RING_SIZE)
                 : messages;
             
-            redisTemplate.opsForValue().set(key, recentMessages, RECENT_MESSAGES_EXPIRY);
+            byte[][] keysAndArgs = new byte[recentMessages.size() + 4][];
+            keysAndArgs[0] = recentRingKey(chatRoomId);
+            keysAndArgs[1] = recentRingVersionKey(chatRoomId);
+            keysAndArgs[2] = String.valueOf(RECENT_MESSAGES_EXPIRY.getSeconds()).getBytes(StandardCharsets.UTF_8);
+            keysAndArgs[3] = version.getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < recentMessages.size(); i++) {
+                keysAndArgs[i + 4] = ChatMessageCodec.encode(recentMessages.get(i));
+            }
+            
+            Long result = redisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.scriptingCommands().eval(FILL_RING_SCRIPT, ReturnType.INTEGER, 2, keysAndArgs));
             
-            log.debug("최근 메시지 캐싱: chatRoomId={}, messageCount={}", chatRoomId, recentMessages.size());
+            log.debug("최근 메시지 링 채움: chatRoomId={}, messageCount={}, result={}", chatRoomId, recentMessages.size(), result);
             
         } catch (Exception e) {
-            log.error("최근 메시지 캐싱 실패: {}", e.getMessage(), e);
+            log.error("최근 메시지 링 채우기 실패: {}", e.getMessage(), e);
         }
     }
 
     /**
-     * 캐시된 최근 메시지 조회
+     * 최근 메시지 링 조회 (최신순, 링이 없으면 null)
+     * 채우기와 추가가 겹치면 같은 메시지가 두 번 들어갈 수 있어 messageId 로 중복 제거
      */
-    @SuppressWarnings("unchecked")
-    public List<ChatMessage> getCachedRecentMessages(Long chatRoomId) {
+    public List<ChatMessage> getCachedRecentMessages(Long chatRoomId, int limit) {
         try {
-            String key = RECENT_MESSAGES_KEY_PREFIX + chatRoomId;
-            Object cached = redisTemplate.opsForValue().get(key);
+            List<byte[]> encoded = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                    connection.listCommands().lRange(recentRingKey(chatRoomId), 0, limit - 1));
             
-            if (cached != null) {
-                return (List<ChatMessage>) cached;
+            if (encoded == null || encoded.isEmpty()) {
+                return null;
             }
             
-            return null;
+            List<ChatMessage> result = new ArrayList<>(encoded.size());
+            Set<String> seen = new HashSet<>();
+            for (byte[] data : encoded) {
+                ChatMessage message = ChatMessageCodec.decode(data);
+                if (message.getMessageId() == null || seen.add(message.getMessageId())) {
+                    result.add(message);
+                }
+            }
+            return result;
             
         } catch (Exception e) {
-            log.error("캐시된 최근 메시지 조회 실패: {}", e.getMessage(), e);
+            log.error("최근 메시지 링 조회 실패: {}", e.getMessage(), e);
             return null;
         }
     }
 
+    private static byte[] recentRingKey(Long chatRoomId) {
+        return (RECENT_RING_KEY_PREFIX + chatRoomId).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] recentRingVersionKey(Long chatRoomId) {
+        return (RECENT_RING_VERSION_PREFIX + chatRoomId).getBytes(StandardCharsets.UTF_8);
+    }
+
     /**
      * 🚀 읽지 않은 메시지 수 캐싱
      */
@@ -307,17 +339,6 @@ public class ChatCacheService {
                 }
             }
 
-            // 만료된 온라인 상태 정리
-            Set<String> onlineKeys = redisTemplate.keys(ONLINE_USERS_KEY_PREFIX + "*");
-            if (onlineKeys != null && !onlineKeys.isEmpty()) {
-                for (String key : onlineKeys) {
-                    Long ttl = redisTemplate.getExpire(key, TimeUnit.SECONDS);
-                    if (ttl != null && ttl <= 0) {
-                        redisTemplate.delete(key);
-                    }
-                }
-            }
-            
             log.debug("만료된 채팅 캐시 정리 완료");
             
         } catch (Exception e) {
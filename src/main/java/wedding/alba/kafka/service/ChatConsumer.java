@@ -3,20 +3,30 @@ package wedding.alba.kafka.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.NonTransientDataAccessResourceException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.transaction.annotation.Transactional;
 import wedding.alba.kafka.dto.ChatMessage;
-import wedding.alba.repository.ChatRoomParticipantRepository;
+import wedding.alba.kafka.service.ChatDeadLetterService.FailureClass;
 
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,66 +34,106 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ChatConsumer {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final ChatFanoutService chatFanoutService;
     private final ObjectMapper objectMapper;
     private final ChatMessageService chatMessageService;
     private final UnreadCountService unreadCountService;
-    private final ChatRoomParticipantRepository chatRoomParticipantRepository;
+    private final ChatParticipantCache chatParticipantCache;
+    private final ChatRoomLaneExecutor chatRoomLaneExecutor;
+    private final ChatCacheService chatCacheService;
+    private final ChatDeadLetterService chatDeadLetterService;
+    private final ChatConsumerTuner chatConsumerTuner;
+
+    @Value("${app.chat.dlt.publish-timeout-ms:10000}")
+    private long deadLetterPublishTimeoutMs;
 
     /**
      * 🚀 배치 메시지 처리 - 성능 최적화
      * 여러 메시지를 한번에 처리하여 DB 부하 감소
+     * 값은 ChatMessageDeserializer가 바이너리/JSON 모두 디코딩해서 전달 (파싱 실패 시 null)
+     * 처리할 수 없는 레코드는 chat-messages.DLT 로 격리하고 나머지는 정상 커밋
      */
-    @KafkaListener(topics = "chat-messages", groupId = "chat-group", containerFactory = "kafkaListenerContainerFactory")
-    public void consumeChatMessagesBatch(@Payload List<String> messages,
-                                        @Header(KafkaHeaders.RECEIVED_KEY) List<String> keys,
-                                        Acknowledgment ack) {
-        try {
-            log.debug("배치 메시지 수신: {} 개", messages.size());
-            
-            // 메시지 파싱 및 분류
-            List<ChatMessage> chatMessages = new ArrayList<>();
-            List<ChatMessage> typingMessages = new ArrayList<>();
-            List<ChatMessage> dbMessages = new ArrayList<>();
-            
-            for (String message : messages) {
-                try {
-                    ChatMessage chatMessage = objectMapper.readValue(message, ChatMessage.class);
-                    chatMessages.add(chatMessage);
-                    
-                    // 메시지 타입별 분류
-                    if (chatMessage.getType() == ChatMessage.MessageType.TYPING || 
-                        chatMessage.getType() == ChatMessage.MessageType.STOP_TYPING) {
-                        typingMessages.add(chatMessage);
-                    } else if (chatMessage.getType() != ChatMessage.MessageType.JOIN && 
-                              chatMessage.getType() != ChatMessage.MessageType.LEAVE) {
-                        dbMessages.add(chatMessage);
-                    }
-                } catch (Exception e) {
-                    log.error("메시지 파싱 실패: {}", e.getMessage());
-                }
+    @KafkaListener(id = ChatConsumerTuner.LISTENER_ID, topics = "chat-messages", groupId = ChatConsumerTuner.GROUP_ID,
+            containerFactory = "chatMessageListenerContainerFactory")
+    public void consumeChatMessagesBatch(List<ConsumerRecord<String, ChatMessage>> records, Acknowledgment ack) {
+        log.debug("배치 메시지 수신: {} 개", records.size());
+        long startedAt = System.nanoTime();
+        
+        // 채팅방별 그룹화 (수신 순서 유지)
+        Map<Long, List<ChatMessage>> messagesByRoom = new LinkedHashMap<>();
+        List<ConsumerRecord<String, ChatMessage>> dbRecords = new ArrayList<>();
+        List<CompletableFuture<?>> deadLetters = new ArrayList<>();
+        
+        for (ConsumerRecord<String, ChatMessage> record : records) {
+            ChatMessage chatMessage = record.value();
+            if (chatMessage == null) {
+                deadLetters.add(chatDeadLetterService.publishUndecodable(record));
+                continue;
             }
+            if (chatMessage.getChatRoomId() == null || chatMessage.getType() == null) {
+                deadLetters.add(chatDeadLetterService.publish(record, FailureClass.VALIDATION,
+                        new IllegalArgumentException("chatRoomId/type 누락: messageId=" + chatMessage.getMessageId())));
+                continue;
+            }
+            messagesByRoom.computeIfAbsent(chatMessage.getChatRoomId(), k -> new ArrayList<>())
+                    .add(chatMessage);
             
-            // 🚀 병렬 처리로 성능 향상
-            CompletableFuture<Void> dbTask = CompletableFuture.runAsync(() -> 
-                processDatabaseMessages(dbMessages));
-            
-            CompletableFuture<Void> typingTask = CompletableFuture.runAsync(() -> 
-                processTypingMessages(typingMessages));
-            
-            CompletableFuture<Void> websocketTask = CompletableFuture.runAsync(() -> 
-                processWebSocketMessages(chatMessages));
-            
-            // 모든 작업 완료 대기
-            CompletableFuture.allOf(dbTask, typingTask, websocketTask).join();
-            
-            log.debug("배치 메시지 처리 완료: {} 개", messages.size());
-            ack.acknowledge();
-            
+            if (isDatabaseMessage(chatMessage)) {
+                dbRecords.add(record);
+            }
+        }
+        
+        // 🚀 채팅방별 레인으로 분배 - 같은 방은 순서 보장, 다른 방은 병렬 처리
+        CompletableFuture<Void> laneTask = chatRoomLaneExecutor.submitAll(messagesByRoom, this::processRoomMessages);
+        
+        // 🚀 그동안 폴 전체를 한 번에 DB 저장 (실패 레코드만 DLT)
+        processDatabaseMessages(dbRecords, deadLetters);
+        
+        // 실시간 전송은 재시도하지 않음 (저장된 메시지는 이력 조회로 복구)
+        try {
+            laneTask.join();
         } catch (Exception e) {
-            log.error("배치 메시지 처리 오류: {}", e.getMessage(), e);
-            ack.acknowledge(); // 무한 재시도 방지
+            log.error("채팅방 레인 처리 오류: {}", e.getMessage(), e);
         }
+        
+        // DLT 전송이 확인된 뒤에만 ack (실패 시 예외 -> DefaultErrorHandler 가 배치 재전달, 저장은 message_id 로 중복 제거)
+        awaitDeadLetters(deadLetters);
+        
+        log.debug("배치 메시지 처리 완료: 수신={}, DLT={}", records.size(), deadLetters.size());
+        ack.acknowledge();
+        
+        // 폴 크기 / 동시성 자동 조정용
+        chatConsumerTuner.recordBatch(records.size(), System.nanoTime() - startedAt);
+    }
+
+    /**
+     * 🚀 한 채팅방의 배치 메시지 실시간 전송 (레인 스레드에서 실행)
+     */
+    private void processRoomMessages(List<ChatMessage> roomMessages) {
+        List<ChatMessage> typingMessages = new ArrayList<>();
+        List<ChatMessage> chatMessages = new ArrayList<>();
+        
+        for (ChatMessage chatMessage : roomMessages) {
+            if (chatMessage.getType() == ChatMessage.MessageType.TYPING || 
+                chatMessage.getType() == ChatMessage.MessageType.STOP_TYPING) {
+                typingMessages.add(chatMessage);
+            } else {
+                chatMessages.add(chatMessage);
+            }
+        }
+        
+        processTypingMessages(typingMessages);
+        processWebSocketMessages(chatMessages);
+    }
+
+    /**
+     * DB 저장 대상 메시지 여부 (타이핑, 입장/퇴장 제외)
+     */
+    private boolean isDatabaseMessage(ChatMessage chatMessage) {
+        return chatMessage.getType() != ChatMessage.MessageType.TYPING &&
+               chatMessage.getType() != ChatMessage.MessageType.STOP_TYPING &&
+               chatMessage.getType() != ChatMessage.MessageType.JOIN &&
+               chatMessage.getType() != ChatMessage.MessageType.LEAVE;
     }
 
     /**
@@ -138,31 +188,99 @@ public class ChatConsumer {
 
     /**
      * 🚀 데이터베이스 메시지 배치 처리 (안읽은 카운트 포함)
+     * 폴 전체를 multi-row INSERT 한 번으로 저장하고, 새로 저장된 메시지만 안읽은 카운트 반영
+     * - 일시적 장애(연결 실패, 타임아웃, 교착 등): 예외를 던져 DefaultErrorHandler 가 배치 전체를 재전달
+     *   (한 건씩 다시 저장해봐야 건마다 커넥션 타임아웃만 기다리므로 하지 않음)
+     * - 데이터 문제(제약 조건 위반, 변환 오류 등): 한 건씩 다시 저장해서 실패한 레코드만 DLT 로 보냄
      */
-    @Transactional
-    private void processDatabaseMessages(List<ChatMessage> messages) {
-        if (messages.isEmpty()) return;
+    private void processDatabaseMessages(List<ConsumerRecord<String, ChatMessage>> records,
+                                         List<CompletableFuture<?>> deadLetters) {
+        if (records.isEmpty()) return;
         
+        List<ChatMessage> messages = records.stream().map(ConsumerRecord::value).toList();
         try {
-            // 채팅방별로 그룹화
-            Map<Long, List<ChatMessage>> messagesByRoom = messages.stream()
-                .collect(Collectors.groupingBy(ChatMessage::getChatRoomId));
+            List<ChatMessage> saved = chatMessageService.saveChatMessagesBulk(messages);
             
-            // 배치 저장 및 안읽은 카운트 업데이트
-            for (Map.Entry<Long, List<ChatMessage>> entry : messagesByRoom.entrySet()) {
-                List<ChatMessage> roomMessages = entry.getValue();
-                
-                // 1. 메시지 배치 저장
-                chatMessageService.saveChatMessagesBatch(roomMessages);
-                
-                // 2. 각 메시지에 대해 안읽은 카운트 업데이트
-                roomMessages.forEach(this::updateUnreadCounts);
-            }
+            // 🚀 새로 저장된 메시지만 최근 메시지 링에 추가 (재전달 메시지 중복 방지)
+            chatCacheService.appendRecentMessages(saved);
             
-            log.debug("DB 배치 저장 및 안읽은 카운트 처리 완료: {} 개 메시지", messages.size());
+            log.debug("DB 대량 저장 및 안읽은 카운트 처리 완료: 수신={}, 신규={}", messages.size(), saved.size());
+            return;
             
         } catch (Exception e) {
-            log.error("DB 배치 저장 실패: {}", e.getMessage(), e);
+            if (isTransientFailure(e)) {
+                throw new IllegalStateException("DB 일시 장애 - 배치 재전달: " + e.getMessage(), e);
+            }
+            log.warn("DB 배치 저장 실패, 단건 저장으로 재시도: size={}, error={}", messages.size(), e.getMessage());
+        }
+        
+        List<ChatMessage> saved = new ArrayList<>();
+        for (ConsumerRecord<String, ChatMessage> record : records) {
+            try {
+                saved.addAll(chatMessageService.saveChatMessagesBulk(List.of(record.value())));
+            } catch (Exception e) {
+                if (isTransientFailure(e)) {
+                    // 단건 저장 중 장애 발생 -> 이미 저장된 메시지는 재전달 시 message_id 로 중복 제거
+                    throw new IllegalStateException("DB 일시 장애 - 배치 재전달: " + e.getMessage(), e);
+                }
+                deadLetters.add(chatDeadLetterService.publish(record, FailureClass.PERSISTENCE, rootCause(e)));
+            }
+        }
+        
+        chatCacheService.appendRecentMessages(saved);
+    }
+
+    /**
+     * 재시도하면 성공할 수 있는 DB 장애인지 (원인 체인 전체 검사)
+     * 연결 실패/커넥션 풀 타임아웃/쿼리 타임아웃/교착/직렬화 실패 = 일시적,
+     * 제약 조건 위반/데이터 변환 오류 등 나머지는 같은 레코드로 다시 시도해도 실패하므로 DLT 대상
+     */
+    static boolean isTransientFailure(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof TransientDataAccessException
+                    || t instanceof RecoverableDataAccessException
+                    || t instanceof NonTransientDataAccessResourceException
+                    || t instanceof CannotCreateTransactionException
+                    || t instanceof SQLTransientException
+                    || t instanceof SQLRecoverableException
+                    || t instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+            if (t instanceof SQLException sqlException && isTransientSqlState(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 08: 연결 오류, 40: 직렬화 실패/교착, 53: 자원 부족, 57P: 서버 종료/재시작
+    private static boolean isTransientSqlState(String sqlState) {
+        return sqlState != null && (sqlState.startsWith("08") || sqlState.startsWith("40")
+                || sqlState.startsWith("53") || sqlState.startsWith("57P"));
+    }
+
+    private static Throwable rootCause(Throwable failure) {
+        Throwable root = failure;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        return root;
+    }
+
+    /**
+     * DLT 전송 완료 대기
+     */
+    private void awaitDeadLetters(List<CompletableFuture<?>> deadLetters) {
+        if (deadLetters.isEmpty()) return;
+        
+        try {
+            CompletableFuture.allOf(deadLetters.toArray(new CompletableFuture[0]))
+                    .get(deadLetterPublishTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("DLT 전송 대기 중 중단", e);
+        } catch (Exception e) {
+            throw new IllegalStateException("DLT 전송 실패 - 배치 재전달: " + e.getMessage(), e);
         }
     }
 
@@ -182,7 +300,7 @@ public class ChatConsumer {
         // 최신 타이핑 상태만 전송
         for (ChatMessage message : latestTypingByRoom.values()) {
             try {
-                messagingTemplate.convertAndSend(
+                chatFanoutService.convertAndSend(
                     "/topic/typing/" + message.getChatRoomId(),
                     message
                 );
@@ -218,7 +336,7 @@ public class ChatConsumer {
                     handleSingleWebSocketMessage(message);
                 } else {
                     // 다중 메시지인 경우 배치 전송
-                    messagingTemplate.convertAndSend(
+                    chatFanoutService.convertAndSend(
                         "/topic/chat/" + chatRoomId,
                         createBatchMessage(roomMessages)
                     );
@@ -245,7 +363,7 @@ public class ChatConsumer {
                 handleFileWebSocket(message);
                 break;
             default:
-                messagingTemplate.convertAndSend(
+                chatFanoutService.convertAndSend(
                     "/topic/chat/" + message.getChatRoomId(),
                     message
                 );
@@ -277,7 +395,7 @@ public class ChatConsumer {
                 updateUnreadCounts(chatMessage);
                 
                 // 3. WebSocket으로 실시간 전송
-                messagingTemplate.convertAndSend(
+                chatFanoutService.convertAndSend(
                     "/topic/chat/" + chatMessage.getChatRoomId(), 
                     chatMessage
                 );
@@ -287,7 +405,7 @@ public class ChatConsumer {
             
         } catch (Exception e) {
             log.error("일반 채팅 메시지 처리 실패: {}", e.getMessage(), e);
-            messagingTemplate.convertAndSend(
+            chatFanoutService.convertAndSend(
                 "/topic/chat/" + chatMessage.getChatRoomId(), 
                 chatMessage
             );
@@ -299,7 +417,7 @@ public class ChatConsumer {
      */
     private void handleTypingStatus(ChatMessage chatMessage) {
         try {
-            messagingTemplate.convertAndSend(
+            chatFanoutService.convertAndSend(
                 "/topic/typing/" + chatMessage.getChatRoomId(),
                 chatMessage
             );
@@ -322,7 +440,7 @@ public class ChatConsumer {
             // 시스템 메시지도 안읽은 카운트에 포함
             updateUnreadCounts(chatMessage);
             
-            messagingTemplate.convertAndSend(
+            chatFanoutService.convertAndSend(
                 "/topic/chat/" + chatMessage.getChatRoomId(),
                 chatMessage
             );
@@ -340,14 +458,14 @@ public class ChatConsumer {
     private void handleMentionWebSocket(ChatMessage chatMessage) {
         try {
             // 일반 채팅 채널로 전송
-            messagingTemplate.convertAndSend(
+            chatFanoutService.convertAndSend(
                 "/topic/chat/" + chatMessage.getChatRoomId(),
                 chatMessage
             );
             
             // 멘션된 사용자에게 개별 알림 전송
             if (chatMessage.getMentionUserId() != null) {
-                messagingTemplate.convertAndSendToUser(
+                chatFanoutService.convertAndSendToUser(
                     chatMessage.getMentionUserId().toString(),
                     "/queue/mention",
                     chatMessage
@@ -385,13 +503,13 @@ public class ChatConsumer {
     private void handleFileWebSocket(ChatMessage chatMessage) {
         try {
             // 파일 메시지 전송
-            messagingTemplate.convertAndSend(
+            chatFanoutService.convertAndSend(
                 "/topic/chat/" + chatMessage.getChatRoomId(),
                 chatMessage
             );
             
             // 파일 업로드 완료 알림
-            messagingTemplate.convertAndSend(
+            chatFanoutService.convertAndSend(
                 "/topic/file-upload/" + chatMessage.getChatRoomId(),
                 createFileUploadNotification(chatMessage)
             );
@@ -459,9 +577,9 @@ public class ChatConsumer {
     private void updateUnreadCounts(ChatMessage chatMessage) {
         try {
             // 1. 채팅방 참여자 목록 조회
-            List<Long> participantIds = chatRoomParticipantRepository.findUserIdsByChatRoomId(chatMessage.getChatRoomId());
+            long[] participantIds = chatParticipantCache.getParticipantIds(chatMessage.getChatRoomId());
             
-            if (participantIds != null && !participantIds.isEmpty()) {
+            if (participantIds.length > 0) {
                 // 2. 안읽은 카운트 서비스로 처리
                 unreadCountService.handleNewMessage(
                     chatMessage.getChatRoomId(),
@@ -473,7 +591,7 @@ public class ChatConsumer {
                 );
                 
                 log.debug("안읽은 카운트 업데이트 완료: messageId={}, participants={}", 
-                        chatMessage.getMessageId(), participantIds.size());
+                        chatMessage.getMessageId(), participantIds.length);
             }
             
         } catch (Exception e) {
@@ -0,0 +1,411 @@
+package wedding.alba.kafka.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ConsumerGroupDescription;
+import org.apache.kafka.clients.admin.MemberDescription;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.NewPartitions;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import wedding.alba.kafka.streams.UnreadStreamsMode;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 🚀 chat-messages 컨슈머 자동 조정
+ * 배치 처리 시간과 컨슈머 lag 을 주기적으로 보고 범위 안에서 조정
+ * - 배치 처리 시간이 max-batch-ms 초과: 컨테이너 pause, pause-ms 후 resume (DB 등 하위 시스템 보호)
+ * - 배치 처리 시간이 target-batch-ms 초과: 폴 크기 절반
+ * - lag 이 쌓이는데 배치가 꽉 차고 처리 시간 여유: 폴 크기 2배
+ * - lag 이 scale-windows 회 연속 scale-up-lag 초과: 그룹 전체 컨슈머 수 2배 (부족하면 파티션도 같이 늘림)
+ * - lag 이 scale-windows * 4 회 연속 scale-down-lag 이하: 그룹 전체 컨슈머 수 절반 (파티션은 줄일 수 없어 유지)
+ * 컨슈머 수는 그룹 전체 기준으로 정하고 살아 있는 노드 수로 나눠 이 노드의 동시성으로 씀
+ * (노드마다 따로 2배씩 늘려 파티션보다 많은 유휴 컨슈머가 생기지 않게 함)
+ * max.poll.records 와 동시성은 실행 중 변경이 안 돼서 컨테이너 재시작으로 반영 (restart-cooldown-ms 간격 제한,
+ * 정지가 진행 중인 배치를 기다리므로 전용 스레드에서 실행)
+ * 파티션 증가는 Redis 락을 잡은 한 노드만 수행
+ * 파티션을 늘리면 채팅방 Key -> 파티션 매핑이 바뀌어, 늘리는 순간 전송 중이던 채팅방 메시지는
+ * 실시간 전송 순서가 잠시 어긋날 수 있음 (저장 순서는 message_id 기준이라 영향 없음)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChatConsumerTuner {
+
+    private final KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+    private final KafkaAdmin kafkaAdmin;
+    private final MeterRegistry meterRegistry;
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public static final String LISTENER_ID = "chat-messages-batch";
+    public static final String GROUP_ID = "chat-group";
+    private static final String TOPIC = "chat-messages";
+    private static final long ADMIN_TIMEOUT_MS = 5000;
+    private static final String PARTITION_LOCK_KEY = "chat:consumer:partition-scaling:lock";
+    private static final Duration PARTITION_LOCK_TTL = Duration.ofMinutes(1);
+
+    @Value("${app.chat.consumer.adaptive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.chat.consumer.partitions:3}")
+    private int initialPartitions;
+
+    @Value("${app.chat.consumer.adaptive.min-poll-records:20}")
+    private int minPollRecords;
+
+    @Value("${app.chat.consumer.adaptive.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${app.chat.consumer.adaptive.initial-poll-records:50}")
+    private int initialPollRecords;
+
+    @Value("${app.chat.consumer.adaptive.target-batch-ms:200}")
+    private long targetBatchMs;
+
+    @Value("${app.chat.consumer.adaptive.max-batch-ms:2000}")
+    private long maxBatchMs;
+
+    @Value("${app.chat.consumer.adaptive.pause-ms:3000}")
+    private long pauseMs;
+
+    @Value("${app.chat.consumer.adaptive.min-concurrency:1}")
+    private int minConcurrency;
+
+    @Value("${app.chat.consumer.adaptive.max-concurrency:12}")
+    private int maxConcurrency;
+
+    @Value("${app.chat.consumer.adaptive.scale-up-lag:1000}")
+    private long scaleUpLag;
+
+    @Value("${app.chat.consumer.adaptive.scale-down-lag:50}")
+    private long scaleDownLag;
+
+    @Value("${app.chat.consumer.adaptive.scale-windows:3}")
+    private int scaleWindows;
+
+    @Value("${app.chat.consumer.adaptive.restart-cooldown-ms:300000}")
+    private long restartCooldownMs;
+
+    @Value("${app.chat.consumer.adaptive.partition-scaling.enabled:false}")
+    private boolean partitionScalingEnabled;
+
+    @Value("${app.chat.consumer.adaptive.partition-scaling.max-partitions:12}")
+    private int maxPartitions;
+
+    // 안읽은 카운트 스트림 처리기는 chatRoomId 파티션 단위로 상태를 가지므로 파티션을 늘리면 안 됨
+    @Value("${app.chat.unread.streams.mode:off}")
+    private String unreadStreamsMode;
+
+    // 이번 구간 배치 통계 (ChatConsumer 가 기록)
+    private final LongAdder windowBatches = new LongAdder();
+    private final LongAdder windowRecords = new LongAdder();
+    private final LongAdder windowNanos = new LongAdder();
+    private final AtomicLong windowMaxNanos = new AtomicLong();
+
+    private final AtomicInteger pollRecords = new AtomicInteger();
+    private final AtomicInteger concurrency = new AtomicInteger();
+    private final AtomicInteger partitions = new AtomicInteger();
+    private final AtomicLong lag = new AtomicLong(-1);
+    private volatile boolean paused = false;
+    private volatile boolean restarting = false;
+
+    private final String lockOwner = UUID.randomUUID().toString();
+    private final ExecutorService restartExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "chat-consumer-restart");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private AdminClient adminClient;
+    private long pausedAt;
+    private long lastRestartAt;
+    private int highLagWindows;
+    private int lowLagWindows;
+
+    @PostConstruct
+    public void init() {
+        pollRecords.set(initialPollRecords);
+        concurrency.set(initialPartitions);
+        partitions.set(initialPartitions);
+        lastRestartAt = System.currentTimeMillis();
+
+        Gauge.builder("chat.consumer.adaptive.poll.records", pollRecords, AtomicInteger::get)
+                .description("chat-messages max.poll.records 현재 값")
+                .register(meterRegistry);
+        Gauge.builder("chat.consumer.adaptive.concurrency", concurrency, AtomicInteger::get)
+                .description("chat-messages 리스너 동시성")
+                .register(meterRegistry);
+        Gauge.builder("chat.consumer.adaptive.partitions", partitions, AtomicInteger::get)
+                .register(meterRegistry);
+        Gauge.builder("chat.consumer.lag", lag, AtomicLong::get)
+                .description("chat-group 의 chat-messages 전체 lag")
+                .register(meterRegistry);
+        Gauge.builder("chat.consumer.adaptive.paused", this, tuner -> tuner.paused ? 1 : 0)
+                .register(meterRegistry);
+
+        if (enabled) {
+            adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+        }
+    }
+
+    /**
+     * 배치 처리 결과 기록
+     */
+    public void recordBatch(int records, long elapsedNanos) {
+        windowBatches.increment();
+        windowRecords.add(records);
+        windowNanos.add(elapsedNanos);
+        windowMaxNanos.accumulateAndGet(elapsedNanos, Math::max);
+    }
+
+    /**
+     * 🚀 주기적으로 lag / 배치 처리 시간을 보고 조정
+     */
+    @Scheduled(fixedDelayString = "${app.chat.consumer.adaptive.interval-ms:5000}")
+    public void adjust() {
+        if (!enabled) return;
+
+        MessageListenerContainer listener = kafkaListenerEndpointRegistry.getListenerContainer(LISTENER_ID);
+        if (restarting || !(listener instanceof ConcurrentMessageListenerContainer<?, ?> container) || !container.isRunning()) {
+            return;
+        }
+
+        try {
+            long batches = windowBatches.sumThenReset();
+            long records = windowRecords.sumThenReset();
+            long avgBatchMs = batches > 0 ? TimeUnit.NANOSECONDS.toMillis(windowNanos.sumThenReset() / batches) : 0;
+            long maxBatchMsInWindow = TimeUnit.NANOSECONDS.toMillis(windowMaxNanos.getAndSet(0));
+            long avgBatchSize = batches > 0 ? records / batches : 0;
+            long currentLag = measureLag();
+            lag.set(currentLag);
+
+            // 1. 하위 시스템이 느리면 잠시 pause (재시작보다 먼저, 즉시 반영)
+            long now = System.currentTimeMillis();
+            if (paused) {
+                if (now - pausedAt >= pauseMs) {
+                    container.resume();
+                    paused = false;
+                    log.info("chat-messages 컨슈머 resume: lag={}", currentLag);
+                }
+                return;
+            }
+            if (maxBatchMsInWindow > maxBatchMs) {
+                container.pause();
+                paused = true;
+                pausedAt = now;
+                meterRegistry.counter("chat.consumer.adaptive.pauses").increment();
+                log.warn("chat-messages 컨슈머 pause: maxBatchMs={}, avgBatchMs={}, lag={}",
+                        maxBatchMsInWindow, avgBatchMs, currentLag);
+                return;
+            }
+
+            // 2. 폴 크기
+            int currentPoll = pollRecords.get();
+            int targetPoll = currentPoll;
+            if (batches > 0 && avgBatchMs > targetBatchMs) {
+                targetPoll = Math.max(minPollRecords, currentPoll / 2);
+            } else if (currentLag > scaleUpLag && avgBatchSize >= currentPoll * 8L / 10) {
+                targetPoll = Math.min(maxPollRecords, currentPoll * 2);
+            }
+
+            // 3. 동시성 (+ 파티션) - 그룹 전체 컨슈머 수를 정한 뒤 노드 수로 나눔
+            highLagWindows = currentLag > scaleUpLag ? highLagWindows + 1 : 0;
+            lowLagWindows = currentLag >= 0 && currentLag <= scaleDownLag ? lowLagWindows + 1 : 0;
+
+            int currentConcurrency = concurrency.get();
+            int targetConcurrency = currentConcurrency;
+            if (highLagWindows >= scaleWindows || lowLagWindows >= scaleWindows * 4) {
+                GroupSize group = describeGroup();
+                if (group != null) {
+                    int groupTarget = highLagWindows >= scaleWindows ? group.members() * 2 : group.members() / 2;
+                    ensurePartitions(groupTarget);
+                    targetConcurrency = perNodeConcurrency(groupTarget, group.nodes(), partitions.get());
+                }
+            }
+            log.debug("chat-messages 컨슈머 상태: lag={}, batches={}, avgBatchSize={}, avgBatchMs={}, poll={}, concurrency={}",
+                    currentLag, batches, avgBatchSize, avgBatchMs, currentPoll, currentConcurrency);
+
+            if ((targetPoll != currentPoll || targetConcurrency != currentConcurrency)
+                    && now - lastRestartAt >= restartCooldownMs) {
+                restart(container, targetPoll, targetConcurrency);
+                lastRestartAt = System.currentTimeMillis();
+                highLagWindows = 0;
+                lowLagWindows = 0;
+            }
+
+        } catch (Exception e) {
+            log.error("chat-messages 컨슈머 조정 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 그룹 전체 목표 컨슈머 수를 노드 수로 나눈 이 노드의 동시성
+     * (파티션보다 많은 컨슈머는 놀기만 하므로 파티션 수 / 노드 수 이하로 제한)
+     */
+    int perNodeConcurrency(int groupTarget, int nodes, int partitionCount) {
+        int nodeCount = Math.max(1, nodes);
+        int perNode = (int) Math.ceil(Math.min(groupTarget, partitionCount) / (double) nodeCount);
+        int partitionShare = (int) Math.ceil(partitionCount / (double) nodeCount);
+        return Math.max(minConcurrency, Math.min(Math.min(maxConcurrency, partitionShare), perNode));
+    }
+
+    /**
+     * 새 max.poll.records / 동시성으로 컨테이너 재시작 (진행 중인 배치는 끝까지 처리 후 정지)
+     * 정지가 배치 처리를 기다리므로 전용 스레드에서 실행 (공용 @Scheduled 스레드를 막지 않음)
+     */
+    private void restart(ConcurrentMessageListenerContainer<?, ?> container, int targetPoll, int targetConcurrency) {
+        log.info("chat-messages 컨슈머 재구성: poll {} -> {}, concurrency {} -> {}",
+                pollRecords.get(), targetPoll, concurrency.get(), targetConcurrency);
+
+        restarting = true;
+        restartExecutor.execute(() -> {
+            try {
+                container.stop();
+                container.getContainerProperties().getKafkaConsumerProperties()
+                        .setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(targetPoll));
+                container.setConcurrency(targetConcurrency);
+                container.start();
+
+                pollRecords.set(targetPoll);
+                concurrency.set(targetConcurrency);
+                meterRegistry.counter("chat.consumer.adaptive.restarts").increment();
+            } catch (Exception e) {
+                log.error("chat-messages 컨슈머 재구성 실패: {}", e.getMessage(), e);
+            } finally {
+                restarting = false;
+            }
+        });
+    }
+
+    /**
+     * chat-group 의 살아 있는 컨슈머 수와 노드 수 (노드 = 컨슈머 host 기준, 조회 실패 시 null)
+     */
+    private GroupSize describeGroup() {
+        try {
+            ConsumerGroupDescription description = adminClient.describeConsumerGroups(List.of(GROUP_ID))
+                    .describedGroups().get(GROUP_ID).get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            int members = description.members().size();
+            int nodes = (int) description.members().stream().map(MemberDescription::host).distinct().count();
+            if (members == 0) {
+                return new GroupSize(concurrency.get(), 1);
+            }
+            return new GroupSize(members, nodes);
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            log.warn("chat-group 컨슈머 조회 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    record GroupSize(int members, int nodes) {
+    }
+
+    /**
+     * 파티션이 부족하면 늘림 (partition-scaling.enabled 일 때만, max-partitions 까지)
+     */
+    private void ensurePartitions(int required) throws Exception {
+        TopicDescription description = adminClient.describeTopics(List.of(TOPIC)).allTopicNames()
+                .get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS).get(TOPIC);
+        int current = description.partitions().size();
+        partitions.set(current);
+
+        int target = Math.min(required, maxPartitions);
+        if (!partitionScalingEnabled || current >= target) return;
+        if (UnreadStreamsMode.of(unreadStreamsMode) != UnreadStreamsMode.OFF) {
+            log.warn("안읽은 카운트 스트림 사용 중이라 chat-messages 파티션 증가 생략: {} -> {}", current, target);
+            return;
+        }
+
+        // 한 노드만 늘림 (다른 노드는 다음 주기에 늘어난 파티션 수를 읽음)
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(PARTITION_LOCK_KEY, lockOwner, PARTITION_LOCK_TTL);
+        if (!Boolean.TRUE.equals(locked)) {
+            log.debug("다른 노드가 chat-messages 파티션 증가 중");
+            return;
+        }
+
+        try {
+            adminClient.createPartitions(Map.of(TOPIC, NewPartitions.increaseTo(target)))
+                    .all().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            partitions.set(target);
+            log.info("chat-messages 파티션 증가: {} -> {}", current, target);
+        } catch (Exception e) {
+            log.warn("chat-messages 파티션 증가 실패: {} -> {}, error={}", current, target, e.getMessage());
+        } finally {
+            if (lockOwner.equals(redisTemplate.opsForValue().get(PARTITION_LOCK_KEY))) {
+                redisTemplate.delete(PARTITION_LOCK_KEY);
+            }
+        }
+    }
+
+    /**
+     * chat-group 의 chat-messages 전체 lag (조회 실패 시 -1)
+     */
+    private long measureLag() {
+        try {
+            Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(GROUP_ID)
+                    .partitionsToOffsetAndMetadata().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+            Map<TopicPartition, OffsetSpec> request = new HashMap<>();
+            committed.forEach((partition, offset) -> {
+                if (TOPIC.equals(partition.topic()) && offset != null) {
+                    request.put(partition, OffsetSpec.latest());
+                }
+            });
+            if (request.isEmpty()) return 0;
+
+            Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> latest = adminClient.listOffsets(request)
+                    .all().get(ADMIN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+            long total = 0;
+            for (Map.Entry<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> entry : latest.entrySet()) {
+                total += Math.max(0, entry.getValue().offset() - committed.get(entry.getKey()).offset());
+            }
+            return total;
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (Exception e) {
+            log.warn("chat-messages lag 조회 실패: {}", e.getMessage());
+            return -1;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        restartExecutor.shutdownNow();
+        if (adminClient != null) {
+            adminClient.close();
+        }
+    }
+}
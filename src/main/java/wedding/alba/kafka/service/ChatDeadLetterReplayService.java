@@ -0,0 +1,136 @@
+package wedding.alba.kafka.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🚀 chat-messages.DLT 재주입
+ * DLT 레코드를 원래 토픽으로 초당 ratePerSecond 건씩 다시 발행 (원본 바이트 그대로, 같은 Key)
+ * - dlt-replay-count 를 1 올려서 보내고, max-replays 에 도달한 레코드는 건너뜀 (무한 순환 방지)
+ * - 재주입 위치는 chat-dlt-replay 그룹 오프셋으로 관리 (다시 실행하면 이어서 처리)
+ * - 컨슈머는 message_id 로 중복 저장을 막으므로 같은 레코드를 두 번 넣어도 안전
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChatDeadLetterReplayService {
+
+    private final ConsumerFactory<String, byte[]> deadLetterReplayConsumerFactory;
+    private final KafkaTemplate<String, byte[]> deadLetterKafkaTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.chat.dlt.max-replays:3}")
+    private int maxReplays;
+
+    @Value("${app.chat.dlt.publish-timeout-ms:10000}")
+    private long publishTimeoutMs;
+
+    private static final String DEFAULT_TOPIC = "chat-messages";
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2);
+
+    /**
+     * 재주입 결과
+     */
+    public record ReplayResult(int replayed, int skipped) {
+    }
+
+    /**
+     * DLT 레코드를 최대 maxRecords 건 재주입 (더 읽을 레코드가 없으면 종료)
+     */
+    public ReplayResult replay(int maxRecords, int ratePerSecond) {
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, ratePerSecond);
+        int replayed = 0;
+        int skipped = 0;
+
+        try (Consumer<String, byte[]> consumer = deadLetterReplayConsumerFactory.createConsumer()) {
+            consumer.subscribe(List.of(ChatDeadLetterService.DLT_TOPIC));
+            long nextSendAt = System.nanoTime();
+
+            while (replayed + skipped < maxRecords) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty()) break;
+
+                // 처리한 레코드까지만 커밋 (한도 초과분은 다음 실행에서 처리)
+                Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                int handled = 0;
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    if (replayed + skipped >= maxRecords) break;
+                    offsets.put(new TopicPartition(record.topic(), record.partition()),
+                            new OffsetAndMetadata(record.offset() + 1));
+
+                    int replayCount = replayCountOf(record);
+                    if (record.value() == null || replayCount >= maxReplays) {
+                        skipped++;
+                        meterRegistry.counter("chat.dlt.replay", "result", "skipped").increment();
+                        log.warn("DLT 재주입 건너뜀: offset={}, replayCount={}, failureClass={}",
+                                record.offset(), replayCount, headerOf(record, ChatDeadLetterService.HEADER_FAILURE_CLASS));
+                        continue;
+                    }
+
+                    // 속도 제한
+                    long waitNanos = nextSendAt - System.nanoTime();
+                    if (waitNanos > 0) {
+                        TimeUnit.NANOSECONDS.sleep(waitNanos);
+                    }
+                    nextSendAt = Math.max(nextSendAt, System.nanoTime()) + intervalNanos;
+
+                    String topic = headerOf(record, ChatDeadLetterService.HEADER_ORIGINAL_TOPIC);
+                    ProducerRecord<String, byte[]> replay = new ProducerRecord<>(
+                            topic != null ? topic : DEFAULT_TOPIC, record.key(), record.value());
+                    replay.headers().add(ChatDeadLetterService.HEADER_REPLAY_COUNT,
+                            String.valueOf(replayCount + 1).getBytes(StandardCharsets.UTF_8));
+                    deadLetterKafkaTemplate.send(replay).get(publishTimeoutMs, TimeUnit.MILLISECONDS);
+
+                    replayed++;
+                    handled++;
+                    meterRegistry.counter("chat.dlt.replay", "result", "replayed").increment();
+                }
+
+                consumer.commitSync(offsets);
+                log.info("DLT 재주입 진행: 이번 폴={}, 누적 재주입={}, 누적 건너뜀={}", handled, replayed, skipped);
+            }
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("DLT 재주입 중단: replayed={}", replayed);
+        } catch (Exception e) {
+            log.error("DLT 재주입 실패: replayed={}, error={}", replayed, e.getMessage(), e);
+        }
+
+        log.info("DLT 재주입 완료: replayed={}, skipped={}", replayed, skipped);
+        return new ReplayResult(replayed, skipped);
+    }
+
+    private static int replayCountOf(ConsumerRecord<String, byte[]> record) {
+        String value = headerOf(record, ChatDeadLetterService.HEADER_REPLAY_COUNT);
+        try {
+            return value != null ? Integer.parseInt(value) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String headerOf(ConsumerRecord<String, byte[]> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+}
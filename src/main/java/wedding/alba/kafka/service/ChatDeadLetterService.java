@@ -0,0 +1,103 @@
+package wedding.alba.kafka.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Service;
+import wedding.alba.kafka.codec.ChatMessageCodec;
+import wedding.alba.kafka.dto.ChatMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 🚀 chat-messages 처리 실패 레코드를 chat-messages.DLT 로 격리
+ * 값은 원본 바이트 그대로 (파싱 실패) 또는 바이너리 포맷으로 다시 인코딩 (그 외) 하고
+ * 실패 정보는 dlt-* 헤더에 문자열로 기록한다. 재주입은 ChatDeadLetterReplayService 참고.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChatDeadLetterService {
+
+    private final KafkaTemplate<String, byte[]> deadLetterKafkaTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public static final String DLT_TOPIC = "chat-messages.DLT";
+
+    public static final String HEADER_ORIGINAL_TOPIC = "dlt-original-topic";
+    public static final String HEADER_ORIGINAL_PARTITION = "dlt-original-partition";
+    public static final String HEADER_ORIGINAL_OFFSET = "dlt-original-offset";
+    public static final String HEADER_FAILURE_CLASS = "dlt-failure-class";
+    public static final String HEADER_EXCEPTION = "dlt-exception";
+    public static final String HEADER_EXCEPTION_MESSAGE = "dlt-exception-message";
+    public static final String HEADER_FAILED_AT = "dlt-failed-at";
+    public static final String HEADER_REPLAY_COUNT = "dlt-replay-count";
+
+    private static final LogAccessor DESERIALIZER_LOG = new LogAccessor(ChatDeadLetterService.class);
+
+    /**
+     * 실패 분류 (메트릭 태그, dlt-failure-class 헤더)
+     */
+    public enum FailureClass {
+        DESERIALIZATION,   // 바이너리/JSON 파싱 실패
+        VALIDATION,        // 필수 필드(chatRoomId, type) 누락
+        PERSISTENCE        // 단건으로 다시 저장해도 실패 (제약 조건 위반, 변환 오류 등 일시 장애가 아닌 오류)
+    }
+
+    /**
+     * 역직렬화 실패 레코드 (ErrorHandlingDeserializer 헤더의 원본 바이트 사용)
+     */
+    public CompletableFuture<?> publishUndecodable(ConsumerRecord<String, ChatMessage> record) {
+        DeserializationException exception = SerializationUtils.getExceptionFromHeader(
+                record, SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, DESERIALIZER_LOG);
+        byte[] value = exception != null ? exception.getData() : null;
+        Throwable cause = exception != null && exception.getCause() != null ? exception.getCause() : exception;
+        return publish(record, value, FailureClass.DESERIALIZATION, cause);
+    }
+
+    /**
+     * 처리 실패 레코드
+     */
+    public CompletableFuture<?> publish(ConsumerRecord<String, ChatMessage> record, FailureClass failureClass, Throwable cause) {
+        return publish(record, ChatMessageCodec.encode(record.value()), failureClass, cause);
+    }
+
+    private CompletableFuture<?> publish(ConsumerRecord<String, ?> record, byte[] value,
+                                         FailureClass failureClass, Throwable cause) {
+        ProducerRecord<String, byte[]> deadLetter = new ProducerRecord<>(DLT_TOPIC, record.key(), value);
+        addHeader(deadLetter, HEADER_ORIGINAL_TOPIC, record.topic());
+        addHeader(deadLetter, HEADER_ORIGINAL_PARTITION, String.valueOf(record.partition()));
+        addHeader(deadLetter, HEADER_ORIGINAL_OFFSET, String.valueOf(record.offset()));
+        addHeader(deadLetter, HEADER_FAILURE_CLASS, failureClass.name());
+        addHeader(deadLetter, HEADER_FAILED_AT, LocalDateTime.now().toString());
+        if (cause != null) {
+            addHeader(deadLetter, HEADER_EXCEPTION, cause.getClass().getName());
+            addHeader(deadLetter, HEADER_EXCEPTION_MESSAGE, String.valueOf(cause.getMessage()));
+        }
+        Header replayCount = record.headers().lastHeader(HEADER_REPLAY_COUNT);
+        if (replayCount != null) {
+            deadLetter.headers().add(HEADER_REPLAY_COUNT, replayCount.value());
+        }
+
+        meterRegistry.counter("chat.dlt.records",
+                "reason", failureClass.name().toLowerCase(),
+                "exception", cause != null ? cause.getClass().getSimpleName() : "none").increment();
+        log.warn("chat-messages 레코드 DLT 격리: partition={}, offset={}, reason={}, error={}",
+                record.partition(), record.offset(), failureClass, cause != null ? cause.getMessage() : null);
+
+        return deadLetterKafkaTemplate.send(deadLetter);
+    }
+
+    private static void addHeader(ProducerRecord<String, byte[]> record, String name, String value) {
+        record.headers().add(name, value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,280 @@
+package wedding.alba.kafka.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 🚀 WebSocket 메시지 fan-out (다중 노드 지원)
+ * SimpMessagingTemplate 대신 사용하며 app.chat.fanout.mode 에 따라 동작:
+ * - local: 현재 노드의 구독자에게만 전송 (단일 노드)
+ * - relay: 외부 STOMP 브로커가 노드 간 전달 (WebSocketConfig에서 브로커 릴레이 설정)
+ * - redis: Redis Pub/Sub으로 모든 노드에 전달하고, 각 노드는 자기 구독자에게 다시 전송.
+ *          채팅방 채널은 그 방을 구독한 세션이 있는 노드만 구독한다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChatFanoutService {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.chat.fanout.mode:local}")
+    private String mode;
+
+    private static final String ROOM_CHANNEL = "ws:room:%d";        // chatRoomId
+    private static final String BROADCAST_CHANNEL = "ws:broadcast";  // 채팅방이 아닌 destination
+    private static final String USER_CHANNEL = "ws:user";            // 사용자 개별 destination
+
+    // /topic/chat/{id}, /topic/typing/{id}, /topic/file-upload/{id} 등
+    private static final Pattern ROOM_DESTINATION = Pattern.compile("^/topic/[\\w-]+/(\\d+)$");
+
+    // 채팅방별 이 노드의 구독 수, 세션별 구독 목록 (subscriptionId -> chatRoomId)
+    private final Map<Long, Integer> roomSubscriberCounts = new HashMap<>();
+    private final Map<String, Map<String, Long>> sessionSubscriptions = new HashMap<>();
+
+    private final MessageListener relayListener = this::onRedisMessage;
+
+    private Counter publishedCounter;
+    private Counter deliveredCounter;
+    private Timer fanoutLatency;
+
+    @PostConstruct
+    public void init() {
+        if (!isRedisMode()) {
+            log.info("WebSocket fan-out 모드: {}", mode);
+            return;
+        }
+
+        publishedCounter = Counter.builder("chat.fanout.published")
+                .description("Redis로 발행한 WebSocket 메시지 수")
+                .register(meterRegistry);
+        deliveredCounter = Counter.builder("chat.fanout.delivered")
+                .description("Redis에서 받아 이 노드 구독자에게 전송한 메시지 수")
+                .register(meterRegistry);
+        fanoutLatency = Timer.builder("chat.fanout.latency")
+                .description("발행 노드 -> 수신 노드 로컬 전송까지 걸린 시간")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("chat.fanout.subscribed.rooms", this, ChatFanoutService::subscribedRoomCount)
+                .description("이 노드가 Redis 채널을 구독 중인 채팅방 수")
+                .register(meterRegistry);
+
+        redisMessageListenerContainer.addMessageListener(relayListener, new ChannelTopic(BROADCAST_CHANNEL));
+        redisMessageListenerContainer.addMessageListener(relayListener, new ChannelTopic(USER_CHANNEL));
+        log.info("WebSocket fan-out 모드: redis");
+    }
+
+    /**
+     * destination 구독자 전체에게 전송
+     */
+    public void convertAndSend(String destination, Object payload) {
+        if (!isRedisMode()) {
+            messagingTemplate.convertAndSend(destination, payload);
+            return;
+        }
+
+        Long chatRoomId = extractChatRoomId(destination);
+        String channel = chatRoomId != null ? String.format(ROOM_CHANNEL, chatRoomId) : BROADCAST_CHANNEL;
+        publish(channel, destination, null, payload);
+    }
+
+    /**
+     * 특정 사용자에게 전송 (/user/{userId}/queue/...)
+     */
+    public void convertAndSendToUser(String user, String destination, Object payload) {
+        if (!isRedisMode()) {
+            messagingTemplate.convertAndSendToUser(user, destination, payload);
+            return;
+        }
+
+        publish(USER_CHANNEL, destination, user, payload);
+    }
+
+    /**
+     * 메시지 형식: "{발행시각ms}\n{destination}\n{user}\n{JSON payload}"
+     */
+    private void publish(String channel, String destination, String user, Object payload) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(payload);
+            byte[] header = (System.currentTimeMillis() + "\n" + destination + "\n" + (user != null ? user : "") + "\n")
+                    .getBytes(StandardCharsets.UTF_8);
+            byte[] envelope = new byte[header.length + json.length];
+            System.arraycopy(header, 0, envelope, 0, header.length);
+            System.arraycopy(json, 0, envelope, header.length, json.length);
+
+            redisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.publish(channel.getBytes(StandardCharsets.UTF_8), envelope));
+            publishedCounter.increment();
+
+        } catch (Exception e) {
+            log.error("WebSocket fan-out 발행 실패: destination={}, error={}", destination, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Redis 수신 -> 이 노드의 구독자에게 JSON 그대로 전송 (재직렬화 없음)
+     */
+    private void onRedisMessage(Message message, byte[] pattern) {
+        try {
+            byte[] body = message.getBody();
+            int first = indexOf(body, 0);
+            int second = first < 0 ? -1 : indexOf(body, first + 1);
+            int third = second < 0 ? -1 : indexOf(body, second + 1);
+            if (third < 0) {
+                log.warn("잘못된 WebSocket fan-out 메시지 수신");
+                return;
+            }
+
+            long publishedAt = Long.parseLong(new String(body, 0, first, StandardCharsets.UTF_8));
+            String destination = new String(body, first + 1, second - first - 1, StandardCharsets.UTF_8);
+            String user = new String(body, second + 1, third - second - 1, StandardCharsets.UTF_8);
+            byte[] json = Arrays.copyOfRange(body, third + 1, body.length);
+
+            if (!user.isEmpty()) {
+                String userDestination = destination.startsWith("/") ? destination : "/" + destination;
+                destination = messagingTemplate.getUserDestinationPrefix() + user + userDestination;
+            }
+
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            accessor.setLeaveMutable(true);
+            messagingTemplate.send(destination, MessageBuilder.createMessage(json, accessor.getMessageHeaders()));
+
+            deliveredCounter.increment();
+            fanoutLatency.record(Math.max(0, System.currentTimeMillis() - publishedAt), TimeUnit.MILLISECONDS);
+
+        } catch (Exception e) {
+            log.error("WebSocket fan-out 수신 처리 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 채팅방 구독 시 이 노드의 구독 수 증가, 첫 구독이면 Redis 채널 구독
+     */
+    @EventListener
+    public void handleSubscribe(SessionSubscribeEvent event) {
+        if (!isRedisMode()) return;
+
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Long chatRoomId = extractChatRoomId(accessor.getDestination());
+        if (chatRoomId == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) return;
+
+        synchronized (this) {
+            Long previous = sessionSubscriptions
+                    .computeIfAbsent(accessor.getSessionId(), k -> new HashMap<>())
+                    .put(accessor.getSubscriptionId(), chatRoomId);
+            if (previous != null) {
+                releaseRoom(previous);
+            }
+
+            int count = roomSubscriberCounts.merge(chatRoomId, 1, Integer::sum);
+            if (count == 1) {
+                redisMessageListenerContainer.addMessageListener(relayListener,
+                        new ChannelTopic(String.format(ROOM_CHANNEL, chatRoomId)));
+                log.debug("채팅방 fan-out 채널 구독: chatRoomId={}", chatRoomId);
+            }
+        }
+    }
+
+    @EventListener
+    public void handleUnsubscribe(SessionUnsubscribeEvent event) {
+        if (!isRedisMode()) return;
+
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        synchronized (this) {
+            Map<String, Long> subscriptions = sessionSubscriptions.get(accessor.getSessionId());
+            if (subscriptions == null) return;
+
+            Long chatRoomId = subscriptions.remove(accessor.getSubscriptionId());
+            if (chatRoomId != null) {
+                releaseRoom(chatRoomId);
+            }
+            if (subscriptions.isEmpty()) {
+                sessionSubscriptions.remove(accessor.getSessionId());
+            }
+        }
+    }
+
+    @EventListener
+    public void handleDisconnect(SessionDisconnectEvent event) {
+        if (!isRedisMode()) return;
+
+        synchronized (this) {
+            Map<String, Long> subscriptions = sessionSubscriptions.remove(event.getSessionId());
+            if (subscriptions != null) {
+                subscriptions.values().forEach(this::releaseRoom);
+            }
+        }
+    }
+
+    /**
+     * 구독 수 감소, 마지막 구독이면 Redis 채널 구독 해제 (synchronized 안에서 호출)
+     */
+    private void releaseRoom(Long chatRoomId) {
+        if (!roomSubscriberCounts.containsKey(chatRoomId)) return;
+        
+        Integer count = roomSubscriberCounts.computeIfPresent(chatRoomId, (k, v) -> v > 1 ? v - 1 : null);
+        if (count == null) {
+            redisMessageListenerContainer.removeMessageListener(relayListener,
+                    new ChannelTopic(String.format(ROOM_CHANNEL, chatRoomId)));
+            log.debug("채팅방 fan-out 채널 구독 해제: chatRoomId={}", chatRoomId);
+        }
+    }
+
+    private synchronized int subscribedRoomCount() {
+        return roomSubscriberCounts.size();
+    }
+
+    private boolean isRedisMode() {
+        return "redis".equalsIgnoreCase(mode);
+    }
+
+    private static Long extractChatRoomId(String destination) {
+        if (destination == null) return null;
+        Matcher matcher = ROOM_DESTINATION.matcher(destination);
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : null;
+    }
+
+    private static int indexOf(byte[] data, int from) {
+        for (int i = from; i < data.length; i++) {
+            if (data[i] == '\n') return i;
+        }
+        return -1;
+    }
+}
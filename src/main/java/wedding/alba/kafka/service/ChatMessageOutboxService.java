@@ -0,0 +1,352 @@
+package wedding.alba.kafka.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import wedding.alba.entity.ChatMessageOutbox;
+import wedding.alba.kafka.codec.ChatMessageCodec;
+import wedding.alba.kafka.dto.ChatMessage;
+import wedding.alba.repository.ChatMessageOutboxRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 🚀 Kafka 전송 실패 메시지 outbox (PostgreSQL chat_message_outbox)
+ * - 전송 실패 메시지를 저장하고, 릴레이가 채팅방별 순서대로 재전송 (채팅방 단위 지수 백오프)
+ * - outbox 에 메시지가 남아 있는 채팅방의 새 메시지도 outbox 로 보내 앞선 메시지를 앞지르지 않게 함
+ *   (대기 채팅방 표시는 Redis Set 이라 다른 노드로 들어온 같은 채팅방 메시지도 outbox 로 감)
+ * - 저장은 단일 스레드에서 순서대로 (Kafka 콜백 스레드를 DB 작업으로 막지 않음)
+ * - 릴레이는 Redis 락으로 한 인스턴스에서만, 전용 스레드에서 실행 (공용 @Scheduled 스레드를 전송 대기로 막지 않음)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChatMessageOutboxService {
+
+    private final ChatMessageOutboxRepository outboxRepository;
+    private final KafkaTemplate<String, ChatMessage> chatMessageKafkaTemplate;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.chat.outbox.relay-batch-rooms:100}")
+    private int relayBatchRooms;
+
+    @Value("${app.chat.outbox.relay-batch-per-room:200}")
+    private int relayBatchPerRoom;
+
+    @Value("${app.chat.outbox.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    @Value("${app.chat.outbox.backoff-initial-ms:1000}")
+    private long backoffInitialMs;
+
+    @Value("${app.chat.outbox.backoff-max-ms:60000}")
+    private long backoffMaxMs;
+
+    private static final String CHAT_TOPIC = "chat-messages";
+    private static final String RELAY_LOCK_KEY = "chat:outbox:relay:lock";
+    private static final Duration RELAY_LOCK_TTL = Duration.ofMinutes(5);
+    // outbox 에 메시지가 남아 있는 채팅방 (이 채팅방의 새 메시지는 outbox 로)
+    private static final String PENDING_ROOMS_KEY = "chat:outbox:pending_rooms";
+    // 채팅방별 저장 대기 중인 메시지 수 (노드가 죽어도 남지 않도록 만료)
+    private static final String INFLIGHT_KEY_PREFIX = "chat:outbox:inflight:";
+    private static final long INFLIGHT_TTL_MS = 60_000;
+    private final String lockOwner = UUID.randomUUID().toString();
+
+    // 대기 표시 + 저장 대기 수 증가
+    private static final RedisScript<Long> MARK_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('SADD', KEYS[1], ARGV[1]) " +
+            "local n = redis.call('INCR', KEYS[2]) " +
+            "redis.call('PEXPIRE', KEYS[2], ARGV[2]) " +
+            "return n", Long.class);
+
+    // 저장 끝 (0 이하가 되면 삭제)
+    private static final RedisScript<Long> WRITTEN_SCRIPT = new DefaultRedisScript<>(
+            "local n = redis.call('DECR', KEYS[1]) " +
+            "if n <= 0 then redis.call('DEL', KEYS[1]) end " +
+            "return n", Long.class);
+
+    // 저장 대기 중인 메시지가 없을 때만 대기 표시 해제
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if tonumber(redis.call('GET', KEYS[2]) or '0') > 0 then return 0 end " +
+            "return redis.call('SREM', KEYS[1], ARGV[1])", Long.class);
+
+    // 이 노드가 저장 중인 채팅방 (Redis 장애 시 대기 여부 판단용)
+    private final Map<Long, Boolean> localPendingRooms = new ConcurrentHashMap<>();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "chat-outbox-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService relayExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "chat-outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean relayRunning = new AtomicBoolean();
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong pendingRoomCount = new AtomicLong();
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("chat.outbox.depth", depth, AtomicLong::get)
+                .description("outbox 에 남아 있는 메시지 수")
+                .register(meterRegistry);
+        Gauge.builder("chat.outbox.rooms", pendingRoomCount, AtomicLong::get)
+                .description("outbox 때문에 Kafka 직접 전송이 막힌 채팅방 수")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPendingRooms() {
+        try {
+            List<Long> chatRoomIds = outboxRepository.findPendingChatRoomIds();
+            if (!chatRoomIds.isEmpty()) {
+                redisTemplate.opsForSet().add(PENDING_ROOMS_KEY, chatRoomIds.stream().map(String::valueOf).toArray(String[]::new));
+            }
+            pendingRoomCount.set(chatRoomIds.size());
+            depth.set(outboxRepository.count());
+            if (!chatRoomIds.isEmpty()) {
+                log.info("outbox 미전송 메시지 복구: rooms={}, messages={}", chatRoomIds.size(), depth.get());
+            }
+        } catch (Exception e) {
+            log.error("outbox 상태 로드 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 채팅방에 아직 재전송되지 않은 메시지가 있는지
+     */
+    public boolean hasPending(Long chatRoomId) {
+        try {
+            boolean pending = Boolean.TRUE.equals(redisTemplate.opsForSet().isMember(PENDING_ROOMS_KEY, String.valueOf(chatRoomId)));
+            if (!pending) {
+                // 다른 노드의 릴레이가 해제한 채팅방은 로컬 상태도 정리
+                localPendingRooms.remove(chatRoomId);
+            }
+            return pending;
+        } catch (Exception e) {
+            log.warn("outbox 대기 채팅방 조회 실패, 로컬 상태로 판단: chatRoomId={}, error={}", chatRoomId, e.getMessage());
+            return localPendingRooms.containsKey(chatRoomId);
+        }
+    }
+
+    /**
+     * outbox 에 메시지 저장 (호출 순서대로 저장됨)
+     */
+    public CompletableFuture<Void> enqueue(ChatMessage message, Throwable cause) {
+        Long chatRoomId = message.getChatRoomId();
+        localPendingRooms.put(chatRoomId, Boolean.TRUE);
+        boolean marked = markPending(chatRoomId);
+
+        return CompletableFuture.runAsync(() -> {
+            try {
+                outboxRepository.insert(chatRoomId, message.getMessageId(), ChatMessageCodec.encode(message),
+                        cause != null ? cause.getMessage() : null);
+                depth.incrementAndGet();
+                meterRegistry.counter("chat.outbox.enqueued").increment();
+            } finally {
+                if (marked) {
+                    markWritten(chatRoomId);
+                }
+            }
+        }, writer).whenComplete((ignored, ex) -> {
+            if (ex != null) {
+                meterRegistry.counter("chat.outbox.lost").increment();
+                log.error("outbox 저장 실패 (메시지 유실): messageId={}, chatRoomId={}, error={}",
+                        message.getMessageId(), chatRoomId, ex.getMessage(), ex);
+            }
+        });
+    }
+
+    /**
+     * 🚀 outbox 릴레이: 재시도 시각이 된 채팅방의 메시지를 순서대로 재전송
+     * 전송 대기는 전용 스레드에서 (이전 회차가 끝나지 않았으면 이번 회차는 건너뜀)
+     */
+    @Scheduled(fixedDelayString = "${app.chat.outbox.relay-interval-ms:1000}")
+    public void relay() {
+        if (!relayRunning.compareAndSet(false, true)) return;
+
+        try {
+            relayExecutor.execute(() -> {
+                try {
+                    relayOnce();
+                } finally {
+                    relayRunning.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            relayRunning.set(false);
+        }
+    }
+
+    private void relayOnce() {
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(RELAY_LOCK_KEY, lockOwner, RELAY_LOCK_TTL);
+        if (!Boolean.TRUE.equals(locked)) return;
+
+        try {
+            List<ChatMessageOutbox> rows = outboxRepository.findDueRooms(relayBatchRooms, relayBatchPerRoom);
+
+            Map<Long, List<ChatMessageOutbox>> byRoom = new LinkedHashMap<>();
+            for (ChatMessageOutbox row : rows) {
+                byRoom.computeIfAbsent(row.getChatRoomId(), k -> new ArrayList<>()).add(row);
+            }
+
+            for (Map.Entry<Long, List<ChatMessageOutbox>> entry : byRoom.entrySet()) {
+                if (!relayRoom(entry.getKey(), entry.getValue())) {
+                    // 브로커 장애면 다른 채팅방도 실패하므로 이번 회차는 중단
+                    break;
+                }
+            }
+
+            depth.set(outboxRepository.count());
+            reconcilePendingRooms();
+        } catch (Exception e) {
+            log.error("outbox 릴레이 실패: {}", e.getMessage(), e);
+        } finally {
+            if (lockOwner.equals(redisTemplate.opsForValue().get(RELAY_LOCK_KEY))) {
+                redisTemplate.delete(RELAY_LOCK_KEY);
+            }
+        }
+    }
+
+    /**
+     * Redis 대기 표시와 outbox 테이블 맞추기
+     * - 테이블에 메시지가 있는데 표시가 없으면 다시 표시 (Redis 재시작 등)
+     * - 테이블에 없는데 표시만 남은 채팅방은 해제 (해제 누락 / 저장 실패)
+     */
+    private void reconcilePendingRooms() {
+        Set<Long> inOutbox = new HashSet<>(outboxRepository.findPendingChatRoomIds());
+        pendingRoomCount.set(inOutbox.size());
+
+        Set<String> marked = redisTemplate.opsForSet().members(PENDING_ROOMS_KEY);
+        Set<Long> markedRooms = new HashSet<>();
+        if (marked != null) {
+            marked.forEach(value -> markedRooms.add(Long.valueOf(value)));
+        }
+
+        for (Long chatRoomId : inOutbox) {
+            if (!markedRooms.contains(chatRoomId)) {
+                redisTemplate.opsForSet().add(PENDING_ROOMS_KEY, String.valueOf(chatRoomId));
+            }
+        }
+        for (Long chatRoomId : markedRooms) {
+            if (!inOutbox.contains(chatRoomId)) {
+                writer.execute(() -> releaseIfEmpty(chatRoomId));
+            }
+        }
+    }
+
+    /**
+     * 채팅방 메시지를 하나씩 동기 전송 (앞 메시지가 성공해야 다음 메시지 전송)
+     * @return 모두 성공했는지
+     */
+    private boolean relayRoom(Long chatRoomId, List<ChatMessageOutbox> rows) {
+        List<Long> sentIds = new ArrayList<>(rows.size());
+        String key = String.valueOf(chatRoomId);
+
+        try {
+            for (ChatMessageOutbox row : rows) {
+                chatMessageKafkaTemplate.send(CHAT_TOPIC, key, ChatMessageCodec.decode(row.getPayload()))
+                        .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                sentIds.add(row.getOutboxId());
+            }
+            return true;
+
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            int attempts = rows.get(sentIds.size()).getAttempts();
+            long backoffMs = Math.min(backoffMaxMs, backoffInitialMs << Math.min(attempts, 20));
+            outboxRepository.scheduleRetry(chatRoomId, LocalDateTime.now().plus(Duration.ofMillis(backoffMs)), e.getMessage());
+            meterRegistry.counter("chat.outbox.retry").increment();
+            log.warn("outbox 재전송 실패: chatRoomId={}, attempts={}, nextRetryIn={}ms, error={}",
+                    chatRoomId, attempts + 1, backoffMs, e.getMessage());
+            return false;
+
+        } finally {
+            outboxRepository.deleteByIds(sentIds);
+            meterRegistry.counter("chat.outbox.relayed").increment(sentIds.size());
+            if (sentIds.size() == rows.size()) {
+                // 이 노드의 저장 대기 메시지 뒤에서 확인해야 하므로 writer 스레드에서 해제
+                writer.execute(() -> releaseIfEmpty(chatRoomId));
+            }
+        }
+    }
+
+    private boolean markPending(Long chatRoomId) {
+        try {
+            redisTemplate.execute(MARK_SCRIPT, List.of(PENDING_ROOMS_KEY, INFLIGHT_KEY_PREFIX + chatRoomId),
+                    String.valueOf(chatRoomId), String.valueOf(INFLIGHT_TTL_MS));
+            return true;
+        } catch (Exception e) {
+            log.error("outbox 대기 채팅방 표시 실패: chatRoomId={}, error={}", chatRoomId, e.getMessage());
+            return false;
+        }
+    }
+
+    private void markWritten(Long chatRoomId) {
+        try {
+            redisTemplate.execute(WRITTEN_SCRIPT, List.of(INFLIGHT_KEY_PREFIX + chatRoomId));
+        } catch (Exception e) {
+            log.error("outbox 저장 완료 표시 실패: chatRoomId={}, error={}", chatRoomId, e.getMessage());
+        }
+    }
+
+    /**
+     * 테이블에 남은 메시지도, 어느 노드에서도 저장 대기 중인 메시지도 없으면 대기 표시 해제
+     */
+    private void releaseIfEmpty(Long chatRoomId) {
+        try {
+            if (outboxRepository.existsByChatRoomId(chatRoomId)) return;
+
+            localPendingRooms.remove(chatRoomId);
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(PENDING_ROOMS_KEY, INFLIGHT_KEY_PREFIX + chatRoomId),
+                    String.valueOf(chatRoomId));
+        } catch (Exception e) {
+            log.error("outbox 대기 채팅방 해제 실패: chatRoomId={}, error={}", chatRoomId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        relayExecutor.shutdownNow();
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("outbox 저장 대기 중 종료: 남은 작업 유실 가능");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
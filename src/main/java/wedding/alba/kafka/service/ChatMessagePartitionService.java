@@ -0,0 +1,135 @@
+package wedding.alba.kafka.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import wedding.alba.repository.ChatMessagePartitionRepository;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 🚀 chat_messages 월별 파티션 관리
+ * - 기동 시 / 매일: 이번 달 ~ premake-months 후까지 파티션 미리 생성
+ * - archive.enabled=true: hot-months 보다 오래된 월 파티션을 chat_messages_archive 로 이동
+ * 여러 인스턴스가 동시에 실행해도 Redis 락으로 한 곳에서만 수행.
+ * chat_messages 가 파티션 테이블이 아니면 (전환 스크립트 미실행) 아무것도 하지 않음.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChatMessagePartitionService {
+
+    private final ChatMessagePartitionRepository partitionRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+
+    @Value("${app.chat.partition.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.chat.partition.premake-months:3}")
+    private int premakeMonths;
+
+    @Value("${app.chat.partition.archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${app.chat.partition.archive.hot-months:6}")
+    private int hotMonths;
+
+    @Value("${app.chat.partition.archive.tablespace:}")
+    private String archiveTablespace;
+
+    private static final String LOCK_KEY = "chat:partition:maintenance:lock";
+    private static final Duration LOCK_TTL = Duration.ofMinutes(30);
+    private final String lockOwner = UUID.randomUUID().toString();
+
+    // 아카이브 테이블이 준비되어 있어 이력 조회가 아카이브까지 이어지는지
+    private volatile boolean archiveReadable = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (!enabled) return;
+
+        try {
+            archiveReadable = archiveEnabled && partitionRepository.isPartitioned(ChatMessagePartitionRepository.ARCHIVE_TABLE);
+        } catch (Exception e) {
+            log.error("아카이브 테이블 확인 실패: {}", e.getMessage());
+        }
+        maintain();
+    }
+
+    /**
+     * 파티션 생성 + 아카이브 (기본 매일 03:30)
+     */
+    @Scheduled(cron = "${app.chat.partition.maintenance-cron:0 30 3 * * *}")
+    public void maintain() {
+        if (!enabled) return;
+
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, lockOwner, LOCK_TTL);
+        if (!Boolean.TRUE.equals(locked)) {
+            log.debug("다른 인스턴스가 파티션 관리 중");
+            return;
+        }
+
+        try {
+            if (!partitionRepository.isPartitioned(ChatMessagePartitionRepository.HOT_TABLE)) {
+                log.warn("chat_messages 가 파티션 테이블이 아님 (migrate_chat_messages_partitioning.sql 실행 필요)");
+                return;
+            }
+
+            createFuturePartitions();
+            if (archiveEnabled) {
+                archiveOldPartitions();
+            }
+        } catch (Exception e) {
+            log.error("chat_messages 파티션 관리 실패: {}", e.getMessage(), e);
+        } finally {
+            if (lockOwner.equals(redisTemplate.opsForValue().get(LOCK_KEY))) {
+                redisTemplate.delete(LOCK_KEY);
+            }
+        }
+    }
+
+    /**
+     * 이력 조회 시 chat_messages 다음에 아카이브를 이어서 조회할지
+     */
+    public boolean isArchiveReadable() {
+        return archiveReadable;
+    }
+
+    private void createFuturePartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= premakeMonths; i++) {
+            partitionRepository.createPartition(current.plusMonths(i));
+        }
+        log.debug("chat_messages 파티션 생성 확인: {} ~ {}", current, current.plusMonths(premakeMonths));
+    }
+
+    private void archiveOldPartitions() {
+        // 이전 실행에서 DETACH CONCURRENTLY 가 중단된 파티션은 분리부터 마무리
+        for (YearMonth month : partitionRepository.findPendingDetachMonths()) {
+            partitionRepository.finalizeDetach(month);
+        }
+
+        // 이전 실행에서 DETACH 후 중단된 파티션 먼저 아카이브에 붙임
+        for (YearMonth month : partitionRepository.findDetachedPartitionMonths()) {
+            partitionRepository.attachToArchive(month, archiveTablespace);
+        }
+
+        YearMonth oldestHot = YearMonth.now().minusMonths(hotMonths);
+        List<YearMonth> months = partitionRepository.findPartitionMonths(ChatMessagePartitionRepository.HOT_TABLE);
+
+        for (YearMonth month : months) {
+            if (!month.isBefore(oldestHot)) break;
+
+            partitionRepository.detachPartition(month);
+            partitionRepository.attachToArchive(month, archiveTablespace);
+        }
+    }
+}
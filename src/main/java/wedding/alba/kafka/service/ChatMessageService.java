@@ -2,22 +2,35 @@ package wedding.alba.kafka.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import wedding.alba.entity.ChatMessage;
 import wedding.alba.entity.ChatRoom;
 import wedding.alba.entity.ChatRoomParticipant;
-import wedding.alba.entity.User;
-import wedding.alba.entity.Profile;
+import wedding.alba.kafka.codec.MessageIds;
+import wedding.alba.kafka.dto.ChatMessageCursorPage;
+import wedding.alba.kafka.dto.ChatMessageSearchPage;
+import wedding.alba.kafka.dto.ChatParticipantEvent;
+import wedding.alba.kafka.dto.ChatRoomResponse;
 import wedding.alba.kafka.dto.ChatRoomWithUserInfo;
+import wedding.alba.kafka.dto.ChatSyncRequest;
+import wedding.alba.kafka.dto.ChatSyncResponse;
+import wedding.alba.repository.ChatMessageArchiveRepository;
+import wedding.alba.repository.ChatMessageBulkRepository;
 import wedding.alba.repository.ChatMessageRepository;
+import wedding.alba.repository.ChatMessageSearchRepository;
+import wedding.alba.repository.ChatMessageSyncRepository;
+import wedding.alba.repository.ChatRoomListRepository;
 import wedding.alba.repository.ChatRoomRepository;
 import wedding.alba.repository.ChatRoomParticipantRepository;
-import wedding.alba.repository.UserRepository;
-import wedding.alba.function.profile.ProfileRepository;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -30,13 +43,40 @@ import java.util.stream.Collectors;
 public class ChatMessageService {
 
     private final ChatMessageRepository chatMessageRepository;
+    private final ChatMessageBulkRepository chatMessageBulkRepository;
+    private final ChatMessageSyncRepository chatMessageSyncRepository;
+    private final ChatMessageSearchRepository chatMessageSearchRepository;
+    private final ChatMessageArchiveRepository chatMessageArchiveRepository;
     private final ChatRoomRepository chatRoomRepository;
+    private final ChatRoomListRepository chatRoomListRepository;
     private final ChatRoomParticipantRepository participantRepository;
-    private final UserRepository userRepository;
-    private final ProfileRepository profileRepository;
     
     // 안읽은 메시지 카운트 서비스 추가
     private final UnreadCountService unreadCountService;
+    private final ChatParticipantCache chatParticipantCache;
+    private final ChatRoomActivityTracker chatRoomActivityTracker;
+    private final UserInboxService userInboxService;
+    private final ChatMessagePartitionService chatMessagePartitionService;
+    private final CacheManager cacheManager;
+    
+    @Value("${app.chat.inbox.enabled:false}")
+    private boolean inboxEnabled;
+    
+    // ChatOptimizationService의 @Cacheable 캐시 이름
+    private static final String CACHE_LAST_MESSAGE = "lastMessage";
+    private static final String CACHE_USER_CHAT_ROOMS = "userChatRooms";
+    
+    // 커서 기반 조회 최대 페이지 크기
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+    
+    // 재접속 동기화 응답 상한 (채팅방 수가 많으면 채팅방별 개수를 줄임)
+    private static final int DEFAULT_SYNC_PER_ROOM = 50;
+    private static final int MAX_SYNC_MESSAGES = 2000;
+    private static final int MAX_SYNC_ROOMS = 200;  // 요청당 채팅방 수 (채팅방당 최소 MAX_SYNC_MESSAGES / MAX_SYNC_ROOMS 개)
+    private static final int MAX_SYNC_DELETIONS = 500;
+    
+    // 검색 결과 snippet 에서 검색어 앞뒤로 보여줄 글자 수
+    private static final int SEARCH_SNIPPET_RADIUS = 40;
 
     /**
      * 🚀 채팅 메시지 배치 저장 - 성능 최적화
@@ -84,6 +124,68 @@ public class ChatMessageService {
         }
     }
 
+    /**
+     * 🚀 채팅 메시지 대량 저장 - Kafka 폴 전체를 multi-row INSERT 한 번으로 저장
+     * 이미 저장된 message_id(재전달)는 건너뛰고, 새로 저장된 메시지만 후속 처리
+     * @return 새로 저장된 메시지 (수신 순서 유지)
+     */
+    @Transactional
+    public List<wedding.alba.kafka.dto.ChatMessage> saveChatMessagesBulk(List<wedding.alba.kafka.dto.ChatMessage> kafkaMessages) {
+        if (kafkaMessages == null || kafkaMessages.isEmpty()) {
+            return List.of();
+        }
+        
+        try {
+            // 타이핑 메시지 필터링
+            List<wedding.alba.kafka.dto.ChatMessage> validMessages = kafkaMessages.stream()
+                    .filter(msg -> msg.getType() != wedding.alba.kafka.dto.ChatMessage.MessageType.TYPING &&
+                                  msg.getType() != wedding.alba.kafka.dto.ChatMessage.MessageType.STOP_TYPING)
+                    .toList();
+            
+            if (validMessages.isEmpty()) {
+                return List.of();
+            }
+            
+            List<ChatMessage> entities = validMessages.stream()
+                    .map(this::convertKafkaMessageToEntity)
+                    .toList();
+            
+            Set<String> insertedIds = chatMessageBulkRepository.insertIgnoreDuplicates(entities);
+            
+            List<wedding.alba.kafka.dto.ChatMessage> newMessages = validMessages.stream()
+                    .filter(msg -> insertedIds.contains(msg.getMessageId()))
+                    .toList();
+            
+            if (!newMessages.isEmpty()) {
+                // Redis / Kafka / 캐시 반영은 커밋 후에만
+                // (커밋 실패로 배치가 재전달되면 안읽은 카운트가 두 번 오르고, 커밋 전 조회가 이전 마지막 메시지를 다시 캐시할 수 있음)
+                runAfterCommit(() -> {
+                    // 채팅방별 마지막 메시지 시간 업데이트
+                    updateChatRoomsLastMessageBatch(newMessages);
+                    
+                    // 마지막 메시지 캐시 무효화 (채팅방당 한 번)
+                    newMessages.stream()
+                            .map(wedding.alba.kafka.dto.ChatMessage::getChatRoomId)
+                            .distinct()
+                            .forEach(chatRoomId -> evictCache(CACHE_LAST_MESSAGE, chatRoomId));
+                    
+                    // 안읽은 메시지 카운트 처리 (재전달된 메시지는 중복 카운트하지 않음)
+                    handleUnreadCountForBatch(newMessages);
+                });
+                
+                // 사용자별 채팅 목록(user_inbox) 반영 (커밋 후)
+                userInboxService.applyNewMessages(newMessages);
+            }
+            
+            log.debug("대량 저장 완료: 요청={}, 신규={}", validMessages.size(), newMessages.size());
+            return newMessages;
+            
+        } catch (Exception e) {
+            log.error("채팅 메시지 대량 저장 실패: {}", e.getMessage(), e);
+            throw new RuntimeException("채팅 메시지 대량 저장에 실패했습니다.", e);
+        }
+    }
+
     /**
      * 채팅 메시지 저장 (단일)
      */
@@ -105,6 +207,7 @@ public class ChatMessageService {
             
             // 채팅방 마지막 메시지 시간 업데이트
             updateChatRoomLastMessage(kafkaMessage.getChatRoomId(), kafkaMessage.getTimestamp());
+            evictCache(CACHE_LAST_MESSAGE, kafkaMessage.getChatRoomId());
             
             // 안읽은 메시지 카운트 처리 (단일 메시지)
             handleUnreadCountForSingleMessage(kafkaMessage);
@@ -140,40 +243,11 @@ public class ChatMessageService {
     
     /**
      * 여러 채팅방의 마지막 메시지 시간 배치 업데이트 (내부 메서드)
+     * 활동 추적기에 기록만 하고 DB 반영은 주기적으로 한 번에 수행
      */
     private void updateChatRoomsLastMessageBatch(List<wedding.alba.kafka.dto.ChatMessage> messages) {
-        try {
-            // 채팅방별로 가장 최신 메시지 시간 찾기
-            Map<Long, LocalDateTime> roomLastTimes = messages.stream()
-                    .collect(Collectors.groupingBy(
-                            wedding.alba.kafka.dto.ChatMessage::getChatRoomId,
-                            Collectors.maxBy(Comparator.comparing(wedding.alba.kafka.dto.ChatMessage::getTimestamp))
-                    ))
-                    .entrySet().stream()
-                    .filter(entry -> entry.getValue().isPresent())
-                    .collect(Collectors.toMap(
-                            Map.Entry::getKey,
-                            entry -> entry.getValue().get().getTimestamp()
-                    ));
-            
-            // 채팅방들 조회 및 업데이트
-            List<ChatRoom> rooms = chatRoomRepository.findAllById(roomLastTimes.keySet());
-            
-            for (ChatRoom room : rooms) {
-                LocalDateTime lastTime = roomLastTimes.get(room.getChatRoomId());
-                if (lastTime != null && (room.getLastMessageAt() == null || lastTime.isAfter(room.getLastMessageAt()))) {
-                    room.setLastMessageAt(lastTime);
-                    room.setLastActiveAt(lastTime); // 활동 시간도 동시 업데이트
-                }
-            }
-            
-            if (!rooms.isEmpty()) {
-                chatRoomRepository.saveAll(rooms);
-                log.debug("채팅방 마지막 메시지 시간 배치 업데이트 완료: {} 개 채팅방", rooms.size());
-            }
-            
-        } catch (Exception e) {
-            log.error("채팅방 마지막 메시지 시간 배치 업데이트 실패: {}", e.getMessage(), e);
+        for (wedding.alba.kafka.dto.ChatMessage message : messages) {
+            chatRoomActivityTracker.recordMessage(message.getChatRoomId(), message.getTimestamp());
         }
     }
 
@@ -215,6 +289,8 @@ public class ChatMessageService {
             // 참여자 추가
             addParticipantToChatRoom(savedRoom.getChatRoomId(), hostUserId, ChatRoomParticipant.ParticipantRole.ADMIN);
             addParticipantToChatRoom(savedRoom.getChatRoomId(), guestUserId, ChatRoomParticipant.ParticipantRole.MEMBER);
+            chatParticipantCache.invalidate(savedRoom.getChatRoomId());
+            userInboxService.refreshRoom(savedRoom.getChatRoomId());
             
             log.info("새 1:1 채팅방 생성: chatRoomId={}", savedRoom.getChatRoomId());
             return savedRoom;
@@ -260,6 +336,9 @@ public class ChatMessageService {
                 }
             }
             
+            chatParticipantCache.invalidate(savedRoom.getChatRoomId());
+            userInboxService.refreshRoom(savedRoom.getChatRoomId());
+            
             log.info("새 그룹 채팅방 생성: chatRoomId={}, participantCount={}", 
                     savedRoom.getChatRoomId(), participantIds != null ? participantIds.size() : 1);
             
@@ -307,6 +386,8 @@ public class ChatMessageService {
             
             // 참여자 추가
             addParticipantToChatRoom(chatRoomId, userId, ChatRoomParticipant.ParticipantRole.MEMBER);
+            chatParticipantCache.invalidate(chatRoomId);
+            userInboxService.refreshRoom(chatRoomId);
             
             // 채팅방 활동 시간 업데이트
             room.setLastActiveAt(LocalDateTime.now());
@@ -320,6 +401,222 @@ public class ChatMessageService {
         }
     }
 
+    /**
+     * 채팅방 나가기
+     */
+    public void leaveChatRoom(Long chatRoomId, Long userId) {
+        ChatRoomParticipant participant = participantRepository.findByChatRoomIdAndUserId(chatRoomId, userId)
+                .filter(ChatRoomParticipant::getIsActive)
+                .orElseThrow(() -> new RuntimeException("참여 중인 채팅방이 아닙니다."));
+        
+        participant.leaveChatRoom();
+        participantRepository.save(participant);
+        chatParticipantCache.invalidate(chatRoomId);
+        unreadCountService.publishParticipantChange(chatRoomId, userId, ChatParticipantEvent.Type.LEAVE);
+        userInboxService.refreshRoom(chatRoomId);
+        evictCache(CACHE_USER_CHAT_ROOMS, userId);
+        
+        log.info("사용자 채팅방 나가기: userId={}, chatRoomId={}", userId, chatRoomId);
+    }
+
+    /**
+     * 🚀 커서 기반 이전 메시지 조회 (스크롤 업)
+     * 커서가 없으면 최신 메시지부터 조회, COUNT 쿼리 없이 size + 1 개로 다음 페이지 여부 판단
+     */
+    @Transactional(readOnly = true)
+    public ChatMessageCursorPage getChatMessagesBefore(Long chatRoomId, LocalDateTime cursorTimestamp,
+                                                      String cursorMessageId, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        cursorTimestamp = resolveCursorTimestamp(cursorTimestamp, cursorMessageId);
+        
+        List<ChatMessage> rows = (cursorTimestamp == null || cursorMessageId == null)
+                ? chatMessageRepository.findLatestMessagesKeyset(chatRoomId, limit + 1)
+                : chatMessageRepository.findMessagesBeforeKeyset(chatRoomId, cursorTimestamp, cursorMessageId, limit + 1);
+        
+        // 핫 테이블을 다 읽었으면 나머지는 아카이브에서 이어서 (아카이브는 항상 더 오래된 월)
+        if (rows.size() <= limit && chatMessagePartitionService.isArchiveReadable()) {
+            List<ChatMessage> merged = new ArrayList<>(rows);
+            ChatMessage last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+            int remaining = limit + 1 - rows.size();
+            if (last != null) {
+                merged.addAll(chatMessageArchiveRepository.findMessagesBefore(chatRoomId, last.getTimestamp(), last.getMessageId(), remaining));
+            } else if (cursorTimestamp == null || cursorMessageId == null) {
+                merged.addAll(chatMessageArchiveRepository.findLatestMessages(chatRoomId, remaining));
+            } else {
+                merged.addAll(chatMessageArchiveRepository.findMessagesBefore(chatRoomId, cursorTimestamp, cursorMessageId, remaining));
+            }
+            rows = merged;
+        }
+        
+        return toCursorPage(rows, limit);
+    }
+
+    /**
+     * 🚀 커서 기반 이후 메시지 조회 (재접속 후 따라잡기)
+     */
+    @Transactional(readOnly = true)
+    public ChatMessageCursorPage getChatMessagesAfter(Long chatRoomId, LocalDateTime cursorTimestamp,
+                                                     String cursorMessageId, int size) {
+        int limit = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        cursorTimestamp = resolveCursorTimestamp(cursorTimestamp, cursorMessageId);
+        if (cursorTimestamp == null || cursorMessageId == null) {
+            throw new IllegalArgumentException("커서 timestamp 또는 시간순 messageId 가 필요합니다.");
+        }
+        
+        if (!chatMessagePartitionService.isArchiveReadable()) {
+            return toCursorPage(chatMessageRepository
+                    .findMessagesAfterKeyset(chatRoomId, cursorTimestamp, cursorMessageId, limit + 1), limit);
+        }
+        
+        // 커서가 아카이브 구간이면 아카이브부터 읽고 모자라면 핫 테이블에서 이어서
+        // (커서가 최근이면 아카이브 조회는 파티션 프루닝으로 빈 결과)
+        List<ChatMessage> rows = new ArrayList<>(chatMessageArchiveRepository
+                .findMessagesAfter(chatRoomId, cursorTimestamp, cursorMessageId, limit + 1));
+        if (rows.size() <= limit) {
+            ChatMessage last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+            rows.addAll(chatMessageRepository.findMessagesAfterKeyset(chatRoomId,
+                    last != null ? last.getTimestamp() : cursorTimestamp,
+                    last != null ? last.getMessageId() : cursorMessageId,
+                    limit + 1 - rows.size()));
+        }
+        
+        return toCursorPage(rows, limit);
+    }
+
+    /**
+     * 커서 timestamp 가 없고 messageId 가 시간순 ID면 메시지 시각을 찾아 채움
+     * (서버 발급 ID는 timestamp 가 ID 시각과 같으므로 못 찾으면 ID 시각 사용)
+     */
+    private LocalDateTime resolveCursorTimestamp(LocalDateTime cursorTimestamp, String cursorMessageId) {
+        if (cursorTimestamp != null || !MessageIds.isTimeOrdered(cursorMessageId)) {
+            return cursorTimestamp;
+        }
+        LocalDateTime idTime = MessageIds.timestampOf(cursorMessageId);
+        return chatMessageRepository.findTimestampByMessageId(cursorMessageId, idTime.minusDays(1), idTime.plusDays(1))
+                .orElse(idTime);
+    }
+
+    private ChatMessageCursorPage toCursorPage(List<ChatMessage> rows, int limit) {
+        boolean hasMore = rows.size() > limit;
+        List<ChatMessage> messages = hasMore ? rows.subList(0, limit) : rows;
+        ChatMessage last = messages.isEmpty() ? null : messages.get(messages.size() - 1);
+        
+        return ChatMessageCursorPage.builder()
+                .messages(messages)
+                .hasMore(hasMore)
+                .cursorTimestamp(last != null ? last.getTimestamp() : null)
+                .cursorMessageId(last != null ? last.getMessageId() : null)
+                .build();
+    }
+
+    /**
+     * 🚀 재접속 동기화 (참여 중인 모든 채팅방의 변경분을 한 번에)
+     * - 새 메시지: 채팅방별 커서 이후, 채팅방별/전체 상한 적용 (hasMore면 받은 커서로 다시 요청)
+     * - 채팅방이 MAX_SYNC_ROOMS 개보다 많으면 채팅방 ID 순으로 나눠서 응답 (nextAfterChatRoomId 로 이어서 요청)
+     * - 삭제: lastSyncedAt 이후 삭제된 메시지 ID
+     * - 안읽은 수: Redis Hash 한 번 조회
+     */
+    @Transactional(readOnly = true)
+    public ChatSyncResponse syncChatRooms(Long userId, ChatSyncRequest request) {
+        LocalDateTime syncedAt = LocalDateTime.now();
+        Set<Long> allJoinedRoomIds = new TreeSet<>(chatRoomRepository.findChatRoomIdsByUserId(userId));
+        
+        // 이번 요청에서 처리할 채팅방 (afterChatRoomId 이후 MAX_SYNC_ROOMS 개)
+        Set<Long> joinedRoomIds = new LinkedHashSet<>();
+        Long nextAfterChatRoomId = null;
+        Long lastChatRoomId = null;
+        for (Long chatRoomId : allJoinedRoomIds) {
+            if (request.getAfterChatRoomId() != null && chatRoomId <= request.getAfterChatRoomId()) continue;
+            if (joinedRoomIds.size() == MAX_SYNC_ROOMS) {
+                nextAfterChatRoomId = lastChatRoomId;
+                break;
+            }
+            joinedRoomIds.add(chatRoomId);
+            lastChatRoomId = chatRoomId;
+        }
+        
+        // 요청 커서 분류: 커서 이후 조회 / 최신부터 조회 / 나간 채팅방
+        Map<Long, ChatSyncRequest.RoomCursor> cursorsByRoom = new LinkedHashMap<>();
+        List<Long> removedChatRoomIds = new ArrayList<>();
+        if (request.getRooms() != null) {
+            for (ChatSyncRequest.RoomCursor cursor : request.getRooms()) {
+                if (cursor == null || cursor.getChatRoomId() == null) continue;
+                
+                if (!allJoinedRoomIds.contains(cursor.getChatRoomId())) {
+                    removedChatRoomIds.add(cursor.getChatRoomId());
+                } else if (joinedRoomIds.contains(cursor.getChatRoomId())  // 다른 페이지의 채팅방은 그 요청에서 처리
+                        && cursor.getCursorTimestamp() != null && cursor.getCursorMessageId() != null) {
+                    cursorsByRoom.put(cursor.getChatRoomId(), cursor);
+                }
+            }
+        }
+        Set<Long> roomsWithoutCursor = new LinkedHashSet<>(joinedRoomIds);
+        roomsWithoutCursor.removeAll(cursorsByRoom.keySet());
+        
+        int requestedLimit = request.getPerRoomLimit() != null ? request.getPerRoomLimit() : DEFAULT_SYNC_PER_ROOM;
+        int perRoomLimit = Math.min(Math.max(requestedLimit, 1), MAX_CURSOR_PAGE_SIZE);
+        if (!joinedRoomIds.isEmpty()) {
+            perRoomLimit = Math.min(perRoomLimit, MAX_SYNC_MESSAGES / joinedRoomIds.size());
+        }
+        
+        // 커서 이후 메시지 (limit + 1 로 hasMore 판단)
+        Map<Long, List<ChatMessage>> newMessagesByRoom = chatMessageSyncRepository
+                .findMessagesAfterCursors(new ArrayList<>(cursorsByRoom.values()), perRoomLimit + 1)
+                .stream()
+                .collect(Collectors.groupingBy(ChatMessage::getChatRoomId, LinkedHashMap::new, Collectors.toList()));
+        
+        // 커서가 없는 채팅방은 최신 메시지만 (이전 기록은 /messages/before 로 조회)
+        Map<Long, List<ChatMessage>> latestMessagesByRoom = chatMessageSyncRepository
+                .findLatestMessages(roomsWithoutCursor, perRoomLimit)
+                .stream()
+                .collect(Collectors.groupingBy(ChatMessage::getChatRoomId, LinkedHashMap::new, Collectors.toList()));
+        
+        List<ChatSyncResponse.RoomDelta> rooms = new ArrayList<>(newMessagesByRoom.size() + latestMessagesByRoom.size());
+        for (Map.Entry<Long, List<ChatMessage>> entry : newMessagesByRoom.entrySet()) {
+            rooms.add(toRoomDelta(entry.getKey(), entry.getValue(), perRoomLimit));
+        }
+        for (Map.Entry<Long, List<ChatMessage>> entry : latestMessagesByRoom.entrySet()) {
+            rooms.add(toRoomDelta(entry.getKey(), entry.getValue(), perRoomLimit));
+        }
+        
+        // 삭제된 메시지 (limit + 1 로 잘림 여부 판단)
+        List<ChatSyncResponse.DeletedMessage> deletedMessages = request.getLastSyncedAt() == null
+                ? List.of()
+                : chatMessageSyncRepository.findDeletedSince(joinedRoomIds, request.getLastSyncedAt(), MAX_SYNC_DELETIONS + 1);
+        boolean deletionsTruncated = deletedMessages.size() > MAX_SYNC_DELETIONS;
+        if (deletionsTruncated) {
+            deletedMessages = deletedMessages.subList(0, MAX_SYNC_DELETIONS);
+        }
+        
+        log.debug("재접속 동기화: userId={}, rooms={}/{}, changedRooms={}, removedRooms={}, deleted={}, nextAfter={}",
+                userId, joinedRoomIds.size(), allJoinedRoomIds.size(), rooms.size(), removedChatRoomIds.size(),
+                deletedMessages.size(), nextAfterChatRoomId);
+        
+        return ChatSyncResponse.builder()
+                .syncedAt(syncedAt)
+                .rooms(rooms)
+                .removedChatRoomIds(removedChatRoomIds)
+                .deletedMessages(deletedMessages)
+                .deletionsTruncated(deletionsTruncated)
+                .unreadCounts(unreadCountService.getUserUnreadCounts(userId))
+                .nextAfterChatRoomId(nextAfterChatRoomId)
+                .build();
+    }
+
+    private ChatSyncResponse.RoomDelta toRoomDelta(Long chatRoomId, List<ChatMessage> rows, int limit) {
+        boolean hasMore = rows.size() > limit;
+        List<ChatMessage> messages = hasMore ? rows.subList(0, limit) : rows;
+        ChatMessage last = messages.get(messages.size() - 1);
+        
+        return ChatSyncResponse.RoomDelta.builder()
+                .chatRoomId(chatRoomId)
+                .messages(messages)
+                .hasMore(hasMore)
+                .cursorTimestamp(last.getTimestamp())
+                .cursorMessageId(last.getMessageId())
+                .build();
+    }
+
     /**
      * 채팅방 메시지 목록 조회 (페이징)
      */
@@ -337,6 +634,7 @@ public class ChatMessageService {
 
     /**
      * 특정 시간 이후 메시지 조회
+     * (개수 제한이 없으므로 재접속 동기화는 syncChatRooms 사용)
      */
     @Transactional(readOnly = true)
     public List<ChatMessage> getChatMessagesSince(Long chatRoomId, LocalDateTime since) {
@@ -389,6 +687,33 @@ public class ChatMessageService {
         }
     }
 
+    /**
+     * 🚀 채팅방 목록 조회 (상대방 정보 + 마지막 메시지 + 안읽은 개수)
+     * app.chat.inbox.enabled=true 이면 user_inbox 범위 스캔 한 번,
+     * 아니면 조인 쿼리 한 번 + Redis 안읽은 개수
+     */
+    @Transactional(readOnly = true)
+    public List<ChatRoomResponse> getUserChatRoomList(Long userId) {
+        try {
+            List<ChatRoomResponse> rooms;
+            if (inboxEnabled) {
+                rooms = userInboxService.getInbox(userId);
+            } else {
+                rooms = chatRoomListRepository.findRoomListByUserId(userId);
+                Map<Long, Integer> unreadCounts = unreadCountService.getUserUnreadCounts(userId).getChatRoomUnreadCounts();
+                for (ChatRoomResponse room : rooms) {
+                    room.setUnreadMessageCount(unreadCounts.getOrDefault(room.getChatRoomId(), 0));
+                }
+            }
+            log.debug("사용자 채팅방 목록 조회 완료: userId={}, count={}", userId, rooms.size());
+            return rooms;
+            
+        } catch (Exception e) {
+            log.error("사용자 채팅방 목록 조회 실패: userId={}, error={}", userId, e.getMessage(), e);
+            return List.of();
+        }
+    }
+
     /**
      * 채팅방의 마지막 메시지 조회
      */
@@ -430,15 +755,10 @@ public class ChatMessageService {
                 participantRepository.save(p);
                 
                 // 안읽은 메시지 카운트 업데이트
-                unreadCountService.markChatRoomAsRead(userId, chatRoomId);
+                unreadCountService.markChatRoomAsRead(userId, chatRoomId, lastMessageId);
                 
-                // 채팅방 활동 시간도 업데이트
-                Optional<ChatRoom> roomOpt = chatRoomRepository.findById(chatRoomId);
-                if (roomOpt.isPresent()) {
-                    ChatRoom room = roomOpt.get();
-                    room.setLastActiveAt(LocalDateTime.now());
-                    chatRoomRepository.save(room);
-                }
+                // 채팅방 활동 시간도 업데이트 (write-behind)
+                chatRoomActivityTracker.recordActivity(chatRoomId);
                 
                 log.debug("메시지 읽음 처리: userId={}, chatRoomId={}, messageId={}", 
                         userId, chatRoomId, lastMessageId);
@@ -461,6 +781,88 @@ public class ChatMessageService {
         }
     }
 
+    /**
+     * 🚀 채팅방 내 메시지 검색 (pg_trgm 인덱스, 관련도순 커서 페이지)
+     * 참여 중인 채팅방만 검색 가능
+     */
+    @Transactional(readOnly = true)
+    public ChatMessageSearchPage searchMessagesInChatRoom(Long userId, Long chatRoomId, String keyword, Float cursorScore,
+                                                          LocalDateTime cursorTimestamp, String cursorMessageId, int size) {
+        if (!participantRepository.existsByChatRoomIdAndUserIdAndIsActiveTrue(chatRoomId, userId)) {
+            throw new RuntimeException("참여 중인 채팅방만 검색할 수 있습니다.");
+        }
+        
+        String trimmed = keyword.trim();
+        int limit = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        if (trimmed.isEmpty()) return toSearchPage(List.of(), trimmed, limit);
+        
+        return toSearchPage(chatMessageSearchRepository.searchInChatRoom(
+                chatRoomId, trimmed, cursorScore, cursorTimestamp, cursorMessageId, limit + 1), trimmed, limit);
+    }
+
+    /**
+     * 🚀 참여 중인 모든 채팅방에서 메시지 검색
+     */
+    @Transactional(readOnly = true)
+    public ChatMessageSearchPage searchMessagesInUserChatRooms(Long userId, String keyword, Float cursorScore,
+                                                               LocalDateTime cursorTimestamp, String cursorMessageId, int size) {
+        String trimmed = keyword.trim();
+        int limit = Math.min(Math.max(size, 1), MAX_CURSOR_PAGE_SIZE);
+        if (trimmed.isEmpty()) return toSearchPage(List.of(), trimmed, limit);
+        
+        return toSearchPage(chatMessageSearchRepository.searchInUserChatRooms(
+                userId, trimmed, cursorScore, cursorTimestamp, cursorMessageId, limit + 1), trimmed, limit);
+    }
+
+    private ChatMessageSearchPage toSearchPage(List<ChatMessageSearchRepository.ScoredMessage> rows, String keyword, int limit) {
+        boolean hasMore = rows.size() > limit;
+        List<ChatMessageSearchRepository.ScoredMessage> page = hasMore ? rows.subList(0, limit) : rows;
+        
+        List<ChatMessageSearchPage.Hit> hits = new ArrayList<>(page.size());
+        for (ChatMessageSearchRepository.ScoredMessage row : page) {
+            hits.add(toSearchHit(row, keyword));
+        }
+        ChatMessageSearchRepository.ScoredMessage last = page.isEmpty() ? null : page.get(page.size() - 1);
+        
+        return ChatMessageSearchPage.builder()
+                .hits(hits)
+                .hasMore(hasMore)
+                .cursorScore(last != null ? last.score() : null)
+                .cursorTimestamp(last != null ? last.message().getTimestamp() : null)
+                .cursorMessageId(last != null ? last.message().getMessageId() : null)
+                .build();
+    }
+
+    /**
+     * 첫 일치 위치 주변으로 snippet 을 자르고 snippet 안의 모든 일치 위치를 표시
+     */
+    private ChatMessageSearchPage.Hit toSearchHit(ChatMessageSearchRepository.ScoredMessage row, String keyword) {
+        String content = row.message().getContent();
+        int first = indexOfIgnoreCase(content, keyword, 0);
+        int start = Math.max(0, first - SEARCH_SNIPPET_RADIUS);
+        int end = Math.min(content.length(), Math.max(first, 0) + keyword.length() + SEARCH_SNIPPET_RADIUS);
+        String snippet = content.substring(start, end);
+        
+        List<ChatMessageSearchPage.Highlight> highlights = new ArrayList<>();
+        for (int i = indexOfIgnoreCase(snippet, keyword, 0); i >= 0; i = indexOfIgnoreCase(snippet, keyword, i + keyword.length())) {
+            highlights.add(new ChatMessageSearchPage.Highlight(i, keyword.length()));
+        }
+        
+        return ChatMessageSearchPage.Hit.builder()
+                .message(row.message())
+                .score(row.score())
+                .snippet(snippet)
+                .highlights(highlights)
+                .build();
+    }
+
+    private static int indexOfIgnoreCase(String text, String keyword, int from) {
+        for (int i = from; i + keyword.length() <= text.length(); i++) {
+            if (text.regionMatches(true, i, keyword, 0, keyword.length())) return i;
+        }
+        return -1;
+    }
+
     /**
      * 채팅방 참여자 추가 (내부 메서드)
      */
@@ -476,6 +878,7 @@ public class ChatMessageService {
                 participant.setLeftAt(null);
                 participant.setJoinedAt(LocalDateTime.now());
                 participantRepository.save(participant);
+                unreadCountService.publishParticipantChange(chatRoomId, userId, ChatParticipantEvent.Type.JOIN);
             }
         } else {
             // 새 참여자 생성
@@ -485,25 +888,17 @@ public class ChatMessageService {
                     .role(role)
                     .build();
             participantRepository.save(newParticipant);
+            unreadCountService.publishParticipantChange(chatRoomId, userId, ChatParticipantEvent.Type.JOIN);
         }
+        
+        evictCache(CACHE_USER_CHAT_ROOMS, userId);
     }
 
     /**
      * 채팅방 마지막 메시지 시간 및 활동 시간 업데이트 (내부 메서드)
      */
     private void updateChatRoomLastMessage(Long chatRoomId, LocalDateTime timestamp) {
-        try {
-            Optional<ChatRoom> roomOpt = chatRoomRepository.findById(chatRoomId);
-            if (roomOpt.isPresent()) {
-                ChatRoom room = roomOpt.get();
-                room.setLastMessageAt(timestamp);
-                room.setLastActiveAt(timestamp); // 활동 시간도 동시 업데이트
-                chatRoomRepository.save(room);
-                log.debug("채팅방 활동 시간 업데이트: chatRoomId={}, timestamp={}", chatRoomId, timestamp);
-            }
-        } catch (Exception e) {
-            log.error("채팅방 마지막 메시지 시간 업데이트 실패: {}", e.getMessage(), e);
-        }
+        chatRoomActivityTracker.recordMessage(chatRoomId, timestamp);
     }
 
     /**
@@ -545,17 +940,8 @@ public class ChatMessageService {
      * 채팅방 활동 시간 업데이트 (공개 메서드)
      */
     public void updateChatRoomActivity(Long chatRoomId) {
-        try {
-            Optional<ChatRoom> roomOpt = chatRoomRepository.findById(chatRoomId);
-            if (roomOpt.isPresent()) {
-                ChatRoom room = roomOpt.get();
-                room.setLastActiveAt(LocalDateTime.now());
-                chatRoomRepository.save(room);
-                log.debug("채팅방 활동 시간 업데이트: chatRoomId={}", chatRoomId);
-            }
-        } catch (Exception e) {
-            log.error("채팅방 활동 시간 업데이트 실패: {}", e.getMessage(), e);
-        }
+        chatRoomActivityTracker.recordActivity(chatRoomId);
+        log.debug("채팅방 활동 시간 업데이트 예약: chatRoomId={}", chatRoomId);
     }
     
     /**
@@ -650,136 +1036,49 @@ public class ChatMessageService {
                 .guestProfileImage(guestProfileImage)
                 .build();
     }
-    
+
     /**
-     * 사용자의 채팅방 목록 조회 - 간단한 방법 (디버깅용)
+     * @Cacheable 캐시 무효화 (2단계 캐시라 다른 노드의 로컬 캐시도 함께 제거됨)
      */
-    @Transactional(readOnly = true)
-    public List<ChatRoomWithUserInfo> getUserChatRoomsWithUserInfoSimple(Long userId) {
-        try {
-            // 1. 기존 방법으로 채팅방 목록 조회
-            List<ChatRoom> chatRooms = getUserChatRooms(userId);
-            
-            if (chatRooms.isEmpty()) {
-                return List.of();
-            }
-            
-            // 2. 1:1 채팅방들에서 사용자 ID 수집
-            Set<Long> userIds = new HashSet<>();
-            for (ChatRoom room : chatRooms) {
-                if (room.getType() == ChatRoom.ChatRoomType.PERSONAL) {
-                    if (room.getHostUserId() != null) userIds.add(room.getHostUserId());
-                    if (room.getGuestUserId() != null) userIds.add(room.getGuestUserId());
-                }
-            }
-            
-            // 3. 사용자 정보 및 프로필 정보 조회
-            Map<Long, User> userMap = new HashMap<>();
-            Map<Long, Profile> profileMap = new HashMap<>();
-            
-            if (!userIds.isEmpty()) {
-                List<User> users = userRepository.findAllById(userIds);
-                for (User user : users) {
-                    userMap.put(user.getUserId(), user);
-                }
-                
-                for (Long userIdToFind : userIds) {
-                    profileRepository.findByUserId(userIdToFind)
-                            .ifPresent(profile -> profileMap.put(userIdToFind, profile));
+    private static void runAfterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
                 }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    private void evictCache(String cacheName, Object key) {
+        try {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.evict(key);
             }
-            
-            // 4. ChatRoomWithUserInfo로 변환
-            List<ChatRoomWithUserInfo> result = new ArrayList<>();
-            for (ChatRoom room : chatRooms) {
-                String hostName = null, hostNickname = null, hostProfileImage = null;
-                String guestName = null, guestNickname = null, guestProfileImage = null;
-                
-                if (room.getType() == ChatRoom.ChatRoomType.PERSONAL) {
-                    // 호스트 정보
-                    if (room.getHostUserId() != null) {
-                        User hostUser = userMap.get(room.getHostUserId());
-                        Profile hostProfile = profileMap.get(room.getHostUserId());
-                        if (hostUser != null) {
-                            hostName = hostUser.getName();
-                        }
-                        if (hostProfile != null) {
-                            hostNickname = hostProfile.getNickname();
-                            hostProfileImage = hostProfile.getProfileImageUrl();
-                        }
-                    }
-                    
-                    // 게스트 정보
-                    if (room.getGuestUserId() != null) {
-                        User guestUser = userMap.get(room.getGuestUserId());
-                        Profile guestProfile = profileMap.get(room.getGuestUserId());
-                        if (guestUser != null) {
-                            guestName = guestUser.getName();
-                        }
-                        if (guestProfile != null) {
-                            guestNickname = guestProfile.getNickname();
-                            guestProfileImage = guestProfile.getProfileImageUrl();
-                        }
-                    }
-                }
-                
-                // 디버깅 로그
-                log.info("간단한 방법 ChatRoom 변환: roomId={}, type={}, hostUserId={}, guestUserId={}, hostName={}, hostNickname={}, guestName={}, guestNickname={}", 
-                        room.getChatRoomId(), room.getType(), room.getHostUserId(), room.getGuestUserId(), hostName, hostNickname, guestName, guestNickname);
-                
-                ChatRoomWithUserInfo roomWithUserInfo = ChatRoomWithUserInfo.builder()
-                        .chatRoom(room)
-                        .hostName(hostName)
-                        .hostNickname(hostNickname)
-                        .hostProfileImage(hostProfileImage)
-                        .guestName(guestName)
-                        .guestNickname(guestNickname)
-                        .guestProfileImage(guestProfileImage)
-                        .build();
-                
-                result.add(roomWithUserInfo);
-            }
-            
-            log.info("사용자 채팅방 목록 조회 완료 (간단한 방법): userId={}, count={}", userId, result.size());
-            return result;
-            
         } catch (Exception e) {
-            log.error("사용자 채팅방 목록 조회 실패 (간단한 방법): userId={}, error={}", userId, e.getMessage(), e);
-            return List.of();
+            log.warn("캐시 무효화 실패: cache={}, key={}, error={}", cacheName, key, e.getMessage());
         }
     }
 
     /**
      * 배치 메시지에 대한 안읽은 카운트 처리
+     * 배치 전체를 UnreadCountService에 한 번에 넘겨 Redis 파이프라인으로 반영
      */
     private void handleUnreadCountForBatch(List<wedding.alba.kafka.dto.ChatMessage> messages) {
         try {
-            // 채팅방별로 그룹화하여 처리
-            Map<Long, List<wedding.alba.kafka.dto.ChatMessage>> messagesByRoom = messages.stream()
-                .collect(Collectors.groupingBy(wedding.alba.kafka.dto.ChatMessage::getChatRoomId));
-            
-            for (Map.Entry<Long, List<wedding.alba.kafka.dto.ChatMessage>> entry : messagesByRoom.entrySet()) {
-                Long chatRoomId = entry.getKey();
-                List<wedding.alba.kafka.dto.ChatMessage> roomMessages = entry.getValue();
-                
-                // 채팅방 참여자 목록 조회
-                List<Long> participantIds = participantRepository.findUserIdsByChatRoomId(chatRoomId);
-                
-                if (participantIds != null && !participantIds.isEmpty()) {
-                    // 각 메시지에 대해 안읽은 카운트 업데이트
-                    for (wedding.alba.kafka.dto.ChatMessage message : roomMessages) {
-                        unreadCountService.handleNewMessage(
-                            message.getChatRoomId(),
-                            message.getMessageId(),
-                            message.getSenderId(),
-                            message.getSenderName(),
-                            message.getContent() != null ? message.getContent() : "[파일]",
-                            participantIds
-                        );
-                    }
-                }
+            // 채팅방별 참여자 목록 조회
+            Map<Long, long[]> participantIdsByRoom = new HashMap<>();
+            for (wedding.alba.kafka.dto.ChatMessage message : messages) {
+                participantIdsByRoom.computeIfAbsent(message.getChatRoomId(),
+                        chatParticipantCache::getParticipantIds);
             }
             
+            unreadCountService.handleNewMessagesBatch(messages, participantIdsByRoom);
+            
             log.debug("배치 메시지 안읽은 카운트 처리 완료: {} 개 메시지", messages.size());
             
         } catch (Exception e) {
@@ -793,9 +1092,9 @@ public class ChatMessageService {
     private void handleUnreadCountForSingleMessage(wedding.alba.kafka.dto.ChatMessage message) {
         try {
             // 채팅방 참여자 목록 조회
-            List<Long> participantIds = participantRepository.findUserIdsByChatRoomId(message.getChatRoomId());
+            long[] participantIds = chatParticipantCache.getParticipantIds(message.getChatRoomId());
             
-            if (participantIds != null && !participantIds.isEmpty()) {
+            if (participantIds.length > 0) {
                 unreadCountService.handleNewMessage(
                     message.getChatRoomId(),
                     message.getMessageId(),
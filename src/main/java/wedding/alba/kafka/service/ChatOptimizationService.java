@@ -1,5 +1,7 @@
 package wedding.alba.kafka.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
@@ -14,6 +16,7 @@ import wedding.alba.repository.ChatRoomRepository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 채팅 성능 최적화 서비스
@@ -27,9 +30,15 @@ public class ChatOptimizationService {
     private final ChatRoomRepository chatRoomRepository;
     private final ChatMessageRepository chatMessageRepository;
     private final ChatRoomParticipantRepository participantRepository;
+    private final ChatCacheService chatCacheService;
+    private final MeterRegistry meterRegistry;
+    
     // Circular dependency 회피를 위해 Lazy 로딩 사용
     @Lazy
     private final ChatMessageService chatMessageService;
+    
+    // 채팅방 입장 시 내려주는 최근 메시지 수
+    private static final int INIT_MESSAGE_COUNT = 20;
 
     /**
      * 채팅방 정보 빠른 조회 (캐시 적용)
@@ -76,17 +85,36 @@ public class ChatOptimizationService {
         
         long startTime = System.currentTimeMillis();
         
-        // 병렬로 데이터 조회
+        long startNanos = System.nanoTime();
+        
         ChatRoom chatRoom = getChatRoomFast(chatRoomId).orElse(null);
-        List<ChatMessage> recentMessages = getRecentMessagesFast(chatRoomId, 20);
+        
+        // 🚀 최근 메시지는 Redis 링 우선, 없으면 DB 조회 후 링 채움
+        List<wedding.alba.kafka.dto.ChatMessage> recentMessages = chatCacheService.getCachedRecentMessages(chatRoomId, INIT_MESSAGE_COUNT);
+        String source = "ring";
+        if (recentMessages == null) {
+            source = "db";
+            String ringVersion = chatCacheService.getRecentMessagesVersion(chatRoomId);
+            recentMessages = getRecentMessagesFast(chatRoomId, INIT_MESSAGE_COUNT).stream()
+                .map(this::convertToDto)
+                .toList();
+            chatCacheService.cacheRecentMessages(chatRoomId, ringVersion, recentMessages);
+        }
         
         // 채팅방 입장 시 활동 시간 업데이트
         if (chatRoom != null) {
             chatMessageService.updateChatRoomActivity(chatRoomId);
         }
         
+        Timer.builder("chat.room.init.latency")
+            .description("채팅방 초기화 데이터 조회 시간 (최근 메시지 출처별)")
+            .tag("source", source)
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry)
+            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        
         long endTime = System.currentTimeMillis();
-        log.info("채팅방 초기화 데이터 조회 완료: {}ms", endTime - startTime);
+        log.info("채팅방 초기화 데이터 조회 완료: {}ms, source={}", endTime - startTime, source);
         
         return ChatRoomInitData.builder()
             .chatRoom(chatRoom)
@@ -101,6 +129,23 @@ public class ChatOptimizationService {
     @lombok.Builder
     public static class ChatRoomInitData {
         private ChatRoom chatRoom;
-        private List<ChatMessage> recentMessages;
+        private List<wedding.alba.kafka.dto.ChatMessage> recentMessages;
+    }
+
+    private wedding.alba.kafka.dto.ChatMessage convertToDto(ChatMessage entity) {
+        return wedding.alba.kafka.dto.ChatMessage.builder()
+                .messageId(entity.getMessageId())
+                .chatRoomId(entity.getChatRoomId())
+                .senderId(entity.getSenderId())
+                .senderName(entity.getSenderName())
+                .senderProfileImage(entity.getSenderProfileImage())
+                .content(entity.getContent())
+                .type(wedding.alba.kafka.dto.ChatMessage.MessageType.valueOf(entity.getType().name()))
+                .timestamp(entity.getTimestamp())
+                .mentionUserId(entity.getMentionUserId())
+                .isSystemMessage(entity.getIsSystemMessage())
+                .attachmentUrl(entity.getAttachmentUrl())
+                .attachmentType(entity.getAttachmentType())
+                .build();
     }
 }
@@ -0,0 +1,241 @@
+package wedding.alba.kafka.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import wedding.alba.repository.ChatRoomParticipantRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 🚀 채팅방 참여자 캐시 (안읽은 카운트 fan-out 용)
+ * 로컬 메모리(chatRoomId -> long[]) -> Redis Set -> DB 순으로 조회하고,
+ * 참여자 변경 시 Redis Pub/Sub으로 모든 노드의 로컬 캐시를 무효화한다.
+ * DB 조회와 캐시 저장 사이에 무효화가 끼어들면 오래된 목록이 다시 캐시되지 않도록
+ * Redis 는 버전 Key (무효화 시 증가) 로, 로컬 캐시는 무효화 순번으로 확인 후 저장한다.
+ * 로컬 캐시는 크기/기간 제한이 있어서 무효화 메시지를 놓쳐도 (재연결, 장애 조치) 만료 후 다시 읽는다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChatParticipantCache {
+
+    private final ChatRoomParticipantRepository participantRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    // 같은 해시 슬롯에 오도록 {chatRoomId} 해시 태그 사용 (Lua 스크립트에서 함께 접근)
+    private static final String PARTICIPANTS_KEY = "chat_participants:{%d}";          // chatRoomId
+    private static final String VERSION_KEY = "chat_participants:{%d}:version";       // chatRoomId
+    private static final String INVALIDATION_CHANNEL = "chat_participants:invalidate";
+    private static final Duration REDIS_TTL = Duration.ofHours(6);
+    private static final Duration VERSION_TTL = Duration.ofDays(1);
+
+    // 버전이 읽은 시점 그대로일 때만 Set 을 통째로 교체 (DEL + SADD + EXPIRE)
+    private static final RedisScript<Long> REPLACE_SCRIPT = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[2]) or '0') ~= ARGV[1] then return 0 end " +
+            "redis.call('DEL', KEYS[1]) " +
+            "for i = 3, #ARGV, 1000 do " +
+            "  redis.call('SADD', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV))) " +
+            "end " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[2]) " +
+            "return 1", Long.class);
+
+    // 버전 증가 + Set 삭제
+    private static final RedisScript<Long> INVALIDATE_SCRIPT = new DefaultRedisScript<>(
+            "local v = redis.call('INCR', KEYS[2]) " +
+            "redis.call('EXPIRE', KEYS[2], ARGV[1]) " +
+            "redis.call('DEL', KEYS[1]) " +
+            "return v", Long.class);
+
+    // 빈 채팅방도 캐시하기 위한 Redis Set 표식 (userId로 쓰이지 않는 값)
+    private static final String EMPTY_MARKER = "-";
+
+    @Value("${app.chat.participants.local-max-size:10000}")
+    private long localMaxSize;
+
+    @Value("${app.chat.participants.local-ttl-ms:300000}")
+    private long localTtlMs;
+
+    private Cache<Long, long[]> localCache;
+
+    // 로컬 무효화 순번 (조회 시작 이후 무효화가 있었으면 로컬 캐시에 남기지 않음)
+    private final AtomicLong localInvalidations = new AtomicLong();
+
+    private Counter localHits;
+    private Counter redisHits;
+    private Counter dbLoads;
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofMillis(localTtlMs))
+                .build();
+
+        // DB 조회 절감량 = local + redis 히트 수 (초당 값은 rate로 확인)
+        localHits = Counter.builder("chat.participants.cache.requests")
+                .description("참여자 캐시 조회 수")
+                .tag("result", "local_hit")
+                .register(meterRegistry);
+        redisHits = Counter.builder("chat.participants.cache.requests")
+                .description("참여자 캐시 조회 수")
+                .tag("result", "redis_hit")
+                .register(meterRegistry);
+        dbLoads = Counter.builder("chat.participants.cache.requests")
+                .description("참여자 캐시 조회 수")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("chat.participants.cache.hit.ratio", this, ChatParticipantCache::hitRatio)
+                .description("참여자 캐시 적중률 (DB 조회 없이 응답한 비율)")
+                .register(meterRegistry);
+        Gauge.builder("chat.participants.cache.size", localCache, Cache::estimatedSize)
+                .description("로컬 캐시에 올라간 채팅방 수")
+                .register(meterRegistry);
+
+        redisMessageListenerContainer.addMessageListener((message, pattern) -> {
+            try {
+                Long chatRoomId = Long.parseLong(new String(message.getBody(), StandardCharsets.UTF_8));
+                evictLocal(chatRoomId);
+            } catch (NumberFormatException e) {
+                log.warn("잘못된 참여자 캐시 무효화 메시지: {}", new String(message.getBody(), StandardCharsets.UTF_8));
+            }
+        }, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    /**
+     * 채팅방 활성 참여자 ID 조회 (반환 배열은 수정하지 말 것)
+     */
+    public long[] getParticipantIds(Long chatRoomId) {
+        long[] cached = localCache.getIfPresent(chatRoomId);
+        if (cached != null) {
+            localHits.increment();
+            return cached;
+        }
+
+        long invalidationsBefore = localInvalidations.get();
+        long[] participantIds = loadFromRedis(chatRoomId);
+        if (participantIds != null) {
+            redisHits.increment();
+        } else {
+            dbLoads.increment();
+            participantIds = loadFromDatabase(chatRoomId);
+        }
+
+        // 저장 후 다시 확인: 그 사이 무효화가 있었으면 방금 넣은 값만 제거
+        localCache.put(chatRoomId, participantIds);
+        if (localInvalidations.get() != invalidationsBefore) {
+            localCache.asMap().remove(chatRoomId, participantIds);
+        }
+        return participantIds;
+    }
+
+    /**
+     * 참여자 변경 시 호출 (입장/초대/퇴장/채팅방 생성)
+     * 트랜잭션 안에서 호출되면 커밋 이후에 무효화해서 커밋 전 데이터가 다시 캐시되지 않도록 함
+     */
+    public void invalidate(Long chatRoomId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(chatRoomId);
+                }
+            });
+        } else {
+            evict(chatRoomId);
+        }
+    }
+
+    private void evict(Long chatRoomId) {
+        evictLocal(chatRoomId);
+        try {
+            redisTemplate.execute(INVALIDATE_SCRIPT,
+                    List.of(String.format(PARTICIPANTS_KEY, chatRoomId), String.format(VERSION_KEY, chatRoomId)),
+                    String.valueOf(VERSION_TTL.toSeconds()));
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, chatRoomId.toString());
+        } catch (Exception e) {
+            log.error("참여자 캐시 무효화 실패: chatRoomId={}, error={}", chatRoomId, e.getMessage());
+        }
+    }
+
+    private void evictLocal(Long chatRoomId) {
+        localInvalidations.incrementAndGet();
+        localCache.invalidate(chatRoomId);
+    }
+
+    private long[] loadFromRedis(Long chatRoomId) {
+        try {
+            Set<String> members = redisTemplate.opsForSet().members(String.format(PARTICIPANTS_KEY, chatRoomId));
+            if (members == null || members.isEmpty()) return null;
+
+            return members.stream()
+                    .filter(member -> !EMPTY_MARKER.equals(member))
+                    .mapToLong(Long::parseLong)
+                    .toArray();
+        } catch (Exception e) {
+            log.warn("Redis 참여자 캐시 조회 실패: chatRoomId={}, error={}", chatRoomId, e.getMessage());
+            return null;
+        }
+    }
+
+    private long[] loadFromDatabase(Long chatRoomId) {
+        String versionKey = String.format(VERSION_KEY, chatRoomId);
+        String version = null;
+        try {
+            version = redisTemplate.opsForValue().get(versionKey);
+        } catch (Exception e) {
+            log.warn("참여자 캐시 버전 조회 실패: chatRoomId={}, error={}", chatRoomId, e.getMessage());
+        }
+
+        List<Long> userIds = participantRepository.findUserIdsByChatRoomId(chatRoomId);
+        long[] participantIds = userIds.stream().mapToLong(Long::longValue).toArray();
+
+        try {
+            List<String> args = new ArrayList<>(userIds.size() + 2);
+            args.add(version != null ? version : "0");
+            args.add(String.valueOf(REDIS_TTL.toSeconds()));
+            if (participantIds.length == 0) {
+                args.add(EMPTY_MARKER);
+            } else {
+                userIds.forEach(userId -> args.add(String.valueOf(userId)));
+            }
+
+            Long replaced = redisTemplate.execute(REPLACE_SCRIPT,
+                    List.of(String.format(PARTICIPANTS_KEY, chatRoomId), versionKey), args.toArray());
+            if (replaced == null || replaced == 0) {
+                log.debug("참여자 목록 조회 중 무효화되어 Redis 캐시 저장 생략: chatRoomId={}", chatRoomId);
+            }
+        } catch (Exception e) {
+            log.warn("Redis 참여자 캐시 저장 실패: chatRoomId={}, error={}", chatRoomId, e.getMessage());
+        }
+
+        return participantIds;
+    }
+
+    private double hitRatio() {
+        double hits = localHits.count() + redisHits.count();
+        double total = hits + dbLoads.count();
+        return total == 0 ? 0.0 : hits / total;
+    }
+}
@@ -0,0 +1,437 @@
+package wedding.alba.kafka.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 🚀 클러스터 전체 온라인 상태(presence) 서비스
+ * 채팅방별 Redis Sorted Set (member: userId, score: 마지막 하트비트 시각 ms)
+ * + (채팅방, 사용자)별 연결 노드 Hash (field: nodeId, value: 그 노드의 마지막 하트비트 시각 ms)
+ * - 같은 사용자가 여러 노드에 연결돼 있으면 마지막 노드가 나갈 때만 제거/LEAVE
+ * - 이 노드에 연결된 세션의 하트비트는 주기마다 파이프라인 한 번으로 반영 (빠져 있던 사용자를 다시 넣으면 JOIN)
+ * - 만료 정리는 score 범위로 수행 (Lua로 원자적으로 꺼내므로 퇴장 이벤트는 한 노드만 발행)
+ * - 전체 목록 대신 JOIN/LEAVE 변경분만 /topic/presence/{chatRoomId} 로 전송
+ * 채팅방과 무관한 사용자 접속 여부도 같은 방식으로 관리 (사용자별 연결 노드 Hash, 노드별 세션 수)
+ * - 안읽은 카운트 전송 등에서 filterOnlineUsers 로 WebSocket 세션이 있는 사용자만 골라냄
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChatPresenceService {
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ChatFanoutService chatFanoutService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.chat.presence.ttl-ms:45000}")
+    private long presenceTtlMs;
+
+    private static final String ROOM_PRESENCE_KEY = "presence:room:%d";  // chatRoomId
+    private static final String ACTIVE_ROOMS_KEY = "presence:rooms";     // 온라인 사용자가 있는 채팅방 목록
+    private static final String CONNECTION_NODES_KEY = "presence:nodes:%d:%d";  // chatRoomId, userId -> Hash(nodeId, 하트비트 ms)
+    private static final String USER_NODES_KEY = "presence:user:%d";           // userId -> Hash(nodeId, 하트비트 ms)
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    // 이 노드 등록 + 온라인 목록 추가 (새로 추가됐으면 1)
+    // KEYS: 온라인 ZSet, 노드 Hash, 활성 채팅방 / ARGV: nodeId, now, Hash TTL ms, userId, chatRoomId
+    private static final RedisScript<Long> JOIN_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('HSET', KEYS[2], ARGV[1], ARGV[2]) " +
+            "redis.call('PEXPIRE', KEYS[2], ARGV[3]) " +
+            "local added = redis.call('ZADD', KEYS[1], ARGV[2], ARGV[4]) " +
+            "redis.call('SADD', KEYS[3], ARGV[5]) " +
+            "return added", Long.class);
+
+    // 이 노드 해제, 하트비트가 살아 있는 다른 노드가 없을 때만 온라인 목록에서 제거 (제거됐으면 1)
+    // KEYS: 온라인 ZSet, 노드 Hash / ARGV: nodeId, 만료 기준 ms, userId
+    private static final RedisScript<Long> LEAVE_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('HDEL', KEYS[2], ARGV[1]) " +
+            "local nodes = redis.call('HGETALL', KEYS[2]) " +
+            "for i = 1, #nodes, 2 do " +
+            "  if tonumber(nodes[i + 1]) > tonumber(ARGV[2]) then return 0 end " +
+            "end " +
+            "redis.call('DEL', KEYS[2]) " +
+            "return redis.call('ZREM', KEYS[1], ARGV[3])", Long.class);
+
+    // 만료된 사용자를 꺼내며 제거, 비면 활성 채팅방 목록에서도 제거
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> EXPIRE_SCRIPT = new DefaultRedisScript<>(
+            "local expired = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1]) " +
+            "if #expired > 0 then redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', ARGV[1]) end " +
+            "if redis.call('ZCARD', KEYS[1]) == 0 then redis.call('SREM', KEYS[2], ARGV[2]) end " +
+            "return expired", List.class);
+
+    // 이 노드의 세션 -> (채팅방, 사용자), (채팅방, 사용자)별 세션 수 (두 맵은 localLock 안에서 함께 변경)
+    private final ConcurrentHashMap<String, RoomUser> localSessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<RoomUser, Integer> localConnectionCounts = new ConcurrentHashMap<>();
+    private final Object localLock = new Object();
+
+    // 이 노드의 WebSocket 세션 -> 사용자, 사용자별 세션 수 (채팅방 입장 여부와 무관, localLock 안에서 함께 변경)
+    private final ConcurrentHashMap<String, Long> localUserSessions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Integer> localUserCounts = new ConcurrentHashMap<>();
+
+    private Counter deltaCounter;
+
+    @PostConstruct
+    public void init() {
+        deltaCounter = Counter.builder("chat.presence.deltas")
+                .description("발행한 JOIN/LEAVE 변경 이벤트 수")
+                .register(meterRegistry);
+        Gauge.builder("chat.presence.local.connections", localSessions, Map::size)
+                .description("이 노드에서 하트비트를 보내는 세션 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 세션이 채팅방에 입장
+     */
+    public void join(String sessionId, Long chatRoomId, Long userId) {
+        if (sessionId == null || chatRoomId == null || userId == null) return;
+
+        RoomUser roomUser = new RoomUser(chatRoomId, userId);
+        RoomUser released;
+        synchronized (localLock) {
+            RoomUser previous = localSessions.put(sessionId, roomUser);
+            if (roomUser.equals(previous)) return;
+            released = previous != null && decrementLocal(previous) ? previous : null;
+            localConnectionCounts.merge(roomUser, 1, Integer::sum);
+        }
+        if (released != null) {
+            releaseNode(released);
+        }
+
+        try {
+            long now = System.currentTimeMillis();
+            Long added = redisTemplate.execute(JOIN_SCRIPT,
+                    List.of(roomKey(chatRoomId), nodesKey(roomUser), ACTIVE_ROOMS_KEY),
+                    nodeId, String.valueOf(now), String.valueOf(presenceTtlMs * 2), userId.toString(), chatRoomId.toString());
+
+            if (added != null && added > 0) {
+                publishDelta(chatRoomId, "JOIN", Set.of(userId));
+            }
+        } catch (Exception e) {
+            log.error("온라인 상태 입장 처리 실패: chatRoomId={}, userId={}, error={}", chatRoomId, userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 세션이 채팅방에서 퇴장 (연결 종료 포함)
+     */
+    public void leave(String sessionId) {
+        if (sessionId == null) return;
+
+        RoomUser released = null;
+        synchronized (localLock) {
+            RoomUser roomUser = localSessions.remove(sessionId);
+            if (roomUser != null && decrementLocal(roomUser)) {
+                released = roomUser;
+            }
+        }
+        if (released != null) {
+            releaseNode(released);
+        }
+    }
+
+    /**
+     * WebSocket 연결 (이 노드의 첫 세션이면 사용자 연결 노드 등록)
+     */
+    @EventListener
+    public void handleConnected(SessionConnectedEvent event) {
+        Long userId = userIdOf(event.getUser());
+        String sessionId = (String) event.getMessage().getHeaders().get("simpSessionId");
+        if (userId == null || sessionId == null) return;
+
+        synchronized (localLock) {
+            if (localUserSessions.putIfAbsent(sessionId, userId) != null) return;
+            if (localUserCounts.merge(userId, 1, Integer::sum) > 1) return;
+        }
+
+        try {
+            String key = userNodesKey(userId);
+            redisTemplate.opsForHash().put(key, nodeId, String.valueOf(System.currentTimeMillis()));
+            redisTemplate.expire(key, Duration.ofMillis(presenceTtlMs * 2));
+        } catch (Exception e) {
+            log.error("사용자 접속 등록 실패: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void handleDisconnect(SessionDisconnectEvent event) {
+        leave(event.getSessionId());
+        disconnect(event.getSessionId());
+    }
+
+    /**
+     * 세션 연결 종료 (이 노드의 마지막 세션이면 사용자 연결 노드 해제, 다른 노드 연결은 그대로)
+     */
+    private void disconnect(String sessionId) {
+        if (sessionId == null) return;
+
+        Long userId;
+        synchronized (localLock) {
+            userId = localUserSessions.remove(sessionId);
+            if (userId == null || localUserCounts.computeIfPresent(userId, (k, v) -> v > 1 ? v - 1 : null) != null) {
+                return;
+            }
+        }
+
+        try {
+            redisTemplate.opsForHash().delete(userNodesKey(userId), nodeId);
+        } catch (Exception e) {
+            log.error("사용자 접속 해제 실패: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 🚀 WebSocket 세션이 열려 있는 사용자만 (이 노드 세션은 바로, 나머지는 연결 노드 Hash 를 파이프라인 한 번으로 확인)
+     */
+    public List<Long> filterOnlineUsers(Collection<Long> userIds) {
+        List<Long> online = new ArrayList<>();
+        List<Long> remote = new ArrayList<>();
+        for (Long userId : userIds) {
+            if (localUserCounts.containsKey(userId)) {
+                online.add(userId);
+            } else {
+                remote.add(userId);
+            }
+        }
+        if (remote.isEmpty()) return online;
+
+        List<Object> nodes = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (Long userId : remote) {
+                    ops.opsForHash().values(userNodesKey(userId));
+                }
+                return null;
+            }
+        });
+
+        long threshold = System.currentTimeMillis() - presenceTtlMs;
+        for (int i = 0; i < remote.size(); i++) {
+            if (nodes.get(i) instanceof Collection<?> heartbeats
+                    && heartbeats.stream().anyMatch(heartbeat -> Long.parseLong(heartbeat.toString()) > threshold)) {
+                online.add(remote.get(i));
+            }
+        }
+        return online;
+    }
+
+    /**
+     * 이 노드의 세션 수 감소 (localLock 안에서 호출)
+     * @return 이 노드에서 같은 (채팅방, 사용자)의 마지막 세션이었는지
+     */
+    private boolean decrementLocal(RoomUser roomUser) {
+        return localConnectionCounts.computeIfPresent(roomUser, (k, v) -> v > 1 ? v - 1 : null) == null;
+    }
+
+    /**
+     * 이 노드의 마지막 세션이 나가면 노드 등록 해제.
+     * 다른 노드에 살아 있는 연결이 없을 때만 온라인 목록에서 제거하고 LEAVE 발행
+     */
+    private void releaseNode(RoomUser roomUser) {
+        try {
+            String threshold = String.valueOf(System.currentTimeMillis() - presenceTtlMs);
+            Long removed = redisTemplate.execute(LEAVE_SCRIPT,
+                    List.of(roomKey(roomUser.chatRoomId()), nodesKey(roomUser)),
+                    nodeId, threshold, roomUser.userId().toString());
+            if (removed != null && removed > 0) {
+                publishDelta(roomUser.chatRoomId(), "LEAVE", Set.of(roomUser.userId()));
+            }
+        } catch (Exception e) {
+            log.error("온라인 상태 퇴장 처리 실패: chatRoomId={}, userId={}, error={}",
+                    roomUser.chatRoomId(), roomUser.userId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 🚀 이 노드에 연결된 모든 세션의 하트비트를 파이프라인 한 번으로 반영
+     * 만료 정리 등으로 빠져 있던 사용자가 다시 추가되면 JOIN 발행
+     */
+    @Scheduled(fixedDelayString = "${app.chat.presence.heartbeat-interval-ms:15000}")
+    public void flushHeartbeats() {
+        if (localConnectionCounts.isEmpty() && localUserCounts.isEmpty()) return;
+
+        List<RoomUser> roomUsers = new ArrayList<>(localConnectionCounts.keySet());
+        List<Long> connectedUsers = new ArrayList<>(localUserCounts.keySet());
+        Set<String> rooms = new HashSet<>();
+        roomUsers.forEach(roomUser -> rooms.add(roomUser.chatRoomId().toString()));
+        long now = System.currentTimeMillis();
+
+        try {
+            // 결과 앞쪽 roomUsers.size() 개가 ZADD 결과 (새로 추가됐으면 true)
+            List<Object> results = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    for (RoomUser roomUser : roomUsers) {
+                        ops.opsForZSet().add(roomKey(roomUser.chatRoomId()), roomUser.userId().toString(), now);
+                    }
+                    for (RoomUser roomUser : roomUsers) {
+                        ops.opsForHash().put(nodesKey(roomUser), nodeId, String.valueOf(now));
+                        ops.expire(nodesKey(roomUser), Duration.ofMillis(presenceTtlMs * 2));
+                    }
+                    if (!rooms.isEmpty()) {
+                        ops.opsForSet().add(ACTIVE_ROOMS_KEY, rooms.toArray(String[]::new));
+                    }
+                    for (Long userId : connectedUsers) {
+                        ops.opsForHash().put(userNodesKey(userId), nodeId, String.valueOf(now));
+                        ops.expire(userNodesKey(userId), Duration.ofMillis(presenceTtlMs * 2));
+                    }
+                    return null;
+                }
+            });
+
+            Map<Long, Set<Long>> rejoined = new HashMap<>();
+            for (int i = 0; i < roomUsers.size(); i++) {
+                if (Boolean.TRUE.equals(results.get(i))) {
+                    RoomUser roomUser = roomUsers.get(i);
+                    rejoined.computeIfAbsent(roomUser.chatRoomId(), k -> new HashSet<>()).add(roomUser.userId());
+                }
+            }
+            rejoined.forEach((chatRoomId, userIds) -> publishDelta(chatRoomId, "JOIN", userIds));
+
+            log.debug("온라인 하트비트 반영: rooms={}, users={}, connected={}, rejoined={}",
+                    rooms.size(), roomUsers.size(), connectedUsers.size(), rejoined.size());
+
+        } catch (Exception e) {
+            log.error("온라인 하트비트 반영 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 🚀 하트비트가 끊긴 사용자 정리 (score 범위 삭제) 후 LEAVE 발행
+     */
+    @Scheduled(fixedDelayString = "${app.chat.presence.cleanup-interval-ms:30000}")
+    @SuppressWarnings("unchecked")
+    public void cleanupExpired() {
+        try {
+            Set<String> activeRooms = redisTemplate.opsForSet().members(ACTIVE_ROOMS_KEY);
+            if (activeRooms == null || activeRooms.isEmpty()) return;
+
+            String threshold = String.valueOf(System.currentTimeMillis() - presenceTtlMs);
+            int removedTotal = 0;
+
+            for (String room : activeRooms) {
+                Long chatRoomId = Long.parseLong(room);
+                List<String> expired = redisTemplate.execute(EXPIRE_SCRIPT,
+                        List.of(roomKey(chatRoomId), ACTIVE_ROOMS_KEY), threshold, room);
+
+                if (expired != null && !expired.isEmpty()) {
+                    Set<Long> userIds = new HashSet<>();
+                    expired.forEach(userId -> userIds.add(Long.parseLong(userId)));
+                    publishDelta(chatRoomId, "LEAVE", userIds);
+                    removedTotal += expired.size();
+                }
+            }
+
+            if (removedTotal > 0) {
+                log.debug("만료된 온라인 상태 정리: rooms={}, removed={}", activeRooms.size(), removedTotal);
+            }
+
+        } catch (Exception e) {
+            log.error("온라인 상태 정리 실패: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 채팅방 온라인 사용자 ID 목록
+     */
+    public Set<Long> getOnlineUserIds(Long chatRoomId) {
+        try {
+            Set<String> members = redisTemplate.opsForZSet().rangeByScore(
+                    roomKey(chatRoomId), System.currentTimeMillis() - presenceTtlMs, Double.POSITIVE_INFINITY);
+            Set<Long> userIds = new HashSet<>();
+            if (members != null) {
+                members.forEach(member -> userIds.add(Long.parseLong(member)));
+            }
+            return userIds;
+
+        } catch (Exception e) {
+            log.error("온라인 사용자 조회 실패: chatRoomId={}, error={}", chatRoomId, e.getMessage());
+            return Set.of();
+        }
+    }
+
+    /**
+     * 채팅방 온라인 사용자 수
+     */
+    public int getOnlineUserCount(Long chatRoomId) {
+        try {
+            Long count = redisTemplate.opsForZSet().count(
+                    roomKey(chatRoomId), System.currentTimeMillis() - presenceTtlMs, Double.POSITIVE_INFINITY);
+            return count != null ? count.intValue() : 0;
+
+        } catch (Exception e) {
+            log.error("온라인 사용자 수 조회 실패: chatRoomId={}, error={}", chatRoomId, e.getMessage());
+            return 0;
+        }
+    }
+
+    private void publishDelta(Long chatRoomId, String type, Set<Long> userIds) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("type", type);
+        delta.put("chatRoomId", chatRoomId);
+        delta.put("userIds", userIds);
+        delta.put("timestamp", LocalDateTime.now());
+
+        chatFanoutService.convertAndSend("/topic/presence/" + chatRoomId, delta);
+        deltaCounter.increment();
+    }
+
+    private static String roomKey(Long chatRoomId) {
+        return String.format(ROOM_PRESENCE_KEY, chatRoomId);
+    }
+
+    private static String nodesKey(RoomUser roomUser) {
+        return String.format(CONNECTION_NODES_KEY, roomUser.chatRoomId(), roomUser.userId());
+    }
+
+    private static String userNodesKey(Long userId) {
+        return String.format(USER_NODES_KEY, userId);
+    }
+
+    private static Long userIdOf(Principal principal) {
+        if (principal == null || principal.getName() == null) return null;
+        try {
+            return Long.parseLong(principal.getName());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private record RoomUser(Long chatRoomId, Long userId) {
+    }
+}
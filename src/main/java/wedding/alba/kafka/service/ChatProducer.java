@@ -1,13 +1,13 @@
 package wedding.alba.kafka.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
+import wedding.alba.kafka.codec.MessageIds;
 import wedding.alba.kafka.dto.ChatMessage;
+import wedding.alba.kafka.dto.ChatSendResult;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -18,56 +18,61 @@ import java.util.concurrent.CompletableFuture;
 @Slf4j
 public class ChatProducer {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    // 바이너리 포맷 전용 템플릿 (ChatMessageSerializer)
+    private final KafkaTemplate<String, ChatMessage> chatMessageKafkaTemplate;
+    private final ChatMessageOutboxService outboxService;
     
     private static final String CHAT_TOPIC = "chat-messages";
 
     /**
      * 채팅 메시지를 Kafka로 전송
+     * 채팅방에 outbox 재전송 대기 메시지가 있으면 순서 유지를 위해 outbox 로 보냄
+     * Kafka 전송이 실패해도 outbox 저장에 성공하면 QUEUED 로 완료 (저장까지 실패해야 실패로 완료)
      */
-    public CompletableFuture<SendResult<String, String>> sendChatMessage(ChatMessage message) {
+    public CompletableFuture<ChatSendResult> sendChatMessage(ChatMessage message) {
         try {
             // 메시지 검증 및 기본값 설정
             validateAndSetDefaults(message);
+        } catch (Exception e) {
+            log.error("채팅 메시지 검증 실패: messageId={}, error={}", message.getMessageId(), e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+
+        if (isDurable(message) && outboxService.hasPending(message.getChatRoomId())) {
+            return outboxService.enqueue(message, null).thenApply(ignored -> ChatSendResult.queued(message));
+        }
 
-            String messageJson = objectMapper.writeValueAsString(message);
+        try {
             String key = String.valueOf(message.getChatRoomId()); // 채팅방별 파티셔닝
             
-            CompletableFuture<SendResult<String, String>> future = kafkaTemplate.send(CHAT_TOPIC, key, messageJson);
-            
-            future.whenComplete((result, ex) -> {
-                if (ex != null) {
-                    log.error("채팅 메시지 전송 실패: messageId={}, error={}", 
-                            message.getMessageId(), ex.getMessage(), ex);
-                    handleSendFailure(message, ex);
-                } else {
-                    log.debug("채팅 메시지 전송 성공: messageId={}, chatRoomId={}, partition={}, offset={}", 
-                            message.getMessageId(), 
-                            message.getChatRoomId(),
-                            result.getRecordMetadata().partition(),
-                            result.getRecordMetadata().offset());
-                    handleSendSuccess(message, result);
-                }
-            });
-            
-            return future;
+            return chatMessageKafkaTemplate.send(CHAT_TOPIC, key, message)
+                    .handle((result, ex) -> {
+                        if (ex != null) {
+                            log.error("채팅 메시지 전송 실패: messageId={}, error={}", 
+                                    message.getMessageId(), ex.getMessage(), ex);
+                            return handleSendFailure(message, ex);
+                        }
+                        log.debug("채팅 메시지 전송 성공: messageId={}, chatRoomId={}, partition={}, offset={}", 
+                                message.getMessageId(), 
+                                message.getChatRoomId(),
+                                result.getRecordMetadata().partition(),
+                                result.getRecordMetadata().offset());
+                        handleSendSuccess(message, result);
+                        return CompletableFuture.completedFuture(ChatSendResult.sent(result));
+                    })
+                    .thenCompose(future -> future);
                 
-        } catch (JsonProcessingException e) {
-            log.error("채팅 메시지 JSON 변환 오류: messageId={}, error={}", 
-                    message.getMessageId(), e.getMessage(), e);
-            return CompletableFuture.failedFuture(e);
         } catch (Exception e) {
             log.error("채팅 메시지 전송 중 예상치 못한 오류: messageId={}, error={}", 
                     message.getMessageId(), e.getMessage(), e);
-            return CompletableFuture.failedFuture(e);
+            return handleSendFailure(message, e);
         }
     }
 
     /**
      * 일반 채팅 메시지 전송
      */
-    public CompletableFuture<SendResult<String, String>> sendTextMessage(Long chatRoomId, Long senderId, 
+    public CompletableFuture<ChatSendResult> sendTextMessage(Long chatRoomId, Long senderId, 
                                                                        String senderName, String content) {
         ChatMessage message = ChatMessage.builder()
                 .chatRoomId(chatRoomId)
@@ -83,7 +88,7 @@ public class ChatProducer {
     /**
      * 멘션 메시지 전송
      */
-    public CompletableFuture<SendResult<String, String>> sendMentionMessage(Long chatRoomId, Long senderId, 
+    public CompletableFuture<ChatSendResult> sendMentionMessage(Long chatRoomId, Long senderId, 
                                                                           String senderName, String content, 
                                                                           Long mentionUserId) {
         ChatMessage message = ChatMessage.builder()
@@ -101,7 +106,7 @@ public class ChatProducer {
     /**
      * 파일/이미지 메시지 전송
      */
-    public CompletableFuture<SendResult<String, String>> sendFileMessage(Long chatRoomId, Long senderId, 
+    public CompletableFuture<ChatSendResult> sendFileMessage(Long chatRoomId, Long senderId, 
                                                                        String senderName, String content,
                                                                        String attachmentUrl, String attachmentType) {
         ChatMessage.MessageType messageType = determineFileMessageType(attachmentType);
@@ -122,7 +127,7 @@ public class ChatProducer {
     /**
      * 사용자 상태 변경 (온라인/오프라인)
      */
-    public CompletableFuture<SendResult<String, String>> sendUserStatus(Long userId, String senderName, 
+    public CompletableFuture<ChatSendResult> sendUserStatus(Long userId, String senderName, 
                                                                        String status, Long chatRoomId) {
         try {
             ChatMessage.MessageType messageType = ChatMessage.MessageType.valueOf(status.toUpperCase());
@@ -150,7 +155,7 @@ public class ChatProducer {
     /**
      * 타이핑 상태 전송
      */
-    public CompletableFuture<SendResult<String, String>> sendTypingStatus(Long userId, String senderName, 
+    public CompletableFuture<ChatSendResult> sendTypingStatus(Long userId, String senderName, 
                                                                         Long chatRoomId, boolean isTyping) {
         try {
             ChatMessage typingMessage = ChatMessage.builder()
@@ -173,7 +178,7 @@ public class ChatProducer {
     /**
      * 시스템 메시지 전송
      */
-    public CompletableFuture<SendResult<String, String>> sendSystemMessage(Long chatRoomId, String content) {
+    public CompletableFuture<ChatSendResult> sendSystemMessage(Long chatRoomId, String content) {
         ChatMessage systemMessage = ChatMessage.builder()
                 .chatRoomId(chatRoomId)
                 .senderId(0L) // 시스템 사용자 ID
@@ -217,7 +222,10 @@ public class ChatProducer {
 
         // 기본값 설정
         if (message.getMessageId() == null || message.getMessageId().isEmpty()) {
-            message.setMessageId(UUID.randomUUID().toString());
+            // 시간순 ID 발급, timestamp 도 ID 시각으로 맞춰 ID만으로 커서/순서 비교 가능
+            String messageId = MessageIds.newId();
+            message.setMessageId(messageId);
+            message.setTimestamp(MessageIds.timestampOf(messageId));
         }
         
         if (message.getTimestamp() == null) {
@@ -268,21 +276,34 @@ public class ChatProducer {
     /**
      * 전송 성공 처리
      */
-    private void handleSendSuccess(ChatMessage message, SendResult<String, String> result) {
+    private void handleSendSuccess(ChatMessage message, SendResult<String, ChatMessage> result) {
         // 필요시 성공 메트릭 수집, 로깅 등
         log.trace("메시지 전송 성공 처리: messageId={}", message.getMessageId());
     }
 
     /**
      * 전송 실패 처리
+     * 타이핑/헬스체크를 제외한 메시지는 outbox 에 저장 후 릴레이가 재전송
      */
-    private void handleSendFailure(ChatMessage message, Throwable throwable) {
-        // 필요시 실패 메트릭 수집, 재시도 로직, 알림 등
-        log.warn("메시지 전송 실패 처리: messageId={}, error={}", 
-                message.getMessageId(), throwable.getMessage());
+    private CompletableFuture<ChatSendResult> handleSendFailure(ChatMessage message, Throwable throwable) {
+        if (!isDurable(message)) {
+            log.warn("메시지 전송 실패 처리 (재전송 안 함): messageId={}, type={}, error={}", 
+                    message.getMessageId(), message.getType(), throwable.getMessage());
+            return CompletableFuture.failedFuture(throwable);
+        }
         
-        // TODO: 실패한 메시지를 별도 저장소에 보관하여 재시도 가능하도록 구현
-        // TODO: 중요한 메시지인 경우 관리자에게 알림 전송
+        log.warn("메시지 전송 실패, outbox 저장: messageId={}, chatRoomId={}, error={}", 
+                message.getMessageId(), message.getChatRoomId(), throwable.getMessage());
+        return outboxService.enqueue(message, throwable).thenApply(ignored -> ChatSendResult.queued(message));
+    }
+
+    /**
+     * outbox 재전송 대상인지 (타이핑 상태, 헬스체크 메시지 제외)
+     */
+    private boolean isDurable(ChatMessage message) {
+        return message.getType() != ChatMessage.MessageType.TYPING
+                && message.getType() != ChatMessage.MessageType.STOP_TYPING
+                && message.getChatRoomId() != null && message.getChatRoomId() > 0;
     }
 
     /**
@@ -300,7 +321,7 @@ public class ChatProducer {
                     .type(ChatMessage.MessageType.SYSTEM)
                     .build();
             
-            CompletableFuture<SendResult<String, String>> future = sendChatMessage(testMessage);
+            CompletableFuture<ChatSendResult> future = sendChatMessage(testMessage);
             future.get(java.util.concurrent.TimeUnit.SECONDS.toMillis(5), 
                       java.util.concurrent.TimeUnit.MILLISECONDS); // 5초 타임아웃
             
@@ -0,0 +1,166 @@
+package wedding.alba.kafka.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 🚀 채팅방 활동 시간 write-behind 추적기
+ * lastMessageAt / lastActiveAt 변경을 메모리에서 채팅방별 최대값으로 합쳐 두었다가
+ * 주기마다 UPDATE ... FROM (VALUES ...) 한 번으로 반영한다.
+ * (DB 값은 최대 flush 주기만큼 늦을 수 있음)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChatRoomActivityTracker {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private static final String UPDATE_PREFIX =
+            "UPDATE chat_rooms cr SET " +
+            "last_message_at = GREATEST(cr.last_message_at, v.last_message_at), " +
+            "last_active_at = GREATEST(cr.last_active_at, v.last_active_at), " +
+            "updated_at = now() " +
+            "FROM (VALUES ";
+    private static final String ROW_PLACEHOLDER = "(CAST(? AS bigint), CAST(? AS timestamp), CAST(? AS timestamp))";
+    private static final String UPDATE_SUFFIX =
+            ") AS v(chat_room_id, last_message_at, last_active_at) WHERE cr.chat_room_id = v.chat_room_id";
+
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private final ConcurrentHashMap<Long, RoomActivity> pending = new ConcurrentHashMap<>();
+
+    private Counter recordedUpdates;
+    private Counter flushedRows;
+
+    @PostConstruct
+    public void init() {
+        recordedUpdates = Counter.builder("chat.room.activity.recorded")
+                .description("기록된 채팅방 활동 시간 변경 수 (병합 전)")
+                .register(meterRegistry);
+        flushedRows = Counter.builder("chat.room.activity.flushed")
+                .description("DB에 반영된 채팅방 행 수 (병합 후)")
+                .register(meterRegistry);
+        Gauge.builder("chat.room.activity.pending", pending, ConcurrentHashMap::size)
+                .description("flush 대기 중인 채팅방 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 새 메시지: 마지막 메시지 시간과 활동 시간 모두 갱신
+     */
+    public void recordMessage(Long chatRoomId, LocalDateTime timestamp) {
+        if (chatRoomId == null) return;
+        LocalDateTime at = timestamp != null ? timestamp : LocalDateTime.now();
+        pending.merge(chatRoomId, new RoomActivity(at, at), RoomActivity::max);
+        recordedUpdates.increment();
+    }
+
+    /**
+     * 읽음/입장 등: 활동 시간만 갱신
+     */
+    public void recordActivity(Long chatRoomId) {
+        if (chatRoomId == null) return;
+        pending.merge(chatRoomId, new RoomActivity(null, LocalDateTime.now()), RoomActivity::max);
+        recordedUpdates.increment();
+    }
+
+    /**
+     * 대기 중인 변경을 DB에 반영
+     */
+    @Scheduled(fixedDelayString = "${app.chat.activity.flush-interval-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty()) return;
+
+        // 꺼낸 뒤에 들어오는 변경은 다음 flush에서 반영
+        Map<Long, RoomActivity> snapshot = new HashMap<>();
+        for (Long chatRoomId : pending.keySet()) {
+            RoomActivity activity = pending.remove(chatRoomId);
+            if (activity != null) {
+                snapshot.put(chatRoomId, activity);
+            }
+        }
+        if (snapshot.isEmpty()) return;
+
+        List<Map.Entry<Long, RoomActivity>> rows = new ArrayList<>(snapshot.entrySet());
+        try {
+            for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+                List<Map.Entry<Long, RoomActivity>> chunk =
+                        rows.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, rows.size()));
+                jdbcTemplate.update(buildUpdateSql(chunk.size()), toParams(chunk));
+            }
+            flushedRows.increment(rows.size());
+            log.debug("채팅방 활동 시간 flush 완료: {} 개 채팅방", rows.size());
+
+        } catch (Exception e) {
+            // 실패한 변경은 다시 대기열로 (더 최신 값과 병합)
+            snapshot.forEach((chatRoomId, activity) -> pending.merge(chatRoomId, activity, RoomActivity::max));
+            log.error("채팅방 활동 시간 flush 실패: rooms={}, error={}", rows.size(), e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        log.info("채팅방 활동 시간 추적기 종료: 남은 변경={}", pending.size());
+    }
+
+    private String buildUpdateSql(int rows) {
+        StringBuilder sql = new StringBuilder(UPDATE_PREFIX.length() + rows * (ROW_PLACEHOLDER.length() + 2) + UPDATE_SUFFIX.length());
+        sql.append(UPDATE_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(ROW_PLACEHOLDER);
+        }
+        sql.append(UPDATE_SUFFIX);
+        return sql.toString();
+    }
+
+    private Object[] toParams(List<Map.Entry<Long, RoomActivity>> chunk) {
+        Object[] params = new Object[chunk.size() * 3];
+        int i = 0;
+        for (Map.Entry<Long, RoomActivity> entry : chunk) {
+            params[i++] = entry.getKey();
+            params[i++] = toTimestamp(entry.getValue().lastMessageAt());
+            params[i++] = toTimestamp(entry.getValue().lastActiveAt());
+        }
+        return params;
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    /**
+     * 채팅방별 대기 중인 활동 시간 (null = 변경 없음)
+     */
+    private record RoomActivity(LocalDateTime lastMessageAt, LocalDateTime lastActiveAt) {
+
+        static RoomActivity max(RoomActivity a, RoomActivity b) {
+            return new RoomActivity(later(a.lastMessageAt, b.lastMessageAt), later(a.lastActiveAt, b.lastActiveAt));
+        }
+
+        private static LocalDateTime later(LocalDateTime a, LocalDateTime b) {
+            if (a == null) return b;
+            if (b == null) return a;
+            return a.isAfter(b) ? a : b;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package wedding.alba.kafka.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 🚀 채팅방 키 기반 레인 실행기
+ * 같은 chatRoomId는 항상 같은 단일 스레드 레인에서 실행되어 순서가 보장되고,
+ * 서로 다른 채팅방은 여러 레인에서 병렬로 처리된다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ChatRoomLaneExecutor {
+
+    private final MeterRegistry meterRegistry;
+
+    // 0 이하이면 CPU 코어 수만큼 레인 생성
+    @Value("${app.chat.consumer.lanes:0}")
+    private int configuredLanes;
+
+    private ThreadPoolExecutor[] lanes;
+    private Timer[] laneLatency;
+
+    @PostConstruct
+    public void init() {
+        int laneCount = configuredLanes > 0 ? configuredLanes : Runtime.getRuntime().availableProcessors();
+        lanes = new ThreadPoolExecutor[laneCount];
+        laneLatency = new Timer[laneCount];
+
+        for (int i = 0; i < laneCount; i++) {
+            String laneName = String.valueOf(i);
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadPoolExecutor lane = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "chat-lane-" + laneName + "-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            lanes[i] = lane;
+
+            Gauge.builder("chat.consumer.lane.queue.depth", lane, executor -> executor.getQueue().size())
+                    .description("레인별 대기 중인 채팅방 작업 수")
+                    .tag("lane", laneName)
+                    .register(meterRegistry);
+            laneLatency[i] = Timer.builder("chat.consumer.lane.latency")
+                    .description("레인별 채팅방 작업 처리 시간 (대기 포함)")
+                    .tag("lane", laneName)
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry);
+        }
+
+        log.info("채팅방 레인 실행기 초기화: lanes={}", laneCount);
+    }
+
+    /**
+     * 채팅방별 작업을 레인에 분배하고 모든 레인이 끝날 때까지 대기
+     * (Kafka ack는 이 메서드가 반환된 뒤에만 수행되어야 함)
+     */
+    public <T> void executeAll(Map<Long, T> tasksByRoom, Consumer<T> handler) {
+        submitAll(tasksByRoom, handler).join();
+    }
+
+    /**
+     * 채팅방별 작업을 레인에 분배 (호출 스레드는 다른 작업을 하다가 join)
+     */
+    public <T> CompletableFuture<Void> submitAll(Map<Long, T> tasksByRoom, Consumer<T> handler) {
+        if (tasksByRoom.isEmpty()) return CompletableFuture.completedFuture(null);
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>(tasksByRoom.size());
+        for (Map.Entry<Long, T> entry : tasksByRoom.entrySet()) {
+            int laneIndex = laneOf(entry.getKey());
+            T task = entry.getValue();
+            long enqueuedAt = System.nanoTime();
+
+            futures.add(CompletableFuture.runAsync(() -> {
+                try {
+                    handler.accept(task);
+                } finally {
+                    laneLatency[laneIndex].record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                }
+            }, lanes[laneIndex]));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * chatRoomId -> 레인 번호 (null은 0번 레인)
+     */
+    int laneOf(Long chatRoomId) {
+        if (chatRoomId == null) return 0;
+        return Math.floorMod(Long.hashCode(chatRoomId * 0x9E3779B97F4A7C15L), lanes.length);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+        for (ThreadPoolExecutor lane : lanes) {
+            try {
+                if (!lane.awaitTermination(10, TimeUnit.SECONDS)) {
+                    lane.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                lane.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.info("채팅방 레인 실행기 종료");
+    }
+}
@@ -0,0 +1,172 @@
+package wedding.alba.kafka.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import wedding.alba.kafka.dto.ChatMessage;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 🚀 타이핑 표시 전용 경로 (Kafka / DB 미사용)
+ * 클라이언트 이벤트는 (채팅방, 사용자)별 원하는 상태만 기록하고, 짧은 주기의 flush에서
+ * 실제로 바뀐 상태만 ChatFanoutService로 전송한다.
+ * - 같은 flush 구간 안의 시작/중지는 서로 상쇄 (전송 없음)
+ * - 타이핑 중 갱신은 사용자/채팅방당 refresh 간격에 한 번만 전송
+ * - 중지 이벤트 없이 끊긴 클라이언트는 만료 시간 뒤 자동 중지
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TypingIndicatorService {
+
+    private final ChatFanoutService chatFanoutService;
+    private final MeterRegistry meterRegistry;
+
+    // 타이핑 중 갱신 전송 최소 간격
+    @Value("${app.chat.typing.refresh-interval-ms:2000}")
+    private long refreshIntervalMs;
+
+    // 마지막 이벤트 이후 이 시간이 지나면 자동으로 중지 전송
+    @Value("${app.chat.typing.expire-ms:10000}")
+    private long expireMs;
+
+    private final ConcurrentHashMap<String, TypingState> states = new ConcurrentHashMap<>();
+
+    private Counter receivedEvents;
+    private Counter publishedEvents;
+
+    @PostConstruct
+    public void init() {
+        // received 는 이전에 chat-messages 토픽으로 보내던 양, published 는 실제 전송량
+        receivedEvents = Counter.builder("chat.typing.events")
+                .description("타이핑 이벤트 수 (Kafka를 거치지 않음)")
+                .tag("stage", "received")
+                .register(meterRegistry);
+        publishedEvents = Counter.builder("chat.typing.events")
+                .description("타이핑 이벤트 수 (Kafka를 거치지 않음)")
+                .tag("stage", "published")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 타이핑 시작/중지 이벤트 기록
+     */
+    public void onTyping(Long chatRoomId, Long userId, String userName, boolean isTyping) {
+        if (chatRoomId == null || userId == null) return;
+
+        receivedEvents.increment();
+        // compute 안에서 갱신해서 flush의 제거와 겹치지 않도록 함
+        states.compute(chatRoomId + ":" + userId, (key, state) -> {
+            TypingState target = state != null ? state : new TypingState(chatRoomId, userId);
+            target.update(userName, isTyping, System.currentTimeMillis());
+            return target;
+        });
+    }
+
+    /**
+     * 바뀐 상태만 전송
+     */
+    @Scheduled(fixedDelayString = "${app.chat.typing.flush-interval-ms:250}")
+    public void flush() {
+        if (states.isEmpty()) return;
+
+        long now = System.currentTimeMillis();
+
+        for (String key : states.keySet()) {
+            Boolean[] toPublish = new Boolean[1];
+            TypingState[] published = new TypingState[1];
+
+            // 더 이상 타이핑 중이 아닌 상태는 제거 (이번에 중지를 전송한 경우도 바로 제거)
+            states.computeIfPresent(key, (k, state) -> {
+                toPublish[0] = state.nextPublication(now, refreshIntervalMs, expireMs);
+                published[0] = state;
+                return state.isIdle() ? null : state;
+            });
+
+            if (toPublish[0] != null) {
+                publish(published[0], toPublish[0]);
+            }
+        }
+    }
+
+    private void publish(TypingState state, boolean isTyping) {
+        try {
+            ChatMessage message = ChatMessage.builder()
+                    .chatRoomId(state.chatRoomId)
+                    .senderId(state.userId)
+                    .senderName(state.userName)
+                    .type(isTyping ? ChatMessage.MessageType.TYPING : ChatMessage.MessageType.STOP_TYPING)
+                    .timestamp(LocalDateTime.now())
+                    .build();
+
+            chatFanoutService.convertAndSend("/topic/typing/" + state.chatRoomId, message);
+            publishedEvents.increment();
+
+        } catch (Exception e) {
+            log.error("타이핑 상태 전송 실패: chatRoomId={}, userId={}, error={}",
+                    state.chatRoomId, state.userId, e.getMessage());
+        }
+    }
+
+    /**
+     * (채팅방, 사용자)별 타이핑 상태
+     */
+    private static final class TypingState {
+        private final Long chatRoomId;
+        private final Long userId;
+        private String userName;
+
+        private boolean desired;          // 클라이언트가 마지막으로 보낸 상태
+        private boolean published;        // 마지막으로 전송한 상태
+        private boolean refreshRequested; // 전송 이후 타이핑 이벤트가 다시 왔는지
+        private long lastEventAt;
+        private long lastPublishedAt;
+
+        TypingState(Long chatRoomId, Long userId) {
+            this.chatRoomId = chatRoomId;
+            this.userId = userId;
+        }
+
+        void update(String userName, boolean isTyping, long now) {
+            if (userName != null) this.userName = userName;
+            this.desired = isTyping;
+            this.lastEventAt = now;
+            if (isTyping && published) {
+                refreshRequested = true;
+            }
+        }
+
+        /**
+         * 타이핑 중도 아니고 중지도 이미 전송한 상태 (flush 에서 제거 대상)
+         */
+        boolean isIdle() {
+            return !desired && !published;
+        }
+
+        /**
+         * 지금 전송할 상태 (없으면 null). 호출 시 전송한 것으로 기록
+         * (update 와 함께 ConcurrentHashMap.compute 안에서만 호출)
+         */
+        Boolean nextPublication(long now, long refreshIntervalMs, long expireMs) {
+            if (desired && now - lastEventAt >= expireMs) {
+                desired = false;
+            }
+
+            boolean publish = desired != published
+                    || (desired && refreshRequested && now - lastPublishedAt >= refreshIntervalMs);
+            if (!publish) return null;
+
+            published = desired;
+            refreshRequested = false;
+            lastPublishedAt = now;
+            return desired;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package wedding.alba.kafka.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+import wedding.alba.kafka.dto.UnreadCountUpdate;
+import wedding.alba.kafka.streams.UnreadCountTopology;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 🚀 안읽은 카운트 스트림 출력 -> Redis 반영 (app.chat.unread.streams.mode=primary 일 때만 시작)
+ * read_committed 로 읽어서 스트림 트랜잭션이 커밋된 값만 Redis 에 씀 (중단된 트랜잭션 값은 보이지 않음)
+ * 절대값 덮어쓰기라 재전달되어도 같은 결과
+ * 반영이 끝난 (사용자, 채팅방) 만 UnreadPushService 에 알려서 실시간 전송이 갱신된 값을 읽도록 함
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadCountRedisWriter {
+
+    public static final String LISTENER_ID = "chat-unread-redis-writer";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final UnreadPushService unreadPushService;
+
+    @KafkaListener(id = LISTENER_ID, topics = UnreadCountTopology.UPDATES_TOPIC, groupId = LISTENER_ID,
+            autoStartup = "#{'${app.chat.unread.streams.mode:off}'.equalsIgnoreCase('primary')}",
+            properties = "isolation.level=read_committed")
+    public void consumeUpdates(List<ConsumerRecord<String, String>> records, Acknowledgment ack) {
+        // 배치 안에서 같은 (사용자, 채팅방) 은 마지막 값만
+        Map<String, UnreadCountUpdate> latest = new LinkedHashMap<>();
+        for (ConsumerRecord<String, String> record : records) {
+            try {
+                UnreadCountUpdate update = objectMapper.readValue(record.value(), UnreadCountUpdate.class);
+                if (update.getUserId() == null || update.getChatRoomId() == null) continue;
+                latest.put(update.getUserId() + ":" + update.getChatRoomId(), update);
+            } catch (Exception e) {
+                log.error("안읽은 카운트 변경분 파싱 실패: offset={}, error={}", record.offset(), e.getMessage());
+            }
+        }
+
+        if (!latest.isEmpty()) {
+            // 실패하면 예외로 배치 전체 재전달
+            write(latest.values());
+            meterRegistry.counter("chat.unread.streams.redis.writes").increment(latest.size());
+
+            Map<Long, Set<Long>> changedRooms = new HashMap<>();
+            for (UnreadCountUpdate update : latest.values()) {
+                changedRooms.computeIfAbsent(update.getUserId(), k -> new HashSet<>()).add(update.getChatRoomId());
+            }
+            changedRooms.forEach(unreadPushService::markChanged);
+        }
+        ack.acknowledge();
+    }
+
+    /**
+     * 변경분을 파이프라인 한 번으로 Redis 에 반영 (0 이면 필드 삭제)
+     */
+    void write(Iterable<UnreadCountUpdate> updates) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+
+                for (UnreadCountUpdate update : updates) {
+                    String unreadKey = String.format(UnreadCountService.USER_UNREAD_KEY, update.getUserId());
+                    String chatRoomId = update.getChatRoomId().toString();
+
+                    if (update.getUnreadCount() != null && update.getUnreadCount() > 0) {
+                        ops.opsForHash().put(unreadKey, chatRoomId, update.getUnreadCount().toString());
+                    } else {
+                        ops.opsForHash().delete(unreadKey, chatRoomId);
+                    }
+                }
+                return null;
+            }
+        });
+    }
+}
@@ -1,23 +1,50 @@
 package wedding.alba.kafka.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import wedding.alba.kafka.codec.MessageIds;
+import wedding.alba.kafka.dto.ChatMessage;
+import wedding.alba.kafka.dto.ChatParticipantEvent;
+import wedding.alba.kafka.dto.ChatReadReceipt;
 import wedding.alba.kafka.dto.UnreadCountEvent;
 import wedding.alba.kafka.dto.UnreadCountResponse;
+import wedding.alba.kafka.streams.UnreadCountTopology;
+import wedding.alba.kafka.streams.UnreadStreamsMode;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.UUID;
 
 /**
  * 안읽은 메시지 카운트 관리 서비스
  * Kafka 기반으로 실시간 카운트 처리
+ * app.chat.unread.streams.mode=primary 면 Redis 는 스트림 출력을 받는 UnreadCountRedisWriter 가 갱신하고 여기서는 읽기만 함
  */
 @Service
 @RequiredArgsConstructor
@@ -27,42 +54,79 @@ public class UnreadCountService {
     private final RedisTemplate<String, String> redisTemplate;
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final UserInboxService userInboxService;
+    private final UnreadPushService unreadPushService;
     
-    // Redis Key 패턴
-    private static final String UNREAD_COUNT_KEY = "unread_count:%d:%d";  // userId:chatRoomId
-    private static final String TOTAL_UNREAD_KEY = "total_unread:%d";     // userId
-    private static final String USER_CHATROOMS_KEY = "user_chatrooms:%d"; // userId의 채팅방 목록
+    // 기동 시 이전 Key 구조를 Hash로 이동할지 여부
+    @Value("${app.chat.unread.migrate-legacy-keys:false}")
+    private boolean migrateLegacyKeysOnStartup;
+    
+    // 안읽은 카운트 스트림 처리기 단계 (off | shadow | primary)
+    @Value("${app.chat.unread.streams.mode:off}")
+    private String streamsMode;
+    
+    // Redis Key 패턴 - 사용자당 하나의 Hash (field: chatRoomId, value: 안읽은 개수)
+    public static final String USER_UNREAD_KEY = "unread:%d";             // userId
+    static final String USER_UNREAD_PATTERN = "unread:*";
+    
+    // 이전 버전 Key 패턴 (마이그레이션용)
+    private static final String LEGACY_UNREAD_COUNT_PATTERN = "unread_count:*";  // unread_count:userId:chatRoomId
+    private static final String LEGACY_TOTAL_UNREAD_PATTERN = "total_unread:*";
+    private static final String LEGACY_USER_CHATROOMS_PATTERN = "user_chatrooms:*";
+    
+    // 마이그레이션 1회 실행 보장 (unread:* 패턴과 겹치지 않는 Key)
+    private static final String MIGRATION_DONE_KEY = "migration:unread-hash:done";
+    private static final String MIGRATION_LOCK_KEY = "migration:unread-hash:lock";
+    private static final Duration MIGRATION_LOCK_TTL = Duration.ofMinutes(30);
+    
+    // 채팅방 읽음 처리: HGET + HDEL 을 원자적으로 수행하고 이전 값을 반환
+    private static final RedisScript<Long> MARK_READ_SCRIPT = new DefaultRedisScript<>(
+            "local c = redis.call('HGET', KEYS[1], ARGV[1]) " +
+            "if c then redis.call('HDEL', KEYS[1], ARGV[1]) return tonumber(c) end " +
+            "return 0", Long.class);
+    
+    // 이전 Key 하나를 Hash 필드로 이동 (GET + HINCRBY + DEL)
+    private static final RedisScript<Long> MIGRATE_KEY_SCRIPT = new DefaultRedisScript<>(
+            "local v = redis.call('GET', KEYS[1]) " +
+            "if not v then return 0 end " +
+            "redis.call('HINCRBY', KEYS[2], ARGV[1], v) " +
+            "redis.call('DEL', KEYS[1]) " +
+            "return 1", Long.class);
     
     // Kafka Topic
     private static final String UNREAD_COUNT_TOPIC = "unread-count-topic";
+    
+    // 메트릭 (메시지당 Redis 왕복 수 = round.trips / messages)
+    private static final String METRIC_ROUND_TRIPS = "chat.unread.redis.round.trips";
+    private static final String METRIC_MESSAGES = "chat.unread.messages";
 
     /**
      * 새 메시지 발송 시 안읽은 카운트 증가
      */
     public void handleNewMessage(Long chatRoomId, String messageId, Long senderId, 
-                               String senderName, String content, java.util.List<Long> recipientIds) {
+                               String senderName, String content, long[] recipientIds) {
         
         log.debug("새 메시지 안읽은 카운트 처리: chatRoomId={}, messageId={}, recipients={}", 
-                chatRoomId, messageId, recipientIds);
+                chatRoomId, messageId, recipientIds.length);
+        
+        long excludedId = senderId != null ? senderId : -1L;
+        long recipientCount = Arrays.stream(recipientIds).filter(id -> id != excludedId).count();
+        meterRegistry.counter(METRIC_MESSAGES, "path", "single").increment();
+        meterRegistry.counter(METRIC_ROUND_TRIPS, "path", "single").increment(isStreamsPrimary() ? 0 : recipientCount);
         
         // 발신자 제외한 수신자들의 카운트 증가
-        recipientIds.stream()
-            .filter(recipientId -> !recipientId.equals(senderId))
+        Arrays.stream(recipientIds)
+            .filter(recipientId -> recipientId != excludedId)
             .forEach(recipientId -> {
                 
-                // 1. 채팅방별 카운트 증가
-                String unreadKey = String.format(UNREAD_COUNT_KEY, recipientId, chatRoomId);
-                redisTemplate.opsForValue().increment(unreadKey);
-                
-                // 2. 전체 카운트 증가
-                String totalKey = String.format(TOTAL_UNREAD_KEY, recipientId);
-                redisTemplate.opsForValue().increment(totalKey);
-                
-                // 3. 사용자 채팅방 목록에 추가 (Set 사용)
-                String userRoomsKey = String.format(USER_CHATROOMS_KEY, recipientId);
-                redisTemplate.opsForSet().add(userRoomsKey, chatRoomId.toString());
+                // 1. 채팅방별 카운트 증가 (사용자 Hash, 전체 개수는 조회 시 합산)
+                if (!isStreamsPrimary()) {
+                    String unreadKey = String.format(USER_UNREAD_KEY, recipientId);
+                    redisTemplate.opsForHash().increment(unreadKey, chatRoomId.toString(), 1);
+                }
                 
-                // 4. Kafka 이벤트 발송 (실시간 업데이트용)
+                // 2. Kafka 이벤트 발송 (실시간 업데이트용)
                 UnreadCountEvent event = UnreadCountEvent.builder()
                     .eventType(UnreadCountEvent.EventType.MESSAGE_SENT)
                     .chatRoomId(chatRoomId)
@@ -76,7 +140,7 @@ public class UnreadCountService {
                 
                 try {
                     String eventJson = objectMapper.writeValueAsString(event);
-                    kafkaTemplate.send(UNREAD_COUNT_TOPIC, eventJson);
+                    kafkaTemplate.send(UNREAD_COUNT_TOPIC, String.valueOf(recipientId), eventJson);
                 } catch (Exception e) {
                     log.error("Kafka 이벤트 전송 실패: {}", e.getMessage(), e);
                 }
@@ -86,76 +150,153 @@ public class UnreadCountService {
     }
 
     /**
-     * 메시지 읽음 처리 (채팅방의 모든 안읽은 메시지)
+     * 🚀 배치 메시지 안읽은 카운트 처리
+     * 배치 전체의 증가분을 (사용자, 채팅방) 단위로 합친 뒤 Redis 파이프라인 한 번으로 반영하고,
+     * 사용자당 하나의 이벤트만 발송
+     *
+     * @param messages 새로 저장된 메시지들
+     * @param participantIdsByRoom 채팅방별 활성 참여자 ID
      */
-    public void markChatRoomAsRead(Long userId, Long chatRoomId) {
-        log.debug("채팅방 읽음 처리: userId={}, chatRoomId={}", userId, chatRoomId);
+    public void handleNewMessagesBatch(List<ChatMessage> messages, Map<Long, long[]> participantIdsByRoom) {
+        if (messages == null || messages.isEmpty()) return;
         
-        // 1. 현재 채팅방의 안읽은 개수 조회
-        String unreadKey = String.format(UNREAD_COUNT_KEY, userId, chatRoomId);
-        String unreadCountStr = redisTemplate.opsForValue().get(unreadKey);
+        // 1. (사용자, 채팅방)별 증가분 병합 + 사용자별 마지막 메시지
+        Map<Long, Map<Long, Integer>> incrementsByUser = new HashMap<>();
+        Map<Long, ChatMessage> lastMessageByUser = new LinkedHashMap<>();
         
-        if (unreadCountStr != null) {
-            int unreadCount = Integer.parseInt(unreadCountStr);
+        for (ChatMessage message : messages) {
+            long[] participantIds = participantIdsByRoom.get(message.getChatRoomId());
+            if (participantIds == null) continue;
             
-            if (unreadCount > 0) {
-                // 2. 채팅방별 카운트 삭제
-                redisTemplate.delete(unreadKey);
+            for (long recipientId : participantIds) {
+                if (message.getSenderId() != null && recipientId == message.getSenderId()) continue;
                 
-                // 3. 전체 카운트에서 차감
-                String totalKey = String.format(TOTAL_UNREAD_KEY, userId);
-                redisTemplate.opsForValue().increment(totalKey, -unreadCount);
-                
-                // 4. Kafka 이벤트 발송
-                UnreadCountEvent event = UnreadCountEvent.builder()
-                    .eventType(UnreadCountEvent.EventType.MESSAGE_READ)
-                    .chatRoomId(chatRoomId)
-                    .recipientId(userId)
-                    .unreadCount(0)  // 읽음 처리 후 0
-                    .timestamp(LocalDateTime.now())
-                    .build();
+                incrementsByUser.computeIfAbsent(recipientId, k -> new HashMap<>())
+                        .merge(message.getChatRoomId(), 1, Integer::sum);
+                lastMessageByUser.put(recipientId, message);
+            }
+        }
+        
+        if (incrementsByUser.isEmpty()) return;
+        
+        // 2. Redis 파이프라인 한 번으로 반영 (PRIMARY 면 스트림 처리기가 반영)
+        if (!isStreamsPrimary()) {
+            redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
                 
-                try {
-                    String eventJson = objectMapper.writeValueAsString(event);
-                    kafkaTemplate.send(UNREAD_COUNT_TOPIC, eventJson);
-                } catch (Exception e) {
-                    log.error("Kafka 이벤트 전송 실패: {}", e.getMessage(), e);
+                    for (Map.Entry<Long, Map<Long, Integer>> userEntry : incrementsByUser.entrySet()) {
+                        String unreadKey = String.format(USER_UNREAD_KEY, userEntry.getKey());
+                    
+                        for (Map.Entry<Long, Integer> roomEntry : userEntry.getValue().entrySet()) {
+                            ops.opsForHash().increment(unreadKey, roomEntry.getKey().toString(), roomEntry.getValue());
+                        }
+                    }
+                    return null;
                 }
-                
-                log.debug("채팅방 읽음 처리 완료: userId={}, chatRoomId={}, readCount={}", 
-                        userId, chatRoomId, unreadCount);
+            });
+            meterRegistry.counter(METRIC_ROUND_TRIPS, "path", "batched").increment();
+        }
+        
+        meterRegistry.counter(METRIC_MESSAGES, "path", "batched").increment(messages.size());
+        
+        // 3. 사용자당 하나의 이벤트 발송 (실시간 업데이트용)
+        //    chatRoomId/unreadCount 는 마지막 메시지 채팅방 기준, 채팅방별 증가분은 roomIncrements 에
+        for (Map.Entry<Long, ChatMessage> entry : lastMessageByUser.entrySet()) {
+            Long recipientId = entry.getKey();
+            ChatMessage lastMessage = entry.getValue();
+            Map<Long, Integer> roomIncrements = incrementsByUser.get(recipientId);
+            
+            UnreadCountEvent event = UnreadCountEvent.builder()
+                .eventType(UnreadCountEvent.EventType.MESSAGE_SENT)
+                .chatRoomId(lastMessage.getChatRoomId())
+                .roomIncrements(roomIncrements)
+                .messageId(lastMessage.getMessageId())
+                .senderId(lastMessage.getSenderId())
+                .senderName(lastMessage.getSenderName())
+                .recipientId(recipientId)
+                .unreadCount(roomIncrements.get(lastMessage.getChatRoomId()))
+                .content(lastMessage.getContent() != null ? lastMessage.getContent() : "[파일]")
+                .timestamp(LocalDateTime.now())
+                .build();
+            
+            try {
+                String eventJson = objectMapper.writeValueAsString(event);
+                kafkaTemplate.send(UNREAD_COUNT_TOPIC, recipientId.toString(), eventJson);
+            } catch (Exception e) {
+                log.error("Kafka 이벤트 전송 실패: {}", e.getMessage(), e);
             }
         }
+        
+        log.debug("배치 안읽은 카운트 처리: messages={}, recipients={}", messages.size(), incrementsByUser.size());
+    }
+
+    /**
+     * 메시지 읽음 처리 (채팅방의 모든 안읽은 메시지)
+     * 조회와 삭제를 Lua 스크립트로 원자적으로 처리
+     */
+    public void markChatRoomAsRead(Long userId, Long chatRoomId) {
+        markChatRoomAsRead(userId, chatRoomId, null);
+    }
+
+    /**
+     * 메시지 읽음 처리 (lastReadMessageId 가 있으면 스트림 처리기는 그 이후 메시지만 안읽음으로 남김)
+     */
+    public void markChatRoomAsRead(Long userId, Long chatRoomId, String lastReadMessageId) {
+        log.debug("채팅방 읽음 처리: userId={}, chatRoomId={}", userId, chatRoomId);
+        
+        String unreadKey = String.format(USER_UNREAD_KEY, userId);
+        Long readCount;
+        if (isStreamsPrimary()) {
+            // Redis 는 스트림 처리기가 읽음 이벤트를 받아 갱신
+            readCount = (long) getChatRoomUnreadCount(userId, chatRoomId);
+        } else {
+            readCount = redisTemplate.execute(MARK_READ_SCRIPT, List.of(unreadKey), chatRoomId.toString());
+        }
+        publishReadReceipt(userId, chatRoomId, lastReadMessageId);
+        userInboxService.markChatRoomAsRead(userId, chatRoomId);
+        
+        if (readCount != null && readCount > 0) {
+            // Kafka 이벤트 발송
+            UnreadCountEvent event = UnreadCountEvent.builder()
+                .eventType(UnreadCountEvent.EventType.MESSAGE_READ)
+                .chatRoomId(chatRoomId)
+                .recipientId(userId)
+                .unreadCount(0)  // 읽음 처리 후 0
+                .timestamp(LocalDateTime.now())
+                .build();
+            
+            try {
+                String eventJson = objectMapper.writeValueAsString(event);
+                kafkaTemplate.send(UNREAD_COUNT_TOPIC, userId.toString(), eventJson);
+            } catch (Exception e) {
+                log.error("Kafka 이벤트 전송 실패: {}", e.getMessage(), e);
+            }
+            
+            log.debug("채팅방 읽음 처리 완료: userId={}, chatRoomId={}, readCount={}", 
+                    userId, chatRoomId, readCount);
+        }
     }
 
     /**
      * 사용자의 전체 안읽은 메시지 카운트 조회
+     * HGETALL 한 번으로 채팅방별 개수와 전체 합계를 계산
      */
     public UnreadCountResponse getUserUnreadCounts(Long userId) {
         try {
-            // 1. 사용자가 참여한 채팅방 목록 조회
-            String userRoomsKey = String.format(USER_CHATROOMS_KEY, userId);
-            Set<String> chatRoomIds = redisTemplate.opsForSet().members(userRoomsKey);
+            String unreadKey = String.format(USER_UNREAD_KEY, userId);
+            Map<Object, Object> entries = redisTemplate.opsForHash().entries(unreadKey);
             
             Map<Long, Integer> chatRoomUnreadCounts = new HashMap<>();
             int totalUnread = 0;
             
-            // 2. 각 채팅방별 안읽은 개수 조회
-            if (chatRoomIds != null) {
-                for (String chatRoomIdStr : chatRoomIds) {
-                    Long chatRoomId = Long.parseLong(chatRoomIdStr);
-                    String unreadKey = String.format(UNREAD_COUNT_KEY, userId, chatRoomId);
-                    String countStr = redisTemplate.opsForValue().get(unreadKey);
-                    
-                    int count = 0;
-                    if (countStr != null) {
-                        count = Integer.parseInt(countStr);
-                    }
-                    
-                    if (count > 0) {
-                        chatRoomUnreadCounts.put(chatRoomId, count);
-                        totalUnread += count;
-                    }
+            for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+                int count = Integer.parseInt((String) entry.getValue());
+                if (count > 0) {
+                    chatRoomUnreadCounts.put(Long.parseLong((String) entry.getKey()), count);
+                    totalUnread += count;
                 }
             }
             
@@ -182,9 +323,9 @@ public class UnreadCountService {
      */
     public int getChatRoomUnreadCount(Long userId, Long chatRoomId) {
         try {
-            String unreadKey = String.format(UNREAD_COUNT_KEY, userId, chatRoomId);
-            String countStr = redisTemplate.opsForValue().get(unreadKey);
-            return countStr != null ? Integer.parseInt(countStr) : 0;
+            String unreadKey = String.format(USER_UNREAD_KEY, userId);
+            Object count = redisTemplate.opsForHash().get(unreadKey, chatRoomId.toString());
+            return count != null ? Integer.parseInt((String) count) : 0;
         } catch (Exception e) {
             log.error("채팅방 안읽은 카운트 조회 실패: userId={}, chatRoomId={}", userId, chatRoomId, e);
             return 0;
@@ -202,14 +343,10 @@ public class UnreadCountService {
             
             switch (event.getEventType()) {
                 case MESSAGE_SENT:
-                    // WebSocket으로 실시간 카운트 업데이트 전송
-                    sendUnreadCountUpdate(event.getRecipientId());
-                    break;
-                    
                 case MESSAGE_READ:
                 case ROOM_ENTERED:
-                    // WebSocket으로 실시간 카운트 업데이트 전송
-                    sendUnreadCountUpdate(event.getRecipientId());
+                    // WebSocket으로 실시간 카운트 업데이트 전송 (사용자별로 모아서 구간당 한 번)
+                    sendUnreadCountUpdate(event);
                     break;
                     
                 default:
@@ -224,50 +361,182 @@ public class UnreadCountService {
 
     /**
      * WebSocket으로 실시간 카운트 업데이트 전송
+     * 여기서는 바뀐 채팅방만 기록하고, UnreadPushService 가 디바운스 구간마다 변경분을 한 번 전송
+     * PRIMARY 면 이 시점에 Redis 가 아직 갱신 전이라 UnreadCountRedisWriter 가 반영 후 기록
      */
-    private void sendUnreadCountUpdate(Long userId) {
-        try {
-            UnreadCountResponse response = getUserUnreadCounts(userId);
-            
-            // TODO: WebSocket 서비스로 실시간 전송
-            // webSocketService.sendToUser(userId, response);
-            
-            log.debug("실시간 카운트 업데이트 전송: userId={}, total={}", 
-                    userId, response.getTotalUnreadCount());
-                    
-        } catch (Exception e) {
-            log.error("실시간 카운트 업데이트 전송 실패: userId={}", userId, e);
-        }
+    private void sendUnreadCountUpdate(UnreadCountEvent event) {
+        if (event.getRecipientId() == null || isStreamsPrimary()) return;
+        
+        Collection<Long> chatRoomIds = event.getRoomIncrements() != null && !event.getRoomIncrements().isEmpty()
+                ? event.getRoomIncrements().keySet()
+                : event.getChatRoomId() != null ? List.of(event.getChatRoomId()) : List.of();
+        unreadPushService.markChanged(event.getRecipientId(), chatRoomIds);
     }
 
     /**
      * 사용자별 안읽은 카운트 초기화 (디버깅용)
+     * 사용자 Hash 하나만 삭제하므로 원자적
+     * 스트림 처리기를 쓰면 Hash 에 있는 채팅방마다 읽음 이벤트도 발행 (PRIMARY 면 Redis 는 처리기가 정리)
      */
     public void resetUserUnreadCounts(Long userId) {
         try {
-            // 1. 사용자의 모든 채팅방 안읽은 카운트 삭제
-            String userRoomsKey = String.format(USER_CHATROOMS_KEY, userId);
-            Set<String> chatRoomIds = redisTemplate.opsForSet().members(userRoomsKey);
-            
-            if (chatRoomIds != null) {
-                for (String chatRoomIdStr : chatRoomIds) {
-                    Long chatRoomId = Long.parseLong(chatRoomIdStr);
-                    String unreadKey = String.format(UNREAD_COUNT_KEY, userId, chatRoomId);
-                    redisTemplate.delete(unreadKey);
+            String unreadKey = String.format(USER_UNREAD_KEY, userId);
+            if (UnreadStreamsMode.of(streamsMode) != UnreadStreamsMode.OFF) {
+                for (Object chatRoomId : redisTemplate.opsForHash().keys(unreadKey)) {
+                    publishReadReceipt(userId, Long.parseLong(chatRoomId.toString()), null);
                 }
             }
-            
-            // 2. 전체 카운트 삭제
-            String totalKey = String.format(TOTAL_UNREAD_KEY, userId);
-            redisTemplate.delete(totalKey);
-            
-            // 3. 채팅방 목록 삭제
-            redisTemplate.delete(userRoomsKey);
-            
+            if (!isStreamsPrimary()) {
+                redisTemplate.delete(unreadKey);
+            }
+            userInboxService.resetUnreadCounts(userId);
             log.info("사용자 안읽은 카운트 초기화 완료: userId={}", userId);
             
         } catch (Exception e) {
             log.error("사용자 안읽은 카운트 초기화 실패: userId={}", userId, e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 읽음 이벤트 발행 (스트림 처리기 입력, Key = chatRoomId)
+     * 마지막으로 읽은 메시지의 ID/시각을 읽음 위치로 보냄 (UUIDv7 이 아니거나 없으면 지금까지 모두 읽음)
+     */
+    private void publishReadReceipt(Long userId, Long chatRoomId, String lastReadMessageId) {
+        if (UnreadStreamsMode.of(streamsMode) == UnreadStreamsMode.OFF) return;
+        
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            ChatReadReceipt receipt = ChatReadReceipt.builder()
+                .userId(userId)
+                .chatRoomId(chatRoomId)
+                .lastReadMessageId(lastReadMessageId)
+                .lastReadMessageAt(MessageIds.isTimeOrdered(lastReadMessageId) ? MessageIds.timestampOf(lastReadMessageId) : now)
+                .readAt(now)
+                .build();
+            kafkaTemplate.send(UnreadCountTopology.READ_RECEIPT_TOPIC, chatRoomId.toString(), objectMapper.writeValueAsString(receipt));
+        } catch (Exception e) {
+            log.error("읽음 이벤트 전송 실패: userId={}, chatRoomId={}, error={}", userId, chatRoomId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 참여자 변경 이벤트 발행 (스트림 처리기의 채팅방 참여자 스토어 입력, Key = chatRoomId)
+     * 트랜잭션 안에서 호출되면 커밋 이후에 발행 (롤백된 입장/퇴장이 반영되지 않도록)
+     */
+    public void publishParticipantChange(Long chatRoomId, Long userId, ChatParticipantEvent.Type type) {
+        if (UnreadStreamsMode.of(streamsMode) == UnreadStreamsMode.OFF) return;
+        
+        ChatParticipantEvent event = ChatParticipantEvent.builder()
+            .chatRoomId(chatRoomId)
+            .userId(userId)
+            .type(type)
+            .occurredAt(LocalDateTime.now())
+            .build();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sendParticipantChange(event);
+                }
+            });
+        } else {
+            sendParticipantChange(event);
+        }
+    }
+
+    private void sendParticipantChange(ChatParticipantEvent event) {
+        try {
+            kafkaTemplate.send(UnreadCountTopology.PARTICIPANT_TOPIC, event.getChatRoomId().toString(),
+                    objectMapper.writeValueAsString(event));
+        } catch (Exception e) {
+            log.error("참여자 변경 이벤트 전송 실패: chatRoomId={}, userId={}, error={}",
+                    event.getChatRoomId(), event.getUserId(), e.getMessage(), e);
+        }
+    }
+
+    private boolean isStreamsPrimary() {
+        return UnreadStreamsMode.of(streamsMode) == UnreadStreamsMode.PRIMARY;
+    }
+
+    /**
+     * 기동 시 이전 Key 마이그레이션 (app.chat.unread.migrate-legacy-keys=true 인 경우)
+     * 여러 노드가 동시에 떠도 한 노드만 실행하고, 완료 표시가 있으면 다시 SCAN 하지 않음
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyKeysOnStartup() {
+        if (!migrateLegacyKeysOnStartup) return;
+        
+        String lockOwner = UUID.randomUUID().toString();
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(MIGRATION_DONE_KEY))) {
+                log.info("안읽은 카운트 Key 마이그레이션 이미 완료됨 (app.chat.unread.migrate-legacy-keys=false 로 변경 가능)");
+                return;
+            }
+            Boolean locked = redisTemplate.opsForValue().setIfAbsent(MIGRATION_LOCK_KEY, lockOwner, MIGRATION_LOCK_TTL);
+            if (!Boolean.TRUE.equals(locked)) {
+                log.info("다른 노드가 안읽은 카운트 Key 마이그레이션 중");
+                return;
+            }
+            
+            migrateLegacyUnreadKeys();
+            redisTemplate.opsForValue().set(MIGRATION_DONE_KEY, LocalDateTime.now().toString());
+        } catch (Exception e) {
+            log.error("안읽은 카운트 Key 마이그레이션 실패: {}", e.getMessage(), e);
+        } finally {
+            if (lockOwner.equals(redisTemplate.opsForValue().get(MIGRATION_LOCK_KEY))) {
+                redisTemplate.delete(MIGRATION_LOCK_KEY);
+            }
+        }
+    }
+
+    /**
+     * 이전 Key 구조(unread_count:userId:chatRoomId, total_unread, user_chatrooms)를
+     * 사용자별 Hash로 이동. 이동한 Key는 삭제되므로 여러 번 실행해도 안전
+     * @return 이동한 채팅방 카운트 Key 수
+     */
+    public int migrateLegacyUnreadKeys() {
+        int migrated = 0;
+        
+        for (String legacyKey : scanKeys(LEGACY_UNREAD_COUNT_PATTERN)) {
+            String[] parts = legacyKey.split(":");
+            if (parts.length != 3) continue;
+            
+            try {
+                Long userId = Long.parseLong(parts[1]);
+                String chatRoomId = parts[2];
+                Long moved = redisTemplate.execute(MIGRATE_KEY_SCRIPT,
+                        List.of(legacyKey, String.format(USER_UNREAD_KEY, userId)), chatRoomId);
+                if (moved != null && moved > 0) migrated++;
+            } catch (Exception e) {
+                log.error("안읽은 카운트 Key 마이그레이션 실패: key={}, error={}", legacyKey, e.getMessage());
+            }
+        }
+        
+        // 전체 카운트/채팅방 목록은 Hash에서 계산되므로 삭제
+        List<String> derivedKeys = new ArrayList<>(scanKeys(LEGACY_TOTAL_UNREAD_PATTERN));
+        derivedKeys.addAll(scanKeys(LEGACY_USER_CHATROOMS_PATTERN));
+        if (!derivedKeys.isEmpty()) {
+            redisTemplate.delete(derivedKeys);
+        }
+        
+        log.info("안읽은 카운트 Key 마이그레이션 완료: migrated={}, removedDerived={}", migrated, derivedKeys.size());
+        return migrated;
+    }
+
+    /**
+     * SCAN으로 패턴에 맞는 Key 조회 (KEYS 명령으로 Redis를 막지 않도록)
+     */
+    List<String> scanKeys(String pattern) {
+        List<String> keys = redisTemplate.execute((RedisCallback<List<String>>) connection -> {
+            List<String> result = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(pattern).count(1000).build();
+            try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                while (cursor.hasNext()) {
+                    result.add(new String(cursor.next(), StandardCharsets.UTF_8));
+                }
+            }
+            return result;
+        });
+        return keys != null ? keys : List.of();
+    }
+}
@@ -0,0 +1,160 @@
+package wedding.alba.kafka.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import wedding.alba.kafka.dto.UnreadCountDelta;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 🚀 안읽은 카운트 실시간 전송 (/user/{userId}/queue/unread)
+ * 이벤트마다 전체 카운트를 다시 계산해 보내지 않고, 사용자별로 바뀐 채팅방만 모아 두었다가
+ * debounce-ms 마다 사용자당 변경분 하나만 전송 (바뀐 채팅방 값 + 전체 개수)
+ * - Redis 조회는 구간마다 파이프라인 한 번 (사용자 Hash HGETALL)
+ * - WebSocket 세션이 없는 사용자는 조회/전송 생략 (다음 접속 시 REST 로 전체 조회, 접속 여부는 ChatPresenceService)
+ * - 스트림 PRIMARY 에서는 UnreadCountRedisWriter 가 Redis 에 반영한 뒤 markChanged 를 호출 (반영 전 값을 읽지 않도록)
+ * 효과 확인: chat.unread.push.events (합치기 전 이벤트) 대비 chat.unread.push.sent
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadPushService {
+
+    private final ChatFanoutService chatFanoutService;
+    private final ChatPresenceService chatPresenceService;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.chat.unread.push.enabled:true}")
+    private boolean enabled;
+
+    public static final String DESTINATION = "/queue/unread";
+
+    // 전송 대기 중인 변경분 (userId -> 바뀐 채팅방, 합쳐진 이벤트 수)
+    private final ConcurrentHashMap<Long, PendingDelta> pending = new ConcurrentHashMap<>();
+
+    private Counter eventCounter;
+    private Counter sentCounter;
+    private Counter offlineCounter;
+
+    private static final class PendingDelta {
+        private final Set<Long> chatRoomIds = new HashSet<>();
+        private int events;
+    }
+
+    @PostConstruct
+    public void init() {
+        eventCounter = Counter.builder("chat.unread.push.events")
+                .description("합치기 전 안읽은 카운트 변경 이벤트 수 (수신자 기준)")
+                .register(meterRegistry);
+        sentCounter = Counter.builder("chat.unread.push.sent")
+                .description("WebSocket 으로 보낸 안읽은 카운트 변경분 수")
+                .register(meterRegistry);
+        offlineCounter = Counter.builder("chat.unread.push.skipped")
+                .description("세션이 없어 전송을 생략한 변경분 수")
+                .register(meterRegistry);
+        Gauge.builder("chat.unread.push.pending", pending, Map::size)
+                .description("다음 구간에 전송할 사용자 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 사용자의 채팅방 카운트가 바뀌었음을 기록 (실제 전송은 다음 구간에 한 번)
+     */
+    public void markChanged(Long userId, Collection<Long> chatRoomIds) {
+        if (!enabled || userId == null || chatRoomIds == null || chatRoomIds.isEmpty()) return;
+
+        pending.compute(userId, (key, delta) -> {
+            PendingDelta merged = delta != null ? delta : new PendingDelta();
+            merged.chatRoomIds.addAll(chatRoomIds);
+            merged.events++;
+            return merged;
+        });
+        eventCounter.increment();
+    }
+
+    /**
+     * 🚀 구간마다 사용자당 변경분 하나 전송
+     */
+    @Scheduled(fixedDelayString = "${app.chat.unread.push.debounce-ms:500}")
+    @SuppressWarnings("unchecked")
+    public void flush() {
+        if (pending.isEmpty()) return;
+
+        Map<Long, PendingDelta> batch = new HashMap<>();
+        for (Long userId : new ArrayList<>(pending.keySet())) {
+            PendingDelta delta = pending.remove(userId);
+            if (delta != null) {
+                batch.put(userId, delta);
+            }
+        }
+
+        try {
+            List<Long> onlineUsers = chatPresenceService.filterOnlineUsers(batch.keySet());
+            offlineCounter.increment(batch.size() - onlineUsers.size());
+            if (onlineUsers.isEmpty()) return;
+
+            List<Object> hashes = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    for (Long userId : onlineUsers) {
+                        ops.opsForHash().entries(String.format(UnreadCountService.USER_UNREAD_KEY, userId));
+                    }
+                    return null;
+                }
+            });
+
+            String now = LocalDateTime.now().toString();
+            for (int i = 0; i < onlineUsers.size(); i++) {
+                Long userId = onlineUsers.get(i);
+                PendingDelta delta = batch.get(userId);
+                Map<Object, Object> entries = hashes.get(i) instanceof Map<?, ?> map
+                        ? (Map<Object, Object>) map : Map.of();
+
+                int total = 0;
+                for (Object value : entries.values()) {
+                    total += Integer.parseInt(value.toString());
+                }
+
+                Map<Long, Integer> changed = new HashMap<>();
+                for (Long chatRoomId : delta.chatRoomIds) {
+                    Object value = entries.get(chatRoomId.toString());
+                    changed.put(chatRoomId, value != null ? Integer.parseInt(value.toString()) : 0);
+                }
+
+                chatFanoutService.convertAndSendToUser(userId.toString(), DESTINATION, UnreadCountDelta.builder()
+                        .userId(userId)
+                        .chatRoomUnreadCounts(changed)
+                        .totalUnreadCount(total)
+                        .mergedEvents(delta.events)
+                        .lastUpdated(now)
+                        .build());
+                sentCounter.increment();
+            }
+
+            log.debug("안읽은 카운트 변경분 전송: users={}, sent={}", batch.size(), onlineUsers.size());
+
+        } catch (Exception e) {
+            log.error("안읽은 카운트 변경분 전송 실패: users={}, error={}", batch.size(), e.getMessage(), e);
+        }
+    }
+}
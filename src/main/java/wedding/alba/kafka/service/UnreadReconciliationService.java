@@ -0,0 +1,344 @@
+package wedding.alba.kafka.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.utils.Utils;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.TaskMetadata;
+import org.apache.kafka.streams.ThreadMetadata;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import wedding.alba.kafka.dto.ChatParticipantEvent;
+import wedding.alba.kafka.dto.ChatReadReceipt;
+import wedding.alba.kafka.dto.UnreadReconciliationReport;
+import wedding.alba.kafka.streams.UnreadCountProcessor;
+import wedding.alba.kafka.streams.UnreadCountTopology;
+import wedding.alba.kafka.streams.UnreadStreamsMode;
+import wedding.alba.repository.UserInboxBulkRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 🚀 안읽은 카운트 스트림 전환 도구
+ * - reconcile: 이 인스턴스 스트림 스토어와 Redis 를 (사용자, 채팅방) 단위로 대조 (repair=true 면 스트림 값으로 Redis 수정)
+ * - seedFromInbox: user_inbox 의 (사용자, 채팅방) 을 참여자 이벤트 + 안읽은 수로 보내 스트림 상태 초기 적재
+ * 주기 대조는 리포트를 로그/메트릭으로 남기고, PRIMARY + reconcile.repair=true 면 Redis 를 자동 수정
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadReconciliationService {
+
+    private final ObjectProvider<StreamsBuilderFactoryBean> streamsBuilderFactoryBean;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final UnreadCountService unreadCountService;
+    private final UserInboxBulkRepository userInboxBulkRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.chat.unread.streams.mode:off}")
+    private String mode;
+
+    @Value("${app.chat.unread.streams.reconcile.repair:false}")
+    private boolean repairOnSchedule;
+
+    @Value("${app.chat.unread.streams.reconcile.sample-limit:20}")
+    private int sampleLimit;
+
+    private static final int USERS_PER_PIPELINE = 500;
+    private static final int SEED_PAGE_SIZE = 1000;
+    private static final long SEED_SEND_TIMEOUT_SECONDS = 30;
+
+    private final AtomicLong lastMismatched = new AtomicLong();
+    private final AtomicLong lastDrift = new AtomicLong();
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("chat.unread.reconcile.mismatched", lastMismatched, AtomicLong::get)
+                .description("마지막 대조에서 Redis 와 스트림이 다른 (사용자, 채팅방) 수")
+                .register(meterRegistry);
+        Gauge.builder("chat.unread.reconcile.drift", lastDrift, AtomicLong::get)
+                .description("마지막 대조의 |Redis - 스트림| 합계")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 주기 대조 (기본 10분)
+     */
+    @Scheduled(fixedDelayString = "${app.chat.unread.streams.reconcile.interval-ms:600000}",
+               initialDelayString = "${app.chat.unread.streams.reconcile.interval-ms:600000}")
+    public void scheduledReconcile() {
+        UnreadStreamsMode streamsMode = UnreadStreamsMode.of(mode);
+        if (streamsMode == UnreadStreamsMode.OFF) return;
+
+        try {
+            UnreadReconciliationReport report = reconcile(repairOnSchedule && streamsMode == UnreadStreamsMode.PRIMARY);
+            log.info("안읽은 카운트 대조: mode={}, partitions={}, pairs={}, mismatched={}, redisHigher={}, streamHigher={}, drift={}, repaired={}",
+                    report.getMode(), report.getLocalPartitions(), report.getPairsCompared(), report.getMismatched(),
+                    report.getRedisHigher(), report.getStreamHigher(), report.getTotalDrift(), report.getRepaired());
+        } catch (Exception e) {
+            log.warn("안읽은 카운트 대조 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 🚀 Redis 와 스트림 상태 대조
+     */
+    public UnreadReconciliationReport reconcile(boolean repair) {
+        KafkaStreams streams = runningStreams();
+        ReadOnlyKeyValueStore<String, Long> store = streams.store(StoreQueryParameters.fromNameAndType(
+                UnreadCountProcessor.COUNTS_STORE, QueryableStoreTypes.keyValueStore()));
+        Set<Integer> localPartitions = localPartitions(streams);
+        int partitionCount = kafkaTemplate.partitionsFor(UnreadCountTopology.CHAT_TOPIC).size();
+
+        // 1. 스트림 스토어 (이 인스턴스 담당 파티션 전체)
+        Map<Long, Map<Long, Long>> streamCounts = new HashMap<>();
+        try (KeyValueIterator<String, Long> iterator = store.all()) {
+            while (iterator.hasNext()) {
+                KeyValue<String, Long> entry = iterator.next();
+                int separator = entry.key.indexOf(':');
+                streamCounts.computeIfAbsent(Long.parseLong(entry.key.substring(0, separator)), k -> new HashMap<>())
+                        .put(Long.parseLong(entry.key.substring(separator + 1)), entry.value);
+            }
+        }
+
+        // 2. 비교 대상 사용자 = 스트림 사용자 + Redis 에 Hash 가 있는 사용자
+        Set<Long> userIds = new TreeSet<>(streamCounts.keySet());
+        for (String key : unreadCountService.scanKeys(UnreadCountService.USER_UNREAD_PATTERN)) {
+            try {
+                userIds.add(Long.parseLong(key.substring(key.indexOf(':') + 1)));
+            } catch (NumberFormatException ignored) {
+                // unread:* 형식이 아닌 Key
+            }
+        }
+
+        UnreadReconciliationReport report = UnreadReconciliationReport.builder()
+                .mode(UnreadStreamsMode.of(mode).name())
+                .generatedAt(LocalDateTime.now())
+                .localPartitions(new ArrayList<>(new TreeSet<>(localPartitions)))
+                .samples(new ArrayList<>())
+                .build();
+        Map<Long, Map<Long, Long>> fixes = new HashMap<>();
+
+        // 3. 사용자 묶음마다 HGETALL 파이프라인으로 비교
+        List<Long> users = new ArrayList<>(userIds);
+        for (int from = 0; from < users.size(); from += USERS_PER_PIPELINE) {
+            List<Long> chunk = users.subList(from, Math.min(from + USERS_PER_PIPELINE, users.size()));
+            List<Object> hashes = redisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    for (Long userId : chunk) {
+                        ops.opsForHash().entries(String.format(UnreadCountService.USER_UNREAD_KEY, userId));
+                    }
+                    return null;
+                }
+            });
+
+            for (int i = 0; i < chunk.size(); i++) {
+                Long userId = chunk.get(i);
+                Map<Long, Long> redisCounts = parseHash(hashes.get(i));
+                Map<Long, Long> streamRooms = streamCounts.getOrDefault(userId, Map.of());
+
+                Set<Long> chatRoomIds = new TreeSet<>(streamRooms.keySet());
+                chatRoomIds.addAll(redisCounts.keySet());
+                boolean compared = false;
+
+                for (Long chatRoomId : chatRoomIds) {
+                    if (!localPartitions.contains(partitionOf(chatRoomId, partitionCount))) continue;
+                    compared = true;
+
+                    long redisCount = redisCounts.getOrDefault(chatRoomId, 0L);
+                    long streamCount = streamRooms.getOrDefault(chatRoomId, 0L);
+                    report.setPairsCompared(report.getPairsCompared() + 1);
+
+                    if (redisCount == streamCount) {
+                        report.setMatched(report.getMatched() + 1);
+                        continue;
+                    }
+                    report.setMismatched(report.getMismatched() + 1);
+                    report.setTotalDrift(report.getTotalDrift() + Math.abs(redisCount - streamCount));
+                    if (redisCount > streamCount) {
+                        report.setRedisHigher(report.getRedisHigher() + 1);
+                    } else {
+                        report.setStreamHigher(report.getStreamHigher() + 1);
+                    }
+                    if (report.getSamples().size() < sampleLimit) {
+                        report.getSamples().add(new UnreadReconciliationReport.Mismatch(userId, chatRoomId, redisCount, streamCount));
+                    }
+                    if (repair) {
+                        fixes.computeIfAbsent(userId, k -> new HashMap<>()).put(chatRoomId, streamCount);
+                    }
+                }
+                if (compared) {
+                    report.setUsersCompared(report.getUsersCompared() + 1);
+                }
+            }
+        }
+
+        if (repair && !fixes.isEmpty()) {
+            report.setRepaired(applyFixes(fixes));
+        }
+
+        lastMismatched.set(report.getMismatched());
+        lastDrift.set(report.getTotalDrift());
+        meterRegistry.counter("chat.unread.reconcile.runs").increment();
+        return report;
+    }
+
+    /**
+     * 🚀 user_inbox 의 (사용자, 채팅방) 참여 여부와 안읽은 수를 스트림 상태로 적재 (처음 전환할 때 한 번)
+     * user_inbox 는 활성 참여자마다 한 행이므로 참여자 스토어도 여기서 채움 (입장 시각 없음 = 이전부터 참여)
+     * @return 보낸 레코드 수
+     */
+    public int seedFromInbox() throws Exception {
+        if (UnreadStreamsMode.of(mode) == UnreadStreamsMode.OFF) {
+            throw new IllegalStateException("안읽은 카운트 스트림이 꺼져 있음 (app.chat.unread.streams.mode=off)");
+        }
+
+        int sent = 0;
+        long lastUserId = 0;
+        long lastChatRoomId = 0;
+        LocalDateTime now = LocalDateTime.now();
+
+        while (true) {
+            List<UserInboxBulkRepository.UnreadRow> rows =
+                    userInboxBulkRepository.findUnreadCountsAfter(lastUserId, lastChatRoomId, SEED_PAGE_SIZE);
+            if (rows.isEmpty()) break;
+
+            List<CompletableFuture<?>> futures = new ArrayList<>(rows.size() * 2);
+            for (UserInboxBulkRepository.UnreadRow row : rows) {
+                ChatParticipantEvent participant = ChatParticipantEvent.builder()
+                        .chatRoomId(row.chatRoomId())
+                        .userId(row.userId())
+                        .type(ChatParticipantEvent.Type.JOIN)
+                        .build();
+                futures.add(kafkaTemplate.send(UnreadCountTopology.PARTICIPANT_TOPIC,
+                        String.valueOf(row.chatRoomId()), objectMapper.writeValueAsString(participant)));
+
+                ChatReadReceipt receipt = ChatReadReceipt.builder()
+                        .userId(row.userId())
+                        .chatRoomId(row.chatRoomId())
+                        .unreadCount(row.unreadCount())
+                        .readAt(now)
+                        .build();
+                futures.add(kafkaTemplate.send(UnreadCountTopology.READ_RECEIPT_TOPIC,
+                        String.valueOf(row.chatRoomId()), objectMapper.writeValueAsString(receipt)));
+            }
+            // 페이지 단위로 전송 확인
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(SEED_SEND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+            sent += rows.size();
+            UserInboxBulkRepository.UnreadRow last = rows.get(rows.size() - 1);
+            lastUserId = last.userId();
+            lastChatRoomId = last.chatRoomId();
+        }
+
+        log.info("안읽은 카운트 스트림 초기 적재 완료: records={}", sent);
+        return sent;
+    }
+
+    private long applyFixes(Map<Long, Map<Long, Long>> fixes) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (Map.Entry<Long, Map<Long, Long>> userEntry : fixes.entrySet()) {
+                    String unreadKey = String.format(UnreadCountService.USER_UNREAD_KEY, userEntry.getKey());
+                    for (Map.Entry<Long, Long> roomEntry : userEntry.getValue().entrySet()) {
+                        if (roomEntry.getValue() > 0) {
+                            ops.opsForHash().put(unreadKey, roomEntry.getKey().toString(), roomEntry.getValue().toString());
+                        } else {
+                            ops.opsForHash().delete(unreadKey, roomEntry.getKey().toString());
+                        }
+                    }
+                }
+                return null;
+            }
+        });
+
+        long repaired = fixes.values().stream().mapToLong(Map::size).sum();
+        meterRegistry.counter("chat.unread.reconcile.repaired").increment(repaired);
+        log.info("안읽은 카운트 Redis 수정: users={}, pairs={}", fixes.size(), repaired);
+        return repaired;
+    }
+
+    private KafkaStreams runningStreams() {
+        StreamsBuilderFactoryBean factoryBean = streamsBuilderFactoryBean.getIfAvailable();
+        KafkaStreams streams = factoryBean != null ? factoryBean.getKafkaStreams() : null;
+        if (streams == null || streams.state() != KafkaStreams.State.RUNNING) {
+            throw new IllegalStateException("안읽은 카운트 스트림이 실행 중이 아님: mode=" + mode +
+                    ", state=" + (streams != null ? streams.state() : null));
+        }
+        return streams;
+    }
+
+    /**
+     * 이 인스턴스가 active 로 처리하는 chat-messages 파티션
+     */
+    private static Set<Integer> localPartitions(KafkaStreams streams) {
+        Set<Integer> partitions = new TreeSet<>();
+        for (ThreadMetadata thread : streams.metadataForLocalThreads()) {
+            for (TaskMetadata task : thread.activeTasks()) {
+                for (TopicPartition partition : task.topicPartitions()) {
+                    if (UnreadCountTopology.CHAT_TOPIC.equals(partition.topic())) {
+                        partitions.add(partition.partition());
+                    }
+                }
+            }
+        }
+        return partitions;
+    }
+
+    /**
+     * 채팅방 Key 의 파티션 (Producer 기본 파티셔너와 동일)
+     */
+    private static int partitionOf(Long chatRoomId, int partitionCount) {
+        byte[] key = String.valueOf(chatRoomId).getBytes(StandardCharsets.UTF_8);
+        return Utils.toPositive(Utils.murmur2(key)) % partitionCount;
+    }
+
+    private static Map<Long, Long> parseHash(Object hash) {
+        Map<Long, Long> counts = new HashMap<>();
+        if (!(hash instanceof Map<?, ?> entries)) return counts;
+
+        for (Map.Entry<?, ?> entry : entries.entrySet()) {
+            try {
+                counts.put(Long.parseLong(entry.getKey().toString()), Long.parseLong(entry.getValue().toString()));
+            } catch (NumberFormatException ignored) {
+                // 숫자가 아닌 필드는 무시
+            }
+        }
+        return counts;
+    }
+}
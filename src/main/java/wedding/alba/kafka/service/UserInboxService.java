@@ -0,0 +1,191 @@
+package wedding.alba.kafka.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import wedding.alba.entity.UserInbox;
+import wedding.alba.kafka.dto.ChatMessage;
+import wedding.alba.kafka.dto.ChatRoomResponse;
+import wedding.alba.repository.UserInboxBulkRepository;
+import wedding.alba.repository.UserInboxRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 🚀 사용자별 채팅 목록 프로젝션(user_inbox) 관리
+ * - Consumer 배치 저장 커밋 후 마지막 메시지/안읽은 수 반영
+ * - 참여자 변경 커밋 후 채팅방 단위 행 생성/삭제
+ * - 읽음 처리 시 안읽은 수 초기화
+ * - 재구축: app.chat.inbox.rebuild-on-startup=true 이면 기동 시 한 노드만 한 번 chat_messages 기준으로 전체 재계산
+ * 반영 실패는 로그만 남기고 다음 재구축에서 복구 (메시지 저장을 실패시키지 않음)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserInboxService {
+
+    private final UserInboxRepository userInboxRepository;
+    private final UserInboxBulkRepository userInboxBulkRepository;
+    private final MeterRegistry meterRegistry;
+    private final RedisTemplate<String, String> redisTemplate;
+
+    @Value("${app.chat.inbox.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    private static final String METRIC_UPDATES = "chat.inbox.updates";
+    private static final String REBUILD_DONE_KEY = "migration:user-inbox-rebuild:done";
+    private static final String REBUILD_LOCK_KEY = "migration:user-inbox-rebuild:lock";
+    private static final Duration REBUILD_LOCK_TTL = Duration.ofMinutes(30);
+
+    /**
+     * 새로 저장된 메시지 반영 (트랜잭션 커밋 후)
+     */
+    public void applyNewMessages(List<ChatMessage> messages) {
+        if (messages == null || messages.isEmpty()) return;
+
+        runAfterCommit(() -> {
+            try {
+                userInboxBulkRepository.applyMessages(messages);
+                meterRegistry.counter(METRIC_UPDATES, "type", "messages").increment(messages.size());
+            } catch (Exception e) {
+                meterRegistry.counter(METRIC_UPDATES, "type", "failed").increment();
+                log.error("user_inbox 메시지 반영 실패: count={}, error={}", messages.size(), e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * 채팅방 참여자 변경 반영 (트랜잭션 커밋 후)
+     */
+    public void refreshRoom(Long chatRoomId) {
+        runAfterCommit(() -> {
+            try {
+                userInboxBulkRepository.refreshRooms(List.of(chatRoomId));
+                meterRegistry.counter(METRIC_UPDATES, "type", "membership").increment();
+            } catch (Exception e) {
+                meterRegistry.counter(METRIC_UPDATES, "type", "failed").increment();
+                log.error("user_inbox 채팅방 갱신 실패: chatRoomId={}, error={}", chatRoomId, e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * 채팅방 읽음 처리
+     */
+    public void markChatRoomAsRead(Long userId, Long chatRoomId) {
+        try {
+            userInboxBulkRepository.resetUnreadCount(userId, chatRoomId);
+        } catch (Exception e) {
+            log.error("user_inbox 읽음 처리 실패: userId={}, chatRoomId={}, error={}", userId, chatRoomId, e.getMessage());
+        }
+    }
+
+    /**
+     * 사용자 전체 읽음 처리
+     */
+    public void resetUnreadCounts(Long userId) {
+        try {
+            userInboxBulkRepository.resetAllUnreadCounts(userId);
+        } catch (Exception e) {
+            log.error("user_inbox 전체 읽음 처리 실패: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 🚀 채팅 목록 조회 (인덱스 범위 스캔 한 번, 조인/정렬 없음)
+     */
+    public List<ChatRoomResponse> getInbox(Long userId) {
+        return userInboxRepository.findByUserIdOrderBySortAtDescChatRoomIdDesc(userId).stream()
+                .map(this::toResponse)
+                .toList();
+    }
+
+    /**
+     * 기동 시 재구축 (app.chat.inbox.rebuild-on-startup=true 인 경우)
+     * 여러 노드가 동시에 떠도 한 노드만 실행하고, 완료 표시가 있으면 다시 재구축하지 않음
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!rebuildOnStartup) return;
+
+        String lockOwner = UUID.randomUUID().toString();
+        try {
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(REBUILD_DONE_KEY))) {
+                log.info("user_inbox 재구축 이미 완료됨 (app.chat.inbox.rebuild-on-startup=false 로 변경 가능)");
+                return;
+            }
+            Boolean locked = redisTemplate.opsForValue().setIfAbsent(REBUILD_LOCK_KEY, lockOwner, REBUILD_LOCK_TTL);
+            if (!Boolean.TRUE.equals(locked)) {
+                log.info("다른 노드가 user_inbox 재구축 중");
+                return;
+            }
+
+            rebuild();
+            redisTemplate.opsForValue().set(REBUILD_DONE_KEY, LocalDateTime.now().toString());
+        } catch (Exception e) {
+            log.error("user_inbox 기동 시 재구축 실패: {}", e.getMessage(), e);
+        } finally {
+            if (lockOwner.equals(redisTemplate.opsForValue().get(REBUILD_LOCK_KEY))) {
+                redisTemplate.delete(REBUILD_LOCK_KEY);
+            }
+        }
+    }
+
+    /**
+     * 🚀 프로젝션 전체 재구축
+     * @return 처리한 채팅방 수
+     */
+    public int rebuild() {
+        long startTime = System.currentTimeMillis();
+        int rooms = userInboxBulkRepository.rebuildAll();
+        log.info("user_inbox 재구축 완료: rooms={}, elapsed={}ms", rooms, System.currentTimeMillis() - startTime);
+        return rooms;
+    }
+
+    private ChatRoomResponse toResponse(UserInbox inbox) {
+        return ChatRoomResponse.builder()
+                .chatRoomId(inbox.getChatRoomId())
+                .roomName(inbox.getRoomName())
+                .type(inbox.getRoomType())
+                .creatorUserId(inbox.getCreatorUserId())
+                .hostUserId(inbox.getHostUserId())
+                .guestUserId(inbox.getGuestUserId())
+                .postingId(inbox.getPostingId())
+                .hostName(inbox.getHostName())
+                .hostNickname(inbox.getHostNickname())
+                .hostProfileImage(inbox.getHostProfileImage())
+                .guestName(inbox.getGuestName())
+                .guestNickname(inbox.getGuestNickname())
+                .guestProfileImage(inbox.getGuestProfileImage())
+                .createdAt(inbox.getRoomCreatedAt())
+                .lastMessageAt(inbox.getLastMessageAt())
+                .lastActiveAt(inbox.getLastActiveAt())
+                .lastMessage(inbox.getLastMessagePreview())
+                .lastMessageSender(inbox.getLastMessageSender())
+                .unreadMessageCount(inbox.getUnreadCount())
+                .build();
+    }
+
+    private static void runAfterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package wedding.alba.kafka.streams;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.processor.api.Processor;
+import org.apache.kafka.streams.processor.api.ProcessorContext;
+import org.apache.kafka.streams.processor.api.Record;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.WindowStore;
+import org.apache.kafka.streams.state.WindowStoreIterator;
+import wedding.alba.kafka.codec.MessageIds;
+import wedding.alba.kafka.dto.ChatMessage;
+import wedding.alba.kafka.dto.ChatParticipantEvent;
+import wedding.alba.kafka.dto.ChatReadReceipt;
+import wedding.alba.kafka.dto.UnreadCountUpdate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 🚀 (사용자, 채팅방)별 안읽은 카운트 상태 처리기 (chatRoomId 파티션 단위 태스크)
+ * - 참여자 변경: 채팅방 참여자 스토어 갱신 (입장 시각 이후 메시지만 셈, 퇴장하면 카운트/읽음 위치 삭제)
+ * - 메시지: 참여자 중 발신자를 제외하고 읽음 위치 이후 메시지면 +1 (message_id 로 중복 제거)
+ * - 읽음 이벤트: 읽음 위치를 앞으로 옮기고, 그 이후 도착한 메시지 수로 다시 설정 (unreadCount 가 있으면 그 값)
+ * 모든 상태는 로컬 RocksDB 스토어 + changelog 토픽에 저장되고,
+ * publishUpdates 면 (PRIMARY) 바뀐 카운트를 pending 스토어에 모았다가 주기적으로 절대값을 출력 토픽으로 보냄
+ * (exactly_once 에서 상태와 같은 트랜잭션으로 커밋, Redis 는 read_committed 로 읽는 UnreadCountRedisWriter 가 갱신)
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadCountProcessor implements Processor<String, UnreadInput, String, UnreadCountUpdate> {
+
+    public static final String COUNTS_STORE = "chat-unread-counts";          // "userId:chatRoomId" -> 안읽은 수
+    public static final String MEMBERS_STORE = "chat-unread-members";        // "chatRoomId:userId" -> 입장 시각 (ms)
+    public static final String CURSORS_STORE = "chat-unread-cursors";        // "userId:chatRoomId" -> "읽은 메시지 시각(ms)|messageId"
+    public static final String PENDING_STORE = "chat-unread-pending";        // "userId:chatRoomId" -> 아직 내보내지 않은 카운트
+    public static final String SEEN_STORE = "chat-unread-seen-messages";     // messageId @ 메시지 시각 (중복 제거, 윈도우 스토어)
+    public static final String ROOM_LOG_STORE = "chat-unread-room-log";      // chatRoomId @ 메시지 시각 -> "senderId|messageId"
+
+    private final MeterRegistry meterRegistry;
+    private final boolean publishUpdates;   // false 면 상태만 계산 (SHADOW)
+    private final Duration flushInterval;
+
+    private ProcessorContext<String, UnreadCountUpdate> context;
+    private KeyValueStore<String, Long> counts;
+    private KeyValueStore<String, Long> members;
+    private KeyValueStore<String, String> cursors;
+    private KeyValueStore<String, Long> pending;
+    private WindowStore<String, Long> seen;
+    private WindowStore<String, String> roomLog;
+
+    public static String storeKey(long userId, long chatRoomId) {
+        return userId + ":" + chatRoomId;
+    }
+
+    static String memberKey(long chatRoomId, long userId) {
+        return chatRoomId + ":" + userId;
+    }
+
+    @Override
+    public void init(ProcessorContext<String, UnreadCountUpdate> context) {
+        this.context = context;
+        counts = context.getStateStore(COUNTS_STORE);
+        members = context.getStateStore(MEMBERS_STORE);
+        cursors = context.getStateStore(CURSORS_STORE);
+        pending = context.getStateStore(PENDING_STORE);
+        seen = context.getStateStore(SEEN_STORE);
+        roomLog = context.getStateStore(ROOM_LOG_STORE);
+
+        // pending 스토어는 changelog 로 복구되므로 재시작/리밸런스 전에 못 보낸 변경분도 다음 주기에 나감
+        if (publishUpdates) {
+            context.schedule(flushInterval, PunctuationType.WALL_CLOCK_TIME, this::flushUpdates);
+        }
+    }
+
+    @Override
+    public void process(Record<String, UnreadInput> record) {
+        UnreadInput input = record.value();
+        if (input == null) return;
+
+        if (input.message() != null) {
+            onMessage(input.message(), record.timestamp());
+        } else if (input.receipt() != null) {
+            onReceipt(input.receipt(), record.timestamp());
+        } else if (input.participant() != null) {
+            onParticipant(input.participant());
+        }
+    }
+
+    private void onMessage(ChatMessage message, long recordTimestamp) {
+        if (!isCounted(message) || message.getMessageId() == null) return;
+
+        long messageTime = messageTimeOf(message, recordTimestamp);
+        if (seen.fetch(message.getMessageId(), messageTime) != null) {
+            meterRegistry.counter("chat.unread.streams.duplicates").increment();
+            return;
+        }
+        seen.put(message.getMessageId(), messageTime, messageTime);
+
+        long chatRoomId = message.getChatRoomId();
+        long excludedId = message.getSenderId() != null ? message.getSenderId() : -1L;
+        roomLog.put(String.valueOf(chatRoomId), excludedId + "|" + message.getMessageId(), messageTime);
+
+        try (KeyValueIterator<String, Long> iterator = members.prefixScan(chatRoomId + ":", new StringSerializer())) {
+            while (iterator.hasNext()) {
+                KeyValue<String, Long> member = iterator.next();
+                long userId = Long.parseLong(member.key.substring(member.key.indexOf(':') + 1));
+                if (userId == excludedId || messageTime < member.value) continue;
+
+                String key = storeKey(userId, chatRoomId);
+                if (!isAfterCursor(messageTime, message.getMessageId(), cursors.get(key))) continue;
+
+                Long current = counts.get(key);
+                updateCount(key, (current != null ? current : 0) + 1);
+            }
+        }
+        meterRegistry.counter("chat.unread.streams.messages").increment();
+    }
+
+    private void onReceipt(ChatReadReceipt receipt, long recordTimestamp) {
+        if (receipt.getUserId() == null || receipt.getChatRoomId() == null) return;
+
+        long userId = receipt.getUserId();
+        long chatRoomId = receipt.getChatRoomId();
+        String key = storeKey(userId, chatRoomId);
+
+        // 초기 적재: 값 그대로 설정 (읽음 위치는 그대로)
+        if (receipt.getUnreadCount() != null) {
+            updateCount(key, Math.max(0, receipt.getUnreadCount()));
+            meterRegistry.counter("chat.unread.streams.receipts").increment();
+            return;
+        }
+
+        long cursorTime = readTimeOf(receipt, recordTimestamp);
+        String cursorMessageId = receipt.getLastReadMessageId();
+        String next = cursor(cursorTime, cursorMessageId);
+        String previous = cursors.get(key);
+        if (previous != null && !previous.equals(next) && !isAfterCursor(cursorTime, cursorMessageId, previous)) {
+            // 이미 더 뒤까지 읽음 (늦게 도착한 읽음 이벤트)
+            meterRegistry.counter("chat.unread.streams.receipts.stale").increment();
+            return;
+        }
+        cursors.put(key, next);
+        updateCount(key, countAfterCursor(userId, chatRoomId, cursorTime, cursorMessageId));
+        meterRegistry.counter("chat.unread.streams.receipts").increment();
+    }
+
+    private void onParticipant(ChatParticipantEvent event) {
+        if (event.getUserId() == null || event.getChatRoomId() == null || event.getType() == null) return;
+
+        long userId = event.getUserId();
+        long chatRoomId = event.getChatRoomId();
+        String memberKey = memberKey(chatRoomId, userId);
+
+        if (event.getType() == ChatParticipantEvent.Type.JOIN) {
+            if (members.get(memberKey) == null) {
+                members.put(memberKey, event.getOccurredAt() != null ? toMillis(event.getOccurredAt()) : 0L);
+            }
+        } else {
+            members.delete(memberKey);
+            cursors.delete(storeKey(userId, chatRoomId));
+            updateCount(storeKey(userId, chatRoomId), 0);
+        }
+        meterRegistry.counter("chat.unread.streams.participants", "type", event.getType().name()).increment();
+    }
+
+    /**
+     * 읽음 위치 이후 채팅방에 들어온 다른 사람 메시지 수 (채팅방 로그 보존 기간 안에서)
+     */
+    private long countAfterCursor(long userId, long chatRoomId, long cursorTime, String cursorMessageId) {
+        Long joinedAt = members.get(memberKey(chatRoomId, userId));
+        if (joinedAt == null) return 0;
+
+        String cursor = cursor(cursorTime, cursorMessageId);
+        long unread = 0;
+        try (WindowStoreIterator<String> iterator = roomLog.fetch(String.valueOf(chatRoomId),
+                Instant.ofEpochMilli(Math.max(cursorTime, joinedAt)), Instant.ofEpochMilli(Long.MAX_VALUE))) {
+            while (iterator.hasNext()) {
+                KeyValue<Long, String> entry = iterator.next();
+                int separator = entry.value.indexOf('|');
+                long senderId = Long.parseLong(entry.value.substring(0, separator));
+                String messageId = entry.value.substring(separator + 1);
+                if (senderId != userId && isAfterCursor(entry.key, messageId, cursor)) {
+                    unread++;
+                }
+            }
+        }
+        return unread;
+    }
+
+    private void updateCount(String key, long value) {
+        if (value > 0) {
+            counts.put(key, value);
+        } else {
+            counts.delete(key);
+        }
+        if (publishUpdates) {
+            pending.put(key, value);
+        }
+    }
+
+    /**
+     * pending 스토어의 변경분을 출력 토픽으로 보내고 비움 (같은 트랜잭션으로 커밋되어 중단되면 함께 롤백)
+     */
+    private void flushUpdates(long timestamp) {
+        List<KeyValue<String, Long>> entries = new ArrayList<>();
+        try (KeyValueIterator<String, Long> iterator = pending.all()) {
+            while (iterator.hasNext()) {
+                entries.add(iterator.next());
+            }
+        }
+        if (entries.isEmpty()) return;
+
+        for (KeyValue<String, Long> entry : entries) {
+            int separator = entry.key.indexOf(':');
+            long userId = Long.parseLong(entry.key.substring(0, separator));
+            UnreadCountUpdate update = UnreadCountUpdate.builder()
+                    .userId(userId)
+                    .chatRoomId(Long.parseLong(entry.key.substring(separator + 1)))
+                    .unreadCount(entry.value)
+                    .build();
+            context.forward(new Record<>(String.valueOf(userId), update, timestamp));
+            pending.delete(entry.key);
+        }
+        meterRegistry.counter("chat.unread.streams.updates").increment(entries.size());
+    }
+
+    static String cursor(long time, String messageId) {
+        return time + "|" + (messageId != null ? messageId : "");
+    }
+
+    /**
+     * 메시지가 읽음 위치보다 뒤인지 (같은 ms 면 UUIDv7 messageId 순서로 비교)
+     */
+    static boolean isAfterCursor(long time, String messageId, String cursor) {
+        if (cursor == null) return true;
+
+        int separator = cursor.indexOf('|');
+        long cursorTime = Long.parseLong(cursor.substring(0, separator));
+        if (time != cursorTime) return time > cursorTime;
+
+        String cursorMessageId = cursor.substring(separator + 1);
+        return !cursorMessageId.isEmpty() && MessageIds.compare(messageId, cursorMessageId) > 0;
+    }
+
+    /**
+     * 메시지 시각 (UUIDv7 이면 ID 의 ms 시각, 아니면 메시지 timestamp, 둘 다 없으면 레코드 시각)
+     */
+    static long messageTimeOf(ChatMessage message, long recordTimestamp) {
+        if (MessageIds.isTimeOrdered(message.getMessageId())) {
+            return toMillis(MessageIds.timestampOf(message.getMessageId()));
+        }
+        return message.getTimestamp() != null ? toMillis(message.getTimestamp()) : recordTimestamp;
+    }
+
+    private static long readTimeOf(ChatReadReceipt receipt, long recordTimestamp) {
+        if (receipt.getLastReadMessageAt() != null) return toMillis(receipt.getLastReadMessageAt());
+        if (receipt.getReadAt() != null) return toMillis(receipt.getReadAt());
+        return recordTimestamp;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 안읽은 카운트 대상 메시지 (DB 저장 대상과 동일: 타이핑, 입장/퇴장 제외)
+     */
+    private static boolean isCounted(ChatMessage message) {
+        return message.getChatRoomId() != null && message.getType() != null &&
+               message.getType() != ChatMessage.MessageType.TYPING &&
+               message.getType() != ChatMessage.MessageType.STOP_TYPING &&
+               message.getType() != ChatMessage.MessageType.JOIN &&
+               message.getType() != ChatMessage.MessageType.LEAVE;
+    }
+}
@@ -0,0 +1,94 @@
+package wedding.alba.kafka.streams;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.processor.api.ProcessorSupplier;
+import org.apache.kafka.streams.state.Stores;
+import org.springframework.kafka.support.serializer.JsonSerde;
+import wedding.alba.kafka.codec.ChatMessageDeserializer;
+import wedding.alba.kafka.codec.ChatMessageSerializer;
+import wedding.alba.kafka.dto.ChatMessage;
+import wedding.alba.kafka.dto.ChatParticipantEvent;
+import wedding.alba.kafka.dto.ChatReadReceipt;
+import wedding.alba.kafka.dto.UnreadCountUpdate;
+
+import java.time.Duration;
+
+/**
+ * 안읽은 카운트 스트림 토폴로지
+ * chat-messages + chat-read-receipts + chat-room-participants (모두 Key = chatRoomId, 같은 파티션 수)
+ * -> UnreadCountProcessor -> chat-unread-count-updates (Key = userId, publishUpdates 일 때만)
+ */
+public final class UnreadCountTopology {
+
+    public static final String CHAT_TOPIC = "chat-messages";
+    public static final String READ_RECEIPT_TOPIC = "chat-read-receipts";
+    public static final String PARTICIPANT_TOPIC = "chat-room-participants";
+    public static final String UPDATES_TOPIC = "chat-unread-count-updates";
+
+    // 메시지 시각 윈도우 스토어의 윈도우 크기 (시각 하나에 하나씩 저장)
+    private static final Duration POINT_WINDOW = Duration.ofMillis(1);
+
+    private UnreadCountTopology() {
+    }
+
+    /**
+     * @param publishUpdates 바뀐 카운트를 출력 토픽으로 보낼지 (PRIMARY)
+     * @param dedupWindow    message_id 중복 제거 + 읽음 위치 이후 메시지 재계산에 쓰는 채팅방 로그 보존 기간
+     * @return 처리기 출력 스트림 (UPDATES_TOPIC 으로 보냄)
+     */
+    public static KStream<String, UnreadCountUpdate> build(StreamsBuilder builder, ObjectMapper objectMapper,
+                                                           MeterRegistry meterRegistry, boolean publishUpdates,
+                                                           Duration flushInterval, Duration dedupWindow) {
+        builder.addStateStore(Stores.keyValueStoreBuilder(
+                Stores.persistentKeyValueStore(UnreadCountProcessor.COUNTS_STORE), Serdes.String(), Serdes.Long()));
+        builder.addStateStore(Stores.keyValueStoreBuilder(
+                Stores.persistentKeyValueStore(UnreadCountProcessor.MEMBERS_STORE), Serdes.String(), Serdes.Long()));
+        builder.addStateStore(Stores.keyValueStoreBuilder(
+                Stores.persistentKeyValueStore(UnreadCountProcessor.CURSORS_STORE), Serdes.String(), Serdes.String()));
+        builder.addStateStore(Stores.keyValueStoreBuilder(
+                Stores.persistentKeyValueStore(UnreadCountProcessor.PENDING_STORE), Serdes.String(), Serdes.Long()));
+        // 보존 기간이 지난 세그먼트는 통째로 삭제됨 (전체 스캔 정리 없음)
+        builder.addStateStore(Stores.windowStoreBuilder(
+                Stores.persistentWindowStore(UnreadCountProcessor.SEEN_STORE, dedupWindow, POINT_WINDOW, false),
+                Serdes.String(), Serdes.Long()));
+        builder.addStateStore(Stores.windowStoreBuilder(
+                Stores.persistentWindowStore(UnreadCountProcessor.ROOM_LOG_STORE, dedupWindow, POINT_WINDOW, true),
+                Serdes.String(), Serdes.String()));
+
+        Serde<ChatMessage> chatMessageSerde = Serdes.serdeFrom(new ChatMessageSerializer(), new ChatMessageDeserializer());
+        Serde<ChatReadReceipt> receiptSerde = new JsonSerde<>(ChatReadReceipt.class, objectMapper);
+        Serde<ChatParticipantEvent> participantSerde = new JsonSerde<>(ChatParticipantEvent.class, objectMapper);
+        Serde<UnreadCountUpdate> updateSerde = new JsonSerde<>(UnreadCountUpdate.class, objectMapper);
+
+        KStream<String, UnreadInput> messages = builder
+                .stream(CHAT_TOPIC, Consumed.with(Serdes.String(), chatMessageSerde))
+                .filter((chatRoomId, message) -> message != null)
+                .mapValues(message -> UnreadInput.of(message));
+        KStream<String, UnreadInput> receipts = builder
+                .stream(READ_RECEIPT_TOPIC, Consumed.with(Serdes.String(), receiptSerde))
+                .filter((chatRoomId, receipt) -> receipt != null)
+                .mapValues(receipt -> UnreadInput.of(receipt));
+        KStream<String, UnreadInput> participants = builder
+                .stream(PARTICIPANT_TOPIC, Consumed.with(Serdes.String(), participantSerde))
+                .filter((chatRoomId, participant) -> participant != null)
+                .mapValues(participant -> UnreadInput.of(participant));
+
+        ProcessorSupplier<String, UnreadInput, String, UnreadCountUpdate> processor =
+                () -> new UnreadCountProcessor(meterRegistry, publishUpdates, flushInterval);
+
+        KStream<String, UnreadCountUpdate> updates = messages.merge(receipts).merge(participants)
+                .process(processor,
+                        UnreadCountProcessor.COUNTS_STORE, UnreadCountProcessor.MEMBERS_STORE,
+                        UnreadCountProcessor.CURSORS_STORE, UnreadCountProcessor.PENDING_STORE,
+                        UnreadCountProcessor.SEEN_STORE, UnreadCountProcessor.ROOM_LOG_STORE);
+        updates.to(UPDATES_TOPIC, Produced.with(Serdes.String(), updateSerde));
+        return updates;
+    }
+}
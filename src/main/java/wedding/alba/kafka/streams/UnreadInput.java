@@ -0,0 +1,23 @@
+package wedding.alba.kafka.streams;
+
+import wedding.alba.kafka.dto.ChatMessage;
+import wedding.alba.kafka.dto.ChatParticipantEvent;
+import wedding.alba.kafka.dto.ChatReadReceipt;
+
+/**
+ * 안읽은 카운트 처리기 입력 (chat-messages 메시지, chat-read-receipts 읽음 이벤트, chat-room-participants 참여자 변경 중 하나)
+ */
+public record UnreadInput(ChatMessage message, ChatReadReceipt receipt, ChatParticipantEvent participant) {
+
+    public static UnreadInput of(ChatMessage message) {
+        return new UnreadInput(message, null, null);
+    }
+
+    public static UnreadInput of(ChatReadReceipt receipt) {
+        return new UnreadInput(null, receipt, null);
+    }
+
+    public static UnreadInput of(ChatParticipantEvent participant) {
+        return new UnreadInput(null, null, participant);
+    }
+}
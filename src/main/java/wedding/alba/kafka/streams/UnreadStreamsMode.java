@@ -0,0 +1,14 @@
+package wedding.alba.kafka.streams;
+
+/**
+ * 안읽은 카운트 스트림 처리기 운영 단계 (app.chat.unread.streams.mode)
+ */
+public enum UnreadStreamsMode {
+    OFF,      // 스트림 처리기 미사용, Redis INCR/HDEL 로만 관리 (기존 방식)
+    SHADOW,   // 스트림 처리기가 정확한 카운트를 따로 계산, Redis 는 기존 방식 유지 (대조 리포트로 비교)
+    PRIMARY;  // 스트림 처리기 출력 (UnreadCountRedisWriter) 이 Redis 를 갱신하는 유일한 주체, 기존 INCR/HDEL 중단
+
+    public static UnreadStreamsMode of(String value) {
+        return value == null || value.isBlank() ? OFF : valueOf(value.trim().toUpperCase());
+    }
+}
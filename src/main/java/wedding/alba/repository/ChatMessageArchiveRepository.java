@@ -0,0 +1,55 @@
+package wedding.alba.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import wedding.alba.entity.ChatMessage;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 아카이브(chat_messages_archive) 이력 조회
+ * chat_messages 커서 조회와 같은 정렬/커서 규칙이라 핫 조회 결과 뒤에 그대로 이어 붙일 수 있다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChatMessageArchiveRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String SELECT_VISIBLE =
+            "SELECT " + ChatMessageSyncRepository.MESSAGE_COLUMNS + " FROM " + ChatMessagePartitionRepository.ARCHIVE_TABLE + " m " +
+            "WHERE m.chat_room_id = ? AND m.is_deleted = false AND m.message_type NOT IN ('TYPING', 'STOP_TYPING') ";
+
+    /**
+     * 아카이브의 최신 메시지 (최신순)
+     */
+    public List<ChatMessage> findLatestMessages(Long chatRoomId, int limit) {
+        return jdbcTemplate.query(SELECT_VISIBLE + "ORDER BY m.timestamp DESC, m.message_id DESC LIMIT ?",
+                ChatMessageSyncRepository.MESSAGE_ROW_MAPPER, chatRoomId, limit);
+    }
+
+    /**
+     * 커서보다 오래된 메시지 (최신순)
+     */
+    public List<ChatMessage> findMessagesBefore(Long chatRoomId, LocalDateTime timestamp, String messageId, int limit) {
+        Timestamp cursor = Timestamp.valueOf(timestamp);
+        return jdbcTemplate.query(SELECT_VISIBLE +
+                "AND m.timestamp <= ? AND (m.timestamp, m.message_id) < (?, ?) " +
+                "ORDER BY m.timestamp DESC, m.message_id DESC LIMIT ?",
+                ChatMessageSyncRepository.MESSAGE_ROW_MAPPER, chatRoomId, cursor, cursor, messageId, limit);
+    }
+
+    /**
+     * 커서보다 새로운 메시지 (오래된순)
+     */
+    public List<ChatMessage> findMessagesAfter(Long chatRoomId, LocalDateTime timestamp, String messageId, int limit) {
+        Timestamp cursor = Timestamp.valueOf(timestamp);
+        return jdbcTemplate.query(SELECT_VISIBLE +
+                "AND m.timestamp >= ? AND (m.timestamp, m.message_id) > (?, ?) " +
+                "ORDER BY m.timestamp ASC, m.message_id ASC LIMIT ?",
+                ChatMessageSyncRepository.MESSAGE_ROW_MAPPER, chatRoomId, cursor, cursor, messageId, limit);
+    }
+}
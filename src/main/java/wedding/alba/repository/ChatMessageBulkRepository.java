@@ -0,0 +1,93 @@
+package wedding.alba.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import wedding.alba.entity.ChatMessage;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 🚀 chat_messages 대량 INSERT 전용 저장소
+ * JPA saveAll은 할당된 String ID 때문에 엔티티마다 SELECT(merge) 후 INSERT 하므로,
+ * 배치 저장은 multi-row INSERT 한 번으로 처리한다.
+ * ON CONFLICT DO NOTHING 으로 Kafka 재전달 시에도 중복 저장되지 않음.
+ * (충돌 대상을 지정하지 않아 PK가 message_id 든 파티션 테이블의 (message_id, timestamp) 든 동작)
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class ChatMessageBulkRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO chat_messages (message_id, chat_room_id, sender_id, sender_name, sender_profile_image, " +
+            "content, message_type, timestamp, mention_user_id, is_system_message, is_deleted, " +
+            "attachment_url, attachment_type) VALUES ";
+    private static final String ROW_PLACEHOLDER = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_SUFFIX = " ON CONFLICT DO NOTHING RETURNING message_id";
+    private static final int COLUMN_COUNT = 13;
+
+    // PostgreSQL 바인드 파라미터 한도(65535) 이내로 청크 분할
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    /**
+     * 메시지 대량 저장 (이미 존재하는 message_id는 건너뜀)
+     * @return 실제로 새로 저장된 message_id 목록
+     */
+    public Set<String> insertIgnoreDuplicates(List<ChatMessage> messages) {
+        Set<String> insertedIds = new HashSet<>();
+        if (messages == null || messages.isEmpty()) {
+            return insertedIds;
+        }
+
+        for (int from = 0; from < messages.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<ChatMessage> chunk = messages.subList(from, Math.min(from + MAX_ROWS_PER_STATEMENT, messages.size()));
+            insertedIds.addAll(jdbcTemplate.queryForList(buildInsertSql(chunk.size()), String.class, toParams(chunk)));
+        }
+
+        log.debug("chat_messages 대량 저장: 요청={}, 신규={}", messages.size(), insertedIds.size());
+        return insertedIds;
+    }
+
+    private String buildInsertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDER.length() + 2) + INSERT_SUFFIX.length());
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(ROW_PLACEHOLDER);
+        }
+        sql.append(INSERT_SUFFIX);
+        return sql.toString();
+    }
+
+    private Object[] toParams(List<ChatMessage> chunk) {
+        List<Object> params = new ArrayList<>(chunk.size() * COLUMN_COUNT);
+        LocalDateTime now = LocalDateTime.now();
+
+        for (ChatMessage message : chunk) {
+            params.add(message.getMessageId());
+            params.add(message.getChatRoomId());
+            params.add(message.getSenderId());
+            params.add(message.getSenderName());
+            params.add(message.getSenderProfileImage());
+            params.add(message.getContent());
+            params.add(message.getType().name());
+            params.add(Timestamp.valueOf(message.getTimestamp() != null ? message.getTimestamp() : now));
+            params.add(message.getMentionUserId());
+            params.add(message.getIsSystemMessage() != null ? message.getIsSystemMessage() : Boolean.FALSE);
+            params.add(message.getIsDeleted() != null ? message.getIsDeleted() : Boolean.FALSE);
+            params.add(message.getAttachmentUrl());
+            params.add(message.getAttachmentType());
+        }
+
+        return params.toArray();
+    }
+}
@@ -0,0 +1,97 @@
+package wedding.alba.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import wedding.alba.entity.ChatMessageOutbox;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * chat_message_outbox 저장소 (JdbcTemplate)
+ * 테이블은 ChatMessageOutbox 엔티티로 생성됨
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChatMessageOutboxRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void insert(Long chatRoomId, String messageId, byte[] payload, String lastError) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO chat_message_outbox " +
+                "(chat_room_id, message_id, payload, attempts, next_attempt_at, last_error, created_at) " +
+                "VALUES (?, ?, ?, 0, ?, ?, ?)",
+                chatRoomId, messageId, payload, now, truncate(lastError), now);
+    }
+
+    /**
+     * 재전송할 메시지 (맨 앞 메시지의 재시도 시각이 된 채팅방들, 채팅방별 outbox_id 순)
+     */
+    public List<ChatMessageOutbox> findDueRooms(int maxRooms, int maxPerRoom) {
+        return jdbcTemplate.query(
+                "SELECT o.* FROM (" +
+                "    SELECT chat_room_id FROM chat_message_outbox GROUP BY chat_room_id " +
+                "    HAVING min(next_attempt_at) <= ? ORDER BY min(outbox_id) LIMIT ?) r " +
+                "CROSS JOIN LATERAL (" +
+                "    SELECT * FROM chat_message_outbox x WHERE x.chat_room_id = r.chat_room_id " +
+                "    ORDER BY x.outbox_id LIMIT ?) o " +
+                "ORDER BY o.chat_room_id, o.outbox_id",
+                (rs, rowNum) -> ChatMessageOutbox.builder()
+                        .outboxId(rs.getLong("outbox_id"))
+                        .chatRoomId(rs.getLong("chat_room_id"))
+                        .messageId(rs.getString("message_id"))
+                        .payload(rs.getBytes("payload"))
+                        .attempts(rs.getInt("attempts"))
+                        .nextAttemptAt(rs.getTimestamp("next_attempt_at").toLocalDateTime())
+                        .lastError(rs.getString("last_error"))
+                        .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                        .build(),
+                Timestamp.valueOf(LocalDateTime.now()), maxRooms, maxPerRoom);
+    }
+
+    public void deleteByIds(Collection<Long> outboxIds) {
+        if (outboxIds.isEmpty()) return;
+
+        StringBuilder sql = new StringBuilder("DELETE FROM chat_message_outbox WHERE outbox_id IN (");
+        List<Object> params = new ArrayList<>(outboxIds.size());
+        int i = 0;
+        for (Long outboxId : outboxIds) {
+            if (i++ > 0) sql.append(", ");
+            sql.append("?");
+            params.add(outboxId);
+        }
+        jdbcTemplate.update(sql.append(")").toString(), params.toArray());
+    }
+
+    /**
+     * 채팅방의 남은 메시지 전체를 다음 재시도 시각으로 미룸 (순서 유지를 위해 채팅방 단위)
+     */
+    public void scheduleRetry(Long chatRoomId, LocalDateTime nextAttemptAt, String lastError) {
+        jdbcTemplate.update("UPDATE chat_message_outbox SET attempts = attempts + 1, next_attempt_at = ?, last_error = ? " +
+                "WHERE chat_room_id = ?",
+                Timestamp.valueOf(nextAttemptAt), truncate(lastError), chatRoomId);
+    }
+
+    public boolean existsByChatRoomId(Long chatRoomId) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM chat_message_outbox WHERE chat_room_id = ?)", Boolean.class, chatRoomId));
+    }
+
+    public List<Long> findPendingChatRoomIds() {
+        return jdbcTemplate.queryForList("SELECT DISTINCT chat_room_id FROM chat_message_outbox", Long.class);
+    }
+
+    public long count() {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM chat_message_outbox", Long.class);
+        return count != null ? count : 0;
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > 500 ? value.substring(0, 500) : value;
+    }
+}
@@ -0,0 +1,143 @@
+package wedding.alba.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * chat_messages 월별 파티션 관리 (DDL)
+ * 파티션 이름은 chat_messages_pYYYY_MM, 범위는 [해당 월 1일, 다음 달 1일)
+ * 파티션 테이블 전환은 migrate_chat_messages_partitioning.sql 참고
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class ChatMessagePartitionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public static final String HOT_TABLE = "chat_messages";
+    public static final String ARCHIVE_TABLE = "chat_messages_archive";
+
+    private static final String PARTITION_PREFIX = "chat_messages_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    /**
+     * 테이블이 파티션 테이블인지 (전환 스크립트 실행 여부)
+     */
+    public boolean isPartitioned(String table) {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid " +
+                "WHERE c.relname = ? AND c.relnamespace = current_schema()::regnamespace)",
+                Boolean.class, table);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    /**
+     * 부모 테이블에 붙어 있는 월 파티션 목록 (오래된순)
+     */
+    public List<YearMonth> findPartitionMonths(String parentTable) {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = ? AND p.relnamespace = current_schema()::regnamespace AND c.relname LIKE ? " +
+                "ORDER BY c.relname",
+                String.class, parentTable, PARTITION_PREFIX + "%");
+
+        return names.stream()
+                .map(name -> YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX))
+                .toList();
+    }
+
+    /**
+     * 월 파티션 생성 (이미 있으면 무시)
+     */
+    public void createPartition(YearMonth month) {
+        jdbcTemplate.execute(String.format(
+                "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                partitionName(month), HOT_TABLE, month.atDay(1), month.plusMonths(1).atDay(1)));
+    }
+
+    /**
+     * DETACH PARTITION CONCURRENTLY 도중 중단되어 분리 대기(inhdetachpending) 상태로 남은 월 파티션
+     * 이 상태에서는 다시 DETACH 할 수 없고 FINALIZE 로 마무리해야 함
+     */
+    public List<YearMonth> findPendingDetachMonths() {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = ? AND p.relnamespace = current_schema()::regnamespace " +
+                "AND i.inhdetachpending AND c.relname LIKE ? ORDER BY c.relname",
+                String.class, HOT_TABLE, PARTITION_PREFIX + "%");
+
+        return names.stream()
+                .map(name -> YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX))
+                .toList();
+    }
+
+    /**
+     * 분리 대기 상태의 월 파티션 분리 마무리 (트랜잭션 밖에서 실행해야 함)
+     */
+    public void finalizeDetach(YearMonth month) {
+        jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s FINALIZE", HOT_TABLE, partitionName(month)));
+        log.info("chat_messages 파티션 분리 마무리: partition={}", partitionName(month));
+    }
+
+    /**
+     * 어느 부모에도 붙어 있지 않은 월 파티션 (DETACH 후 ATTACH 전에 중단된 경우)
+     */
+    public List<YearMonth> findDetachedPartitionMonths() {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_class c WHERE c.relnamespace = current_schema()::regnamespace " +
+                "AND c.relkind = 'r' AND c.relispartition = false AND c.relname LIKE ? ORDER BY c.relname",
+                String.class, PARTITION_PREFIX + "%");
+
+        return names.stream()
+                .map(name -> YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX))
+                .toList();
+    }
+
+    /**
+     * 월 파티션을 chat_messages 에서 떼어냄
+     * CONCURRENTLY: 부모 테이블 읽기/쓰기를 막지 않음 (트랜잭션 밖에서 실행해야 함)
+     */
+    public void detachPartition(YearMonth month) {
+        jdbcTemplate.execute(String.format("ALTER TABLE %s DETACH PARTITION %s CONCURRENTLY", HOT_TABLE, partitionName(month)));
+    }
+
+    /**
+     * 떼어낸 월 파티션을 chat_messages_archive 에 붙임
+     * - 검색용 GIN 인덱스 삭제 (아카이브는 이력 조회만 지원)
+     * - tablespace 지정 시 콜드 스토리지로 이동
+     */
+    public void attachToArchive(YearMonth month, String tablespace) {
+        String partition = partitionName(month);
+
+        List<String> ginIndexes = jdbcTemplate.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE schemaname = current_schema() AND tablename = ? " +
+                "AND indexdef LIKE '%USING gin%'", String.class, partition);
+        for (String index : ginIndexes) {
+            jdbcTemplate.execute("DROP INDEX IF EXISTS " + index);
+        }
+
+        if (tablespace != null && !tablespace.isBlank()) {
+            jdbcTemplate.execute(String.format("ALTER TABLE %s SET TABLESPACE %s", partition, tablespace));
+        }
+
+        jdbcTemplate.execute(String.format(
+                "ALTER TABLE %s ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')",
+                ARCHIVE_TABLE, partition, month.atDay(1), month.plusMonths(1).atDay(1)));
+
+        log.info("chat_messages 파티션 아카이브 완료: partition={}, droppedIndexes={}, tablespace={}",
+                partition, ginIndexes.size(), tablespace);
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_SUFFIX);
+    }
+}
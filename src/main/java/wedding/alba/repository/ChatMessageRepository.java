@@ -10,6 +10,7 @@ import wedding.alba.entity.ChatMessage;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, String> {
@@ -29,6 +30,65 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, String
         @Param("limit") int limit,
         @Param("offset") int offset);
 
+    /**
+     * 메시지 시각 조회 (시간순 ID 커서용, 시각 범위로 파티션/PK 범위를 좁힘)
+     */
+    @Query("SELECT cm.timestamp FROM ChatMessage cm " +
+           "WHERE cm.messageId = :messageId " +
+           "AND cm.timestamp >= :from AND cm.timestamp < :to")
+    Optional<LocalDateTime> findTimestampByMessageId(@Param("messageId") String messageId,
+                                                     @Param("from") LocalDateTime from,
+                                                     @Param("to") LocalDateTime to);
+
+    /**
+     * 🚀 커서 기반 최신 메시지 조회 (첫 페이지)
+     * idx_chat_messages_room_keyset 인덱스 사용, COUNT 없음
+     */
+    @Query(value = "SELECT cm.* FROM chat_messages cm " +
+           "WHERE cm.chat_room_id = :chatRoomId " +
+           "AND cm.is_deleted = false " +
+           "AND cm.message_type NOT IN ('TYPING', 'STOP_TYPING') " +
+           "ORDER BY cm.timestamp DESC, cm.message_id DESC " +
+           "LIMIT :limit", nativeQuery = true)
+    List<ChatMessage> findLatestMessagesKeyset(
+        @Param("chatRoomId") Long chatRoomId,
+        @Param("limit") int limit);
+
+    /**
+     * 🚀 커서 기반 이전 메시지 조회 ((timestamp, messageId) 커서보다 오래된 메시지, 최신순)
+     * timestamp 단순 비교는 월별 파티션 프루닝용 (행 비교식으로는 프루닝되지 않음)
+     */
+    @Query(value = "SELECT cm.* FROM chat_messages cm " +
+           "WHERE cm.chat_room_id = :chatRoomId " +
+           "AND cm.is_deleted = false " +
+           "AND cm.message_type NOT IN ('TYPING', 'STOP_TYPING') " +
+           "AND cm.timestamp <= :timestamp " +
+           "AND (cm.timestamp, cm.message_id) < (:timestamp, :messageId) " +
+           "ORDER BY cm.timestamp DESC, cm.message_id DESC " +
+           "LIMIT :limit", nativeQuery = true)
+    List<ChatMessage> findMessagesBeforeKeyset(
+        @Param("chatRoomId") Long chatRoomId,
+        @Param("timestamp") LocalDateTime timestamp,
+        @Param("messageId") String messageId,
+        @Param("limit") int limit);
+
+    /**
+     * 🚀 커서 기반 이후 메시지 조회 ((timestamp, messageId) 커서보다 새로운 메시지, 오래된순)
+     */
+    @Query(value = "SELECT cm.* FROM chat_messages cm " +
+           "WHERE cm.chat_room_id = :chatRoomId " +
+           "AND cm.is_deleted = false " +
+           "AND cm.message_type NOT IN ('TYPING', 'STOP_TYPING') " +
+           "AND cm.timestamp >= :timestamp " +
+           "AND (cm.timestamp, cm.message_id) > (:timestamp, :messageId) " +
+           "ORDER BY cm.timestamp ASC, cm.message_id ASC " +
+           "LIMIT :limit", nativeQuery = true)
+    List<ChatMessage> findMessagesAfterKeyset(
+        @Param("chatRoomId") Long chatRoomId,
+        @Param("timestamp") LocalDateTime timestamp,
+        @Param("messageId") String messageId,
+        @Param("limit") int limit);
+
     /**
      * 채팅방별 메시지 조회 (페이징, 타이핑 메시지 제외)
      */
@@ -105,7 +165,8 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessage, String
     int countUnreadMessagesSafe(@Param("chatRoomId") Long chatRoomId, @Param("userId") Long userId);
 
     /**
-     * 메시지 검색
+     * 메시지 검색 (전체 결과, idx_chat_messages_room_content_trgm 사용)
+     * 페이지/관련도 정렬이 필요하면 ChatMessageSearchRepository 사용
      */
     @Query("SELECT cm FROM ChatMessage cm " +
            "WHERE cm.chatRoomId = :chatRoomId " +
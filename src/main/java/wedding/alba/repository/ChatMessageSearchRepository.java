@@ -0,0 +1,93 @@
+package wedding.alba.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import wedding.alba.entity.ChatMessage;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 🚀 메시지 검색 저장소 (pg_trgm)
+ * lower(content) 부분 일치 또는 검색어 <% 본문 (word_similarity 임계값 이상)을
+ * idx_chat_messages_room_content_trgm (btree_gin + gin_trgm_ops) 으로 찾고
+ * word_similarity 관련도 -> 최신순으로 정렬, (score, timestamp, messageId) 커서로 페이지를 나눈다.
+ * similarity 는 긴 메시지일수록 점수가 낮아지므로 본문 중 검색어와 가장 비슷한 부분만 비교하는 word_similarity 를 쓴다.
+ * 인덱스 생성은 create_chat_messages_search_index.sql 참고
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChatMessageSearchRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 검색 결과 한 행 (메시지 + 관련도)
+     */
+    public record ScoredMessage(ChatMessage message, float score) {}
+
+    /**
+     * 채팅방 내 검색
+     */
+    public List<ScoredMessage> searchInChatRoom(Long chatRoomId, String keyword,
+                                                Float cursorScore, LocalDateTime cursorTimestamp,
+                                                String cursorMessageId, int limit) {
+        List<Object> params = new ArrayList<>();
+        String scope = "m.chat_room_id = ? ";
+        params.add(chatRoomId);
+        return search(scope, params, keyword, cursorScore, cursorTimestamp, cursorMessageId, limit);
+    }
+
+    /**
+     * 사용자가 참여 중인 모든 채팅방에서 검색
+     */
+    public List<ScoredMessage> searchInUserChatRooms(Long userId, String keyword,
+                                                     Float cursorScore, LocalDateTime cursorTimestamp,
+                                                     String cursorMessageId, int limit) {
+        List<Object> params = new ArrayList<>();
+        String scope = "m.chat_room_id IN (SELECT crp.chat_room_id FROM chat_room_participants crp " +
+                       "WHERE crp.user_id = ? AND crp.is_active = true) ";
+        params.add(userId);
+        return search(scope, params, keyword, cursorScore, cursorTimestamp, cursorMessageId, limit);
+    }
+
+    private List<ScoredMessage> search(String scope, List<Object> scopeParams, String keyword,
+                                       Float cursorScore, LocalDateTime cursorTimestamp,
+                                       String cursorMessageId, int limit) {
+        String normalized = keyword.toLowerCase(Locale.ROOT);
+
+        StringBuilder sql = new StringBuilder("SELECT r.* FROM (SELECT ")
+                .append(ChatMessageSyncRepository.MESSAGE_COLUMNS)
+                .append(", word_similarity(?, lower(m.content)) AS score FROM chat_messages m WHERE ")
+                .append(scope)
+                .append("AND m.is_deleted = false AND m.message_type NOT IN ('TYPING', 'STOP_TYPING') ")
+                .append("AND (lower(m.content) LIKE ? OR ? <% lower(m.content))) r ");
+        List<Object> params = new ArrayList<>();
+        params.add(normalized);
+        params.addAll(scopeParams);
+        params.add("%" + escapeLike(normalized) + "%");
+        params.add(normalized);
+
+        if (cursorScore != null && cursorTimestamp != null && cursorMessageId != null) {
+            sql.append("WHERE (r.score, r.timestamp, r.message_id) < (CAST(? AS real), ?, ?) ");
+            params.add(cursorScore);
+            params.add(Timestamp.valueOf(cursorTimestamp));
+            params.add(cursorMessageId);
+        }
+        sql.append("ORDER BY r.score DESC, r.timestamp DESC, r.message_id DESC LIMIT ?");
+        params.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new ScoredMessage(
+                ChatMessageSyncRepository.MESSAGE_ROW_MAPPER.mapRow(rs, rowNum),
+                rs.getFloat("score")), params.toArray());
+    }
+
+    // LIKE 와일드카드 이스케이프 (PostgreSQL 기본 ESCAPE 문자 '\')
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,134 @@
+package wedding.alba.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import wedding.alba.entity.ChatMessage;
+import wedding.alba.kafka.dto.ChatSyncRequest;
+import wedding.alba.kafka.dto.ChatSyncResponse;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 🚀 재접속 동기화 전용 저장소
+ * 여러 채팅방의 커서 이후 메시지를 채팅방별 LIMIT을 건 LATERAL 조인 한 번으로 조회한다.
+ * (채팅방마다 idx_chat_messages_room_keyset 인덱스 범위 스캔)
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChatMessageSyncRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    static final String MESSAGE_COLUMNS =
+            "m.message_id, m.chat_room_id, m.sender_id, m.sender_name, m.sender_profile_image, m.content, " +
+            "m.message_type, m.timestamp, m.mention_user_id, m.is_system_message, m.is_deleted, m.deleted_at, " +
+            "m.attachment_url, m.attachment_type";
+
+    private static final String VISIBLE_MESSAGE_CONDITION =
+            "cm.is_deleted = false AND cm.message_type NOT IN ('TYPING', 'STOP_TYPING') ";
+
+    static final RowMapper<ChatMessage> MESSAGE_ROW_MAPPER = (rs, rowNum) -> ChatMessage.builder()
+            .messageId(rs.getString("message_id"))
+            .chatRoomId(rs.getLong("chat_room_id"))
+            .senderId(rs.getLong("sender_id"))
+            .senderName(rs.getString("sender_name"))
+            .senderProfileImage(rs.getString("sender_profile_image"))
+            .content(rs.getString("content"))
+            .type(ChatMessage.MessageType.valueOf(rs.getString("message_type")))
+            .timestamp(toLocalDateTime(rs.getTimestamp("timestamp")))
+            .mentionUserId(rs.getObject("mention_user_id", Long.class))
+            .isSystemMessage(rs.getBoolean("is_system_message"))
+            .isDeleted(rs.getBoolean("is_deleted"))
+            .deletedAt(toLocalDateTime(rs.getTimestamp("deleted_at")))
+            .attachmentUrl(rs.getString("attachment_url"))
+            .attachmentType(rs.getString("attachment_type"))
+            .build();
+
+    /**
+     * 채팅방별 (timestamp, messageId) 커서 이후 메시지 (채팅방별 오래된순, 최대 limit 개)
+     */
+    public List<ChatMessage> findMessagesAfterCursors(List<ChatSyncRequest.RoomCursor> cursors, int limit) {
+        if (cursors.isEmpty()) return List.of();
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(MESSAGE_COLUMNS).append(" FROM (VALUES ");
+        List<Object> params = new ArrayList<>(cursors.size() * 3 + 1);
+        for (int i = 0; i < cursors.size(); i++) {
+            if (i > 0) sql.append(", ");
+            sql.append("(CAST(? AS bigint), CAST(? AS timestamp), CAST(? AS varchar))");
+            ChatSyncRequest.RoomCursor cursor = cursors.get(i);
+            params.add(cursor.getChatRoomId());
+            params.add(Timestamp.valueOf(cursor.getCursorTimestamp()));
+            params.add(cursor.getCursorMessageId());
+        }
+        sql.append(") AS c(chat_room_id, cursor_ts, cursor_id) ")
+           .append("CROSS JOIN LATERAL (SELECT cm.* FROM chat_messages cm ")
+           .append("WHERE cm.chat_room_id = c.chat_room_id AND ").append(VISIBLE_MESSAGE_CONDITION)
+           .append("AND (cm.timestamp, cm.message_id) > (c.cursor_ts, c.cursor_id) ")
+           .append("ORDER BY cm.timestamp ASC, cm.message_id ASC LIMIT ?) m ")
+           .append("ORDER BY m.chat_room_id, m.timestamp ASC, m.message_id ASC");
+        params.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), MESSAGE_ROW_MAPPER, params.toArray());
+    }
+
+    /**
+     * 커서가 없는 채팅방의 최신 메시지 (채팅방별 오래된순, 최대 limit 개)
+     */
+    public List<ChatMessage> findLatestMessages(Collection<Long> chatRoomIds, int limit) {
+        if (chatRoomIds.isEmpty()) return List.of();
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(MESSAGE_COLUMNS).append(" FROM (VALUES ");
+        List<Object> params = new ArrayList<>(chatRoomIds.size() + 1);
+        int i = 0;
+        for (Long chatRoomId : chatRoomIds) {
+            if (i++ > 0) sql.append(", ");
+            sql.append("(CAST(? AS bigint))");
+            params.add(chatRoomId);
+        }
+        sql.append(") AS c(chat_room_id) ")
+           .append("CROSS JOIN LATERAL (SELECT cm.* FROM chat_messages cm ")
+           .append("WHERE cm.chat_room_id = c.chat_room_id AND ").append(VISIBLE_MESSAGE_CONDITION)
+           .append("ORDER BY cm.timestamp DESC, cm.message_id DESC LIMIT ?) m ")
+           .append("ORDER BY m.chat_room_id, m.timestamp ASC, m.message_id ASC");
+        params.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), MESSAGE_ROW_MAPPER, params.toArray());
+    }
+
+    /**
+     * since 이후 삭제된 메시지 (최대 limit 개, 삭제 시각순)
+     */
+    public List<ChatSyncResponse.DeletedMessage> findDeletedSince(Collection<Long> chatRoomIds, LocalDateTime since, int limit) {
+        if (chatRoomIds.isEmpty()) return List.of();
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT cm.message_id, cm.chat_room_id, cm.deleted_at FROM chat_messages cm " +
+                "WHERE cm.is_deleted = true AND cm.deleted_at > ? AND cm.chat_room_id IN (");
+        List<Object> params = new ArrayList<>(chatRoomIds.size() + 2);
+        params.add(Timestamp.valueOf(since));
+        int i = 0;
+        for (Long chatRoomId : chatRoomIds) {
+            if (i++ > 0) sql.append(", ");
+            sql.append("?");
+            params.add(chatRoomId);
+        }
+        sql.append(") ORDER BY cm.deleted_at ASC LIMIT ?");
+        params.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> ChatSyncResponse.DeletedMessage.builder()
+                .messageId(rs.getString("message_id"))
+                .chatRoomId(rs.getLong("chat_room_id"))
+                .deletedAt(toLocalDateTime(rs.getTimestamp("deleted_at")))
+                .build(), params.toArray());
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,82 @@
+package wedding.alba.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import wedding.alba.kafka.dto.ChatRoomResponse;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 🚀 채팅방 목록 조회 모델
+ * 참여 채팅방 + 1:1 상대방 이름/프로필 + 마지막 메시지를 쿼리 한 번으로 조회하고
+ * 정렬(lastActiveAt -> lastMessageAt -> createdAt 최신순)도 DB에서 처리한다.
+ * 마지막 메시지는 채팅방별 LATERAL LIMIT 1 (idx_chat_messages_room_keyset 첫 행)
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChatRoomListRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final String ROOM_LIST_SQL =
+            "SELECT cr.chat_room_id, cr.room_name, cr.room_type, cr.creator_user_id, cr.host_user_id, " +
+            "       cr.guest_user_id, cr.posting_id, cr.max_participants, cr.is_public, cr.description, " +
+            "       cr.created_at, cr.last_message_at, cr.last_active_at, " +
+            "       hu.name AS host_name, hp.nickname AS host_nickname, hp.profile_image_url AS host_profile_image, " +
+            "       gu.name AS guest_name, gp.nickname AS guest_nickname, gp.profile_image_url AS guest_profile_image, " +
+            "       lm.content AS last_message, lm.sender_name AS last_message_sender " +
+            "FROM chat_room_participants crp " +
+            "JOIN chat_rooms cr ON cr.chat_room_id = crp.chat_room_id " +
+            "LEFT JOIN users hu ON cr.room_type = 'PERSONAL' AND hu.user_id = cr.host_user_id " +
+            "LEFT JOIN profiles hp ON cr.room_type = 'PERSONAL' AND hp.user_id = cr.host_user_id " +
+            "LEFT JOIN users gu ON cr.room_type = 'PERSONAL' AND gu.user_id = cr.guest_user_id " +
+            "LEFT JOIN profiles gp ON cr.room_type = 'PERSONAL' AND gp.user_id = cr.guest_user_id " +
+            "LEFT JOIN LATERAL (" +
+            "    SELECT cm.content, cm.sender_name FROM chat_messages cm " +
+            "    WHERE cm.chat_room_id = cr.chat_room_id " +
+            "      AND cm.is_deleted = false " +
+            "      AND cm.message_type NOT IN ('TYPING', 'STOP_TYPING') " +
+            "    ORDER BY cm.timestamp DESC, cm.message_id DESC " +
+            "    LIMIT 1) lm ON true " +
+            "WHERE crp.user_id = ? AND crp.is_active = true " +
+            "ORDER BY COALESCE(cr.last_active_at, cr.last_message_at, cr.created_at) DESC, cr.chat_room_id DESC";
+
+    private static final RowMapper<ChatRoomResponse> ROOM_ROW_MAPPER = (rs, rowNum) -> ChatRoomResponse.builder()
+            .chatRoomId(rs.getLong("chat_room_id"))
+            .roomName(rs.getString("room_name"))
+            .type(rs.getString("room_type"))
+            .creatorUserId(rs.getObject("creator_user_id", Long.class))
+            .hostUserId(rs.getObject("host_user_id", Long.class))
+            .guestUserId(rs.getObject("guest_user_id", Long.class))
+            .postingId(rs.getObject("posting_id", Long.class))
+            .hostName(rs.getString("host_name"))
+            .hostNickname(rs.getString("host_nickname"))
+            .hostProfileImage(rs.getString("host_profile_image"))
+            .guestName(rs.getString("guest_name"))
+            .guestNickname(rs.getString("guest_nickname"))
+            .guestProfileImage(rs.getString("guest_profile_image"))
+            .maxParticipants(rs.getObject("max_participants", Integer.class))
+            .isPublic(rs.getObject("is_public", Boolean.class))
+            .description(rs.getString("description"))
+            .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+            .lastMessageAt(toLocalDateTime(rs.getTimestamp("last_message_at")))
+            .lastActiveAt(toLocalDateTime(rs.getTimestamp("last_active_at")))
+            .lastMessage(rs.getString("last_message"))
+            .lastMessageSender(rs.getString("last_message_sender"))
+            .build();
+
+    /**
+     * 사용자가 참여 중인 채팅방 목록 (최근 활동순)
+     */
+    public List<ChatRoomResponse> findRoomListByUserId(Long userId) {
+        return jdbcTemplate.query(ROOM_LIST_SQL, ROOM_ROW_MAPPER, userId);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,308 @@
+package wedding.alba.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import wedding.alba.kafka.dto.ChatMessage;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 🚀 user_inbox 프로젝션 쓰기 전용 저장소
+ * - Consumer 배치: 채팅방별 마지막 메시지/개수를 참여자 행에 INSERT ... ON CONFLICT 한 번으로 반영
+ * - 참여자 변경: 채팅방 단위로 행 생성/삭제 (안읽은 수와 마지막 메시지는 유지)
+ * - 재구축: chat_messages / chat_room_participants 기준으로 전부 다시 계산
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class UserInboxBulkRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private static final int MAX_ROOMS_PER_STATEMENT = 500;
+    private static final int PREVIEW_LENGTH = 200;
+
+    private static final String INSERT_COLUMNS =
+            "INSERT INTO user_inbox (user_id, chat_room_id, room_name, room_type, creator_user_id, host_user_id, " +
+            "guest_user_id, posting_id, room_created_at, host_name, host_nickname, host_profile_image, " +
+            "guest_name, guest_nickname, guest_profile_image, last_message_id, last_message_preview, " +
+            "last_message_sender, last_message_at, last_active_at, unread_count, sort_at, updated_at) ";
+
+    private static final String ROOM_COLUMNS =
+            "crp.user_id, cr.chat_room_id, cr.room_name, cr.room_type, cr.creator_user_id, cr.host_user_id, " +
+            "cr.guest_user_id, cr.posting_id, cr.created_at, hu.name, hp.nickname, hp.profile_image_url, " +
+            "gu.name, gp.nickname, gp.profile_image_url, ";
+
+    private static final String PEER_JOINS =
+            "LEFT JOIN users hu ON cr.room_type = 'PERSONAL' AND hu.user_id = cr.host_user_id " +
+            "LEFT JOIN profiles hp ON cr.room_type = 'PERSONAL' AND hp.user_id = cr.host_user_id " +
+            "LEFT JOIN users gu ON cr.room_type = 'PERSONAL' AND gu.user_id = cr.guest_user_id " +
+            "LEFT JOIN profiles gp ON cr.room_type = 'PERSONAL' AND gp.user_id = cr.guest_user_id ";
+
+    private static final String UPDATE_ROOM_COLUMNS =
+            "room_name = EXCLUDED.room_name, room_type = EXCLUDED.room_type, " +
+            "creator_user_id = EXCLUDED.creator_user_id, host_user_id = EXCLUDED.host_user_id, " +
+            "guest_user_id = EXCLUDED.guest_user_id, posting_id = EXCLUDED.posting_id, " +
+            "room_created_at = EXCLUDED.room_created_at, host_name = EXCLUDED.host_name, " +
+            "host_nickname = EXCLUDED.host_nickname, host_profile_image = EXCLUDED.host_profile_image, " +
+            "guest_name = EXCLUDED.guest_name, guest_nickname = EXCLUDED.guest_nickname, " +
+            "guest_profile_image = EXCLUDED.guest_profile_image, updated_at = EXCLUDED.updated_at";
+
+    // 마지막 메시지는 더 최신일 때만 교체 (레인 간 순서 역전 / 재구축과 동시 반영 대비)
+    private static final String UPDATE_LAST_MESSAGE_IF_NEWER =
+            "last_message_id = CASE WHEN user_inbox.last_message_at IS NULL " +
+            "  OR EXCLUDED.last_message_at >= user_inbox.last_message_at " +
+            "  THEN EXCLUDED.last_message_id ELSE user_inbox.last_message_id END, " +
+            "last_message_preview = CASE WHEN user_inbox.last_message_at IS NULL " +
+            "  OR EXCLUDED.last_message_at >= user_inbox.last_message_at " +
+            "  THEN EXCLUDED.last_message_preview ELSE user_inbox.last_message_preview END, " +
+            "last_message_sender = CASE WHEN user_inbox.last_message_at IS NULL " +
+            "  OR EXCLUDED.last_message_at >= user_inbox.last_message_at " +
+            "  THEN EXCLUDED.last_message_sender ELSE user_inbox.last_message_sender END, " +
+            "last_message_at = GREATEST(user_inbox.last_message_at, EXCLUDED.last_message_at), " +
+            "last_active_at = GREATEST(user_inbox.last_active_at, EXCLUDED.last_active_at), " +
+            "sort_at = GREATEST(user_inbox.sort_at, EXCLUDED.sort_at)";
+
+    // 배치 반영: 안읽은 수는 누적
+    private static final String ON_CONFLICT_APPLY_MESSAGES =
+            "ON CONFLICT (user_id, chat_room_id) DO UPDATE SET " +
+            "unread_count = user_inbox.unread_count + EXCLUDED.unread_count, " +
+            UPDATE_LAST_MESSAGE_IF_NEWER + ", updated_at = EXCLUDED.updated_at";
+
+    // 참여자 변경: 채팅방/상대 정보와 마지막 활동 시각만 갱신
+    private static final String ON_CONFLICT_REFRESH =
+            "ON CONFLICT (user_id, chat_room_id) DO UPDATE SET " + UPDATE_ROOM_COLUMNS + ", " +
+            "last_active_at = GREATEST(user_inbox.last_active_at, EXCLUDED.last_active_at)";
+
+    // 재구축: 스냅샷 계산 중 Consumer 배치가 반영한 증가분을 덮어쓰지 않도록
+    // 안읽은 수는 큰 값, 마지막 메시지는 더 최신일 때만 교체 (재구축과 겹친 읽음 처리는 다음 읽음 때 다시 0이 됨)
+    private static final String ON_CONFLICT_REBUILD =
+            "ON CONFLICT (user_id, chat_room_id) DO UPDATE SET " + UPDATE_ROOM_COLUMNS + ", " +
+            "unread_count = GREATEST(user_inbox.unread_count, EXCLUDED.unread_count), " +
+            UPDATE_LAST_MESSAGE_IF_NEWER;
+
+    /**
+     * 새로 저장된 메시지 배치 반영 (발신자 본인은 안읽은 수 증가 없음)
+     */
+    public void applyMessages(List<ChatMessage> messages) {
+        if (messages == null || messages.isEmpty()) return;
+
+        // 채팅방별 마지막 메시지 / 메시지 수 / 발신자별 메시지 수
+        Map<Long, ChatMessage> lastByRoom = new LinkedHashMap<>();
+        Map<Long, Integer> countByRoom = new HashMap<>();
+        Map<Long, Map<Long, Integer>> sentCountByRoom = new HashMap<>();
+        Comparator<ChatMessage> order = Comparator
+                .comparing(ChatMessage::getTimestamp, Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(ChatMessage::getMessageId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        for (ChatMessage message : messages) {
+            Long chatRoomId = message.getChatRoomId();
+            lastByRoom.merge(chatRoomId, message, (a, b) -> order.compare(a, b) >= 0 ? a : b);
+            countByRoom.merge(chatRoomId, 1, Integer::sum);
+            if (message.getSenderId() != null) {
+                sentCountByRoom.computeIfAbsent(chatRoomId, k -> new HashMap<>())
+                        .merge(message.getSenderId(), 1, Integer::sum);
+            }
+        }
+
+        List<Long> chatRoomIds = new ArrayList<>(lastByRoom.keySet());
+        for (int from = 0; from < chatRoomIds.size(); from += MAX_ROOMS_PER_STATEMENT) {
+            List<Long> chunk = chatRoomIds.subList(from, Math.min(from + MAX_ROOMS_PER_STATEMENT, chatRoomIds.size()));
+            applyMessagesChunk(chunk, lastByRoom, countByRoom, sentCountByRoom);
+        }
+    }
+
+    private void applyMessagesChunk(List<Long> chatRoomIds, Map<Long, ChatMessage> lastByRoom,
+                                    Map<Long, Integer> countByRoom, Map<Long, Map<Long, Integer>> sentCountByRoom) {
+        List<Object> params = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        StringBuilder deltas = new StringBuilder("(VALUES ");
+        for (int i = 0; i < chatRoomIds.size(); i++) {
+            Long chatRoomId = chatRoomIds.get(i);
+            ChatMessage last = lastByRoom.get(chatRoomId);
+            if (i > 0) deltas.append(", ");
+            deltas.append("(CAST(? AS bigint), CAST(? AS varchar), CAST(? AS varchar), CAST(? AS varchar), " +
+                    "CAST(? AS timestamp), CAST(? AS int))");
+            params.add(chatRoomId);
+            params.add(last.getMessageId());
+            params.add(preview(last.getContent()));
+            params.add(last.getSenderName());
+            params.add(Timestamp.valueOf(last.getTimestamp() != null ? last.getTimestamp() : now));
+            params.add(countByRoom.get(chatRoomId));
+        }
+        deltas.append(") AS d(chat_room_id, message_id, preview, sender_name, last_at, message_count)");
+
+        StringBuilder sent = new StringBuilder("(VALUES ");
+        int sentRows = 0;
+        for (Long chatRoomId : chatRoomIds) {
+            for (Map.Entry<Long, Integer> entry : sentCountByRoom.getOrDefault(chatRoomId, Map.of()).entrySet()) {
+                if (sentRows++ > 0) sent.append(", ");
+                sent.append("(CAST(? AS bigint), CAST(? AS bigint), CAST(? AS int))");
+                params.add(chatRoomId);
+                params.add(entry.getKey());
+                params.add(entry.getValue());
+            }
+        }
+        if (sentRows == 0) {
+            sent.append("(CAST(NULL AS bigint), CAST(NULL AS bigint), CAST(0 AS int))");
+        }
+        sent.append(") AS s(chat_room_id, sender_id, sent_count)");
+
+        String sql = INSERT_COLUMNS +
+                "SELECT " + ROOM_COLUMNS +
+                "d.message_id, d.preview, d.sender_name, d.last_at, GREATEST(cr.last_active_at, d.last_at), " +
+                "d.message_count - COALESCE(s.sent_count, 0), GREATEST(d.last_at, cr.created_at), CAST(? AS timestamp) " +
+                "FROM " + deltas +
+                " JOIN chat_rooms cr ON cr.chat_room_id = d.chat_room_id " +
+                "JOIN chat_room_participants crp ON crp.chat_room_id = d.chat_room_id AND crp.is_active = true " +
+                "LEFT JOIN " + sent + " ON s.chat_room_id = d.chat_room_id AND s.sender_id = crp.user_id " +
+                PEER_JOINS +
+                ON_CONFLICT_APPLY_MESSAGES;
+
+        // updated_at 파라미터는 SELECT 목록에 있으므로 VALUES 파라미터보다 앞에 와야 함
+        params.add(0, Timestamp.valueOf(now));
+
+        int rows = jdbcTemplate.update(sql, params.toArray());
+        log.debug("user_inbox 배치 반영: rooms={}, rows={}", chatRoomIds.size(), rows);
+    }
+
+    /**
+     * 채팅방 참여자 변경 반영 (새 참여자 행 생성, 나간 참여자 행 삭제)
+     */
+    public void refreshRooms(Collection<Long> chatRoomIds) {
+        upsertRooms(chatRoomIds, ON_CONFLICT_REFRESH);
+        deleteInactiveParticipants(chatRoomIds);
+    }
+
+    /**
+     * 🚀 프로젝션 전체 재구축 (chat_room_id 순으로 청크 단위 처리)
+     * @return 처리한 채팅방 수
+     */
+    public int rebuildAll() {
+        int processed = 0;
+        long lastChatRoomId = 0;
+
+        while (true) {
+            List<Long> chunk = jdbcTemplate.queryForList(
+                    "SELECT chat_room_id FROM chat_rooms WHERE chat_room_id > ? ORDER BY chat_room_id LIMIT ?",
+                    Long.class, lastChatRoomId, MAX_ROOMS_PER_STATEMENT);
+            if (chunk.isEmpty()) break;
+
+            upsertRooms(chunk, ON_CONFLICT_REBUILD);
+            deleteInactiveParticipants(chunk);
+
+            processed += chunk.size();
+            lastChatRoomId = chunk.get(chunk.size() - 1);
+        }
+
+        // 삭제된 채팅방 정리
+        jdbcTemplate.update("DELETE FROM user_inbox ui WHERE NOT EXISTS " +
+                "(SELECT 1 FROM chat_rooms cr WHERE cr.chat_room_id = ui.chat_room_id)");
+
+        return processed;
+    }
+
+    /**
+     * 채팅방 단위 행 생성/갱신
+     * 안읽은 수는 마지막 읽음(없으면 참여) 시각 이후 다른 사람이 보낸 메시지 수
+     */
+    private void upsertRooms(Collection<Long> chatRoomIds, String onConflict) {
+        if (chatRoomIds.isEmpty()) return;
+
+        List<Object> params = new ArrayList<>(chatRoomIds.size() + 1);
+        params.add(Timestamp.valueOf(LocalDateTime.now()));
+        params.addAll(chatRoomIds);
+
+        String sql = INSERT_COLUMNS +
+                "SELECT " + ROOM_COLUMNS +
+                "lm.message_id, LEFT(COALESCE(lm.content, '[파일]'), " + PREVIEW_LENGTH + "), lm.sender_name, lm.timestamp, " +
+                "COALESCE(cr.last_active_at, lm.timestamp, cr.created_at), " +
+                "(SELECT COUNT(*) FROM chat_messages cm " +
+                "  WHERE cm.chat_room_id = cr.chat_room_id " +
+                "    AND cm.sender_id <> crp.user_id " +
+                "    AND cm.is_deleted = false " +
+                "    AND cm.message_type NOT IN ('TYPING', 'STOP_TYPING') " +
+                "    AND cm.timestamp > COALESCE(crp.last_read_at, crp.joined_at)), " +
+                "GREATEST(lm.timestamp, cr.created_at), CAST(? AS timestamp) " +
+                "FROM chat_room_participants crp " +
+                "JOIN chat_rooms cr ON cr.chat_room_id = crp.chat_room_id " +
+                PEER_JOINS +
+                "LEFT JOIN LATERAL (" +
+                "  SELECT cm.message_id, cm.content, cm.sender_name, cm.timestamp FROM chat_messages cm " +
+                "  WHERE cm.chat_room_id = cr.chat_room_id " +
+                "    AND cm.is_deleted = false " +
+                "    AND cm.message_type NOT IN ('TYPING', 'STOP_TYPING') " +
+                "  ORDER BY cm.timestamp DESC, cm.message_id DESC " +
+                "  LIMIT 1) lm ON true " +
+                "WHERE crp.is_active = true AND crp.chat_room_id IN (" + placeholders(chatRoomIds.size()) + ") " +
+                onConflict;
+
+        jdbcTemplate.update(sql, params.toArray());
+    }
+
+    private void deleteInactiveParticipants(Collection<Long> chatRoomIds) {
+        if (chatRoomIds.isEmpty()) return;
+
+        jdbcTemplate.update("DELETE FROM user_inbox ui " +
+                "WHERE ui.chat_room_id IN (" + placeholders(chatRoomIds.size()) + ") " +
+                "AND NOT EXISTS (SELECT 1 FROM chat_room_participants crp " +
+                "  WHERE crp.chat_room_id = ui.chat_room_id AND crp.user_id = ui.user_id AND crp.is_active = true)",
+                chatRoomIds.toArray());
+    }
+
+    /**
+     * 읽음 처리 (채팅방 하나)
+     */
+    public void resetUnreadCount(Long userId, Long chatRoomId) {
+        jdbcTemplate.update("UPDATE user_inbox SET unread_count = 0, updated_at = ? " +
+                "WHERE user_id = ? AND chat_room_id = ? AND unread_count <> 0",
+                Timestamp.valueOf(LocalDateTime.now()), userId, chatRoomId);
+    }
+
+    /**
+     * 읽음 처리 (사용자 전체)
+     */
+    public void resetAllUnreadCounts(Long userId) {
+        jdbcTemplate.update("UPDATE user_inbox SET unread_count = 0, updated_at = ? " +
+                "WHERE user_id = ? AND unread_count <> 0",
+                Timestamp.valueOf(LocalDateTime.now()), userId);
+    }
+
+    /**
+     * (사용자, 채팅방)별 안읽은 수 - (user_id, chat_room_id) 키셋 페이지 (안읽은 카운트 스트림 초기 적재용)
+     */
+    public List<UnreadRow> findUnreadCountsAfter(long lastUserId, long lastChatRoomId, int limit) {
+        return jdbcTemplate.query("SELECT user_id, chat_room_id, unread_count FROM user_inbox " +
+                "WHERE (user_id, chat_room_id) > (?, ?) ORDER BY user_id, chat_room_id LIMIT ?",
+                (rs, rowNum) -> new UnreadRow(rs.getLong("user_id"), rs.getLong("chat_room_id"), rs.getInt("unread_count")),
+                lastUserId, lastChatRoomId, limit);
+    }
+
+    public record UnreadRow(long userId, long chatRoomId, int unreadCount) {
+    }
+
+    private static String preview(String content) {
+        if (content == null) return "[파일]";
+        return content.length() > PREVIEW_LENGTH ? content.substring(0, PREVIEW_LENGTH) : content;
+    }
+
+    private static String placeholders(int count) {
+        StringBuilder sb = new StringBuilder(count * 3);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append('?');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,16 @@
+package wedding.alba.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import wedding.alba.entity.UserInbox;
+
+import java.util.List;
+
+@Repository
+public interface UserInboxRepository extends JpaRepository<UserInbox, UserInbox.Key> {
+
+    /**
+     * 사용자 채팅 목록 (최근 메시지순, idx_user_inbox_user_sort 범위 스캔)
+     */
+    List<UserInbox> findByUserIdOrderBySortAtDescChatRoomIdDesc(Long userId);
+}
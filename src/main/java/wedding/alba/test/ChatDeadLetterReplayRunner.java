@@ -0,0 +1,39 @@
+package wedding.alba.test;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import wedding.alba.kafka.service.ChatDeadLetterReplayService;
+
+/**
+ * chat-messages.DLT 재주입 도구
+ *
+ * 사용법 (원인 수정 후 실행):
+ *   java -jar app.jar --app.chat.dlt.replay.enabled=true \
+ *        --app.chat.dlt.replay.max-records=1000 --app.chat.dlt.replay.rate-per-second=50
+ * 기동 후 한 번 실행되고, 다시 실행하면 이전에 처리한 위치 다음부터 이어서 재주입
+ */
+@Component
+@ConditionalOnProperty(name = "app.chat.dlt.replay.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ChatDeadLetterReplayRunner implements CommandLineRunner {
+
+    private final ChatDeadLetterReplayService chatDeadLetterReplayService;
+
+    @Value("${app.chat.dlt.replay.max-records:1000}")
+    private int maxRecords;
+
+    @Value("${app.chat.dlt.replay.rate-per-second:50}")
+    private int ratePerSecond;
+
+    @Override
+    public void run(String... args) {
+        log.info("🚀 DLT 재주입 시작: maxRecords={}, ratePerSecond={}", maxRecords, ratePerSecond);
+        ChatDeadLetterReplayService.ReplayResult result = chatDeadLetterReplayService.replay(maxRecords, ratePerSecond);
+        log.info("DLT 재주입 결과: replayed={}, skipped={}", result.replayed(), result.skipped());
+    }
+}
@@ -0,0 +1,140 @@
+package wedding.alba.test;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import wedding.alba.kafka.service.ChatProducer;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 채팅 부하 생성기 - 저장해 둔 트래픽 곡선을 그대로 재생 (ChatConsumerTuner 동작 확인용)
+ *
+ * 사용법:
+ *   java -jar app.jar --app.chat.load-generator.enabled=true \
+ *        --app.chat.load-generator.curve=file:/path/to/curve.csv --app.chat.load-generator.speed=2
+ * 곡선 파일: "elapsed_seconds,messages_per_second" 한 줄에 한 점 (# 주석), 점 사이는 선형 보간
+ * 채팅방은 1 ~ rooms 중에서 번호가 작은 방에 몰리도록 선택 (skew 가 클수록 쏠림)
+ * 메트릭: chat.consumer.lag, chat.consumer.adaptive.* 로 조정 결과 확인
+ */
+@Component
+@ConditionalOnProperty(name = "app.chat.load-generator.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ChatLoadGeneratorRunner implements CommandLineRunner {
+
+    private final ChatProducer chatProducer;
+
+    @Value("${app.chat.load-generator.curve:classpath:load/chat-traffic-curve.csv}")
+    private Resource curve;
+
+    @Value("${app.chat.load-generator.speed:1.0}")
+    private double speed;
+
+    @Value("${app.chat.load-generator.rate-multiplier:1.0}")
+    private double rateMultiplier;
+
+    @Value("${app.chat.load-generator.rooms:10}")
+    private int rooms;
+
+    @Value("${app.chat.load-generator.skew:2.0}")
+    private double skew;
+
+    @Value("${app.chat.load-generator.sender-id:1}")
+    private long senderId;
+
+    private static final long TICK_MS = 100;
+
+    @Override
+    public void run(String... args) throws Exception {
+        List<double[]> points = loadCurve();
+        if (points.size() < 2) {
+            log.error("트래픽 곡선에 점이 2개 이상 필요: {}", curve);
+            return;
+        }
+
+        double duration = points.get(points.size() - 1)[0];
+        log.info("🚀 채팅 부하 생성 시작: curve={}, points={}, duration={}s, speed={}, rooms={}",
+                curve, points.size(), duration, speed, rooms);
+
+        AtomicLong failed = new AtomicLong();
+        long sent = 0;
+        double owed = 0;
+        long lastReportedSecond = -1;
+        long startedAt = System.nanoTime();
+        long lastTickAt = startedAt;
+
+        while (true) {
+            long now = System.nanoTime();
+            double elapsed = (now - startedAt) / 1e9 * speed;
+            if (elapsed > duration) break;
+
+            // 배속을 올려도 곡선의 총 메시지 수는 유지
+            double rate = rateAt(points, elapsed) * rateMultiplier;
+            owed += rate * (now - lastTickAt) / 1e9 * speed;
+            lastTickAt = now;
+
+            for (; owed >= 1; owed--) {
+                long chatRoomId = 1 + (long) Math.floor(rooms * Math.pow(ThreadLocalRandom.current().nextDouble(), skew));
+                chatProducer.sendTextMessage(chatRoomId, senderId, "부하테스트", "load-" + sent)
+                        .whenComplete((result, ex) -> {
+                            if (ex != null) failed.incrementAndGet();
+                        });
+                sent++;
+            }
+
+            long second = (long) elapsed;
+            if (second / 10 != lastReportedSecond / 10) {
+                log.info("부하 생성 진행: t={}s, rate={}/s, sent={}, failed={}", second, Math.round(rate), sent, failed.get());
+                lastReportedSecond = second;
+            }
+
+            TimeUnit.MILLISECONDS.sleep(TICK_MS);
+        }
+
+        log.info("채팅 부하 생성 완료: sent={}, failed={}", sent, failed.get());
+    }
+
+    private List<double[]> loadCurve() throws Exception {
+        List<double[]> points = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(curve.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+
+                String[] columns = line.split(",");
+                points.add(new double[]{Double.parseDouble(columns[0].trim()), Double.parseDouble(columns[1].trim())});
+            }
+        }
+        points.sort((a, b) -> Double.compare(a[0], b[0]));
+        return points;
+    }
+
+    /**
+     * elapsed 초의 초당 메시지 수 (선형 보간)
+     */
+    private static double rateAt(List<double[]> points, double elapsed) {
+        for (int i = 1; i < points.size(); i++) {
+            double[] to = points.get(i);
+            if (elapsed <= to[0]) {
+                double[] from = points.get(i - 1);
+                double span = to[0] - from[0];
+                double ratio = span > 0 ? (elapsed - from[0]) / span : 1;
+                return from[1] + (to[1] - from[1]) * ratio;
+            }
+        }
+        return points.get(points.size() - 1)[1];
+    }
+}
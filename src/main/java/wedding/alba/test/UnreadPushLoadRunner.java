@@ -0,0 +1,82 @@
+package wedding.alba.test;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import wedding.alba.kafka.service.ChatProducer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 안읽은 카운트 전송량 측정 - 한 채팅방에 메시지를 일정 속도로 보내고 메시지 수 대비 WebSocket 전송 수 비교
+ *
+ * 사용법 (참여자 50명인 채팅방, 측정할 참여자는 WebSocket 연결해 둔 상태로):
+ *   java -jar app.jar --app.chat.unread.push.load-test.enabled=true \
+ *        --app.chat.unread.push.load-test.chat-room-id=100 --app.chat.unread.push.load-test.messages-per-second=20
+ * 디바운스 전이라면 메시지당 (참여자 - 1) 건이 전송됨 -> chat.unread.push.events 와 같음
+ */
+@Component
+@ConditionalOnProperty(name = "app.chat.unread.push.load-test.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class UnreadPushLoadRunner implements CommandLineRunner {
+
+    private final ChatProducer chatProducer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.chat.unread.push.load-test.chat-room-id:1}")
+    private long chatRoomId;
+
+    @Value("${app.chat.unread.push.load-test.sender-id:1}")
+    private long senderId;
+
+    @Value("${app.chat.unread.push.load-test.messages-per-second:20}")
+    private int messagesPerSecond;
+
+    @Value("${app.chat.unread.push.load-test.duration-seconds:30}")
+    private int durationSeconds;
+
+    @Value("${app.chat.unread.push.debounce-ms:500}")
+    private long debounceMs;
+
+    @Override
+    public void run(String... args) throws Exception {
+        double eventsBefore = count("chat.unread.push.events");
+        double sentBefore = count("chat.unread.push.sent");
+        double skippedBefore = count("chat.unread.push.skipped");
+
+        log.info("🚀 안읽은 카운트 전송량 측정 시작: chatRoomId={}, rate={}/s, duration={}s, debounce={}ms",
+                chatRoomId, messagesPerSecond, durationSeconds, debounceMs);
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, messagesPerSecond);
+        long total = (long) messagesPerSecond * durationSeconds;
+        long nextSendAt = System.nanoTime();
+        for (long sent = 0; sent < total; sent++) {
+            long waitNanos = nextSendAt - System.nanoTime();
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+            nextSendAt += intervalNanos;
+            chatProducer.sendTextMessage(chatRoomId, senderId, "부하테스트", "unread-push-" + sent);
+        }
+
+        // 컨슈머 처리 + 마지막 디바운스 구간까지 대기
+        TimeUnit.MILLISECONDS.sleep(Math.max(5000, debounceMs * 4));
+
+        double events = count("chat.unread.push.events") - eventsBefore;
+        double pushed = count("chat.unread.push.sent") - sentBefore;
+        double skipped = count("chat.unread.push.skipped") - skippedBefore;
+        log.info("안읽은 카운트 전송량 측정 완료: messages={}, events={}, pushed={}, skippedOffline={}, pushesPerMessage={}",
+                total, (long) events, (long) pushed, (long) skipped, String.format("%.2f", total > 0 ? pushed / total : 0));
+    }
+
+    private double count(String name) {
+        Counter counter = meterRegistry.find(name).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
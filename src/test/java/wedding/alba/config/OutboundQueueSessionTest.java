@@ -0,0 +1,145 @@
+package wedding.alba.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboundQueueSessionTest {
+
+    private WebSocketSession delegate;
+    private WebSocketOutboundStage stage;
+    private final List<Runnable> drainTasks = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(WebSocketSession.class);
+        when(delegate.getId()).thenReturn("session-1");
+        stage = mock(WebSocketOutboundStage.class);
+        doAnswer(invocation -> drainTasks.add(invocation.getArgument(0))).when(stage).execute(any());
+    }
+
+    @Test
+    void classifiesFramesByDestinationHeader() {
+        OutboundQueueSession.Outbound chat = OutboundQueueSession.classify(frame("/topic/chat/7", "{\"content\":\"hi\"}"));
+        assertThat(chat.destination()).isEqualTo("/topic/chat/7");
+        assertThat(chat.subscription()).isEqualTo("sub-0");
+        assertThat(chat.conflationKey()).isNull();
+
+        OutboundQueueSession.Outbound typing = OutboundQueueSession.classify(frame("/topic/typing/7", "{\"senderId\":42,\"type\":\"TYPING\"}"));
+        assertThat(typing.conflationKey()).isEqualTo("/topic/typing/7|42");
+
+        OutboundQueueSession.Outbound unread = OutboundQueueSession.classify(frame("/user/queue/unread", "{\"totalUnreadCount\":3}"));
+        assertThat(unread.conflationKey()).isEqualTo("/user/queue/unread");
+
+        OutboundQueueSession.Outbound connected = OutboundQueueSession.classify(new TextMessage("CONNECTED\nversion:1.2\n\n\u0000"));
+        assertThat(connected.destination()).isNull();
+        assertThat(connected.conflationKey()).isNull();
+
+        assertThat(OutboundQueueSession.classify(new PingMessage()).destination()).isNull();
+    }
+
+    @Test
+    void typingFramesAreConflatedPerSender() throws Exception {
+        OutboundQueueSession session = new OutboundQueueSession(delegate, stage, 10, 1024);
+
+        session.sendMessage(frame("/topic/typing/7", "{\"senderId\":1,\"type\":\"TYPING\"}"));
+        session.sendMessage(frame("/topic/typing/7", "{\"senderId\":1,\"type\":\"STOP_TYPING\"}"));
+        session.sendMessage(frame("/topic/typing/7", "{\"senderId\":2,\"type\":\"TYPING\"}"));
+        drainAll();
+
+        List<String> sent = sentPayloads(2);
+        assertThat(sent.get(0)).contains("\"senderId\":1,\"type\":\"STOP_TYPING\"");
+        assertThat(sent.get(1)).contains("\"senderId\":2");
+        verify(stage).recordTypingConflated();
+    }
+
+    @Test
+    void chatOverflowDropsQueuedMessagesAndSendsResyncFirst() throws Exception {
+        OutboundQueueSession session = new OutboundQueueSession(delegate, stage, 2, 1024);
+
+        session.sendMessage(frame("/topic/chat/7", "{\"n\":1}"));
+        session.sendMessage(frame("/topic/chat/7", "{\"n\":2}"));
+        session.sendMessage(frame("/topic/chat/7", "{\"n\":3}"));
+        drainAll();
+
+        verify(stage).recordDropped(3);
+        List<String> sent = sentPayloads(1);
+        assertThat(sent.get(0)).contains("RESYNC_REQUIRED").contains("destination:/topic/chat/7").contains("subscription:sub-0");
+    }
+
+    @Test
+    void controlFrameOverflowClosesSessionInsteadOfQueueing() throws Exception {
+        OutboundQueueSession session = new OutboundQueueSession(delegate, stage, 10, 32);
+
+        session.sendMessage(new TextMessage("RECEIPT\nreceipt-id:1\n\n\u0000"));
+        session.sendMessage(new TextMessage("RECEIPT\nreceipt-id:2\n\n\u0000"));
+
+        verify(delegate).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertThat(session.getQueueDepth()).isZero();
+    }
+
+    @Test
+    void sendInProgressIsReportedOverdueOnlyWhileSending() throws Exception {
+        OutboundQueueSession session = new OutboundQueueSession(delegate, stage, 10, 1024);
+        long limitNanos = TimeUnit.SECONDS.toNanos(20);
+        AtomicBoolean overdueDuringSend = new AtomicBoolean();
+        doAnswer(invocation -> {
+            overdueDuringSend.set(session.isSendOverdue(System.nanoTime() + limitNanos * 2, limitNanos));
+            return null;
+        }).when(delegate).sendMessage(any());
+
+        session.sendMessage(frame("/topic/chat/7", "{\"n\":1}"));
+        drainAll();
+
+        assertThat(overdueDuringSend).isTrue();
+        assertThat(session.isSendOverdue(System.nanoTime() + limitNanos * 2, limitNanos)).isFalse();
+    }
+
+    @Test
+    void closedSessionDropsEverything() throws Exception {
+        OutboundQueueSession session = new OutboundQueueSession(delegate, stage, 10, 1024);
+        session.closeUnreliable();
+
+        session.sendMessage(frame("/topic/chat/7", "{\"n\":1}"));
+        drainAll();
+
+        verify(delegate, never()).sendMessage(any());
+        verify(stage, never()).recordQueueDepth(anyInt());
+    }
+
+    private void drainAll() {
+        while (!drainTasks.isEmpty()) {
+            drainTasks.remove(0).run();
+        }
+    }
+
+    private List<String> sentPayloads(int expected) throws Exception {
+        ArgumentCaptor<WebSocketMessage<?>> captor = ArgumentCaptor.forClass(WebSocketMessage.class);
+        verify(delegate, times(expected)).sendMessage(captor.capture());
+        return captor.getAllValues().stream().map(message -> ((TextMessage) message).getPayload()).toList();
+    }
+
+    private static TextMessage frame(String destination, String body) {
+        return new TextMessage("MESSAGE\ndestination:" + destination + "\nsubscription:sub-0\nmessage-id:m-1\n\n" + body + "\u0000");
+    }
+}
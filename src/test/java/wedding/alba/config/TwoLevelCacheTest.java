@@ -0,0 +1,83 @@
+package wedding.alba.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TwoLevelCacheTest {
+
+    private static final String NAME = "lastMessage";
+
+    private RedisTemplate<String, Object> redisTemplate;
+    private TwoLevelCacheManager cacheManager;
+    private TwoLevelCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        cacheManager = mock(TwoLevelCacheManager.class);
+        cache = new TwoLevelCache(NAME, Caffeine.newBuilder().maximumSize(100).build(), redisTemplate,
+                Duration.ofMinutes(10), cacheManager, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void fillAfterMissDoesNotBroadcast() {
+        // GETSET 결과 null = L2에 이전 값 없음
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(pipelineResult(null, true));
+
+        cache.put(1L, "first");
+
+        assertThat(cache.get(1L).get()).isEqualTo("first");
+        verify(cacheManager, never()).publishInvalidation(anyString(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void overwritingExistingValueBroadcastsInvalidation() {
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(pipelineResult("first", true));
+
+        cache.put(1L, "second");
+
+        verify(cacheManager).publishInvalidation(NAME, "1");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void redisFailureDuringPutStillBroadcasts() {
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenThrow(new IllegalStateException("down"));
+
+        cache.put(1L, "second");
+
+        verify(cacheManager).publishInvalidation(NAME, "1");
+    }
+
+    @Test
+    void evictAlwaysBroadcasts() {
+        cache.evict(1L);
+
+        verify(redisTemplate).delete("cache:" + NAME + "::1");
+        verify(cacheManager).publishInvalidation(NAME, "1");
+    }
+
+    private static List<Object> pipelineResult(Object... results) {
+        return new ArrayList<>(Arrays.asList(results));
+    }
+}
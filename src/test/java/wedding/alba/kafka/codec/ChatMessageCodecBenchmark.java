@@ -0,0 +1,102 @@
+package wedding.alba.kafka.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import wedding.alba.kafka.dto.ChatMessage;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * chat-messages 코덱 JMH 비교 (JSON vs 바이너리): 인코딩/디코딩 시간, 할당량(-prof gc)
+ *
+ * 실행: ./gradlew codecBenchmark
+ * 메시지 크기는 실행 시작 시 함께 출력
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChatMessageCodecBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ChatMessage message;
+    private byte[] json;
+    private byte[] binary;
+
+    static ObjectMapper newObjectMapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * 평일 저녁 단체 채팅방의 일반 텍스트 메시지와 비슷한 크기
+     */
+    static ChatMessage sampleMessage() {
+        return ChatMessage.builder()
+                .messageId("0190a3b2-7c4d-7e8f-9a0b-1c2d3e4f5a6b")
+                .chatRoomId(18234L)
+                .senderId(502311L)
+                .senderName("김하객")
+                .senderProfileImage("https://cdn.alba.wedding/profile/502311.jpg")
+                .content("내일 본식 리허설 2시 맞죠? 주차는 지하 2층으로 하면 된대요!")
+                .type(ChatMessage.MessageType.CHAT)
+                .timestamp(LocalDateTime.of(2024, 5, 18, 19, 30, 15))
+                .build();
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = newObjectMapper();
+        message = sampleMessage();
+        json = objectMapper.writeValueAsBytes(message);
+        binary = ChatMessageCodec.encode(message);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() throws Exception {
+        return objectMapper.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public byte[] encodeBinary() {
+        return ChatMessageCodec.encode(message);
+    }
+
+    @Benchmark
+    public ChatMessage decodeJson() throws Exception {
+        return objectMapper.readValue(json, ChatMessage.class);
+    }
+
+    @Benchmark
+    public ChatMessage decodeBinary() {
+        return ChatMessageCodec.decode(binary);
+    }
+
+    public static void main(String[] args) throws Exception {
+        ChatMessageCodecBenchmark sizes = new ChatMessageCodecBenchmark();
+        sizes.setUp();
+        System.out.printf("메시지 크기: json=%dB, binary=%dB%n", sizes.json.length, sizes.binary.length);
+
+        new Runner(new OptionsBuilder()
+                .include(ChatMessageCodecBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
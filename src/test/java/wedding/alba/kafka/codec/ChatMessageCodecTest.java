@@ -0,0 +1,126 @@
+package wedding.alba.kafka.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+import wedding.alba.kafka.dto.ChatMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChatMessageCodecTest {
+
+    private final ChatMessageSerializer serializer = new ChatMessageSerializer();
+    private final ChatMessageDeserializer deserializer = new ChatMessageDeserializer();
+
+    @Test
+    void roundTripKeepsAllFields() {
+        ChatMessage message = ChatMessage.builder()
+                .messageId("0190a3b2-7c4d-7e8f-9a0b-1c2d3e4f5a6b")
+                .chatRoomId(1234L)
+                .senderId(98765L)
+                .senderName("신부")
+                .senderProfileImage("https://cdn.example.com/p/1.jpg")
+                .content("안녕하세요 🎉 드레스 투어 몇 시에 만날까요?")
+                .type(ChatMessage.MessageType.MENTION)
+                .timestamp(LocalDateTime.of(2024, 5, 18, 19, 30, 15))
+                .mentionUserId(42L)
+                .isSystemMessage(true)
+                .attachmentUrl("https://cdn.example.com/f/a.png")
+                .attachmentType("image/png")
+                .build();
+
+        ChatMessage decoded = deserializer.deserialize("chat-messages", serializer.serialize("chat-messages", message));
+
+        assertThat(decoded).isEqualTo(message);
+    }
+
+    @Test
+    void nullIdsStayNull() {
+        ChatMessage message = ChatMessage.builder()
+                .content("헬스체크")
+                .type(ChatMessage.MessageType.SYSTEM)
+                .build();
+
+        ChatMessage decoded = ChatMessageCodec.decode(ChatMessageCodec.encode(message));
+
+        assertThat(decoded.getChatRoomId()).isNull();
+        assertThat(decoded.getSenderId()).isNull();
+        assertThat(decoded.getMentionUserId()).isNull();
+        assertThat(decoded.getTimestamp()).isNull();
+        assertThat(decoded.getMessageId()).isNull();
+        assertThat(decoded).isEqualTo(message);
+    }
+
+    @Test
+    void zeroAndNegativeIdsAreNotConfusedWithNull() {
+        ChatMessage message = ChatMessage.builder()
+                .chatRoomId(0L)
+                .senderId(-1L)
+                .type(ChatMessage.MessageType.CHAT)
+                .build();
+
+        ChatMessage decoded = ChatMessageCodec.decode(ChatMessageCodec.encode(message));
+
+        assertThat(decoded.getChatRoomId()).isZero();
+        assertThat(decoded.getSenderId()).isEqualTo(-1L);
+    }
+
+    @Test
+    void nonCanonicalMessageIdIsKeptAsString() {
+        ChatMessage message = ChatMessage.builder()
+                .messageId("0190A3B2-7C4D-7E8F-9A0B-1C2D3E4F5A6B")
+                .chatRoomId(1L)
+                .build();
+
+        assertThat(ChatMessageCodec.decode(ChatMessageCodec.encode(message)).getMessageId())
+                .isEqualTo("0190A3B2-7C4D-7E8F-9A0B-1C2D3E4F5A6B");
+    }
+
+    @Test
+    void decodesVersion1Records() {
+        // [v1][flags=0][chatRoomId=5][senderId=7][type=CHAT][messageId=null][문자열 5개 null]
+        byte[] v1 = {1, 0, 10, 14, 1, 0, 0, 0, 0, 0, 0};
+
+        ChatMessage decoded = ChatMessageCodec.decode(v1);
+
+        assertThat(decoded.getChatRoomId()).isEqualTo(5L);
+        assertThat(decoded.getSenderId()).isEqualTo(7L);
+        assertThat(decoded.getType()).isEqualTo(ChatMessage.MessageType.CHAT);
+    }
+
+    @Test
+    void readsJsonRecordsPublishedBeforeBinaryFormat() {
+        String json = "{\"messageId\":\"m-1\",\"chatRoomId\":3,\"senderId\":9,\"content\":\"hi\"," +
+                "\"type\":\"CHAT\",\"timestamp\":\"2024-05-18 19:30:15\",\"unknownField\":true}";
+
+        ChatMessage decoded = deserializer.deserialize("chat-messages", json.getBytes(StandardCharsets.UTF_8));
+
+        assertThat(decoded.getMessageId()).isEqualTo("m-1");
+        assertThat(decoded.getChatRoomId()).isEqualTo(3L);
+        assertThat(decoded.getTimestamp()).isEqualTo(LocalDateTime.of(2024, 5, 18, 19, 30, 15));
+    }
+
+    @Test
+    void binaryIsSmallerThanJson() throws Exception {
+        ChatMessage message = ChatMessageCodecBenchmark.sampleMessage();
+
+        byte[] binary = ChatMessageCodec.encode(message);
+        byte[] json = ChatMessageCodecBenchmark.newObjectMapper().writeValueAsBytes(message);
+
+        assertThat(binary.length).isLessThan(json.length / 2);
+    }
+
+    @Test
+    void rejectsUnknownVersionAndTruncatedData() {
+        assertThatThrownBy(() -> ChatMessageCodec.decode(new byte[]{9, 0}))
+                .isInstanceOf(SerializationException.class);
+
+        byte[] encoded = ChatMessageCodec.encode(ChatMessageCodecBenchmark.sampleMessage());
+        assertThatThrownBy(() -> ChatMessageCodec.decode(Arrays.copyOf(encoded, encoded.length - 3)))
+                .isInstanceOf(SerializationException.class);
+    }
+}
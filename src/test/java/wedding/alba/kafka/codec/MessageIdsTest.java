@@ -0,0 +1,69 @@
+package wedding.alba.kafka.codec;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageIdsTest {
+
+    @Test
+    void idsSortInGenerationOrder() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            ids.add(MessageIds.newId());
+        }
+
+        assertThat(ids).isSortedAccordingTo(String::compareTo);
+        assertThat(ids).doesNotHaveDuplicates();
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(MessageIds.compare(ids.get(i - 1), ids.get(i))).isNegative();
+        }
+    }
+
+    @Test
+    void orderHoldsWhenClockGoesBackOrCounterOverflows() {
+        // 마지막 시각을 현재보다 앞에 두고 카운터를 끝까지 채움 (시계 역행 + 카운터 넘침)
+        long ahead = System.currentTimeMillis() + 50;
+        ReflectionTestUtils.setField(MessageIds.class, "lastMillis", ahead);
+        ReflectionTestUtils.setField(MessageIds.class, "counter", 0xFFE);
+
+        String first = MessageIds.newId();
+        String second = MessageIds.newId();
+        String third = MessageIds.newId();
+
+        assertThat(first).isLessThan(second);
+        assertThat(second).isLessThan(third);
+        assertThat(UUID.fromString(second).getMostSignificantBits() >>> 16).isEqualTo(ahead + 1);
+    }
+
+    @Test
+    void isVersion7WithRfcVariantAndCarriesCreationTime() {
+        LocalDateTime before = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        String id = MessageIds.newId();
+        LocalDateTime after = LocalDateTime.now();
+
+        UUID uuid = UUID.fromString(id);
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(id).isLowerCase().hasSize(36);
+        assertThat(MessageIds.isTimeOrdered(id)).isTrue();
+        assertThat(MessageIds.timestampOf(id)).isBetween(before, after.plus(100, ChronoUnit.MILLIS));
+    }
+
+    @Test
+    void legacyRandomIdsAreNotComparable() {
+        String legacy = UUID.randomUUID().toString();
+        String ordered = MessageIds.newId();
+
+        assertThat(MessageIds.isTimeOrdered(legacy)).isFalse();
+        assertThat(MessageIds.isTimeOrdered("room-1-001")).isFalse();
+        assertThat(MessageIds.compare(legacy, ordered)).isZero();
+    }
+}
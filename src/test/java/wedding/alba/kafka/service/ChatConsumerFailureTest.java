@@ -0,0 +1,49 @@
+package wedding.alba.kafka.service;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.convert.ConversionFailedException;
+import org.springframework.core.convert.TypeDescriptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatConsumerFailureTest {
+
+    @Test
+    void connectionAndTimeoutFailuresAreTransientEvenWhenWrapped() {
+        // Hikari 커넥션 대기 타임아웃 -> Spring 변환 -> ChatMessageService 에서 RuntimeException 으로 감쌈
+        SQLTransientConnectionException hikariTimeout =
+                new SQLTransientConnectionException("HikariPool-1 - Connection is not available, request timed out after 20000ms.");
+        assertThat(ChatConsumer.isTransientFailure(
+                new RuntimeException("채팅 메시지 대량 저장에 실패했습니다.",
+                        new CannotGetJdbcConnectionException("Failed to obtain JDBC Connection", hikariTimeout)))).isTrue();
+        assertThat(ChatConsumer.isTransientFailure(
+                new CannotCreateTransactionException("Could not open JPA EntityManager for transaction"))).isTrue();
+        assertThat(ChatConsumer.isTransientFailure(new QueryTimeoutException("canceling statement due to statement timeout"))).isTrue();
+        assertThat(ChatConsumer.isTransientFailure(
+                new RuntimeException(new SQLException("An I/O error occurred while sending to the backend.", "08006")))).isTrue();
+        assertThat(ChatConsumer.isTransientFailure(
+                new RuntimeException(new SQLException("deadlock detected", "40P01")))).isTrue();
+    }
+
+    @Test
+    void dataErrorsAreNotTransient() {
+        SQLException uniqueViolation = new SQLException("duplicate key value violates unique constraint", "23505");
+        assertThat(ChatConsumer.isTransientFailure(new RuntimeException("채팅 메시지 대량 저장에 실패했습니다.",
+                new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("could not execute statement", uniqueViolation, "chat_messages_pkey"))))).isFalse();
+        assertThat(ChatConsumer.isTransientFailure(new ConversionFailedException(
+                TypeDescriptor.valueOf(String.class), TypeDescriptor.valueOf(Long.class), "abc",
+                new NumberFormatException("abc")))).isFalse();
+        assertThat(ChatConsumer.isTransientFailure(
+                new RuntimeException(new SQLException("value too long for type character varying(36)", "22001")))).isFalse();
+        assertThat(ChatConsumer.isTransientFailure(new NullPointerException())).isFalse();
+    }
+}
@@ -0,0 +1,38 @@
+package wedding.alba.kafka.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatConsumerTunerTest {
+
+    private ChatConsumerTuner tuner;
+
+    @BeforeEach
+    void setUp() {
+        tuner = new ChatConsumerTuner(null, null, null, null);
+        ReflectionTestUtils.setField(tuner, "minConcurrency", 1);
+        ReflectionTestUtils.setField(tuner, "maxConcurrency", 12);
+    }
+
+    @Test
+    void groupTargetIsSharedAcrossNodes() {
+        // 노드 3대 x 동시성 2 -> 그룹 12 목표, 파티션 12 -> 노드당 4
+        assertThat(tuner.perNodeConcurrency(12, 3, 12)).isEqualTo(4);
+    }
+
+    @Test
+    void neverExceedsPartitionShare() {
+        // 파티션이 6개뿐이면 노드 3대 기준 노드당 2 이상은 유휴 컨슈머
+        assertThat(tuner.perNodeConcurrency(12, 3, 6)).isEqualTo(2);
+        assertThat(tuner.perNodeConcurrency(24, 1, 6)).isEqualTo(6);
+    }
+
+    @Test
+    void scaleDownKeepsMinimum() {
+        assertThat(tuner.perNodeConcurrency(1, 4, 12)).isEqualTo(1);
+        assertThat(tuner.perNodeConcurrency(0, 0, 12)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,195 @@
+package wedding.alba.kafka.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 두 노드(A, B)를 같은 프로세스에 띄우고 Redis Pub/Sub 만 흉내 내서 fan-out 확인
+ */
+class ChatFanoutServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Node nodeA;
+    private Node nodeB;
+
+    // A 가 발행한 (채널, 메시지)
+    private final List<byte[][]> published = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new Node("redis");
+        nodeB = new Node("redis");
+    }
+
+    @Test
+    void localModeSendsThroughMessagingTemplateOnly() {
+        Node local = new Node("local");
+
+        local.service.convertAndSend("/topic/chat/1", Map.of("content", "hi"));
+
+        assertThat(local.sent).hasSize(1);
+        assertThat(destinationOf(local.sent.get(0))).isEqualTo("/topic/chat/1");
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void roomMessagePublishedOnRoomChannelAndDeliveredOnSubscribedNode() throws Exception {
+        nodeB.service.handleSubscribe(subscribe("s1", "sub-1", "/topic/chat/7"));
+        MessageListener listenerB = nodeB.listenerFor("ws:room:7");
+
+        nodeA.service.convertAndSend("/topic/chat/7", Map.of("content", "안녕"));
+
+        assertThat(published).hasSize(1);
+        assertThat(new String(published.get(0)[0], StandardCharsets.UTF_8)).isEqualTo("ws:room:7");
+
+        listenerB.onMessage(new DefaultMessage(published.get(0)[0], published.get(0)[1]), null);
+
+        assertThat(nodeB.sent).hasSize(1);
+        Message<?> delivered = nodeB.sent.get(0);
+        assertThat(destinationOf(delivered)).isEqualTo("/topic/chat/7");
+        // JSON 을 재직렬화 없이 그대로 전달
+        assertThat((byte[]) delivered.getPayload()).isEqualTo(objectMapper.writeValueAsBytes(Map.of("content", "안녕")));
+    }
+
+    @Test
+    void nonRoomDestinationUsesBroadcastChannel() {
+        nodeA.service.convertAndSend("/topic/notice", "공지");
+
+        assertThat(new String(published.get(0)[0], StandardCharsets.UTF_8)).isEqualTo("ws:broadcast");
+    }
+
+    @Test
+    void userMessageIsResolvedToUserDestinationOnReceivingNode() {
+        MessageListener listenerB = nodeB.listenerFor("ws:user");
+
+        nodeA.service.convertAndSendToUser("42", "/queue/unread", Map.of("total", 3));
+        assertThat(new String(published.get(0)[0], StandardCharsets.UTF_8)).isEqualTo("ws:user");
+
+        listenerB.onMessage(new DefaultMessage(published.get(0)[0], published.get(0)[1]), null);
+
+        assertThat(destinationOf(nodeB.sent.get(0))).isEqualTo("/user/42/queue/unread");
+    }
+
+    @Test
+    void roomChannelSubscribedOnFirstLocalSubscriberAndReleasedOnLast() {
+        nodeB.service.handleSubscribe(subscribe("s1", "sub-1", "/topic/chat/7"));
+        nodeB.service.handleSubscribe(subscribe("s2", "sub-1", "/topic/typing/7"));
+
+        verify(nodeB.container, times(1)).addMessageListener(any(MessageListener.class), eq(new ChannelTopic("ws:room:7")));
+
+        nodeB.service.handleUnsubscribe(unsubscribe("s1", "sub-1"));
+        verify(nodeB.container, never()).removeMessageListener(any(MessageListener.class), eq(new ChannelTopic("ws:room:7")));
+
+        nodeB.service.handleDisconnect(new SessionDisconnectEvent(this, disconnectMessage("s2"), "s2", CloseStatus.NORMAL));
+        verify(nodeB.container).removeMessageListener(any(MessageListener.class), eq(new ChannelTopic("ws:room:7")));
+    }
+
+    @Test
+    void malformedEnvelopeIsIgnored() {
+        MessageListener listenerB = nodeB.listenerFor("ws:broadcast");
+
+        listenerB.onMessage(new DefaultMessage("ws:broadcast".getBytes(StandardCharsets.UTF_8),
+                "garbage".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(nodeB.sent).isEmpty();
+    }
+
+    /**
+     * 노드 하나 (실제 SimpMessagingTemplate + 목 채널, 목 Redis)
+     */
+    private class Node {
+        final RedisMessageListenerContainer container = mock(RedisMessageListenerContainer.class);
+        final List<Message<?>> sent = new ArrayList<>();
+        final ChatFanoutService service;
+
+        @SuppressWarnings("unchecked")
+        Node(String mode) {
+            MessageChannel channel = mock(MessageChannel.class);
+            when(channel.send(any())).thenAnswer(invocation -> sent.add(invocation.getArgument(0)));
+            when(channel.send(any(), anyLong())).thenAnswer(invocation -> sent.add(invocation.getArgument(0)));
+
+            RedisConnection connection = mock(RedisConnection.class);
+            when(connection.publish(any(byte[].class), any(byte[].class))).thenAnswer(invocation -> {
+                published.add(new byte[][]{invocation.getArgument(0), invocation.getArgument(1)});
+                return 1L;
+            });
+            RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+            when(redisTemplate.execute(any(RedisCallback.class)))
+                    .thenAnswer(invocation -> ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection));
+
+            service = new ChatFanoutService(new SimpMessagingTemplate(channel), redisTemplate, container,
+                    objectMapper, new SimpleMeterRegistry());
+            ReflectionTestUtils.setField(service, "mode", mode);
+            service.init();
+        }
+
+        MessageListener listenerFor(String channel) {
+            ArgumentCaptor<MessageListener> captor = ArgumentCaptor.forClass(MessageListener.class);
+            verify(container).addMessageListener(captor.capture(), eq(new ChannelTopic(channel)));
+            return captor.getValue();
+        }
+    }
+
+    private static String destinationOf(Message<?> message) {
+        return SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+    }
+
+    private SessionSubscribeEvent subscribe(String sessionId, String subscriptionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return new SessionSubscribeEvent(this, MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+    }
+
+    private SessionUnsubscribeEvent unsubscribe(String sessionId, String subscriptionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.UNSUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        return new SessionUnsubscribeEvent(this, MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+    }
+
+    private Message<byte[]> disconnectMessage(String sessionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.DISCONNECT);
+        accessor.setSessionId(sessionId);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,124 @@
+package wedding.alba.kafka.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import wedding.alba.kafka.dto.ChatMessage;
+import wedding.alba.repository.ChatMessageBulkRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChatMessageBulkSaveTest {
+
+    private static final long ROOM = 10L;
+
+    @Mock
+    private ChatMessageBulkRepository chatMessageBulkRepository;
+
+    @Mock
+    private UnreadCountService unreadCountService;
+
+    @Mock
+    private ChatParticipantCache chatParticipantCache;
+
+    @Mock
+    private ChatRoomActivityTracker chatRoomActivityTracker;
+
+    @Mock
+    private UserInboxService userInboxService;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache lastMessageCache;
+
+    @InjectMocks
+    private ChatMessageService chatMessageService;
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void unreadCountsAndCacheAreAppliedOnlyAfterCommit() {
+        when(chatMessageBulkRepository.insertIgnoreDuplicates(anyList())).thenReturn(Set.of("m1", "m2"));
+        when(chatParticipantCache.getParticipantIds(ROOM)).thenReturn(new long[]{1L, 2L});
+        when(cacheManager.getCache("lastMessage")).thenReturn(lastMessageCache);
+
+        List<ChatMessage> saved = chatMessageService.saveChatMessagesBulk(List.of(message("m1"), message("m2")));
+
+        assertThat(saved).extracting(ChatMessage::getMessageId).containsExactly("m1", "m2");
+        verifyNoInteractions(unreadCountService, chatRoomActivityTracker, cacheManager);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(unreadCountService).handleNewMessagesBatch(eq(saved), anyMap());
+        verify(lastMessageCache).evict(ROOM);
+        verify(chatRoomActivityTracker, times(2)).recordMessage(eq(ROOM), any());
+    }
+
+    @Test
+    void rolledBackBatchLeavesUnreadCountsUntouched() {
+        when(chatMessageBulkRepository.insertIgnoreDuplicates(anyList())).thenReturn(Set.of("m1"));
+
+        chatMessageService.saveChatMessagesBulk(List.of(message("m1")));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(unreadCountService, never()).handleNewMessagesBatch(anyList(), anyMap());
+        verify(chatParticipantCache, never()).getParticipantIds(anyLong());
+        verifyNoInteractions(cacheManager);
+    }
+
+    @Test
+    void redeliveredMessagesRegisterNothing() {
+        when(chatMessageBulkRepository.insertIgnoreDuplicates(anyList())).thenReturn(Set.of());
+
+        assertThat(chatMessageService.saveChatMessagesBulk(List.of(message("m1")))).isEmpty();
+
+        assertThat(TransactionSynchronizationManager.getSynchronizations()).isEmpty();
+        verifyNoInteractions(userInboxService);
+    }
+
+    private static ChatMessage message(String messageId) {
+        return ChatMessage.builder()
+                .messageId(messageId)
+                .chatRoomId(ROOM)
+                .senderId(1L)
+                .senderName("신부")
+                .content(messageId)
+                .type(ChatMessage.MessageType.CHAT)
+                .timestamp(LocalDateTime.of(2024, 5, 18, 12, 0))
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package wedding.alba.kafka.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import wedding.alba.entity.ChatMessage;
+import wedding.alba.kafka.dto.ChatMessageCursorPage;
+import wedding.alba.repository.ChatMessageArchiveRepository;
+import wedding.alba.repository.ChatMessageRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChatMessageCursorPaginationTest {
+
+    private static final long ROOM = 7L;
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 5, 18, 12, 0);
+
+    @Mock
+    private ChatMessageRepository chatMessageRepository;
+
+    @Mock
+    private ChatMessageArchiveRepository chatMessageArchiveRepository;
+
+    @Mock
+    private ChatMessagePartitionService chatMessagePartitionService;
+
+    @InjectMocks
+    private ChatMessageService chatMessageService;
+
+    @Test
+    void firstPageWithoutCursorUsesSizePlusOneAndNoCount() {
+        when(chatMessageRepository.findLatestMessagesKeyset(ROOM, 21)).thenReturn(descending(100, 21));
+
+        ChatMessageCursorPage page = chatMessageService.getChatMessagesBefore(ROOM, null, null, 20);
+
+        assertThat(page.getMessages()).hasSize(20);
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getCursorMessageId()).isEqualTo("m-081");
+        assertThat(page.getCursorTimestamp()).isEqualTo(BASE.plusSeconds(81));
+        verify(chatMessageRepository, never()).count();
+    }
+
+    @Test
+    void nextPageStartsFromReturnedCursor() {
+        LocalDateTime cursorTime = BASE.plusSeconds(81);
+        when(chatMessageRepository.findMessagesBeforeKeyset(ROOM, cursorTime, "m-081", 21))
+                .thenReturn(descending(80, 21));
+
+        ChatMessageCursorPage page = chatMessageService.getChatMessagesBefore(ROOM, cursorTime, "m-081", 20);
+
+        assertThat(page.getMessages().get(0).getMessageId()).isEqualTo("m-080");
+        assertThat(page.isHasMore()).isTrue();
+    }
+
+    @Test
+    void lastPageHasNoMore() {
+        when(chatMessageRepository.findLatestMessagesKeyset(ROOM, 21)).thenReturn(descending(5, 5));
+
+        ChatMessageCursorPage page = chatMessageService.getChatMessagesBefore(ROOM, null, null, 20);
+
+        assertThat(page.getMessages()).hasSize(5);
+        assertThat(page.isHasMore()).isFalse();
+    }
+
+    @Test
+    void pageSizeIsCapped() {
+        when(chatMessageRepository.findLatestMessagesKeyset(ROOM, 101)).thenReturn(List.of());
+
+        ChatMessageCursorPage page = chatMessageService.getChatMessagesBefore(ROOM, null, null, 10_000);
+
+        assertThat(page.getMessages()).isEmpty();
+        assertThat(page.getCursorMessageId()).isNull();
+    }
+
+    @Test
+    void beforeContinuesIntoArchiveWhenHotTableIsExhausted() {
+        when(chatMessageRepository.findLatestMessagesKeyset(ROOM, 11)).thenReturn(descending(104, 4));
+        when(chatMessagePartitionService.isArchiveReadable()).thenReturn(true);
+        when(chatMessageArchiveRepository.findMessagesBefore(ROOM, BASE.plusSeconds(101), "m-101", 7))
+                .thenReturn(descending(100, 7));
+
+        ChatMessageCursorPage page = chatMessageService.getChatMessagesBefore(ROOM, null, null, 10);
+
+        assertThat(page.getMessages()).extracting(ChatMessage::getMessageId)
+                .containsExactly("m-104", "m-103", "m-102", "m-101", "m-100", "m-099", "m-098", "m-097", "m-096", "m-095");
+        assertThat(page.isHasMore()).isTrue();
+    }
+
+    @Test
+    void afterReturnsAscendingPageFromCursor() {
+        LocalDateTime cursorTime = BASE.plusSeconds(10);
+        when(chatMessagePartitionService.isArchiveReadable()).thenReturn(false);
+        when(chatMessageRepository.findMessagesAfterKeyset(ROOM, cursorTime, "m-010", 4)).thenReturn(ascending(11, 3));
+
+        ChatMessageCursorPage page = chatMessageService.getChatMessagesAfter(ROOM, cursorTime, "m-010", 3);
+
+        assertThat(page.getMessages()).extracting(ChatMessage::getMessageId).containsExactly("m-011", "m-012", "m-013");
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getCursorMessageId()).isEqualTo("m-013");
+    }
+
+    @Test
+    void afterRequiresCursor() {
+        assertThatThrownBy(() -> chatMessageService.getChatMessagesAfter(ROOM, null, "m-010", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(chatMessageRepository);
+    }
+
+    private static List<ChatMessage> descending(int newest, int count) {
+        List<ChatMessage> rows = new ArrayList<>();
+        for (int i = newest; i > newest - count; i--) rows.add(message(i));
+        return rows;
+    }
+
+    private static List<ChatMessage> ascending(int oldest, int count) {
+        List<ChatMessage> rows = new ArrayList<>();
+        for (int i = oldest; i < oldest + count; i++) rows.add(message(i));
+        return rows;
+    }
+
+    private static ChatMessage message(int sequence) {
+        return ChatMessage.builder()
+                .messageId(String.format("m-%03d", sequence))
+                .chatRoomId(ROOM)
+                .senderId(1L)
+                .content("메시지 " + sequence)
+                .type(ChatMessage.MessageType.CHAT)
+                .timestamp(BASE.plusSeconds(sequence))
+                .build();
+    }
+}
@@ -0,0 +1,280 @@
+package wedding.alba.kafka.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import kafka.server.KafkaServer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import wedding.alba.entity.ChatMessageOutbox;
+import wedding.alba.kafka.codec.ChatMessageDeserializer;
+import wedding.alba.kafka.codec.ChatMessageSerializer;
+import wedding.alba.kafka.dto.ChatMessage;
+import wedding.alba.kafka.dto.ChatSendResult;
+import wedding.alba.repository.ChatMessageOutboxRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 브로커 중단 중 보낸 메시지가 outbox 를 거쳐 재시작 후 순서대로 전달되는지
+ * (outbox 테이블과 Redis 는 메모리 구현)
+ */
+@EmbeddedKafka(partitions = 1, topics = "chat-messages", ports = 29392)
+class ChatMessageOutboxKafkaTest {
+
+    private static final long ROOM = 7L;
+
+    private DefaultKafkaProducerFactory<String, ChatMessage> producerFactory;
+
+    @AfterEach
+    void tearDown() {
+        if (producerFactory != null) {
+            producerFactory.destroy();
+        }
+    }
+
+    @Test
+    void messagesSentWhileBrokerIsDownAreDeliveredInOrderAfterRestart(EmbeddedKafkaBroker broker) throws Exception {
+        producerFactory = new DefaultKafkaProducerFactory<>(producerProps(broker),
+                new StringSerializer(), new ChatMessageSerializer());
+        KafkaTemplate<String, ChatMessage> kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        InMemoryOutboxRepository repository = new InMemoryOutboxRepository();
+
+        ChatMessageOutboxService outboxService = new ChatMessageOutboxService(
+                repository, kafkaTemplate, inMemoryRedis(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(outboxService, "relayBatchRooms", 100);
+        ReflectionTestUtils.setField(outboxService, "relayBatchPerRoom", 200);
+        ReflectionTestUtils.setField(outboxService, "sendTimeoutMs", 3_000L);
+        ReflectionTestUtils.setField(outboxService, "backoffInitialMs", 100L);
+        ReflectionTestUtils.setField(outboxService, "backoffMaxMs", 500L);
+        outboxService.registerMetrics();
+        ChatProducer producer = new ChatProducer(kafkaTemplate, outboxService);
+
+        try {
+            assertThat(send(producer, "m0").status()).isEqualTo(ChatSendResult.Status.SENT);
+
+            broker.getKafkaServers().forEach(KafkaServer::shutdown);
+            broker.getKafkaServers().forEach(KafkaServer::awaitShutdown);
+
+            // 브로커 중단: 전송 실패 -> outbox, 이후 메시지는 앞선 메시지 뒤에 outbox 로
+            assertThat(send(producer, "m1").status()).isEqualTo(ChatSendResult.Status.QUEUED);
+            assertThat(send(producer, "m2").status()).isEqualTo(ChatSendResult.Status.QUEUED);
+            assertThat(outboxService.hasPending(ROOM)).isTrue();
+            assertThat(send(producer, "m3").status()).isEqualTo(ChatSendResult.Status.QUEUED);
+            assertThat(repository.size()).isEqualTo(3);
+
+            broker.getKafkaServers().forEach(KafkaServer::startup);
+
+            waitUntil(Duration.ofSeconds(60), () -> {
+                outboxService.relay();
+                return repository.size() == 0;
+            });
+            waitUntil(Duration.ofSeconds(10), () -> !outboxService.hasPending(ROOM));
+
+            assertThat(send(producer, "m4").status()).isEqualTo(ChatSendResult.Status.SENT);
+        } finally {
+            outboxService.shutdown();
+        }
+
+        assertThat(consumeContents(broker, 5)).containsExactly("m0", "m1", "m2", "m3", "m4");
+    }
+
+    private static void waitUntil(Duration timeout, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("대기 시간 초과").isLessThan(deadline);
+            Thread.sleep(500);
+        }
+    }
+
+    private static ChatSendResult send(ChatProducer producer, String content) throws Exception {
+        ChatMessage message = ChatMessage.builder()
+                .chatRoomId(ROOM)
+                .senderId(1L)
+                .senderName("신부")
+                .content(content)
+                .type(ChatMessage.MessageType.CHAT)
+                .build();
+        return producer.sendChatMessage(message).get(30, TimeUnit.SECONDS);
+    }
+
+    private static Map<String, Object> producerProps(EmbeddedKafkaBroker broker) {
+        Map<String, Object> props = new HashMap<>(KafkaTestUtils.producerProps(broker));
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 0);
+        props.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, 1_000);
+        props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, 3_000);
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, 2_000);
+        props.put(ProducerConfig.RECONNECT_BACKOFF_MAX_MS_CONFIG, 500);
+        return props;
+    }
+
+    private static List<String> consumeContents(EmbeddedKafkaBroker broker, int expected) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("outbox-test", "false", broker);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        List<String> contents = new ArrayList<>();
+        try (Consumer<String, ChatMessage> consumer = new KafkaConsumer<>(props,
+                new StringDeserializer(), new ChatMessageDeserializer())) {
+            broker.consumeFromAnEmbeddedTopic(consumer, "chat-messages");
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (contents.size() < expected && System.currentTimeMillis() < deadline) {
+                for (ConsumerRecord<String, ChatMessage> record : consumer.poll(Duration.ofMillis(500))) {
+                    contents.add(record.value().getContent());
+                }
+            }
+        }
+        return contents;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RedisTemplate<String, String> inMemoryRedis() {
+        RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+        SetOperations<String, String> setOps = mock(SetOperations.class);
+        ValueOperations<String, String> valueOps = mock(ValueOperations.class);
+        Set<String> pendingRooms = ConcurrentHashMap.newKeySet();
+        Map<String, Long> counters = new ConcurrentHashMap<>();
+
+        when(redisTemplate.opsForSet()).thenReturn(setOps);
+        when(redisTemplate.opsForValue()).thenReturn(valueOps);
+        when(valueOps.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        when(setOps.isMember(anyString(), any())).thenAnswer(invocation -> pendingRooms.contains(invocation.getArgument(1)));
+        when(setOps.members(anyString())).thenAnswer(invocation -> new LinkedHashSet<>(pendingRooms));
+        when(setOps.add(anyString(), any(String[].class))).thenAnswer(invocation -> {
+            // 가변 인자는 펼쳐진 상태로 전달됨
+            Object[] values = Arrays.copyOfRange(invocation.getArguments(), 1, invocation.getArguments().length);
+            long added = 0;
+            for (Object value : values) {
+                if (pendingRooms.add((String) value)) added++;
+            }
+            return added;
+        });
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenAnswer(invocation -> {
+            String script = ((RedisScript<?>) invocation.getArgument(0)).getScriptAsString();
+            List<String> keys = invocation.getArgument(1);
+            Object[] args = Arrays.copyOfRange(invocation.getArguments(), 2, invocation.getArguments().length);
+            synchronized (counters) {
+                if (script.contains("'INCR'")) {
+                    pendingRooms.add((String) args[0]);
+                    return counters.merge(keys.get(1), 1L, Long::sum);
+                }
+                if (script.contains("'DECR'")) {
+                    long remaining = counters.merge(keys.get(0), -1L, Long::sum);
+                    if (remaining <= 0) counters.remove(keys.get(0));
+                    return remaining;
+                }
+                if (counters.getOrDefault(keys.get(1), 0L) > 0) return 0L;
+                return pendingRooms.remove((String) args[0]) ? 1L : 0L;
+            }
+        });
+        return redisTemplate;
+    }
+
+    /**
+     * chat_message_outbox 메모리 구현 (outbox_id 순서 유지)
+     */
+    private static class InMemoryOutboxRepository extends ChatMessageOutboxRepository {
+
+        private final List<ChatMessageOutbox> rows = new ArrayList<>();
+        private long sequence = 0;
+
+        InMemoryOutboxRepository() {
+            super(null);
+        }
+
+        @Override
+        public synchronized void insert(Long chatRoomId, String messageId, byte[] payload, String lastError) {
+            LocalDateTime now = LocalDateTime.now();
+            rows.add(ChatMessageOutbox.builder()
+                    .outboxId(++sequence)
+                    .chatRoomId(chatRoomId)
+                    .messageId(messageId)
+                    .payload(payload)
+                    .attempts(0)
+                    .nextAttemptAt(now)
+                    .lastError(lastError)
+                    .createdAt(now)
+                    .build());
+        }
+
+        @Override
+        public synchronized List<ChatMessageOutbox> findDueRooms(int maxRooms, int maxPerRoom) {
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, List<ChatMessageOutbox>> byRoom = new HashMap<>();
+            for (ChatMessageOutbox row : rows) {
+                byRoom.computeIfAbsent(row.getChatRoomId(), k -> new ArrayList<>()).add(row);
+            }
+            List<ChatMessageOutbox> due = new ArrayList<>();
+            byRoom.values().stream()
+                    .filter(roomRows -> roomRows.stream().anyMatch(row -> !row.getNextAttemptAt().isAfter(now)))
+                    .limit(maxRooms)
+                    .forEach(roomRows -> due.addAll(roomRows.subList(0, Math.min(maxPerRoom, roomRows.size()))));
+            return due;
+        }
+
+        @Override
+        public synchronized void deleteByIds(Collection<Long> outboxIds) {
+            rows.removeIf(row -> outboxIds.contains(row.getOutboxId()));
+        }
+
+        @Override
+        public synchronized void scheduleRetry(Long chatRoomId, LocalDateTime nextAttemptAt, String lastError) {
+            rows.stream().filter(row -> row.getChatRoomId().equals(chatRoomId)).forEach(row -> {
+                row.setAttempts(row.getAttempts() + 1);
+                row.setNextAttemptAt(nextAttemptAt);
+                row.setLastError(lastError);
+            });
+        }
+
+        @Override
+        public synchronized boolean existsByChatRoomId(Long chatRoomId) {
+            return rows.stream().anyMatch(row -> row.getChatRoomId().equals(chatRoomId));
+        }
+
+        @Override
+        public synchronized List<Long> findPendingChatRoomIds() {
+            return rows.stream().map(ChatMessageOutbox::getChatRoomId).distinct().toList();
+        }
+
+        @Override
+        public synchronized long count() {
+            return rows.size();
+        }
+
+        synchronized int size() {
+            return rows.size();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package wedding.alba.kafka.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import wedding.alba.repository.ChatMessagePartitionRepository;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChatMessagePartitionServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ValueOperations<String, String> valueOperations;
+    private ChatMessagePartitionService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+        valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("chat_messages"))).thenReturn(true);
+
+        service = new ChatMessagePartitionService(new ChatMessagePartitionRepository(jdbcTemplate), redisTemplate);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "premakeMonths", 3);
+    }
+
+    @Test
+    void createsPartitionsFromCurrentMonthThroughPremakeMonths() {
+        service.maintain();
+
+        List<String> expected = new ArrayList<>();
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= 3; i++) {
+            YearMonth month = current.plusMonths(i);
+            expected.add(String.format(
+                    "CREATE TABLE IF NOT EXISTS chat_messages_p%s PARTITION OF chat_messages FOR VALUES FROM ('%s') TO ('%s')",
+                    month.format(DateTimeFormatter.ofPattern("yyyy_MM")), month.atDay(1), month.plusMonths(1).atDay(1)));
+        }
+        assertThat(executedDdl()).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void nonPartitionedTableIsLeftAlone() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), eq("chat_messages"))).thenReturn(false);
+
+        service.maintain();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void skippedWhileAnotherInstanceHoldsTheLock() {
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+
+        service.maintain();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    private List<String> executedDdl() {
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, atLeastOnce()).execute(sql.capture());
+        return sql.getAllValues();
+    }
+}
@@ -0,0 +1,71 @@
+package wedding.alba.kafka.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import wedding.alba.entity.ChatMessage;
+import wedding.alba.kafka.dto.ChatMessageSearchPage;
+import wedding.alba.repository.ChatMessageSearchRepository;
+import wedding.alba.repository.ChatRoomParticipantRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChatMessageSearchTest {
+
+    private static final long USER = 1L;
+    private static final long ROOM = 10L;
+
+    @Mock
+    private ChatRoomParticipantRepository participantRepository;
+
+    @Mock
+    private ChatMessageSearchRepository chatMessageSearchRepository;
+
+    @InjectMocks
+    private ChatMessageService chatMessageService;
+
+    @Test
+    void nonParticipantCannotSearchRoom() {
+        when(participantRepository.existsByChatRoomIdAndUserIdAndIsActiveTrue(ROOM, USER)).thenReturn(false);
+
+        assertThatThrownBy(() -> chatMessageService.searchMessagesInChatRoom(USER, ROOM, "결혼식", null, null, null, 20))
+                .isInstanceOf(RuntimeException.class);
+        verifyNoInteractions(chatMessageSearchRepository);
+    }
+
+    @Test
+    void participantGetsHighlightedHits() {
+        when(participantRepository.existsByChatRoomIdAndUserIdAndIsActiveTrue(ROOM, USER)).thenReturn(true);
+        ChatMessage message = ChatMessage.builder()
+                .messageId("m-1")
+                .chatRoomId(ROOM)
+                .senderId(2L)
+                .content("결혼식 일정 확인 부탁드려요")
+                .type(ChatMessage.MessageType.CHAT)
+                .timestamp(LocalDateTime.of(2024, 5, 18, 12, 0))
+                .build();
+        when(chatMessageSearchRepository.searchInChatRoom(anyLong(), anyString(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(new ChatMessageSearchRepository.ScoredMessage(message, 1.0f)));
+
+        ChatMessageSearchPage page = chatMessageService.searchMessagesInChatRoom(USER, ROOM, " 결혼식 ", null, null, null, 20);
+
+        assertThat(page.getHits()).hasSize(1);
+        assertThat(page.getHits().get(0).getHighlights())
+                .containsExactly(new ChatMessageSearchPage.Highlight(0, 3));
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getCursorMessageId()).isEqualTo("m-1");
+    }
+}
@@ -0,0 +1,147 @@
+package wedding.alba.kafka.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import wedding.alba.entity.ChatMessage;
+import wedding.alba.kafka.dto.ChatSyncRequest;
+import wedding.alba.kafka.dto.ChatSyncResponse;
+import wedding.alba.repository.ChatMessageSyncRepository;
+import wedding.alba.repository.ChatRoomRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChatMessageSyncTest {
+
+    private static final long USER = 1L;
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 18, 12, 0);
+
+    @Mock
+    private ChatRoomRepository chatRoomRepository;
+
+    @Mock
+    private ChatMessageSyncRepository chatMessageSyncRepository;
+
+    @Mock
+    private UnreadCountService unreadCountService;
+
+    @InjectMocks
+    private ChatMessageService chatMessageService;
+
+    @Test
+    void hundredRoomsOfflineForADayStayWithinResponseLimit() {
+        List<Long> roomIds = roomIds(1, 100);
+        when(chatRoomRepository.findChatRoomIdsByUserId(USER)).thenReturn(roomIds);
+        // 하루 동안 채팅방마다 100개씩 쌓임 -> 요청 limit 만큼만 반환
+        when(chatMessageSyncRepository.findMessagesAfterCursors(anyList(), anyInt())).thenAnswer(invocation -> {
+            List<ChatSyncRequest.RoomCursor> cursors = invocation.getArgument(0);
+            int limit = invocation.getArgument(1);
+            List<ChatMessage> rows = new ArrayList<>();
+            for (ChatSyncRequest.RoomCursor cursor : cursors) {
+                rows.addAll(messagesAfter(cursor.getChatRoomId(), cursor.getCursorTimestamp(), Math.min(limit, 100)));
+            }
+            return rows;
+        });
+
+        ChatSyncRequest request = ChatSyncRequest.builder()
+                .rooms(roomIds.stream().map(id -> ChatSyncRequest.RoomCursor.builder()
+                        .chatRoomId(id)
+                        .cursorTimestamp(NOW.minusDays(1))
+                        .cursorMessageId("room-" + id + "-cursor")
+                        .build()).toList())
+                .lastSyncedAt(NOW.minusDays(1))
+                .build();
+
+        ChatSyncResponse response = chatMessageService.syncChatRooms(USER, request);
+
+        assertThat(response.getRooms()).hasSize(100);
+        assertThat(totalMessages(response)).isLessThanOrEqualTo(2000);
+        assertThat(response.getRooms()).allSatisfy(room -> {
+            assertThat(room.getMessages()).hasSize(20);
+            assertThat(room.isHasMore()).isTrue();
+            assertThat(room.getCursorMessageId()).isEqualTo(room.getMessages().get(19).getMessageId());
+        });
+        assertThat(response.getNextAfterChatRoomId()).isNull();
+        assertThat(response.getRemovedChatRoomIds()).isEmpty();
+    }
+
+    @Test
+    void manyRoomsArePagedByRoomIdWithinResponseLimit() {
+        when(chatRoomRepository.findChatRoomIdsByUserId(USER)).thenReturn(roomIds(1, 2500));
+        when(chatMessageSyncRepository.findLatestMessages(anyCollection(), anyInt())).thenAnswer(invocation -> {
+            Collection<Long> chatRoomIds = invocation.getArgument(0);
+            int limit = invocation.getArgument(1);
+            List<ChatMessage> rows = new ArrayList<>();
+            for (Long chatRoomId : chatRoomIds) {
+                rows.addAll(messagesAfter(chatRoomId, NOW.minusHours(1), limit));
+            }
+            return rows;
+        });
+
+        ChatSyncResponse first = chatMessageService.syncChatRooms(USER, new ChatSyncRequest());
+
+        assertThat(first.getRooms()).hasSize(200);
+        assertThat(first.getRooms().get(0).getChatRoomId()).isEqualTo(1L);
+        assertThat(totalMessages(first)).isLessThanOrEqualTo(2000);
+        assertThat(first.getNextAfterChatRoomId()).isEqualTo(200L);
+
+        ChatSyncResponse second = chatMessageService.syncChatRooms(USER,
+                ChatSyncRequest.builder().afterChatRoomId(first.getNextAfterChatRoomId()).build());
+        assertThat(second.getRooms().get(0).getChatRoomId()).isEqualTo(201L);
+        assertThat(second.getNextAfterChatRoomId()).isEqualTo(400L);
+
+        ChatSyncResponse last = chatMessageService.syncChatRooms(USER,
+                ChatSyncRequest.builder().afterChatRoomId(2400L).build());
+        assertThat(last.getRooms()).hasSize(100);
+        assertThat(last.getNextAfterChatRoomId()).isNull();
+    }
+
+    @Test
+    void cursorForRoomNoLongerJoinedIsReportedAsRemoved() {
+        when(chatRoomRepository.findChatRoomIdsByUserId(USER)).thenReturn(List.of(1L));
+
+        ChatSyncResponse response = chatMessageService.syncChatRooms(USER, ChatSyncRequest.builder()
+                .rooms(List.of(ChatSyncRequest.RoomCursor.builder()
+                        .chatRoomId(99L).cursorTimestamp(NOW).cursorMessageId("x").build()))
+                .build());
+
+        assertThat(response.getRemovedChatRoomIds()).containsExactly(99L);
+        assertThat(response.getRooms()).isEmpty();
+    }
+
+    private static List<Long> roomIds(long from, long to) {
+        return LongStream.rangeClosed(from, to).boxed().toList();
+    }
+
+    private static List<ChatMessage> messagesAfter(Long chatRoomId, LocalDateTime after, int count) {
+        List<ChatMessage> rows = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            rows.add(ChatMessage.builder()
+                    .messageId(String.format("room-%d-%03d", chatRoomId, i))
+                    .chatRoomId(chatRoomId)
+                    .senderId(2L)
+                    .content("m" + i)
+                    .type(ChatMessage.MessageType.CHAT)
+                    .timestamp(after.plusMinutes(i))
+                    .build());
+        }
+        return rows;
+    }
+
+    private static int totalMessages(ChatSyncResponse response) {
+        return response.getRooms().stream().mapToInt(room -> room.getMessages().size()).sum();
+    }
+}
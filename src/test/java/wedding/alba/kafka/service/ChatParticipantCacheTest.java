@@ -0,0 +1,65 @@
+package wedding.alba.kafka.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import wedding.alba.repository.ChatRoomParticipantRepository;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChatParticipantCacheTest {
+
+    private static final long ROOM = 10L;
+    private static final String KEY = "chat_participants:{10}";
+
+    private SetOperations<String, String> setOperations;
+    private ChatParticipantCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        RedisTemplate<String, String> redisTemplate = mock(RedisTemplate.class);
+        setOperations = mock(SetOperations.class);
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.members(KEY)).thenReturn(Set.of("1", "2"));
+
+        cache = new ChatParticipantCache(mock(ChatRoomParticipantRepository.class), redisTemplate,
+                mock(RedisMessageListenerContainer.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "localMaxSize", 100L);
+        ReflectionTestUtils.setField(cache, "localTtlMs", 60_000L);
+    }
+
+    @Test
+    void repeatedLookupsAreServedLocally() {
+        cache.init();
+
+        cache.getParticipantIds(ROOM);
+        long[] participantIds = cache.getParticipantIds(ROOM);
+
+        assertThat(participantIds).containsExactlyInAnyOrder(1L, 2L);
+        verify(setOperations, times(1)).members(KEY);
+    }
+
+    @Test
+    void missedInvalidationHealsAfterLocalTtl() {
+        // 무효화 메시지를 놓친 노드: 보존 시간이 지나면 Redis 에서 다시 읽음
+        ReflectionTestUtils.setField(cache, "localTtlMs", 0L);
+        cache.init();
+        cache.getParticipantIds(ROOM);
+
+        when(setOperations.members(KEY)).thenReturn(Set.of("1", "3"));
+
+        assertThat(cache.getParticipantIds(ROOM)).containsExactlyInAnyOrder(1L, 3L);
+        verify(setOperations, times(2)).members(KEY);
+    }
+}
@@ -0,0 +1,170 @@
+package wedding.alba.kafka.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChatPresenceServiceTest {
+
+    private static final long ROOM = 5L;
+    private static final long USER = 9L;
+
+    private RedisTemplate<String, String> redisTemplate;
+    private ChatFanoutService chatFanoutService;
+    private ChatPresenceService service;
+
+    // 스크립트 호출 기록 (키 개수 3 = 입장, 2 = 퇴장)
+    private final List<List<String>> joinCalls = new ArrayList<>();
+    private final List<List<String>> leaveCalls = new ArrayList<>();
+    private long joinResult = 1L;
+    private long leaveResult = 1L;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        chatFanoutService = mock(ChatFanoutService.class);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenAnswer(invocation -> {
+            List<String> keys = invocation.getArgument(1);
+            if (keys.size() == 3) {
+                joinCalls.add(keys);
+                return joinResult;
+            }
+            leaveCalls.add(keys);
+            return leaveResult;
+        });
+
+        service = new ChatPresenceService(redisTemplate, chatFanoutService, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "presenceTtlMs", 45_000L);
+        service.init();
+    }
+
+    @Test
+    void firstJoinPublishesJoin() {
+        service.join("s1", ROOM, USER);
+
+        assertThat(joinCalls).hasSize(1);
+        assertThat(publishedTypes()).containsExactly("JOIN");
+    }
+
+    @Test
+    void joinOfUserAlreadyOnlineElsewhereDoesNotPublish() {
+        joinResult = 0L;
+
+        service.join("s1", ROOM, USER);
+
+        verify(chatFanoutService, never()).convertAndSend(anyString(), any());
+    }
+
+    @Test
+    void nodeIsReleasedOnlyWhenItsLastSessionLeaves() {
+        service.join("s1", ROOM, USER);
+        joinResult = 0L;
+        service.join("s2", ROOM, USER);
+
+        service.leave("s1");
+        assertThat(leaveCalls).isEmpty();
+
+        service.leave("s2");
+        assertThat(leaveCalls).hasSize(1);
+        assertThat(publishedTypes()).containsExactly("JOIN", "LEAVE");
+    }
+
+    @Test
+    void leaveWhileConnectedOnAnotherNodeDoesNotPublishLeave() {
+        service.join("s1", ROOM, USER);
+        leaveResult = 0L;
+
+        service.leave("s1");
+
+        assertThat(leaveCalls).hasSize(1);
+        assertThat(publishedTypes()).containsExactly("JOIN");
+    }
+
+    @Test
+    void movingSessionToAnotherRoomReleasesPreviousRoom() {
+        service.join("s1", ROOM, USER);
+        service.join("s1", ROOM + 1, USER);
+
+        assertThat(leaveCalls).hasSize(1);
+        assertThat(leaveCalls.get(0).get(0)).isEqualTo("presence:room:" + ROOM);
+        assertThat(localConnectionCounts()).hasSize(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void heartbeatThatReaddsMissingMemberPublishesJoin() {
+        service.join("s1", ROOM, USER);
+        // 만료 정리로 빠졌다가 하트비트에서 다시 추가됨 (ZADD = true)
+        List<Object> pipelineResults = new ArrayList<>(List.of(true, true, true, 1L));
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(pipelineResults);
+
+        service.flushHeartbeats();
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(chatFanoutService, times(2)).convertAndSend(eq("/topic/presence/" + ROOM), captor.capture());
+        Map<String, Object> rejoin = (Map<String, Object>) captor.getAllValues().get(1);
+        assertThat(rejoin.get("type")).isEqualTo("JOIN");
+        assertThat(rejoin.get("userIds")).isEqualTo(Set.of(USER));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void heartbeatForMemberAlreadyPresentPublishesNothing() {
+        joinResult = 0L;
+        service.join("s1", ROOM, USER);
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenReturn(new ArrayList<>(List.of(false, true, true, 0L)));
+
+        service.flushHeartbeats();
+
+        verify(chatFanoutService, never()).convertAndSend(anyString(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void userIsOnlineOnlyWhileSomeNodeHeartbeatIsFresh() {
+        long now = System.currentTimeMillis();
+        // 사용자 1: 다른 노드 하트비트가 살아 있음, 2: 만료된 하트비트만, 3: 연결 노드 없음
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(new ArrayList<>(List.of(
+                List.of(String.valueOf(now - 120_000), String.valueOf(now)),
+                List.of(String.valueOf(now - 120_000)),
+                List.of())));
+
+        assertThat(service.filterOnlineUsers(List.of(1L, 2L, 3L))).containsExactly(1L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> publishedTypes() {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(chatFanoutService, atLeastOnce()).convertAndSend(anyString(), captor.capture());
+        return captor.getAllValues().stream().map(delta -> (String) ((Map<String, Object>) delta).get("type")).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Object, Integer> localConnectionCounts() {
+        return (Map<Object, Integer>) ReflectionTestUtils.getField(service, "localConnectionCounts");
+    }
+}
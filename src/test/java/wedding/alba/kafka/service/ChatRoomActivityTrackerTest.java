@@ -0,0 +1,104 @@
+package wedding.alba.kafka.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChatRoomActivityTrackerTest {
+
+    private static final long ROOM = 10L;
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 5, 18, 12, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private ChatRoomActivityTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        tracker = new ChatRoomActivityTracker(jdbcTemplate, new SimpleMeterRegistry());
+        tracker.init();
+    }
+
+    @Test
+    void updatesForSameRoomAreCoalescedIntoOneRowWithLatestTime() {
+        tracker.recordMessage(ROOM, BASE.plusSeconds(2));
+        tracker.recordMessage(ROOM, BASE);
+        tracker.recordMessage(ROOM + 1, BASE);
+
+        tracker.flush();
+
+        ArgumentCaptor<Object[]> params = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(1)).update(anyString(), params.capture());
+        // 채팅방 2개 x (id, last_message_at, last_active_at)
+        assertThat(params.getValue()).hasSize(6);
+        assertThat(rowOf(params.getValue(), ROOM))
+                .containsExactly(ROOM, Timestamp.valueOf(BASE.plusSeconds(2)), Timestamp.valueOf(BASE.plusSeconds(2)));
+    }
+
+    @Test
+    void flushWithNothingPendingSkipsDatabase() {
+        tracker.recordMessage(ROOM, BASE);
+        tracker.flush();
+        tracker.flush();
+
+        verify(jdbcTemplate, times(1)).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void shutdownFlushesPendingUpdates() {
+        tracker.recordMessage(ROOM, BASE);
+
+        tracker.shutdown();
+
+        verify(jdbcTemplate, times(1)).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void failedFlushIsRetriedOnNextFlush() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(1);
+        tracker.recordMessage(ROOM, BASE);
+
+        tracker.flush();
+        tracker.flush();
+
+        verify(jdbcTemplate, times(2)).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void activityOnlyUpdateLeavesLastMessageTimeUnchanged() {
+        tracker.recordActivity(ROOM);
+
+        tracker.flush();
+
+        ArgumentCaptor<Object[]> params = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(anyString(), params.capture());
+        assertThat(params.getValue()[0]).isEqualTo(ROOM);
+        assertThat(params.getValue()[1]).isNull();
+        assertThat(params.getValue()[2]).isNotNull();
+    }
+
+    private static Object[] rowOf(Object[] params, long chatRoomId) {
+        for (int i = 0; i < params.length; i += 3) {
+            if (params[i].equals(chatRoomId)) {
+                return new Object[]{params[i], params[i + 1], params[i + 2]};
+            }
+        }
+        throw new AssertionError("채팅방 행 없음: " + chatRoomId);
+    }
+}
@@ -0,0 +1,168 @@
+package wedding.alba.kafka.service;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatRoomLaneExecutorTest {
+
+    private static final int LANES = 8;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ChatRoomLaneExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new ChatRoomLaneExecutor(meterRegistry);
+        ReflectionTestUtils.setField(executor, "configuredLanes", LANES);
+        executor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    private record RoomTask(long chatRoomId, List<Integer> sequence) {
+    }
+
+    @Test
+    void keepsOrderWithinRoomAcrossBatches() {
+        Map<Long, List<Integer>> processed = new ConcurrentHashMap<>();
+        List<Long> rooms = List.of(1L, 2L, 3L, 4L, 5L);
+
+        List<CompletableFuture<Void>> batches = new ArrayList<>();
+        for (int batch = 0; batch < 50; batch++) {
+            Map<Long, RoomTask> tasks = new LinkedHashMap<>();
+            for (Long room : rooms) {
+                tasks.put(room, new RoomTask(room, List.of(batch * 2, batch * 2 + 1)));
+            }
+            // join 없이 연속 제출해도 같은 레인의 FIFO 순서가 유지되어야 함
+            batches.add(executor.submitAll(tasks, task -> processed
+                    .computeIfAbsent(task.chatRoomId(), k -> Collections.synchronizedList(new ArrayList<>()))
+                    .addAll(task.sequence())));
+        }
+        batches.forEach(CompletableFuture::join);
+
+        for (Long room : rooms) {
+            List<Integer> sequence = processed.get(room);
+            assertThat(sequence).hasSize(100);
+            assertThat(sequence).isSorted();
+        }
+    }
+
+    @Test
+    void runsDifferentRoomsInParallel() throws Exception {
+        List<Long> rooms = roomsOnDistinctLanes(4);
+        CountDownLatch allStarted = new CountDownLatch(rooms.size());
+        AtomicInteger timedOut = new AtomicInteger();
+
+        Map<Long, Long> tasks = new LinkedHashMap<>();
+        rooms.forEach(room -> tasks.put(room, room));
+
+        // 순차 실행이라면 첫 작업이 나머지를 기다리다 타임아웃
+        executor.executeAll(tasks, room -> {
+            allStarted.countDown();
+            try {
+                if (!allStarted.await(5, TimeUnit.SECONDS)) timedOut.incrementAndGet();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertThat(timedOut).hasValue(0);
+    }
+
+    @Test
+    void executeAllReturnsOnlyAfterEveryLaneFinished() {
+        AtomicInteger finished = new AtomicInteger();
+        Map<Long, Long> tasks = new LinkedHashMap<>();
+        for (long room = 1; room <= 20; room++) {
+            tasks.put(room, room);
+        }
+
+        executor.executeAll(tasks, room -> {
+            sleep(room % 3 == 0 ? 30 : 1);
+            finished.incrementAndGet();
+        });
+
+        assertThat(finished).hasValue(20);
+        assertThat(meterRegistry.find("chat.consumer.lane.latency").timers().stream()
+                .mapToLong(Timer::count).sum()).isEqualTo(20);
+    }
+
+    /**
+     * 배치당 채팅방 수가 늘면 동시에 처리되는 레인 수도 늘어남 (시간 측정 없이 최대 동시 실행 수로 확인)
+     * 레인마다 첫 작업이 다른 레인의 첫 작업을 모두 기다리므로, 최대 동시 실행 수 = 배치가 쓰는 레인 수
+     */
+    @Test
+    void concurrentLanesGrowWithRoomsPerBatch() {
+        Map<Integer, Integer> peakByRooms = new LinkedHashMap<>();
+
+        for (int roomsPerBatch : new int[]{1, 4, 16}) {
+            Map<Long, Long> tasks = new LinkedHashMap<>();
+            Set<Integer> usedLanes = new HashSet<>();
+            for (long room = 1; room <= roomsPerBatch; room++) {
+                tasks.put(room, room);
+                usedLanes.add(executor.laneOf(room));
+            }
+
+            CountDownLatch allLanesActive = new CountDownLatch(usedLanes.size());
+            AtomicInteger active = new AtomicInteger();
+            AtomicInteger peak = new AtomicInteger();
+            executor.executeAll(tasks, room -> {
+                peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+                allLanesActive.countDown();
+                try {
+                    allLanesActive.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                active.decrementAndGet();
+            });
+
+            assertThat(peak.get()).isEqualTo(usedLanes.size());
+            peakByRooms.put(roomsPerBatch, peak.get());
+        }
+
+        assertThat(peakByRooms.get(1)).isEqualTo(1);
+        assertThat(peakByRooms.get(4)).isGreaterThan(peakByRooms.get(1));
+        assertThat(peakByRooms.get(16)).isGreaterThanOrEqualTo(peakByRooms.get(4)).isLessThanOrEqualTo(LANES);
+    }
+
+    private List<Long> roomsOnDistinctLanes(int count) {
+        List<Long> rooms = new ArrayList<>();
+        Set<Integer> usedLanes = new HashSet<>();
+        for (long room = 1; rooms.size() < count; room++) {
+            if (usedLanes.add(executor.laneOf(room))) rooms.add(room);
+        }
+        return rooms;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
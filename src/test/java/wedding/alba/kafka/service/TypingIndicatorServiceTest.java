@@ -0,0 +1,121 @@
+package wedding.alba.kafka.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import wedding.alba.kafka.dto.ChatMessage;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class TypingIndicatorServiceTest {
+
+    private static final long ROOM = 3L;
+    private static final long USER = 11L;
+
+    private ChatFanoutService chatFanoutService;
+    private TypingIndicatorService service;
+
+    @BeforeEach
+    void setUp() {
+        chatFanoutService = mock(ChatFanoutService.class);
+        service = new TypingIndicatorService(chatFanoutService, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "refreshIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(service, "expireMs", 60_000L);
+        service.init();
+    }
+
+    @Test
+    void startIsPublishedOnceAcrossFlushes() {
+        service.onTyping(ROOM, USER, "신부", true);
+
+        service.flush();
+        service.flush();
+
+        assertThat(publishedTypes()).containsExactly(ChatMessage.MessageType.TYPING);
+    }
+
+    @Test
+    void startAndStopWithinOneIntervalCancelOut() {
+        service.onTyping(ROOM, USER, "신부", true);
+        service.onTyping(ROOM, USER, "신부", false);
+
+        service.flush();
+
+        verifyNoInteractions(chatFanoutService);
+        assertThat(states()).isEmpty();
+    }
+
+    @Test
+    void stopAfterPublishedStartIsPublishedAndStateRemoved() {
+        service.onTyping(ROOM, USER, "신부", true);
+        service.flush();
+        service.onTyping(ROOM, USER, "신부", false);
+        service.flush();
+
+        assertThat(publishedTypes()).containsExactly(ChatMessage.MessageType.TYPING, ChatMessage.MessageType.STOP_TYPING);
+        assertThat(states()).isEmpty();
+    }
+
+    @Test
+    void repeatedTypingIsThrottledByRefreshInterval() {
+        service.onTyping(ROOM, USER, "신부", true);
+        service.flush();
+        clearInvocations(chatFanoutService);
+
+        service.onTyping(ROOM, USER, "신부", true);
+        service.flush();
+        verifyNoInteractions(chatFanoutService);
+
+        ReflectionTestUtils.setField(service, "refreshIntervalMs", 0L);
+        service.flush();
+        assertThat(publishedTypes()).containsExactly(ChatMessage.MessageType.TYPING);
+    }
+
+    @Test
+    void typingWithoutStopExpires() {
+        service.onTyping(ROOM, USER, "신부", true);
+        service.flush();
+
+        ReflectionTestUtils.setField(service, "expireMs", 0L);
+        service.flush();
+
+        assertThat(publishedTypes()).containsExactly(ChatMessage.MessageType.TYPING, ChatMessage.MessageType.STOP_TYPING);
+        assertThat(states()).isEmpty();
+    }
+
+    @Test
+    void publishesToRoomTypingTopicWithSender() {
+        service.onTyping(ROOM, USER, "신부", true);
+        service.flush();
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(chatFanoutService).convertAndSend(eq("/topic/typing/" + ROOM), captor.capture());
+        ChatMessage message = (ChatMessage) captor.getValue();
+        assertThat(message.getChatRoomId()).isEqualTo(ROOM);
+        assertThat(message.getSenderId()).isEqualTo(USER);
+        assertThat(message.getSenderName()).isEqualTo("신부");
+    }
+
+    private List<ChatMessage.MessageType> publishedTypes() {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(chatFanoutService, atLeastOnce()).convertAndSend(anyString(), captor.capture());
+        return captor.getAllValues().stream().map(message -> ((ChatMessage) message).getType()).toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, ?> states() {
+        return (Map<String, ?>) ReflectionTestUtils.getField(service, "states");
+    }
+}
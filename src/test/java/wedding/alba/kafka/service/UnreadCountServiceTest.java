@@ -0,0 +1,187 @@
+package wedding.alba.kafka.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import wedding.alba.kafka.dto.ChatMessage;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class UnreadCountServiceTest {
+
+    private static final long ROOM_A = 10L;
+    private static final long ROOM_B = 20L;
+
+    private RedisTemplate<String, String> redisTemplate;
+    private KafkaTemplate<String, String> kafkaTemplate;
+    private HashOperations<String, Object, Object> hashOperations;
+    private UnreadCountService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redisTemplate = mock(RedisTemplate.class);
+        kafkaTemplate = mock(KafkaTemplate.class);
+        hashOperations = mock(HashOperations.class);
+
+        // 파이프라인 콜백을 그대로 실행해서 HINCRBY 호출을 기록
+        RedisOperations<String, String> pipeline = mock(RedisOperations.class);
+        when(pipeline.opsForHash()).thenReturn((HashOperations) hashOperations);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.<SessionCallback<Object>>getArgument(0).execute(pipeline);
+            return List.of();
+        });
+
+        service = new UnreadCountService(redisTemplate, kafkaTemplate, new ObjectMapper().findAndRegisterModules(),
+                new SimpleMeterRegistry(), mock(UserInboxService.class), mock(UnreadPushService.class));
+        ReflectionTestUtils.setField(service, "streamsMode", "off");
+    }
+
+    @Test
+    void batchIncrementsAreCoalescedPerUserAndRoomInOnePipeline() {
+        Map<Long, long[]> participants = Map.of(
+                ROOM_A, new long[]{1L, 2L, 3L},
+                ROOM_B, new long[]{2L, 4L});
+
+        service.handleNewMessagesBatch(List.of(
+                message("m1", ROOM_A, 1L),
+                message("m2", ROOM_A, 2L),
+                message("m3", ROOM_A, 1L),
+                message("m4", ROOM_B, 4L)), participants);
+
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+        verify(hashOperations).increment("unread:1", "10", 1L);   // m2
+        verify(hashOperations).increment("unread:2", "10", 2L);   // m1, m3 (본인 m2 제외)
+        verify(hashOperations).increment("unread:2", "20", 1L);   // m4
+        verify(hashOperations).increment("unread:3", "10", 3L);   // m1, m2, m3
+        verifyNoMoreInteractions(hashOperations);
+    }
+
+    @Test
+    void oneEventPerRecipientRegardlessOfMessageCount() {
+        Map<Long, long[]> participants = Map.of(ROOM_A, new long[]{1L, 2L});
+
+        service.handleNewMessagesBatch(List.of(
+                message("m1", ROOM_A, 1L),
+                message("m2", ROOM_A, 1L),
+                message("m3", ROOM_A, 1L)), participants);
+
+        verify(kafkaTemplate, times(1)).send(eq("unread-count-topic"), eq("2"), anyString());
+        verifyNoMoreInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void messagesWithoutParticipantsAreSkipped() {
+        service.handleNewMessagesBatch(List.of(message("m1", ROOM_A, 1L)), Map.of());
+
+        verify(redisTemplate, never()).executePipelined(any(SessionCallback.class));
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void primaryStreamsModeLeavesRedisToTheStreamsWriter() {
+        ReflectionTestUtils.setField(service, "streamsMode", "primary");
+
+        service.handleNewMessagesBatch(List.of(message("m1", ROOM_A, 1L)), Map.of(ROOM_A, new long[]{1L, 2L}));
+
+        verify(redisTemplate, never()).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void legacyKeyMigrationRunsOnlyOnceAcrossRestarts() {
+        Map<String, String> values = inMemoryValues();
+        ReflectionTestUtils.setField(service, "migrateLegacyKeysOnStartup", true);
+        // SCAN 순서: unread_count:*, total_unread:*, user_chatrooms:*
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenReturn(List.of("unread_count:7:10"), List.of("total_unread:7"), List.of());
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(1L);
+
+        service.migrateLegacyKeysOnStartup();
+        service.migrateLegacyKeysOnStartup();   // 재기동
+
+        verify(redisTemplate, times(1)).execute(any(RedisScript.class),
+                eq(List.of("unread_count:7:10", "unread:7")), eq("10"));
+        verify(redisTemplate, times(3)).execute(any(RedisCallback.class));
+        verify(redisTemplate).delete(List.of("total_unread:7"));
+        assertThat(values).containsKey("migration:unread-hash:done").doesNotContainKey("migration:unread-hash:lock");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void migrationIsSkippedWhileAnotherNodeHoldsTheLock() {
+        Map<String, String> values = inMemoryValues();
+        values.put("migration:unread-hash:lock", "other-node");
+        ReflectionTestUtils.setField(service, "migrateLegacyKeysOnStartup", true);
+
+        service.migrateLegacyKeysOnStartup();
+
+        verify(redisTemplate, never()).execute(any(RedisCallback.class));
+        assertThat(values).containsEntry("migration:unread-hash:lock", "other-node")
+                .doesNotContainKey("migration:unread-hash:done");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void migrationIsOffByDefault() {
+        service.migrateLegacyKeysOnStartup();
+
+        verify(redisTemplate, never()).hasKey(anyString());
+        verify(redisTemplate, never()).execute(any(RedisCallback.class));
+    }
+
+    /**
+     * 완료 표시 / 잠금 Key 를 메모리에 두는 ValueOperations
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, String> inMemoryValues() {
+        Map<String, String> values = new ConcurrentHashMap<>();
+        ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(redisTemplate.hasKey(anyString())).thenAnswer(invocation -> values.containsKey(invocation.<String>getArgument(0)));
+        when(redisTemplate.delete(anyString())).thenAnswer(invocation -> values.remove(invocation.<String>getArgument(0)) != null);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenAnswer(invocation ->
+                values.putIfAbsent(invocation.getArgument(0), invocation.getArgument(1)) == null);
+        when(valueOperations.get(anyString())).thenAnswer(invocation -> values.get(invocation.<String>getArgument(0)));
+        doAnswer(invocation -> values.put(invocation.getArgument(0), invocation.getArgument(1)))
+                .when(valueOperations).set(anyString(), anyString());
+        return values;
+    }
+
+    private static ChatMessage message(String messageId, long chatRoomId, long senderId) {
+        return ChatMessage.builder()
+                .messageId(messageId)
+                .chatRoomId(chatRoomId)
+                .senderId(senderId)
+                .senderName("하객" + senderId)
+                .content(messageId)
+                .type(ChatMessage.MessageType.CHAT)
+                .build();
+    }
+}
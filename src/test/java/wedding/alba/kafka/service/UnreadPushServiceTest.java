@@ -0,0 +1,124 @@
+package wedding.alba.kafka.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.test.util.ReflectionTestUtils;
+import wedding.alba.kafka.dto.UnreadCountDelta;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UnreadPushServiceTest {
+
+    private ChatFanoutService chatFanoutService;
+    private RedisTemplate<String, String> redisTemplate;
+    private UnreadPushService service;
+
+    // 사용자별 Redis Hash (unread:{userId}) 와 접속 중인 사용자
+    private final Map<Long, Map<Object, Object>> hashes = new HashMap<>();
+    private final Set<Long> onlineUsers = new HashSet<>();
+    private List<Long> lastOnline = List.of();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        chatFanoutService = mock(ChatFanoutService.class);
+        ChatPresenceService chatPresenceService = mock(ChatPresenceService.class);
+        redisTemplate = mock(RedisTemplate.class);
+
+        when(chatPresenceService.filterOnlineUsers(anyCollection())).thenAnswer(invocation -> {
+            List<Long> online = new ArrayList<>((Collection<Long>) invocation.getArgument(0));
+            online.retainAll(onlineUsers);
+            lastOnline = online;
+            return online;
+        });
+        // 파이프라인 결과는 접속 사용자 순서대로 HGETALL 결과
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            List<Object> results = new ArrayList<>();
+            lastOnline.forEach(userId -> results.add(hashes.getOrDefault(userId, Map.of())));
+            return results;
+        });
+
+        service = new UnreadPushService(chatFanoutService, chatPresenceService, redisTemplate, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "enabled", true);
+        service.init();
+    }
+
+    @Test
+    void eventsForSameUserAreMergedIntoOneDelta() {
+        onlineUsers.add(7L);
+        hashes.put(7L, Map.of("1", "3", "3", "4"));
+
+        service.markChanged(7L, List.of(1L));
+        service.markChanged(7L, List.of(2L));
+        service.markChanged(7L, List.of(1L));
+        service.flush();
+
+        UnreadCountDelta delta = sentTo("7");
+        assertThat(delta.getChatRoomUnreadCounts()).isEqualTo(Map.of(1L, 3, 2L, 0));
+        assertThat(delta.getTotalUnreadCount()).isEqualTo(7);
+        assertThat(delta.getMergedEvents()).isEqualTo(3);
+    }
+
+    @Test
+    void eachUserGetsOwnDeltaFromOnePipeline() {
+        onlineUsers.addAll(List.of(7L, 8L));
+        hashes.put(7L, Map.of("1", "2"));
+        hashes.put(8L, Map.of("1", "5"));
+
+        service.markChanged(7L, List.of(1L));
+        service.markChanged(8L, List.of(1L));
+        service.flush();
+
+        assertThat(sentTo("7").getChatRoomUnreadCounts()).isEqualTo(Map.of(1L, 2));
+        assertThat(sentTo("8").getChatRoomUnreadCounts()).isEqualTo(Map.of(1L, 5));
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+    }
+
+    @Test
+    void nothingIsSentAgainUntilNextChange() {
+        onlineUsers.add(7L);
+        service.markChanged(7L, List.of(1L));
+
+        service.flush();
+        service.flush();
+
+        verify(chatFanoutService, times(1)).convertAndSendToUser(anyString(), anyString(), any());
+    }
+
+    @Test
+    void offlineUsersAreSkippedWithoutReadingRedis() {
+        service.markChanged(9L, List.of(1L));
+
+        service.flush();
+
+        verify(redisTemplate, never()).executePipelined(any(SessionCallback.class));
+        verify(chatFanoutService, never()).convertAndSendToUser(anyString(), anyString(), any());
+    }
+
+    private UnreadCountDelta sentTo(String userId) {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(chatFanoutService).convertAndSendToUser(eq(userId), eq(UnreadPushService.DESTINATION), captor.capture());
+        return (UnreadCountDelta) captor.getValue();
+    }
+}
@@ -0,0 +1,219 @@
+package wedding.alba.kafka.streams;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TestOutputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import wedding.alba.kafka.codec.ChatMessageSerializer;
+import wedding.alba.kafka.dto.ChatMessage;
+import wedding.alba.kafka.dto.ChatParticipantEvent;
+import wedding.alba.kafka.dto.ChatReadReceipt;
+import wedding.alba.kafka.dto.UnreadCountUpdate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UnreadCountTopologyTest {
+
+    private static final long ROOM = 10L;
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 5, 18, 12, 0);
+    private static final Duration FLUSH_INTERVAL = Duration.ofMillis(200);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path stateDir;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, ChatMessage> messages;
+    private TestInputTopic<String, String> receipts;
+    private TestInputTopic<String, String> participants;
+    private TestOutputTopic<String, String> updates;
+
+    @AfterEach
+    void tearDown() {
+        if (driver != null) {
+            driver.close();
+        }
+    }
+
+    @Test
+    void countsOnlyMembersMessagesAfterJoinAndDropsDuplicates() throws Exception {
+        start(true);
+        join(1L, null);
+        join(2L, null);
+        join(3L, BASE.plusSeconds(2).plusNanos(500_000_000));
+
+        message("m1", 1L, BASE.plusSeconds(1));
+        message("m2", 1L, BASE.plusSeconds(2));
+        message("m2", 1L, BASE.plusSeconds(2));   // 재전송
+        message("m3", 2L, BASE.plusSeconds(3));
+        message("x1", 1L, BASE.plusSeconds(4));
+
+        assertThat(count(1L)).isEqualTo(1L);       // m3
+        assertThat(count(2L)).isEqualTo(3L);       // m1, m2, x1 (본인 m3 제외, m2 중복 제외)
+        assertThat(count(3L)).isEqualTo(2L);       // 입장 이후 m3, x1
+        assertThat(count(4L)).isNull();            // 참여자 아님
+    }
+
+    @Test
+    void receiptRecountsOnlyMessagesAfterTheReadCursor() throws Exception {
+        start(true);
+        join(1L, null);
+        join(2L, null);
+
+        message("m1", 1L, BASE.plusSeconds(1));
+        message("m2", 1L, BASE.plusSeconds(2));
+        // 사용자 2 가 m1 까지 읽은 뒤 읽음 이벤트보다 m3 이 먼저 도착
+        message("m3", 1L, BASE.plusSeconds(3));
+        receipt(2L, "m1", BASE.plusSeconds(1));
+        assertThat(count(2L)).isEqualTo(2L);       // m2, m3
+
+        // 읽음 위치보다 앞선 메시지가 늦게 도착해도 세지 않음
+        message("m0", 1L, BASE);
+        assertThat(count(2L)).isEqualTo(2L);
+
+        // 뒤로 가는 (늦게 도착한) 읽음 이벤트는 무시
+        receipt(2L, "m3", BASE.plusSeconds(3));
+        receipt(2L, "m1", BASE.plusSeconds(1));
+        assertThat(count(2L)).isNull();
+
+        message("m4", 1L, BASE.plusSeconds(4));
+        assertThat(count(2L)).isEqualTo(1L);
+    }
+
+    @Test
+    void flushEmitsLatestAbsoluteValuesOnlyOnPunctuation() throws Exception {
+        start(true);
+        join(1L, null);
+        join(2L, null);
+        message("m1", 1L, BASE.plusSeconds(1));
+        message("m2", 1L, BASE.plusSeconds(2));
+
+        assertThat(updates.isEmpty()).isTrue();
+
+        driver.advanceWallClockTime(FLUSH_INTERVAL);
+        Map<String, Long> emitted = drain();
+        assertThat(emitted).containsExactly(Map.entry("2:" + ROOM, 2L));
+
+        // 퇴장하면 0 을 내보내 Redis 에서 삭제되게 함, 이후 메시지는 세지 않음
+        leave(2L);
+        message("m3", 1L, BASE.plusSeconds(3));
+        driver.advanceWallClockTime(FLUSH_INTERVAL);
+        assertThat(drain()).containsExactly(Map.entry("2:" + ROOM, 0L));
+        assertThat(count(2L)).isNull();
+
+        // 보낸 뒤에는 pending 이 비어 다시 나가지 않음
+        driver.advanceWallClockTime(FLUSH_INTERVAL);
+        assertThat(updates.isEmpty()).isTrue();
+    }
+
+    @Test
+    void shadowModeComputesStateWithoutOutput() throws Exception {
+        start(false);
+        join(1L, null);
+        join(2L, null);
+        message("m1", 1L, BASE.plusSeconds(1));
+
+        driver.advanceWallClockTime(FLUSH_INTERVAL);
+
+        assertThat(count(2L)).isEqualTo(1L);
+        assertThat(updates.isEmpty()).isTrue();
+    }
+
+    @Test
+    void seedReceiptSetsValueWithoutMovingCursor() throws Exception {
+        start(true);
+        join(2L, null);
+        receipts.pipeInput(String.valueOf(ROOM), objectMapper.writeValueAsString(ChatReadReceipt.builder()
+                .userId(2L).chatRoomId(ROOM).unreadCount(5).readAt(BASE).build()));
+
+        message("m1", 1L, BASE.plusSeconds(1));
+
+        assertThat(count(2L)).isEqualTo(6L);
+    }
+
+    private void start(boolean publishUpdates) {
+        StreamsBuilder builder = new StreamsBuilder();
+        UnreadCountTopology.build(builder, objectMapper, new SimpleMeterRegistry(), publishUpdates,
+                FLUSH_INTERVAL, Duration.ofHours(1));
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "unread-count-topology-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        props.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.StringSerde.class);
+        driver = new TopologyTestDriver(builder.build(), props);
+
+        messages = driver.createInputTopic(UnreadCountTopology.CHAT_TOPIC,
+                new StringSerializer(), new ChatMessageSerializer());
+        receipts = driver.createInputTopic(UnreadCountTopology.READ_RECEIPT_TOPIC,
+                new StringSerializer(), new StringSerializer());
+        participants = driver.createInputTopic(UnreadCountTopology.PARTICIPANT_TOPIC,
+                new StringSerializer(), new StringSerializer());
+        updates = driver.createOutputTopic(UnreadCountTopology.UPDATES_TOPIC,
+                new StringDeserializer(), new StringDeserializer());
+    }
+
+    private void join(long userId, LocalDateTime joinedAt) throws Exception {
+        participants.pipeInput(String.valueOf(ROOM), objectMapper.writeValueAsString(ChatParticipantEvent.builder()
+                .chatRoomId(ROOM).userId(userId).type(ChatParticipantEvent.Type.JOIN).occurredAt(joinedAt).build()));
+    }
+
+    private void leave(long userId) throws Exception {
+        participants.pipeInput(String.valueOf(ROOM), objectMapper.writeValueAsString(ChatParticipantEvent.builder()
+                .chatRoomId(ROOM).userId(userId).type(ChatParticipantEvent.Type.LEAVE).occurredAt(BASE).build()));
+    }
+
+    private void message(String messageId, long senderId, LocalDateTime timestamp) {
+        messages.pipeInput(String.valueOf(ROOM), ChatMessage.builder()
+                .messageId(messageId)
+                .chatRoomId(ROOM)
+                .senderId(senderId)
+                .content(messageId)
+                .type(ChatMessage.MessageType.CHAT)
+                .timestamp(timestamp)
+                .build());
+    }
+
+    private void receipt(long userId, String lastReadMessageId, LocalDateTime lastReadMessageAt) throws Exception {
+        receipts.pipeInput(String.valueOf(ROOM), objectMapper.writeValueAsString(ChatReadReceipt.builder()
+                .userId(userId)
+                .chatRoomId(ROOM)
+                .lastReadMessageId(lastReadMessageId)
+                .lastReadMessageAt(lastReadMessageAt)
+                .readAt(BASE.plusMinutes(1))
+                .build()));
+    }
+
+    private Long count(long userId) {
+        KeyValueStore<String, Long> counts = driver.getKeyValueStore(UnreadCountProcessor.COUNTS_STORE);
+        return counts.get(UnreadCountProcessor.storeKey(userId, ROOM));
+    }
+
+    private Map<String, Long> drain() throws Exception {
+        Map<String, Long> latest = new HashMap<>();
+        for (KeyValue<String, String> record : updates.readKeyValuesToList()) {
+            UnreadCountUpdate update = objectMapper.readValue(record.value, UnreadCountUpdate.class);
+            latest.put(UnreadCountProcessor.storeKey(update.getUserId(), update.getChatRoomId()), update.getUnreadCount());
+        }
+        return latest;
+    }
+}
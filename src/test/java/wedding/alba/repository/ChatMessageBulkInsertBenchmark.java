@@ -0,0 +1,142 @@
+package wedding.alba.repository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import wedding.alba.entity.ChatMessage;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * chat_messages 저장 JMH 비교 (Kafka 폴 하나 = 트랜잭션 하나)
+ * - bulkInsert: ChatMessageBulkRepository (multi-row INSERT ... ON CONFLICT DO NOTHING RETURNING)
+ * - perRowInsert: 기존 saveAll 경로와 같은 순서 (행마다 존재 확인 SELECT 후 단건 INSERT)
+ *
+ * 실행: ./gradlew bulkInsertBenchmark (docker-compose PostgreSQL, -Dbenchmark.jdbc.url 등으로 변경 가능)
+ * 측정 대상 채팅방(BENCHMARK_ROOM_ID)의 행은 끝나면 삭제
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChatMessageBulkInsertBenchmark {
+
+    private static final long BENCHMARK_ROOM_ID = -20240518L;
+
+    private static final String EXISTS_SQL = "SELECT message_id FROM chat_messages WHERE message_id = ?";
+    private static final String INSERT_ROW_SQL =
+            "INSERT INTO chat_messages (message_id, chat_room_id, sender_id, sender_name, sender_profile_image, " +
+            "content, message_type, timestamp, mention_user_id, is_system_message, is_deleted, " +
+            "attachment_url, attachment_type) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    @Param({"50", "500", "5000"})
+    public int rows;
+
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ChatMessageBulkRepository bulkRepository;
+    private List<ChatMessage> messages;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = new SingleConnectionDataSource(
+                System.getProperty("benchmark.jdbc.url", "jdbc:postgresql://localhost:5433/wedding_alba"),
+                System.getProperty("benchmark.jdbc.username", "alba_user"),
+                System.getProperty("benchmark.jdbc.password", "alba_password"),
+                true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        bulkRepository = new ChatMessageBulkRepository(jdbcTemplate);
+    }
+
+    /**
+     * 매 호출마다 새 message_id (중복으로 건너뛰는 경우가 섞이지 않도록)
+     */
+    @Setup(Level.Invocation)
+    public void newBatch() {
+        messages = sampleMessages(rows);
+    }
+
+    @TearDown(Level.Iteration)
+    public void cleanUp() {
+        jdbcTemplate.update("DELETE FROM chat_messages WHERE chat_room_id = ?", BENCHMARK_ROOM_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    public Set<String> bulkInsert() {
+        return transactionTemplate.execute(status -> bulkRepository.insertIgnoreDuplicates(messages));
+    }
+
+    @Benchmark
+    public int perRowInsert() {
+        Integer inserted = transactionTemplate.execute(status -> {
+            int count = 0;
+            for (ChatMessage message : messages) {
+                if (!jdbcTemplate.queryForList(EXISTS_SQL, String.class, message.getMessageId()).isEmpty()) continue;
+                count += jdbcTemplate.update(INSERT_ROW_SQL,
+                        message.getMessageId(), message.getChatRoomId(), message.getSenderId(),
+                        message.getSenderName(), message.getSenderProfileImage(), message.getContent(),
+                        message.getType().name(), Timestamp.valueOf(message.getTimestamp()),
+                        message.getMentionUserId(), message.getIsSystemMessage(), message.getIsDeleted(),
+                        message.getAttachmentUrl(), message.getAttachmentType());
+            }
+            return count;
+        });
+        return inserted != null ? inserted : 0;
+    }
+
+    static List<ChatMessage> sampleMessages(int count) {
+        LocalDateTime base = LocalDateTime.now();
+        List<ChatMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(ChatMessage.builder()
+                    .messageId(UUID.randomUUID().toString())
+                    .chatRoomId(BENCHMARK_ROOM_ID)
+                    .senderId(502311L)
+                    .senderName("김하객")
+                    .content("내일 본식 리허설 2시 맞죠? 주차는 지하 2층으로 하면 된대요! #" + i)
+                    .type(ChatMessage.MessageType.CHAT)
+                    .timestamp(base.plusNanos(i * 1_000L))
+                    .isSystemMessage(false)
+                    .isDeleted(false)
+                    .build());
+        }
+        return messages;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(ChatMessageBulkInsertBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
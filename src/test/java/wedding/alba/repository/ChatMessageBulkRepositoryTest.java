@@ -0,0 +1,104 @@
+package wedding.alba.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import wedding.alba.entity.ChatMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class ChatMessageBulkRepositoryTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ChatMessageBulkRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        repository = new ChatMessageBulkRepository(jdbcTemplate);
+    }
+
+    @Test
+    void writesWholeBatchInOneStatement() {
+        List<ChatMessage> messages = messages(50);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class)))
+                .thenReturn(List.of("m-0", "m-1"));
+
+        Set<String> inserted = repository.insertIgnoreDuplicates(messages);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> params = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(1)).queryForList(sql.capture(), eq(String.class), params.capture());
+
+        assertThat(sql.getValue()).startsWith("INSERT INTO chat_messages")
+                .endsWith("ON CONFLICT DO NOTHING RETURNING message_id");
+        assertThat(sql.getValue().split("\\(\\?,", -1)).hasSize(51);
+        assertThat(params.getValue()).hasSize(50 * 13);
+        assertThat(inserted).containsExactlyInAnyOrder("m-0", "m-1");
+    }
+
+    @Test
+    void splitsLargeBatchesUnderBindParameterLimit() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class))).thenReturn(List.of());
+
+        repository.insertIgnoreDuplicates(messages(2500));
+
+        ArgumentCaptor<Object[]> params = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(3)).queryForList(anyString(), eq(String.class), params.capture());
+        assertThat(params.getAllValues()).allSatisfy(chunk -> assertThat(chunk.length).isLessThanOrEqualTo(65535));
+        assertThat(params.getAllValues().stream().mapToInt(chunk -> chunk.length).sum()).isEqualTo(2500 * 13);
+    }
+
+    @Test
+    void defaultsNullFlagsAndTimestamp() {
+        ChatMessage message = ChatMessage.builder()
+                .messageId("m-1").chatRoomId(1L).senderId(2L)
+                .type(ChatMessage.MessageType.CHAT)
+                .isSystemMessage(null).isDeleted(null)
+                .build();
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(Object[].class))).thenReturn(List.of("m-1"));
+
+        repository.insertIgnoreDuplicates(List.of(message));
+
+        ArgumentCaptor<Object[]> params = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).queryForList(anyString(), eq(String.class), params.capture());
+        Object[] row = params.getValue();
+        assertThat(row[6]).isEqualTo("CHAT");
+        assertThat(row[7]).isNotNull();
+        assertThat(row[9]).isEqualTo(Boolean.FALSE);
+        assertThat(row[10]).isEqualTo(Boolean.FALSE);
+    }
+
+    @Test
+    void emptyBatchSkipsDatabase() {
+        assertThat(repository.insertIgnoreDuplicates(List.of())).isEmpty();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private static List<ChatMessage> messages(int count) {
+        List<ChatMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            messages.add(ChatMessage.builder()
+                    .messageId("m-" + i)
+                    .chatRoomId((long) (i % 7))
+                    .senderId(100L + i)
+                    .content("메시지 " + i)
+                    .type(ChatMessage.MessageType.CHAT)
+                    .build());
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,34 @@
+package wedding.alba.repository;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class ChatMessageSearchRepositoryTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void scoresByWordSimilarityAndMatchesSubstringOrFuzzy() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        ChatMessageSearchRepository repository = new ChatMessageSearchRepository(jdbcTemplate);
+
+        repository.searchInChatRoom(10L, "Wedding_50%", null, null, null, 21);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> params = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).query(sql.capture(), any(RowMapper.class), params.capture());
+        assertThat(sql.getValue())
+                .contains("word_similarity(?, lower(m.content)) AS score")
+                .contains("(lower(m.content) LIKE ? OR ? <% lower(m.content))")
+                .doesNotContain("similarity(lower(m.content)")
+                .endsWith("ORDER BY r.score DESC, r.timestamp DESC, r.message_id DESC LIMIT ?");
+        assertThat(params.getValue())
+                .containsExactly("wedding_50%", 10L, "%wedding\\_50\\%%", "wedding_50%", 21);
+    }
+}
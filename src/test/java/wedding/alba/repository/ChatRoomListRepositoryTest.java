@@ -0,0 +1,90 @@
+package wedding.alba.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import wedding.alba.kafka.dto.ChatRoomResponse;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChatRoomListRepositoryTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2024, 5, 1, 9, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private ChatRoomListRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        repository = new ChatRoomListRepository(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void roomListIsOneQueryWithSortingAndLastMessageInSql() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(7L))).thenReturn(List.of());
+
+        repository.findRoomListByUserId(7L);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(jdbcTemplate, times(1)).query(sql.capture(), any(RowMapper.class), eq(7L));
+        assertThat(sql.getValue())
+                .contains("LEFT JOIN LATERAL")
+                .contains("LIMIT 1")
+                .contains("crp.user_id = ? AND crp.is_active = true")
+                .endsWith("ORDER BY COALESCE(cr.last_active_at, cr.last_message_at, cr.created_at) DESC, cr.chat_room_id DESC");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void mapsPeerProfileAndLastMessage() throws Exception {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(7L))).thenAnswer(invocation -> {
+            RowMapper<ChatRoomResponse> mapper = invocation.getArgument(1);
+            return List.of(mapper.mapRow(personalRoomRow(), 0));
+        });
+
+        ChatRoomResponse room = repository.findRoomListByUserId(7L).get(0);
+
+        assertThat(room.getChatRoomId()).isEqualTo(100L);
+        assertThat(room.getType()).isEqualTo("PERSONAL");
+        assertThat(room.getHostUserId()).isEqualTo(7L);
+        assertThat(room.getGuestUserId()).isEqualTo(8L);
+        assertThat(room.getGuestNickname()).isEqualTo("하객");
+        assertThat(room.getGuestProfileImage()).isEqualTo("https://img/8.png");
+        assertThat(room.getLastMessage()).isEqualTo("내일 봬요");
+        assertThat(room.getLastMessageSender()).isEqualTo("하객");
+        assertThat(room.getCreatedAt()).isEqualTo(CREATED);
+        assertThat(room.getLastMessageAt()).isNull();
+        assertThat(room.getPostingId()).isNull();
+    }
+
+    private static ResultSet personalRoomRow() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("chat_room_id")).thenReturn(100L);
+        when(rs.getString("room_type")).thenReturn("PERSONAL");
+        when(rs.getObject("host_user_id", Long.class)).thenReturn(7L);
+        when(rs.getObject("guest_user_id", Long.class)).thenReturn(8L);
+        when(rs.getString("host_name")).thenReturn("신랑");
+        when(rs.getString("guest_nickname")).thenReturn("하객");
+        when(rs.getString("guest_profile_image")).thenReturn("https://img/8.png");
+        when(rs.getTimestamp("created_at")).thenReturn(Timestamp.valueOf(CREATED));
+        when(rs.getString("last_message")).thenReturn("내일 봬요");
+        when(rs.getString("last_message_sender")).thenReturn("하객");
+        return rs;
+    }
+}
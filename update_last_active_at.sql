@@ -29,3 +29,10 @@ SELECT
     COUNT(last_message_at) as rooms_with_last_message_at,
     COUNT(*) - COUNT(last_active_at) as rooms_without_last_active_at
 FROM chat_rooms;
+
+-- user_inbox.last_active_at 채우기 (컬럼 추가 후 한 번 실행, 이후에는 메시지/참여자 변경 시 갱신)
+UPDATE user_inbox ui
+SET last_active_at = cr.last_active_at
+FROM chat_rooms cr
+WHERE cr.chat_room_id = ui.chat_room_id
+  AND ui.last_active_at IS NULL;